@@ -0,0 +1,53 @@
+package de.matthiasfisch.mysticlight4j.benchmarks;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction and validation of {@link Color}s and packed colors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColorBenchmark {
+    private int channel = 0;
+
+    @Benchmark
+    public Color of() {
+        channel = (channel + 1) & 0xFF;
+        return Color.of(channel, 255 - channel, channel);
+    }
+
+    @Benchmark
+    public Color constructor() {
+        channel = (channel + 1) & 0xFF;
+        return new Color((short) channel, (short) (255 - channel), (short) channel);
+    }
+
+    @Benchmark
+    public int pack() {
+        channel = (channel + 1) & 0xFF;
+        return Color.pack(channel, 255 - channel, channel);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Color ofContended() {
+        channel = (channel + 1) & 0xFF;
+        return Color.of(channel, 255 - channel, channel);
+    }
+}
@@ -0,0 +1,75 @@
+package de.matthiasfisch.mysticlight4j.benchmarks;
+
+import de.matthiasfisch.mysticlight4j.color.ColorTemperature;
+import de.matthiasfisch.mysticlight4j.color.Hsv;
+import de.matthiasfisch.mysticlight4j.color.OkLab;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The exact and the table based or integer variants of the color space conversions, and {@link java.awt.Color} as
+ * reference for HSV.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColorMathBenchmark {
+    private final float[] lab = new float[3];
+    private int step = 0;
+
+    @Benchmark
+    public int hsvAwt() {
+        step = (step + 1) & 0xFF;
+        return java.awt.Color.HSBtoRGB(step / 256f, 1, 1);
+    }
+
+    @Benchmark
+    public int hsv() {
+        step = (step + 1) & 0xFF;
+        return Hsv.toRgb(step * 360f / 256, 1, 1);
+    }
+
+    @Benchmark
+    public int hsv8() {
+        step = (step + 1) & 0xFF;
+        return Hsv.toRgb8(step, 255, 255);
+    }
+
+    @Benchmark
+    public int kelvin() {
+        step = (step + 1) & 0xFF;
+        return ColorTemperature.toRgb(1000 + step * 100);
+    }
+
+    @Benchmark
+    public int kelvinFast() {
+        step = (step + 1) & 0xFF;
+        return ColorTemperature.toRgbFast(1000 + step * 100);
+    }
+
+    @Benchmark
+    public int okLabRoundTrip() {
+        step = (step + 1) & 0xFF;
+        OkLab.fromRgb(step * 0x010101, lab);
+        return OkLab.toRgb(lab[0], lab[1], lab[2]);
+    }
+
+    @Benchmark
+    public int okLabRoundTripFast() {
+        step = (step + 1) & 0xFF;
+        OkLab.fromRgb(step * 0x010101, lab);
+        return OkLab.toRgbFast(lab[0], lab[1], lab[2]);
+    }
+}
@@ -0,0 +1,61 @@
+package de.matthiasfisch.mysticlight4j.benchmarks;
+
+import de.matthiasfisch.mysticlight4j.Device;
+import de.matthiasfisch.mysticlight4j.LED;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of LEDs by name with {@link Device#getLED(String)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceLookupBenchmark {
+    private Device device;
+    private String[] names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        device = SimulatedTopology.mysticLight(0).getAllAvailableDevices().get(0);
+        names = device.getLEDs().stream().map(LED::getName).toArray(String[]::new);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index = 0;
+    }
+
+    @Benchmark
+    public Optional<LED> getLedByName(final Cursor cursor) {
+        cursor.index = (cursor.index + 1) % names.length;
+        return device.getLED(names[cursor.index]);
+    }
+
+    @Benchmark
+    public Optional<LED> getLedByUnknownName() {
+        return device.getLED("Unknown LED");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<LED> getLedByNameContended(final Cursor cursor) {
+        return getLedByName(cursor);
+    }
+}
@@ -0,0 +1,52 @@
+package de.matthiasfisch.mysticlight4j.benchmarks;
+
+import de.matthiasfisch.mysticlight4j.Device;
+import de.matthiasfisch.mysticlight4j.MysticLight4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discovery of the devices and their LEDs with {@link MysticLight4j#getAllAvailableDevices()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscoveryBenchmark {
+    @Param({"0", "10000"})
+    long latencyNanos;
+
+    private MysticLight4j mysticLight;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mysticLight = SimulatedTopology.mysticLight(latencyNanos);
+    }
+
+    @Benchmark
+    public List<Device> getAllAvailableDevices() {
+        return mysticLight.getAllAvailableDevices();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Device> getAllAvailableDevicesContended() {
+        return mysticLight.getAllAvailableDevices();
+    }
+}
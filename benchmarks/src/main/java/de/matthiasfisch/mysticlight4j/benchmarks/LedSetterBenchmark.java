@@ -0,0 +1,89 @@
+package de.matthiasfisch.mysticlight4j.benchmarks;
+
+import de.matthiasfisch.mysticlight4j.LED;
+import de.matthiasfisch.mysticlight4j.api.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The setters of {@link LED} including the validation of their arguments against the capabilities of the LED.
+ * The contended benchmarks let four threads write to the LEDs of the same device, each thread to its own LED.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LedSetterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Rig {
+        @Param({"0", "10000"})
+        long latencyNanos;
+
+        List<LED> leds;
+        // Per trial, so the threads of every trial start again at the first LED.
+        final AtomicInteger nextIndex = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            leds = SimulatedTopology.mysticLight(latencyNanos).getAllAvailableDevices().get(0).getLEDs();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        LED led;
+        int value = 0;
+
+        @Setup(Level.Trial)
+        public void setUp(final Rig rig) {
+            led = rig.leds.get(rig.nextIndex.getAndIncrement() % rig.leds.size());
+        }
+    }
+
+    @Benchmark
+    public void setColor(final Writer writer) {
+        writer.value = (writer.value + 1) & 0xFF;
+        writer.led.setColor(Color.of(writer.value, 0, 255 - writer.value));
+    }
+
+    @Benchmark
+    public void setBrightnessLevel(final Writer writer) {
+        writer.value = (writer.value + 1) % (writer.led.getMaximumBrightnessLevel() + 1);
+        writer.led.setBrightnessLevel(writer.value);
+    }
+
+    @Benchmark
+    public void setStyle(final Writer writer) {
+        writer.value++;
+        writer.led.setStyle((writer.value & 1) == 0 ? "Steady" : "Breathing");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void setColorContended(final Writer writer) {
+        setColor(writer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void setBrightnessLevelContended(final Writer writer) {
+        setBrightnessLevel(writer);
+    }
+}
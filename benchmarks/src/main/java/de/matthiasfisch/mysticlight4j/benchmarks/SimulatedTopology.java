@@ -0,0 +1,33 @@
+package de.matthiasfisch.mysticlight4j.benchmarks;
+
+import de.matthiasfisch.mysticlight4j.MysticLight4j;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The simulated rig the benchmarks run against: a mainboard with 8 LEDs, a graphics card with 3 LEDs and two LED
+ * strips with 16 LEDs each. The native layer is replaced by a {@link SimulatedMysticLightBackend} whose calls take the
+ * given fake latency.
+ */
+final class SimulatedTopology {
+    static final String MAINBOARD = "MSI_MB";
+    static final int MAINBOARD_LEDS = 8;
+
+    private SimulatedTopology() {
+    }
+
+    static SimulatedMysticLightBackend backend(final long latencyNanos) {
+        return SimulatedMysticLightBackend.builder()
+                .addDevice(MAINBOARD, "Mainboard", MAINBOARD_LEDS)
+                .addDevice("MSI_VGA", "Graphics Card", 3)
+                .addDevice("MSI_STRIP_1", "LED Strip 1", 16)
+                .addDevice("MSI_STRIP_2", "LED Strip 2", 16)
+                .latency(latencyNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    static MysticLight4j mysticLight(final long latencyNanos) {
+        return new MysticLight4j(backend(latencyNanos));
+    }
+}
@@ -1,5 +1,6 @@
 #include "pch.h"
 #include <string.h>
+#include <vector>
 
 jclass loadClass(const char* clazzName, JNIEnv* env) {
     jclass clazz = env->FindClass(clazzName);
@@ -49,6 +50,13 @@ void throwUnsupportedOperationException(const wchar_t *message, JNIEnv * env) {
     env->Throw((jthrowable)ex);
 }
 
+void readColor(jobject jcolor, JNIEnv* env, DWORD* red, DWORD* green, DWORD* blue) {
+    jclass colorClazz = loadClass("Lde/matthiasfisch/mysticlight4j/api/Color;", env);
+    *red = env->CallShortMethod(jcolor, env->GetMethodID(colorClazz, "getRed", "()S"));
+    *green = env->CallShortMethod(jcolor, env->GetMethodID(colorClazz, "getGreen", "()S"));
+    *blue = env->CallShortMethod(jcolor, env->GetMethodID(colorClazz, "getBlue", "()S"));
+}
+
 JNIEXPORT jboolean JNICALL Java_de_matthiasfisch_mysticlight4j_api_MysticLightNativeBinding_isProcessElevated(JNIEnv* env, jclass jthis)
 {
     BOOL isElevated = FALSE;
@@ -258,17 +266,70 @@ JNIEXPORT void JNICALL Java_de_matthiasfisch_mysticlight4j_api_MysticLightNative
 
 JNIEXPORT void JNICALL Java_de_matthiasfisch_mysticlight4j_api_MysticLightNativeBinding_setLedColors(JNIEnv* env, jclass jthis, jstring jdevice, jint jindex, jobjectArray jledName, jobject jcolor)
 {
-    throwUnsupportedOperationException(L"Native binding for MLAPI_SetLedColors is not supported yet.", env);
+    // Older versions of the SDK don't export this function.
+    if (mysticLight.setLedColors == NULL) {
+        checkStatus(MLAPI_NO_IMPLEMENTED, env);
+        return;
+    }
+    jsize count = env->GetArrayLength(jledName);
+    CComSafeArray<BSTR> ledNames(count);
+    for (jsize i = 0; i < count; i++) {
+        jstring jname = (jstring)env->GetObjectArrayElement(jledName, i);
+        const jchar* name = env->GetStringChars(jname, NULL);
+        ledNames.SetAt(i, SysAllocStringLen((const OLECHAR*)name, env->GetStringLength(jname)), FALSE);
+        env->ReleaseStringChars(jname, name);
+        env->DeleteLocalRef(jname);
+    }
+
+    // The SDK takes one value per LED name for each color channel.
+    std::vector<DWORD> red(count);
+    std::vector<DWORD> green(count);
+    std::vector<DWORD> blue(count);
+    readColor(jcolor, env, &red[0], &green[0], &blue[0]);
+    for (jsize i = 1; i < count; i++) {
+        red[i] = red[0];
+        green[i] = green[0];
+        blue[i] = blue[0];
+    }
+
+    BSTR device = (BSTR)env->GetStringChars(jdevice, NULL);
+    int status = mysticLight.setLedColors(device, jindex, ledNames.GetSafeArrayPtr(), red.data(), green.data(), blue.data());
+    env->ReleaseStringChars(jdevice, (const jchar*)device);
+    if (!checkStatus(status, env)) return;
 }
 
 JNIEXPORT void JNICALL Java_de_matthiasfisch_mysticlight4j_api_MysticLightNativeBinding_setLedColorEx(JNIEnv* env, jclass jthis, jstring jdevice, jint jindex, jstring jledName, jobject jcolor, jboolean jsync)
 {
-    throwUnsupportedOperationException(L"Native binding for MLAPI_SetLedColorEx is not supported yet.", env);
+    if (mysticLight.setLedColorEx == NULL) {
+        checkStatus(MLAPI_NO_IMPLEMENTED, env);
+        return;
+    }
+    DWORD red, green, blue;
+    readColor(jcolor, env, &red, &green, &blue);
+
+    BSTR device = (BSTR)env->GetStringChars(jdevice, NULL);
+    BSTR ledName = (BSTR)env->GetStringChars(jledName, NULL);
+    int status = mysticLight.setLedColorEx(device, jindex, ledName, red, green, blue, jsync ? 1 : 0);
+    env->ReleaseStringChars(jledName, (const jchar*)ledName);
+    env->ReleaseStringChars(jdevice, (const jchar*)device);
+    if (!checkStatus(status, env)) return;
 }
 
 JNIEXPORT void JNICALL Java_de_matthiasfisch_mysticlight4j_api_MysticLightNativeBinding_setLedColorSync(JNIEnv* env, jclass jthis, jstring jdevice, jint jindex, jstring jledName, jobject jcolor, jboolean jsync)
 {
-    throwUnsupportedOperationException(L"Native binding for MLAPI_SetLedColorSync is not supported yet.", env);
+    if (mysticLight.setLedColorSync == NULL) {
+        checkStatus(MLAPI_NO_IMPLEMENTED, env);
+        return;
+    }
+    DWORD red, green, blue;
+    readColor(jcolor, env, &red, &green, &blue);
+
+    BSTR device = (BSTR)env->GetStringChars(jdevice, NULL);
+    BSTR ledName = (BSTR)env->GetStringChars(jledName, NULL);
+    int status = mysticLight.setLedColorSync(device, jindex, ledName, red, green, blue, jsync ? 1 : 0);
+    env->ReleaseStringChars(jledName, (const jchar*)ledName);
+    env->ReleaseStringChars(jdevice, (const jchar*)device);
+    if (!checkStatus(status, env)) return;
 }
 
 JNIEXPORT void JNICALL Java_de_matthiasfisch_mysticlight4j_api_MysticLightNativeBinding_setLedStyle(JNIEnv* env, jclass jthis, jstring jdevice, jint jledIndex, jstring jstyle)
@@ -32,6 +32,9 @@ bool loadMysticLightLibrary() {
 	mysticLight.getLedMaxSpeed = (LPMLAPI_GetLedMaxSpeed)GetProcAddress(MLinstance, "MLAPI_GetLedMaxSpeed");
 	mysticLight.getLedSpeed = (LPMLAPI_GetLedSpeed)GetProcAddress(MLinstance, "MLAPI_GetLedSpeed");
 	mysticLight.setLedColor = (LPMLAPI_SetLedColor)GetProcAddress(MLinstance, "MLAPI_SetLedColor");
+	mysticLight.setLedColors = (LPMLAPI_SetLedColors)GetProcAddress(MLinstance, "MLAPI_SetLedColors");
+	mysticLight.setLedColorEx = (LPMLAPI_SetLedColorEx)GetProcAddress(MLinstance, "MLAPI_SetLedColorEx");
+	mysticLight.setLedColorSync = (LPMLAPI_SetLedColorSync)GetProcAddress(MLinstance, "MLAPI_SetLedColorSync");
 	mysticLight.setLedStyle = (LPMLAPI_SetLedStyle)GetProcAddress(MLinstance, "MLAPI_SetLedStyle");
 	mysticLight.setLedBright = (LPMLAPI_SetLedBright)GetProcAddress(MLinstance, "MLAPI_SetLedBright");
 	mysticLight.setLedSpeed = (LPMLAPI_SetLedSpeed)GetProcAddress(MLinstance, "MLAPI_SetLedSpeed");
@@ -26,6 +26,9 @@ typedef struct MysticLightAPI {
 	LPMLAPI_GetLedMaxSpeed getLedMaxSpeed;
 	LPMLAPI_GetLedSpeed getLedSpeed;
 	LPMLAPI_SetLedColor setLedColor;
+	LPMLAPI_SetLedColors setLedColors;
+	LPMLAPI_SetLedColorEx setLedColorEx;
+	LPMLAPI_SetLedColorSync setLedColorSync;
 	LPMLAPI_SetLedStyle setLedStyle;
 	LPMLAPI_SetLedBright setLedBright;
 	LPMLAPI_SetLedSpeed setLedSpeed;
@@ -0,0 +1,98 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous view of a {@link LED}. Every method queues the corresponding call of the LED on a
+ * {@link NativeCallExecutor} and returns immediately. Failures, including validation errors, complete the returned
+ * future exceptionally.
+ * Instances are created with {@link LED#async(NativeCallExecutor)}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class AsyncLED {
+    private final LED led;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final NativeCallExecutor executor;
+
+    AsyncLED(@NonNull final LED led, @NonNull final NativeCallExecutor executor) {
+        this.led = led;
+        this.executor = executor;
+    }
+
+    /**
+     * @return Returns a future completed with the current color of the LED. See {@link LED#getColor()}.
+     */
+    public CompletableFuture<Color> getColor() {
+        return executor.submit(led::getColor);
+    }
+
+    /**
+     * @return Returns a future completed with the current style of the LED. See {@link LED#getStyle()}.
+     */
+    public CompletableFuture<String> getStyle() {
+        return executor.submit(led::getStyle);
+    }
+
+    /**
+     * @return Returns a future completed with the current brightness level of the LED. See {@link LED#getBrightnessLevel()}.
+     */
+    public CompletableFuture<Integer> getBrightnessLevel() {
+        return executor.submit(led::getBrightnessLevel);
+    }
+
+    /**
+     * @return Returns a future completed with the current speed level of the LED. See {@link LED#getSpeedLevel()}.
+     */
+    public CompletableFuture<Integer> getSpeedLevel() {
+        return executor.submit(led::getSpeedLevel);
+    }
+
+    /**
+     * @param color The color to set.
+     * @return Returns a future completed when the color was set. See {@link LED#setColor(Color)}.
+     */
+    public CompletableFuture<Void> setColor(@NonNull final Color color) {
+        return executor.execute(() -> led.setColor(color));
+    }
+
+    /**
+     * @param style The style to set.
+     * @return Returns a future completed when the style was set. See {@link LED#setStyle(String)}.
+     */
+    public CompletableFuture<Void> setStyle(@NonNull final String style) {
+        return executor.execute(() -> led.setStyle(style));
+    }
+
+    /**
+     * @param style The handle of the style to set.
+     * @return Returns a future completed when the style was set. See {@link LED#setStyle(Style)}.
+     */
+    public CompletableFuture<Void> setStyle(@NonNull final Style style) {
+        return executor.execute(() -> led.setStyle(style));
+    }
+
+    /**
+     * @param brightnessLevel The brightness level to set.
+     * @return Returns a future completed when the brightness level was set. See {@link LED#setBrightnessLevel(int)}.
+     */
+    public CompletableFuture<Void> setBrightnessLevel(final int brightnessLevel) {
+        return executor.execute(() -> led.setBrightnessLevel(brightnessLevel));
+    }
+
+    /**
+     * @param speedLevel The speed level to set.
+     * @return Returns a future completed when the speed level was set. See {@link LED#setSpeedLevel(int)}.
+     */
+    public CompletableFuture<Void> setSpeedLevel(final int speedLevel) {
+        return executor.execute(() -> led.setSpeedLevel(speedLevel));
+    }
+}
@@ -0,0 +1,207 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Queues writes to LEDs and applies them together with {@link #commit()}.
+ * Arguments are validated against the {@link LedCapabilities} of the LEDs when a write is queued, so a commit only
+ * fails because of backend errors. Repeated writes to the same property of a LED are collapsed into the last write.
+ * On commit the writes are issued grouped by property in the order of {@link BatchOperation.Property}.
+ * Commits of batches touching the same device are serialized, so the writes of two batches never interleave on a
+ * device. Batches are created with {@link Device#batch()} or {@link MysticLight4j#batch()} and are not thread safe.
+ */
+public final class Batch {
+    private final Device device;
+    private final Map<OperationKey, BatchOperation> operations = new LinkedHashMap<>();
+    private int queuedOperationCount = 0;
+
+    /**
+     * @param device The device all LEDs of the batch must belong to or null if LEDs of any device may be written.
+     */
+    Batch(final Device device) {
+        this.device = device;
+    }
+
+    /**
+     * Queues setting the color of a LED.
+     * @param led The LED.
+     * @param color The color.
+     * @return Returns this batch.
+     */
+    public Batch setColor(@NonNull final LED led, @NonNull final Color color) {
+        return queue(BatchOperation.color(checkLed(led), color));
+    }
+
+    /**
+     * Queues setting the color of a LED.
+     * @param led The LED.
+     * @param red The red color channel in range [0,255].
+     * @param green The green color channel in range [0,255].
+     * @param blue The blue color channel in range [0,255].
+     * @return Returns this batch.
+     */
+    public Batch setColor(@NonNull final LED led, final int red, final int green, final int blue) {
+        return setColor(led, Color.of(red, green, blue));
+    }
+
+    /**
+     * Queues setting the style of a LED.
+     * @param led The LED.
+     * @param style The style. This must be one of the values returned by {@link LED#getAvailableStyles()}.
+     * @return Returns this batch.
+     */
+    public Batch setStyle(@NonNull final LED led, @NonNull final String style) {
+        final Style handle = Style.find(style);
+        Validate.isTrue(handle != null, "The given style is not available for the LED.");
+        return setStyle(led, handle);
+    }
+
+    /**
+     * Queues setting the style of a LED.
+     * @param led The LED.
+     * @param style The handle of the style.
+     * @return Returns this batch.
+     */
+    public Batch setStyle(@NonNull final LED led, @NonNull final Style style) {
+        Validate.isTrue(checkLed(led).getCapabilities().supportsStyle(style), "The given style is not available for the LED.");
+        return queue(BatchOperation.style(led, style));
+    }
+
+    /**
+     * Queues setting the brightness level of a LED.
+     * @param led The LED.
+     * @param brightnessLevel The brightness level in range [0, {@link LED#getMaximumBrightnessLevel()}].
+     * @return Returns this batch.
+     */
+    public Batch setBrightnessLevel(@NonNull final LED led, final int brightnessLevel) {
+        Validate.isTrue(checkLed(led).getCapabilities().isValidBrightnessLevel(brightnessLevel), "The brightness level is out of range.");
+        return queue(BatchOperation.brightnessLevel(led, brightnessLevel));
+    }
+
+    /**
+     * Queues setting the animation speed level of a LED.
+     * @param led The LED.
+     * @param speedLevel The speed level in range [0, {@link LED#getMaximumSpeedLevel()}].
+     * @return Returns this batch.
+     */
+    public Batch setSpeedLevel(@NonNull final LED led, final int speedLevel) {
+        Validate.isTrue(checkLed(led).getCapabilities().isValidSpeedLevel(speedLevel), "The speed level is out of range.");
+        return queue(BatchOperation.speedLevel(led, speedLevel));
+    }
+
+    /**
+     * @return Returns the writes that will be issued by {@link #commit()} in commit order.
+     */
+    public List<BatchOperation> getOperations() {
+        final List<BatchOperation> ordered = new ArrayList<>(operations.values());
+        ordered.sort(Comparator.comparing(BatchOperation::getProperty));
+        return ordered;
+    }
+
+    /**
+     * @return Returns the number of writes queued since the batch was created or last committed, including collapsed writes.
+     */
+    public int getQueuedOperationCount() {
+        return queuedOperationCount;
+    }
+
+    /**
+     * Discards all queued writes.
+     */
+    public void clear() {
+        operations.clear();
+        queuedOperationCount = 0;
+    }
+
+    /**
+     * Issues all queued writes. A failing write does not prevent the remaining writes from being issued; the outcome
+     * of each write is reported in the result. Afterwards the batch is empty and can be reused.
+     * @return Returns the result of the commit.
+     */
+    public BatchResult commit() {
+        final List<BatchOperation> ordered = getOperations();
+        final int queued = queuedOperationCount;
+        clear();
+
+        // Devices are locked in the order of their identifiers, so concurrent commits can't deadlock.
+        final TreeMap<String, Device> devices = new TreeMap<>();
+        ordered.forEach(operation -> devices.putIfAbsent(operation.getDeviceIdentifier(), operation.getLed().getDevice()));
+
+        final Object event = FlightRecorderEvents.beginBatchCommit();
+        final long start = System.nanoTime();
+        final List<BatchResult.OperationResult> results = new ArrayList<>(ordered.size());
+        commitLocked(new ArrayList<>(devices.values()), 0, ordered, results);
+        final BatchResult result = new BatchResult(results, queued, System.nanoTime() - start);
+        FlightRecorderEvents.commitBatchCommit(event, devices.size(), results.size(), queued, result.getFailures().size());
+        return result;
+    }
+
+    /**
+     * Issues all queued writes on the given executor. See {@link #commit()}.
+     * The queued writes are taken from this batch immediately, so the batch can be reused before the commit completed.
+     * @param executor The executor performing the writes.
+     * @return Returns a future completed with the result of the commit.
+     */
+    public CompletableFuture<BatchResult> commitAsync(@NonNull final NativeCallExecutor executor) {
+        final Batch snapshot = new Batch(device);
+        snapshot.operations.putAll(operations);
+        snapshot.queuedOperationCount = queuedOperationCount;
+        clear();
+        return executor.submit(snapshot::commit);
+    }
+
+    private static void commitLocked(final List<Device> devices, final int lockIndex, final List<BatchOperation> operations, final List<BatchResult.OperationResult> results) {
+        if (lockIndex < devices.size()) {
+            synchronized (devices.get(lockIndex).batchLock()) {
+                commitLocked(devices, lockIndex + 1, operations, results);
+            }
+            return;
+        }
+        for (final BatchOperation operation : operations) {
+            final long start = System.nanoTime();
+            RuntimeException error = null;
+            try {
+                operation.apply();
+            } catch (final RuntimeException e) {
+                error = e;
+            }
+            results.add(new BatchResult.OperationResult(operation, error, System.nanoTime() - start));
+        }
+    }
+
+    private LED checkLed(final LED led) {
+        Validate.isTrue(device == null || device.equals(led.getDevice()), "The LED does not belong to device %s.", device == null ? null : device.getIdentifier());
+        return led;
+    }
+
+    private Batch queue(final BatchOperation operation) {
+        // Removing first moves a collapsed write to the end, so the last write of a property determines its position.
+        final OperationKey key = new OperationKey(operation.getLed(), operation.getProperty());
+        operations.remove(key);
+        operations.put(key, operation);
+        queuedOperationCount++;
+        return this;
+    }
+
+    @EqualsAndHashCode
+    private static final class OperationKey {
+        private final LED led;
+        private final BatchOperation.Property property;
+
+        private OperationKey(final LED led, final BatchOperation.Property property) {
+            this.led = led;
+            this.property = property;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * A write of a single property of a {@link LED} queued in a {@link Batch}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class BatchOperation {
+    /**
+     * The properties of a LED that can be written in a batch. The declaration order is the order in which the
+     * properties are written when a batch is committed.
+     */
+    public enum Property {
+        /**
+         * The style is written first, as switching the style may reset the other properties on some hardware.
+         */
+        STYLE,
+        BRIGHTNESS,
+        SPEED,
+        COLOR
+    }
+
+    @ToString.Exclude
+    private final LED led;
+    private final Property property;
+    private final Object value;
+
+    private BatchOperation(final LED led, final Property property, final Object value) {
+        this.led = led;
+        this.property = property;
+        this.value = value;
+    }
+
+    static BatchOperation style(@NonNull final LED led, @NonNull final Style style) {
+        return new BatchOperation(led, Property.STYLE, style);
+    }
+
+    static BatchOperation brightnessLevel(@NonNull final LED led, final int brightnessLevel) {
+        return new BatchOperation(led, Property.BRIGHTNESS, brightnessLevel);
+    }
+
+    static BatchOperation speedLevel(@NonNull final LED led, final int speedLevel) {
+        return new BatchOperation(led, Property.SPEED, speedLevel);
+    }
+
+    static BatchOperation color(@NonNull final LED led, @NonNull final Color color) {
+        return new BatchOperation(led, Property.COLOR, color);
+    }
+
+    /**
+     * @return Returns the identifier of the device of the LED.
+     */
+    @ToString.Include
+    public String getDeviceIdentifier() {
+        return led.getDevice().getIdentifier();
+    }
+
+    /**
+     * @return Returns the index of the LED on its device.
+     */
+    @ToString.Include
+    public int getLedIndex() {
+        return led.getIndex();
+    }
+
+    /**
+     * Writes the value to the LED.
+     */
+    void apply() {
+        switch (property) {
+            case STYLE: led.setStyle((Style) value); break;
+            case BRIGHTNESS: led.setBrightnessLevel((Integer) value); break;
+            case SPEED: led.setSpeedLevel((Integer) value); break;
+            case COLOR: led.setColor((Color) value); break;
+            default: throw new IllegalStateException("Unknown property " + property);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.collect.ImmutableList;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result of committing a {@link Batch}.
+ */
+@Getter
+@ToString
+public final class BatchResult {
+    private final ImmutableList<OperationResult> results;
+    private final int queuedOperationCount;
+    private final long commitDurationNanos;
+
+    BatchResult(@NonNull final List<OperationResult> results, final int queuedOperationCount, final long commitDurationNanos) {
+        this.results = ImmutableList.copyOf(results);
+        this.queuedOperationCount = queuedOperationCount;
+        this.commitDurationNanos = commitDurationNanos;
+    }
+
+    /**
+     * @return Returns the number of writes that were issued. This is lower than {@link #getQueuedOperationCount()} if
+     * repeated writes to the same property of a LED were collapsed.
+     */
+    public int getIssuedOperationCount() {
+        return results.size();
+    }
+
+    /**
+     * @return Returns true if all issued writes succeeded.
+     */
+    public boolean isSuccessful() {
+        return results.stream().allMatch(OperationResult::isSuccessful);
+    }
+
+    /**
+     * @return Returns the results of the writes that failed in commit order.
+     */
+    public List<OperationResult> getFailures() {
+        return results.stream()
+                .filter(result -> !result.isSuccessful())
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Result of a single write of a batch.
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static final class OperationResult {
+        private final BatchOperation operation;
+        @Getter(AccessLevel.NONE)
+        private final RuntimeException error;
+        private final long durationNanos;
+
+        OperationResult(@NonNull final BatchOperation operation, final RuntimeException error, final long durationNanos) {
+            this.operation = operation;
+            this.error = error;
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * @return Returns true if the write succeeded.
+         */
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        /**
+         * @return Returns the error of the write or an empty optional if the write succeeded.
+         */
+        public Optional<RuntimeException> getError() {
+            return Optional.ofNullable(error);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latest-value-wins write path for the LEDs of a single {@link Device}.
+ * Each property of each LED has a single slot. Posting a value replaces the value in the slot with one atomic
+ * operation and never blocks, and a drain thread applies the values currently in the slots through the setters of
+ * {@link LED}. Values that are overwritten before the drain thread gets to them are never written. If a producer posts
+ * faster than the SDK applies, the LEDs therefore lag behind by at most one write per property, and the memory
+ * used by the writer does not grow.
+ * Like {@link Batch}, the drain thread writes styles first and colors last.
+ */
+public final class ConflatingLedWriter implements Closeable {
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("mysticlight4j-conflating-writer-%d")
+            .setDaemon(true)
+            .build();
+    private static final int EMPTY = -1;
+    private static final int STYLE = 0;
+    private static final int BRIGHTNESS = 1;
+    private static final int SPEED = 2;
+    private static final int COLOR = 3;
+    private static final int PROPERTY_COUNT = 4;
+
+    private final Device device;
+    private final int ledCount;
+    private final AtomicIntegerArray slots;
+    private final AtomicLongArray postedAt;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final Thread thread;
+    private volatile boolean closed = false;
+    private volatile RuntimeException lastError;
+
+    private final LongAdder posted = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalApplyLatencyNanos = new LongAdder();
+    private final AtomicLong maxApplyLatencyNanos = new AtomicLong();
+
+    /**
+     * Creates a writer for the LEDs of the given device and starts its drain thread.
+     * @param device The device.
+     */
+    public ConflatingLedWriter(@NonNull final Device device) {
+        this.device = device;
+        this.ledCount = device.getNumberOfLEDs();
+        this.slots = new AtomicIntegerArray(ledCount * PROPERTY_COUNT);
+        this.postedAt = new AtomicLongArray(ledCount * PROPERTY_COUNT);
+        for (int slot = 0; slot < slots.length(); slot++) {
+            slots.set(slot, EMPTY);
+        }
+        this.thread = THREAD_FACTORY.newThread(this::run);
+        thread.start();
+    }
+
+    /**
+     * Posts a color for a LED. Replaces the color posted before if it was not applied yet.
+     * @param ledIndex The index of the LED.
+     * @param color The color.
+     */
+    public void setColor(final int ledIndex, @NonNull final Color color) {
+        post(COLOR, ledIndex, color.getRgb());
+    }
+
+    /**
+     * Posts a style for a LED. Replaces the style posted before if it was not applied yet.
+     * @param ledIndex The index of the LED.
+     * @param style The handle of the style. It must be supported by the LED.
+     */
+    public void setStyle(final int ledIndex, @NonNull final Style style) {
+        Validate.isTrue(device.getLED(ledIndex).getCapabilities().supportsStyle(style), "The given style is not available for the LED.");
+        post(STYLE, ledIndex, style.getOrdinal());
+    }
+
+    /**
+     * Posts a brightness level for a LED. Replaces the level posted before if it was not applied yet.
+     * @param ledIndex The index of the LED.
+     * @param brightnessLevel The brightness level in range [0, {@link LED#getMaximumBrightnessLevel()}].
+     */
+    public void setBrightnessLevel(final int ledIndex, final int brightnessLevel) {
+        Validate.isTrue(device.getLED(ledIndex).getCapabilities().isValidBrightnessLevel(brightnessLevel), "The brightness level is out of range.");
+        post(BRIGHTNESS, ledIndex, brightnessLevel);
+    }
+
+    /**
+     * Posts a speed level for a LED. Replaces the level posted before if it was not applied yet.
+     * @param ledIndex The index of the LED.
+     * @param speedLevel The speed level in range [0, {@link LED#getMaximumSpeedLevel()}].
+     */
+    public void setSpeedLevel(final int ledIndex, final int speedLevel) {
+        Validate.isTrue(device.getLED(ledIndex).getCapabilities().isValidSpeedLevel(speedLevel), "The speed level is out of range.");
+        post(SPEED, ledIndex, speedLevel);
+    }
+
+    /**
+     * @return Returns the current metrics of the writer.
+     */
+    public ConflationStatistics getStatistics() {
+        return new ConflationStatistics(posted.sum(), conflated.sum(), applied.sum(), failed.sum(),
+                totalApplyLatencyNanos.sum(), maxApplyLatencyNanos.get());
+    }
+
+    /**
+     * @return Returns the last error of the drain thread or an empty optional if no write failed.
+     */
+    public Optional<RuntimeException> getLastError() {
+        return Optional.ofNullable(lastError);
+    }
+
+    /**
+     * Waits until all posted values were applied or overwritten.
+     * @param timeout The maximum time to wait.
+     * @param unit The time unit of {@code timeout}.
+     * @return Returns true if all posted values were handled, false if the timeout elapsed.
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting.
+     */
+    public boolean awaitDrained(final long timeout, @NonNull final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (posted.sum() - conflated.sum() - applied.sum() - failed.sum() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops the drain thread after it applied the values currently in the slots. Values posted afterwards are ignored.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void post(final int property, final int ledIndex, final int value) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        if (closed) {
+            return;
+        }
+        final int slot = property * ledCount + ledIndex;
+        posted.increment();
+        postedAt.set(slot, System.nanoTime());
+        if (slots.getAndSet(slot, value) != EMPTY) {
+            conflated.increment();
+        }
+        if (closed && slots.compareAndSet(slot, value, EMPTY)) {
+            // close() raced this post and the drain thread may have finished its last pass, so take the value back.
+            // If the drain thread or another post took it first, it is counted as applied, failed or conflated.
+            posted.decrement();
+            return;
+        }
+        if (pending.compareAndSet(false, true)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            // Clearing the flag before draining guarantees that a value posted during the drain triggers another pass.
+            pending.set(false);
+            drain();
+            if (!pending.get() && !closed) {
+                LockSupport.park(this);
+            }
+        }
+        drain();
+    }
+
+    private void drain() {
+        for (int property = 0; property < PROPERTY_COUNT; property++) {
+            for (int ledIndex = 0; ledIndex < ledCount; ledIndex++) {
+                final int slot = property * ledCount + ledIndex;
+                if (slots.get(slot) == EMPTY) {
+                    continue;
+                }
+                final long postedAtNanos = postedAt.get(slot);
+                final int value = slots.getAndSet(slot, EMPTY);
+                if (value != EMPTY) {
+                    apply(property, device.getLED(ledIndex), value, postedAtNanos);
+                }
+            }
+        }
+    }
+
+    private void apply(final int property, final LED led, final int value, final long postedAtNanos) {
+        try {
+            switch (property) {
+                case STYLE: led.setStyle(Style.byOrdinal(value)); break;
+                case BRIGHTNESS: led.setBrightnessLevel(value); break;
+                case SPEED: led.setSpeedLevel(value); break;
+                case COLOR: led.setColorRgb(value); break;
+                default: throw new IllegalStateException("Unknown property " + property);
+            }
+        } catch (final RuntimeException e) {
+            lastError = e;
+            failed.increment();
+            return;
+        }
+        final long latency = Math.max(0, System.nanoTime() - postedAtNanos);
+        totalApplyLatencyNanos.add(latency);
+        maxApplyLatencyNanos.accumulateAndGet(latency, Math::max);
+        applied.increment();
+    }
+}
@@ -0,0 +1,45 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the metrics of a {@link ConflatingLedWriter}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ConflationStatistics {
+    private final long postedWrites;
+    private final long conflatedWrites;
+    private final long appliedWrites;
+    private final long failedWrites;
+    private final long totalApplyLatencyNanos;
+    private final long maxApplyLatencyNanos;
+
+    ConflationStatistics(final long postedWrites, final long conflatedWrites, final long appliedWrites,
+                         final long failedWrites, final long totalApplyLatencyNanos, final long maxApplyLatencyNanos) {
+        this.postedWrites = postedWrites;
+        this.conflatedWrites = conflatedWrites;
+        this.appliedWrites = appliedWrites;
+        this.failedWrites = failedWrites;
+        this.totalApplyLatencyNanos = totalApplyLatencyNanos;
+        this.maxApplyLatencyNanos = maxApplyLatencyNanos;
+    }
+
+    /**
+     * @return Returns the share of posted writes that were overwritten before they were applied, in range [0, 1].
+     */
+    public double getConflationRatio() {
+        return postedWrites == 0 ? 0 : conflatedWrites / (double) postedWrites;
+    }
+
+    /**
+     * @return Returns the average time from posting a write to having it applied in nanoseconds, counting only
+     * writes that were applied successfully.
+     */
+    public double getAverageApplyLatencyNanos() {
+        return appliedWrites == 0 ? 0 : totalApplyLatencyNanos / (double) appliedWrites;
+    }
+}
@@ -1,15 +1,21 @@
 package de.matthiasfisch.mysticlight4j;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.MoreCollectors;
+import de.matthiasfisch.mysticlight4j.api.Color;
 import de.matthiasfisch.mysticlight4j.api.DeviceInfo;
-import de.matthiasfisch.mysticlight4j.api.MysticLightAPI;
+import de.matthiasfisch.mysticlight4j.api.MysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.NativeMysticLightBackend;
 import lombok.*;
 import org.apache.commons.lang3.Validate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -17,17 +23,69 @@ import java.util.stream.IntStream;
 @EqualsAndHashCode
 @ToString
 public final class Device {
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final MysticLightBackend backend;
     private final DeviceInfo deviceInfo;
     @EqualsAndHashCode.Exclude
     private final ImmutableList<LED> leds;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile LedStateCache stateCache;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private volatile LedNameIndex nameIndex;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private volatile long nameIndexGeneration = 0;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private final Object nameIndexLock = new Object();
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private volatile String displayName;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private volatile ImmutableList<String> displayNames;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private volatile WriteSuppressor writeSuppressor;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private final Object batchLock = new Object();
 
     protected Device(@NonNull final DeviceInfo deviceInfo) {
+        this(NativeMysticLightBackend.INSTANCE, deviceInfo);
+    }
+
+    protected Device(@NonNull final MysticLightBackend backend, @NonNull final DeviceInfo deviceInfo) {
+        this(backend, deviceInfo, false);
+    }
+
+    /**
+     * @param backend The backend through which all calls are made.
+     * @param deviceInfo The information about the device.
+     * @param lazy Whether to defer probing the LEDs until they are accessed first. If true, no backend calls are made
+     *             by this constructor.
+     */
+    Device(@NonNull final MysticLightBackend backend, @NonNull final DeviceInfo deviceInfo, final boolean lazy) {
         Validate.notBlank(deviceInfo.getDeviceType(), "The device identifier must not be blank");
         Validate.isTrue(deviceInfo.getLedCount() >= 0, "The number of LEDs for device %s must not be negative", deviceInfo.getDeviceType());
+        this.backend = backend;
         this.deviceInfo = deviceInfo;
         this.leds = IntStream.range(0, getNumberOfLEDs())
-                .mapToObj(index -> new LED(this, index))
+                .mapToObj(index -> new LED(this, index, lazy))
                 .collect(ImmutableList.toImmutableList());
+        if (!lazy) {
+            this.nameIndex = new LedNameIndex(leds);
+        }
     }
 
     public int getNumberOfLEDs() {
@@ -38,8 +96,50 @@ public final class Device {
         return deviceInfo.getDeviceType();
     }
 
+    /**
+     * Returns the display name of the device. The name is fetched from the backend on the first call and then served
+     * from memory until {@link #refreshNames()} is called.
+     * @return Returns the display name of the device.
+     */
     public String getName() {
-        return MysticLightAPI.getDeviceNameEx(getIdentifier(), 0);
+        String name = displayName;
+        if (name == null) {
+            synchronized (this) {
+                name = displayName;
+                if (name == null) {
+                    name = backend.getDeviceNameEx(getIdentifier(), 0);
+                    displayName = name;
+                }
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Returns all display names the backend reports for this device. The names are fetched from the backend on the
+     * first call and then served from memory until {@link #refreshNames()} is called.
+     * @return Returns the display names of the device.
+     */
+    public List<String> getNames() {
+        ImmutableList<String> names = displayNames;
+        if (names == null) {
+            synchronized (this) {
+                names = displayNames;
+                if (names == null) {
+                    names = ImmutableList.copyOf(backend.getDeviceName(getIdentifier()));
+                    displayNames = names;
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Discards the memoized display names. They are fetched from the backend again on the next access.
+     */
+    public synchronized void refreshNames() {
+        displayName = null;
+        displayNames = null;
     }
 
     public List<LED> getLEDs() {
@@ -51,9 +151,297 @@ public final class Device {
         return leds.get(index);
     }
 
+    /**
+     * Probes the information and capabilities of all LEDs that were not probed yet. This is only required for devices
+     * that were discovered lazily and have LEDs that were not accessed yet.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if probing a LED fails.
+     */
+    public void loadLedMetadata() {
+        for (final LED led : leds) {
+            led.getCapabilities();
+        }
+    }
+
+    /**
+     * @return Returns true if all LEDs of this device were probed.
+     */
+    public boolean isLedMetadataLoaded() {
+        return leds.stream().allMatch(LED::isProbed);
+    }
+
+    /**
+     * Returns the LED with the given name. The lookup is served from a hash index of the LED names.
+     * @param ledName The name of the LED.
+     * @return Returns the LED or an empty optional if the device has no LED with this name.
+     * @throws IllegalArgumentException Thrown if multiple LEDs of the device have the given name.
+     */
     public Optional<LED> getLED(@NonNull final String ledName) {
-        return leds.stream()
-                .filter(led -> led.getName().equals(ledName))
-                .collect(MoreCollectors.toOptional());
+        return Optional.ofNullable(nameIndex().get(ledName));
+    }
+
+    /**
+     * Returns all LEDs whose names start with the given prefix in the order of their indices.
+     * The result for a prefix is computed once and then served from memory.
+     * @param prefix The prefix of the LED names.
+     * @return Returns the matching LEDs.
+     */
+    public List<LED> getLEDsByPrefix(@NonNull final String prefix) {
+        return nameIndex().getByPrefix(prefix);
+    }
+
+    /**
+     * Returns all LEDs whose entire names match the given pattern in the order of their indices.
+     * The result for a pattern is computed once and then served from memory.
+     * @param pattern The pattern the LED names must match.
+     * @return Returns the matching LEDs.
+     */
+    public List<LED> getLEDsMatching(@NonNull final Pattern pattern) {
+        return nameIndex().getMatching(pattern);
+    }
+
+    /**
+     * @return Returns the names that are used by more than one LED of this device. These LEDs can't be looked up by name.
+     */
+    public Set<String> getDuplicateLEDNames() {
+        return nameIndex().getDuplicateNames();
+    }
+
+    /**
+     * Enables caching of the LED state for this device. While enabled, the getters of the LEDs serve values from the
+     * cache if they are not older than {@code maxStaleness}. The setters of the LEDs update the cache.
+     * If a cache is already enabled it is replaced by an empty cache with the new staleness bound.
+     * @param maxStaleness The maximum age of a cached value.
+     * @param unit The time unit of {@code maxStaleness}.
+     * @return Returns the new cache.
+     */
+    public LedStateCache enableStateCache(final long maxStaleness, @NonNull final TimeUnit unit) {
+        final LedStateCache cache = new LedStateCache(getNumberOfLEDs(), maxStaleness, unit);
+        this.stateCache = cache;
+        return cache;
+    }
+
+    /**
+     * Disables caching of the LED state. Subsequent reads are forwarded to the backend.
+     */
+    public void disableStateCache() {
+        this.stateCache = null;
+    }
+
+    /**
+     * @return Returns the LED state cache of this device or an empty optional if caching is not enabled.
+     */
+    public Optional<LedStateCache> getStateCache() {
+        return Optional.ofNullable(stateCache);
+    }
+
+    /**
+     * Reloads the state of all LEDs of this device from the backend into the state cache.
+     * Does nothing if caching is not enabled.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if reading the state fails.
+     */
+    public void refreshState() {
+        for (final LED led : leds) {
+            led.refreshState();
+        }
+    }
+
+    /**
+     * Enables write suppression for this device. While enabled, the setters of the LEDs skip writes that would not
+     * change the value last written through them. If write suppression is already enabled, the remembered values
+     * are discarded.
+     * @return Returns the new write suppressor.
+     */
+    public WriteSuppressor enableWriteSuppression() {
+        final WriteSuppressor suppressor = new WriteSuppressor(getNumberOfLEDs());
+        this.writeSuppressor = suppressor;
+        return suppressor;
+    }
+
+    /**
+     * Disables write suppression. Subsequent writes are always forwarded to the backend.
+     */
+    public void disableWriteSuppression() {
+        this.writeSuppressor = null;
+    }
+
+    /**
+     * @return Returns the write suppressor of this device or an empty optional if write suppression is not enabled.
+     */
+    public Optional<WriteSuppressor> getWriteSuppressor() {
+        return Optional.ofNullable(writeSuppressor);
+    }
+
+    /**
+     * Writes the values remembered by the write suppression to all LEDs of this device again. This should be called if
+     * other software may have changed the LEDs. Does nothing if write suppression is not enabled.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if a write fails.
+     */
+    public void forceResync() {
+        for (final LED led : leds) {
+            led.forceResync();
+        }
+    }
+
+    /**
+     * Sets the color of several LEDs of this device with a single call of
+     * {@link MysticLightBackend#setLedColors(String, int, String[], Color)}. The LEDs are addressed by their names,
+     * which therefore must be unique on the device. The index of the first LED is passed as area index.
+     * If write suppression is enabled, LEDs which already have the color are left out and no call is made if all of
+     * them already have it.
+     * @param leds The LEDs. Must not be empty.
+     * @param color The color to set.
+     * @return Returns the number of LEDs written.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if the call fails. SDK installations
+     * which don't provide the function fail with {@code MLAPI_NO_IMPLEMENTED}.
+     */
+    public int setColors(@NonNull final Collection<LED> leds, @NonNull final Color color) {
+        Validate.isTrue(!leds.isEmpty(), "At least one LED is required.");
+        final Set<String> duplicateNames = getDuplicateLEDNames();
+        for (final LED led : leds) {
+            checkAddressableByName(led, duplicateNames);
+        }
+        final List<LED> written = new ArrayList<>(leds.size());
+        for (final LED led : leds) {
+            if (!led.isColorWriteSuppressed(color)) {
+                written.add(led);
+            }
+        }
+        if (written.isEmpty()) {
+            return 0;
+        }
+        final String[] names = new String[written.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = written.get(i).getName();
+        }
+        try {
+            backend.setLedColors(getIdentifier(), written.get(0).getIndex(), names, color);
+        } catch (final RuntimeException e) {
+            written.forEach(LED::colorWriteFailed);
+            throw e;
+        }
+        for (final LED led : written) {
+            led.colorWritten(color);
+        }
+        return written.size();
+    }
+
+    /**
+     * Sets the color of a LED of this device addressing it by its name with
+     * {@link MysticLightBackend#setLedColorEx(String, int, String, Color, boolean)}. The name of the LED must be unique
+     * on the device. If write suppression is enabled, the write is skipped if the color was already written.
+     * @param led The LED.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if the call fails. SDK installations
+     * which don't provide the function fail with {@code MLAPI_NO_IMPLEMENTED}.
+     */
+    public void setColorEx(@NonNull final LED led, @NonNull final Color color, final boolean sync) {
+        setColorByName(led, color, sync, false);
+    }
+
+    /**
+     * Sets the color of a LED of this device addressing it by its name with
+     * {@link MysticLightBackend#setLedColorSync(String, int, String, Color, boolean)}. See
+     * {@link #setColorEx(LED, Color, boolean)}.
+     * @param led The LED.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if the call fails. SDK installations
+     * which don't provide the function fail with {@code MLAPI_NO_IMPLEMENTED}.
+     */
+    public void setColorSync(@NonNull final LED led, @NonNull final Color color, final boolean sync) {
+        setColorByName(led, color, sync, true);
+    }
+
+    /**
+     * Creates a batch for writing to the LEDs of this device. See {@link Batch} for details.
+     * @return Returns a new empty batch which only accepts LEDs of this device.
+     */
+    public Batch batch() {
+        return new Batch(this);
+    }
+
+    /**
+     * @return Returns the lock held while a {@link Batch} is committed to this device.
+     */
+    Object batchLock() {
+        return batchLock;
+    }
+
+    /**
+     * Calls {@link MysticLightBackend#setLedColorSync(String, int, String, Color, boolean)} for a LED of this device
+     * without consulting or updating the write suppression and the state cache. The caller reports the outcome with
+     * {@link LED#colorWritten(Color)} or {@link LED#colorWriteFailed()}, e.g. once the staged colors were applied.
+     * @param led The LED. Its name must be unique on this device.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     */
+    void issueColorSync(final LED led, final Color color, final boolean sync) {
+        checkAddressableByName(led, getDuplicateLEDNames());
+        backend.setLedColorSync(getIdentifier(), led.getIndex(), led.getName(), color, sync);
+    }
+
+    /**
+     * Discards the LED name index. It will be rebuilt on the next lookup by name.
+     */
+    void invalidateNameIndex() {
+        synchronized (nameIndexLock) {
+            nameIndexGeneration++;
+            nameIndex = null;
+        }
+    }
+
+    private void setColorByName(final LED led, final Color color, final boolean sync, final boolean syncFunction) {
+        checkAddressableByName(led, getDuplicateLEDNames());
+        if (led.isColorWriteSuppressed(color)) {
+            return;
+        }
+        try {
+            if (syncFunction) {
+                backend.setLedColorSync(getIdentifier(), led.getIndex(), led.getName(), color, sync);
+            } else {
+                backend.setLedColorEx(getIdentifier(), led.getIndex(), led.getName(), color, sync);
+            }
+        } catch (final RuntimeException e) {
+            led.colorWriteFailed();
+            throw e;
+        }
+        led.colorWritten(color);
+    }
+
+    private void checkAddressableByName(final LED led, final Set<String> duplicateNames) {
+        Validate.isTrue(equals(led.getDevice()), "The LED does not belong to device %s.", getIdentifier());
+        Validate.isTrue(!duplicateNames.contains(led.getName()), "The name %s is used by more than one LED of device %s.", led.getName(), getIdentifier());
+    }
+
+    private LedNameIndex nameIndex() {
+        LedNameIndex index = nameIndex;
+        if (index == null) {
+            // Built outside of the lock, as reading the names may probe lazily discovered LEDs, which takes their
+            // monitors and invalidates the index. An index built while the index was invalidated may miss that change,
+            // so it is used for this lookup only and not published.
+            final long generation = nameIndexGeneration;
+            index = new LedNameIndex(leds);
+            synchronized (nameIndexLock) {
+                if (generation == nameIndexGeneration) {
+                    nameIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return Returns the write suppressor or null if write suppression is not enabled.
+     */
+    WriteSuppressor writeSuppressorOrNull() {
+        return writeSuppressor;
+    }
+
+    /**
+     * @return Returns the state cache or null if caching is not enabled.
+     */
+    LedStateCache stateCacheOrNull() {
+        return stateCache;
     }
 }
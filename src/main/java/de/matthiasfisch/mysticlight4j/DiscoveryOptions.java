@@ -0,0 +1,112 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import org.apache.commons.lang3.Validate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for {@link MysticLight4j#discoverDevices(DiscoveryOptions)}.
+ * By default the LEDs of all devices are probed eagerly one device after another without a timeout, which matches the
+ * behavior of {@link MysticLight4j#getAllAvailableDevices()}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class DiscoveryOptions {
+    /**
+     * Value of {@link #getDeviceTimeoutNanos()} if no timeout is set.
+     */
+    public static final long NO_TIMEOUT = 0;
+
+    private final boolean lazy;
+    private final int parallelism;
+    private final long deviceTimeoutNanos;
+
+    private DiscoveryOptions(final Builder builder) {
+        this.lazy = builder.lazy;
+        this.parallelism = builder.parallelism;
+        this.deviceTimeoutNanos = builder.deviceTimeoutNanos;
+    }
+
+    /**
+     * @return Returns the default options.
+     */
+    public static DiscoveryOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @return Returns a new builder for discovery options.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return Returns true if a timeout for probing the LEDs of a device is set.
+     */
+    public boolean hasDeviceTimeout() {
+        return deviceTimeoutNanos != NO_TIMEOUT;
+    }
+
+    /**
+     * Builder for {@link DiscoveryOptions}.
+     */
+    public static final class Builder {
+        private boolean lazy = false;
+        private int parallelism = 1;
+        private long deviceTimeoutNanos = NO_TIMEOUT;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets whether the LEDs are probed lazily. If true, the LED information and capabilities are fetched from the
+         * backend when a LED is accessed first and discovery only enumerates the devices.
+         * @param lazy Whether to probe the LEDs lazily.
+         * @return Returns this builder.
+         */
+        public Builder lazy(final boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        /**
+         * Sets the number of devices whose LEDs are probed concurrently if the LEDs are probed eagerly.
+         * @param parallelism The number of devices probed concurrently.
+         * @return Returns this builder.
+         */
+        public Builder parallelism(final int parallelism) {
+            Validate.isTrue(parallelism > 0, "The parallelism must be positive.");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time for probing the LEDs of a single device. The time is measured from the moment probing
+         * of the device starts, so devices waiting for a free worker are not penalized. Devices exceeding the timeout
+         * are reported in {@link DiscoveryResult#getTimedOutDevices()} and their remaining LEDs are probed lazily.
+         * A worker stays busy until the probe of a timed out device returns. If all workers are busy with timed out
+         * devices for another timeout, the devices not probed yet are reported as timed out as well.
+         * @param timeout The timeout.
+         * @param unit The time unit of {@code timeout}.
+         * @return Returns this builder.
+         */
+        public Builder deviceTimeout(final long timeout, @NonNull final TimeUnit unit) {
+            Validate.isTrue(timeout > 0, "The device timeout must be positive.");
+            this.deviceTimeoutNanos = unit.toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * @return Returns the discovery options.
+         */
+        public DiscoveryOptions build() {
+            return new DiscoveryOptions(this);
+        }
+    }
+}
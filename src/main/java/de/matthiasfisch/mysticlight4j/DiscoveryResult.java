@@ -0,0 +1,53 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of {@link MysticLight4j#discoverDevices(DiscoveryOptions)}.
+ * Contains all discovered devices, including devices whose LEDs could not be probed within the timeout or whose
+ * probing failed. The LEDs of these devices are probed lazily when they are accessed.
+ */
+@Getter
+@ToString
+public final class DiscoveryResult {
+    private final ImmutableList<Device> devices;
+    private final long durationNanos;
+    private final ImmutableMap<String, Long> deviceDurationsNanos;
+    private final ImmutableSet<String> timedOutDevices;
+    private final ImmutableMap<String, RuntimeException> failedDevices;
+
+    /**
+     * @param devices The discovered devices.
+     * @param durationNanos The total duration of the discovery in nanoseconds.
+     * @param deviceDurationsNanos The duration of probing the LEDs per device identifier in nanoseconds.
+     * @param timedOutDevices The identifiers of the devices whose LEDs could not be probed within the timeout.
+     * @param failedDevices The errors that occurred while probing the LEDs per device identifier.
+     */
+    DiscoveryResult(@NonNull final List<Device> devices,
+                    final long durationNanos,
+                    @NonNull final Map<String, Long> deviceDurationsNanos,
+                    @NonNull final Set<String> timedOutDevices,
+                    @NonNull final Map<String, RuntimeException> failedDevices) {
+        this.devices = ImmutableList.copyOf(devices);
+        this.durationNanos = durationNanos;
+        this.deviceDurationsNanos = ImmutableMap.copyOf(deviceDurationsNanos);
+        this.timedOutDevices = ImmutableSet.copyOf(timedOutDevices);
+        this.failedDevices = ImmutableMap.copyOf(failedDevices);
+    }
+
+    /**
+     * @return Returns true if the LEDs of all devices were either probed successfully or were meant to be probed lazily.
+     */
+    public boolean isComplete() {
+        return timedOutDevices.isEmpty() && failedDevices.isEmpty();
+    }
+}
@@ -0,0 +1,143 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.FlightRecorderMysticLightBackend;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events of the write paths of this package.
+ * The events are handled as {@link Object}s outside of this class, so the JFR API is only loaded on JVMs supporting it.
+ * On other JVMs the methods return null and do nothing. While an event is not enabled, no event object is allocated.
+ */
+final class FlightRecorderEvents {
+    static final String BATCH_COMMIT_EVENT_NAME = "de.matthiasfisch.mysticlight4j.BatchCommit";
+    static final String FRAME_EVENT_NAME = "de.matthiasfisch.mysticlight4j.Frame";
+
+    private static final boolean AVAILABLE = FlightRecorderMysticLightBackend.isAvailable();
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * @return Returns the started event of a {@link Batch} commit or null if the event is not recorded.
+     */
+    static Object beginBatchCommit() {
+        return AVAILABLE ? Events.beginBatchCommit() : null;
+    }
+
+    static void commitBatchCommit(final Object event, final int deviceCount, final int operationCount,
+                                  final int queuedOperationCount, final int failedOperationCount) {
+        if (event != null) {
+            Events.commitBatchCommit(event, deviceCount, operationCount, queuedOperationCount, failedOperationCount);
+        }
+    }
+
+    /**
+     * @return Returns the started event of a frame of a {@link FrameEngine} or null if the event is not recorded.
+     */
+    static Object beginFrame() {
+        return AVAILABLE ? Events.beginFrame() : null;
+    }
+
+    static void commitFrame(final Object event, final long frameNumber, final long droppedFrames,
+                            final long periodNanos, final boolean failed) {
+        if (event != null) {
+            Events.commitFrame(event, frameNumber, droppedFrames, periodNanos, failed);
+        }
+    }
+
+    private static final class Events {
+        private static final EventType BATCH_COMMIT = EventType.getEventType(BatchCommitEvent.class);
+        private static final EventType FRAME = EventType.getEventType(FrameEvent.class);
+
+        private static Object beginBatchCommit() {
+            if (!BATCH_COMMIT.isEnabled()) {
+                return null;
+            }
+            final BatchCommitEvent event = new BatchCommitEvent();
+            event.begin();
+            return event;
+        }
+
+        private static void commitBatchCommit(final Object started, final int deviceCount, final int operationCount,
+                                              final int queuedOperationCount, final int failedOperationCount) {
+            final BatchCommitEvent event = (BatchCommitEvent) started;
+            event.end();
+            if (event.shouldCommit()) {
+                event.deviceCount = deviceCount;
+                event.operationCount = operationCount;
+                event.queuedOperationCount = queuedOperationCount;
+                event.failedOperationCount = failedOperationCount;
+                event.commit();
+            }
+        }
+
+        private static Object beginFrame() {
+            if (!FRAME.isEnabled()) {
+                return null;
+            }
+            final FrameEvent event = new FrameEvent();
+            event.begin();
+            return event;
+        }
+
+        private static void commitFrame(final Object started, final long frameNumber, final long droppedFrames,
+                                        final long periodNanos, final boolean failed) {
+            final FrameEvent event = (FrameEvent) started;
+            event.end();
+            if (event.shouldCommit()) {
+                event.frameNumber = frameNumber;
+                event.droppedFrames = droppedFrames;
+                event.budget = periodNanos;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    @Name(BATCH_COMMIT_EVENT_NAME)
+    @Label("Mystic Light Batch Commit")
+    @Category({"Mystic Light", "Writes"})
+    @Description("The commit of a batch of LED writes")
+    static final class BatchCommitEvent extends Event {
+        @Label("Devices")
+        int deviceCount;
+
+        @Label("Operations")
+        @Description("The number of writes issued")
+        int operationCount;
+
+        @Label("Queued Operations")
+        @Description("The number of writes queued, including writes collapsed into later writes")
+        int queuedOperationCount;
+
+        @Label("Failed Operations")
+        int failedOperationCount;
+    }
+
+    @Name(FRAME_EVENT_NAME)
+    @Label("Mystic Light Frame")
+    @Category({"Mystic Light", "Frames"})
+    @Description("The rendering of a frame by a frame engine")
+    static final class FrameEvent extends Event {
+        @Label("Frame Number")
+        long frameNumber;
+
+        @Label("Dropped Frames")
+        @Description("The number of frames dropped right before this frame")
+        long droppedFrames;
+
+        @Label("Budget")
+        @Timespan(Timespan.NANOSECONDS)
+        long budget;
+
+        @Label("Failed")
+        @Description("True if a producer threw an exception")
+        boolean failed;
+    }
+}
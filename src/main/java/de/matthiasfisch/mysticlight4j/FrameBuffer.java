@@ -0,0 +1,277 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.collect.ImmutableList;
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Off-heap frame of the LEDs of a set of devices.
+ * Every LED of the devices has a slot in a direct {@link ByteBuffer}. Effects render a frame by writing into the
+ * slots, either through the methods of this class or directly into {@link #getBuffer()}, and {@link #commit()} writes
+ * the slots that changed since the last commit to the LEDs. Writing a slot doesn't allocate. Committing doesn't allocate
+ * either as long as the committed colors are in the cache of {@link Color#ofRgb(int)}, which holds recently used colors.
+ * <p>
+ * Layout: the slots of the devices follow each other in the order the devices were given, and the slots of a device
+ * are ordered by LED index, so the slot of a LED is {@link #getFirstSlot(Device)} plus its index. Slot {@code i}
+ * occupies the four bytes at offset {@code 4 * i}:
+ * <ol>
+ *     <li>red channel</li>
+ *     <li>green channel</li>
+ *     <li>blue channel</li>
+ *     <li>brightness level, or {@value #BRIGHTNESS_UNCHANGED} to leave the brightness as it is</li>
+ * </ol>
+ * Read as a big-endian int a slot is therefore {@code 0xRRGGBBLL}. The layout does not change over the lifetime of the
+ * buffer, so the buffer can be handed to native code as is.
+ * <p>
+ * The first commit and the first commit after {@link #forceResync()} write all slots, bypassing the write suppression of
+ * the devices. Within a slot the brightness is
+ * written before the color. A slot whose write failed is written again on the next commit. Frame buffers are not
+ * thread safe; the slots must not be written while a commit is in progress.
+ */
+public final class FrameBuffer {
+    /**
+     * Number of bytes of a slot.
+     */
+    public static final int SLOT_SIZE = 4;
+    /**
+     * Brightness level of a slot whose brightness is not written.
+     */
+    public static final int BRIGHTNESS_UNCHANGED = 0xFF;
+
+    private final ImmutableList<Device> devices;
+    private final Map<Device, Integer> firstSlots = new HashMap<>();
+    private final int[] deviceFirstSlots;
+    private final LED[] leds;
+    private final ByteBuffer buffer;
+    // The slots as of the last commit.
+    private final ByteBuffer committed;
+    private boolean resync = true;
+
+    private long commits = 0;
+    private long writtenColors = 0;
+    private long writtenBrightnessLevels = 0;
+    private long unchangedSlots = 0;
+    private long failedWrites = 0;
+    private RuntimeException lastError;
+
+    /**
+     * Creates a frame buffer for the LEDs of the given devices. All slots are black with an unchanged brightness.
+     * @param devices The devices.
+     */
+    public FrameBuffer(@NonNull final List<Device> devices) {
+        this.devices = ImmutableList.copyOf(devices);
+        this.deviceFirstSlots = new int[this.devices.size()];
+        int slotCount = 0;
+        for (int i = 0; i < deviceFirstSlots.length; i++) {
+            final Device device = this.devices.get(i);
+            Validate.isTrue(firstSlots.put(device, slotCount) == null, "The device %s is given twice.", device.getIdentifier());
+            deviceFirstSlots[i] = slotCount;
+            slotCount += device.getNumberOfLEDs();
+        }
+        this.leds = new LED[slotCount];
+        for (int i = 0; i < deviceFirstSlots.length; i++) {
+            final Device device = this.devices.get(i);
+            final int firstSlot = deviceFirstSlots[i];
+            for (int index = 0; index < device.getNumberOfLEDs(); index++) {
+                leds[firstSlot + index] = device.getLED(index);
+            }
+        }
+        this.buffer = ByteBuffer.allocateDirect(slotCount * SLOT_SIZE).order(ByteOrder.BIG_ENDIAN);
+        this.committed = ByteBuffer.allocateDirect(slotCount * SLOT_SIZE).order(ByteOrder.BIG_ENDIAN);
+        for (int slot = 0; slot < slotCount; slot++) {
+            buffer.putInt(slot * SLOT_SIZE, BRIGHTNESS_UNCHANGED);
+        }
+    }
+
+    /**
+     * @return Returns the devices of the frame buffer in slot order.
+     */
+    public List<Device> getDevices() {
+        return devices;
+    }
+
+    /**
+     * @return Returns the number of slots.
+     */
+    public int getSlotCount() {
+        return leds.length;
+    }
+
+    /**
+     * @param device The device.
+     * @return Returns the slot of the LED with index 0 of the device.
+     * @throws IllegalArgumentException Thrown if the device is not part of the frame buffer.
+     */
+    public int getFirstSlot(@NonNull final Device device) {
+        final Integer firstSlot = firstSlots.get(device);
+        Validate.isTrue(firstSlot != null, "The device %s is not part of the frame buffer.", device.getIdentifier());
+        return firstSlot;
+    }
+
+    /**
+     * @param led The LED.
+     * @return Returns the slot of the LED.
+     * @throws IllegalArgumentException Thrown if the device of the LED is not part of the frame buffer.
+     */
+    public int getSlot(@NonNull final LED led) {
+        return getFirstSlot(led.getDevice()) + led.getIndex();
+    }
+
+    /**
+     * @param slot The slot.
+     * @return Returns the LED of the slot.
+     */
+    public LED getLED(final int slot) {
+        IndexChecks.checkSlot(slot, leds.length);
+        return leds[slot];
+    }
+
+    /**
+     * Returns the buffer holding the slots. The buffer must be accessed with absolute reads and writes only.
+     * @return Returns the direct buffer holding the slots in the layout described in the class documentation.
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @param slot The slot.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     */
+    public void setColor(final int slot, final int rgb) {
+        IndexChecks.checkSlot(slot, leds.length);
+        Color.validateRgb(rgb);
+        final int offset = slot * SLOT_SIZE;
+        buffer.putInt(offset, (rgb << 8) | (buffer.get(offset + 3) & 0xFF));
+    }
+
+    /**
+     * @param slot The slot.
+     * @param brightnessLevel The brightness level in range [0, {@link LED#getMaximumBrightnessLevel()}] or
+     *                        {@link #BRIGHTNESS_UNCHANGED}. The level is validated against the LED when it is committed.
+     */
+    public void setBrightnessLevel(final int slot, final int brightnessLevel) {
+        IndexChecks.checkSlot(slot, leds.length);
+        Validate.inclusiveBetween(0, BRIGHTNESS_UNCHANGED, brightnessLevel, "The brightness level must be in range [0, 255].");
+        buffer.put(slot * SLOT_SIZE + 3, (byte) brightnessLevel);
+    }
+
+    /**
+     * @param slot The slot.
+     * @return Returns the color of the slot as {@code 0xRRGGBB}.
+     */
+    public int getColor(final int slot) {
+        IndexChecks.checkSlot(slot, leds.length);
+        return buffer.getInt(slot * SLOT_SIZE) >>> 8;
+    }
+
+    /**
+     * @param slot The slot.
+     * @return Returns the brightness level of the slot or {@link #BRIGHTNESS_UNCHANGED}.
+     */
+    public int getBrightnessLevel(final int slot) {
+        IndexChecks.checkSlot(slot, leds.length);
+        return buffer.get(slot * SLOT_SIZE + 3) & 0xFF;
+    }
+
+    /**
+     * Sets the color of all slots.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     */
+    public void fill(final int rgb) {
+        for (int slot = 0; slot < leds.length; slot++) {
+            setColor(slot, rgb);
+        }
+    }
+
+    /**
+     * Makes the next commit write all slots, e.g. after the LEDs were changed by other means. The values remembered by
+     * the write suppression of the devices are forgotten for all LEDs on that commit, so the writes reach the backend.
+     */
+    public void forceResync() {
+        resync = true;
+    }
+
+    /**
+     * Writes the slots that changed since the last commit to their LEDs. Writes to a device are serialized with the
+     * commits of {@link Batch}es. A failing write does not prevent the remaining slots from being written.
+     * @return Returns the number of slots written successfully.
+     */
+    public int commit() {
+        final boolean all = resync;
+        resync = false;
+        int written = 0;
+        // Indexed loops, as iterators would allocate.
+        for (int i = 0; i < deviceFirstSlots.length; i++) {
+            final Device device = devices.get(i);
+            final int firstSlot = deviceFirstSlots[i];
+            final int lastSlot = firstSlot + device.getNumberOfLEDs();
+            final WriteSuppressor suppressor = all ? device.writeSuppressorOrNull() : null;
+            synchronized (device.batchLock()) {
+                for (int slot = firstSlot; slot < lastSlot; slot++) {
+                    if (suppressor != null) {
+                        suppressor.invalidate(slot - firstSlot);
+                    }
+                    if (commitSlot(slot, all)) {
+                        written++;
+                    }
+                }
+            }
+        }
+        commits++;
+        return written;
+    }
+
+    /**
+     * @return Returns the current metrics of the frame buffer.
+     */
+    public FrameBufferStatistics getStatistics() {
+        return new FrameBufferStatistics(commits, writtenColors, writtenBrightnessLevels, unchangedSlots, failedWrites);
+    }
+
+    /**
+     * @return Returns the last error of a commit or an empty optional if no write failed.
+     */
+    public Optional<RuntimeException> getLastError() {
+        return Optional.ofNullable(lastError);
+    }
+
+    private boolean commitSlot(final int slot, final boolean all) {
+        final int offset = slot * SLOT_SIZE;
+        final int value = buffer.getInt(offset);
+        final int previous = committed.getInt(offset);
+        final int brightness = value & 0xFF;
+        final boolean brightnessChanged = brightness != BRIGHTNESS_UNCHANGED && (all || brightness != (previous & 0xFF));
+        final boolean colorChanged = all || (value >>> 8) != (previous >>> 8);
+        if (!brightnessChanged && !colorChanged) {
+            unchangedSlots++;
+            return false;
+        }
+        try {
+            if (brightnessChanged) {
+                leds[slot].setBrightnessLevel(brightness);
+                writtenBrightnessLevels++;
+            }
+            if (colorChanged) {
+                leds[slot].setColorRgb(value >>> 8);
+                writtenColors++;
+            }
+        } catch (final RuntimeException e) {
+            lastError = e;
+            failedWrites++;
+            // Invert the committed color, so the slot differs and is written again on the next commit.
+            committed.putInt(offset, ~value);
+            return false;
+        }
+        committed.putInt(offset, value);
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the metrics of a {@link FrameBuffer}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class FrameBufferStatistics {
+    private final long commits;
+    private final long writtenColors;
+    private final long writtenBrightnessLevels;
+    private final long unchangedSlots;
+    private final long failedWrites;
+
+    FrameBufferStatistics(final long commits, final long writtenColors, final long writtenBrightnessLevels,
+                          final long unchangedSlots, final long failedWrites) {
+        this.commits = commits;
+        this.writtenColors = writtenColors;
+        this.writtenBrightnessLevels = writtenBrightnessLevels;
+        this.unchangedSlots = unchangedSlots;
+        this.failedWrites = failedWrites;
+    }
+}
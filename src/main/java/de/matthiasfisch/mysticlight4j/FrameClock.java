@@ -0,0 +1,40 @@
+package de.matthiasfisch.mysticlight4j;
+
+/**
+ * Time source of a {@link FrameEngine}.
+ * Use {@link #system()} for real animations and a {@link VirtualFrameClock} to run animations deterministically in
+ * tests.
+ */
+public interface FrameClock {
+    /**
+     * @return Returns the current time in nanoseconds. Like {@link System#nanoTime()} the value is only meaningful
+     * when compared to other values of the same clock.
+     */
+    long nanoTime();
+
+    /**
+     * Blocks until {@link #nanoTime()} reaches the given deadline. Returns immediately if the deadline has passed.
+     * @param deadlineNanos The deadline.
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting.
+     */
+    void sleepUntil(long deadlineNanos) throws InterruptedException;
+
+    /**
+     * Blocks until {@link #nanoTime()} reaches the given deadline like {@link #sleepUntil(long)}, but may return
+     * earlier, e.g. if the thread is unparked with {@link java.util.concurrent.locks.LockSupport#unpark(Thread)}.
+     * Callers check the time and call again. A {@link FrameEngine} waits with this method, so {@link FrameEngine#stop()}
+     * can wake it without interrupting it. The default implementation calls {@link #sleepUntil(long)}.
+     * @param deadlineNanos The deadline.
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting.
+     */
+    default void parkUntil(final long deadlineNanos) throws InterruptedException {
+        sleepUntil(deadlineNanos);
+    }
+
+    /**
+     * @return Returns the clock based on {@link System#nanoTime()}.
+     */
+    static FrameClock system() {
+        return SystemFrameClock.INSTANCE;
+    }
+}
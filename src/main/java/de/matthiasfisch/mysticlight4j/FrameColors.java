@@ -0,0 +1,52 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The target colors of LEDs collected for the next frame by {@link GroupingColorWriter} and
+ * {@link SynchronizedCommitter}. Setting the color of a LED again replaces the color set before. Not thread safe.
+ */
+final class FrameColors {
+    private final Map<LED, Integer> colors = new LinkedHashMap<>();
+
+    /**
+     * @param led The LED.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     */
+    void put(@NonNull final LED led, final int rgb) {
+        Color.validateRgb(rgb);
+        colors.put(led, rgb);
+    }
+
+    /**
+     * @return Returns the number of LEDs with a target color.
+     */
+    int size() {
+        return colors.size();
+    }
+
+    /**
+     * Discards all target colors.
+     */
+    void clear() {
+        colors.clear();
+    }
+
+    /**
+     * Removes all target colors and returns them grouped by device. Devices and LEDs are ordered by the first time a
+     * color was set for them.
+     * @return Returns the target colors as {@code 0xRRGGBB} by LED by device.
+     */
+    Map<Device, Map<LED, Integer>> drainByDevice() {
+        final Map<Device, Map<LED, Integer>> byDevice = new LinkedHashMap<>();
+        colors.forEach((led, rgb) -> byDevice
+                .computeIfAbsent(led.getDevice(), device -> new LinkedHashMap<>())
+                .put(led, rgb));
+        colors.clear();
+        return byDevice;
+    }
+}
@@ -0,0 +1,38 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing of a frame passed to a {@link FrameProducer}.
+ * Times are the scheduled times of the frames rather than the times the producers are called, so animations computed
+ * from them don't drift if a frame starts late.
+ * The engine reuses a single instance, so producers must not retain it.
+ */
+@Getter
+@ToString
+public final class FrameContext {
+    private long frameNumber;
+    private long frameTimeNanos;
+    private long elapsedNanos;
+    private long deltaNanos;
+
+    FrameContext() {
+    }
+
+    void update(final long frameNumber, final long frameTimeNanos, final long elapsedNanos, final long deltaNanos) {
+        this.frameNumber = frameNumber;
+        this.frameTimeNanos = frameTimeNanos;
+        this.elapsedNanos = elapsedNanos;
+        this.deltaNanos = deltaNanos;
+    }
+
+    /**
+     * @return Returns the time since the engine started in seconds, e.g. for computing the phase of an animation.
+     */
+    public double getElapsedSeconds() {
+        return elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
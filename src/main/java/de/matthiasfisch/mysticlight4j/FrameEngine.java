@@ -0,0 +1,337 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs {@link FrameProducer}s at a fixed frame rate on a single thread.
+ * Frames are scheduled at fixed times derived from the start time and the target frame rate, so the animation does
+ * not drift if a frame takes longer than expected. Each frame has a budget of one frame period. If rendering takes so
+ * long that the scheduled time of the next frame has already passed, the frames that are late are dropped instead of
+ * being rendered back to back, and rendering continues with the next frame that is still on time.
+ * The engine can be started on its own thread with {@link #start()} or driven by the caller with
+ * {@link #runFrames(long)}. Combined with a {@link VirtualFrameClock} the latter renders animations deterministically
+ * and without waiting.
+ */
+public final class FrameEngine implements Closeable {
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("mysticlight4j-frame-engine-%d")
+            .setDaemon(true)
+            .build();
+
+    private final double targetFps;
+    private final long periodNanos;
+    private final FrameClock clock;
+    private final List<FrameProducer> producers = new CopyOnWriteArrayList<>();
+    private final FrameContext context = new FrameContext();
+
+    // Ring buffers of the start times and durations of the most recent frames, guarded by the engine instance.
+    private final long[] frameStarts;
+    private final long[] frameTimes;
+    private int windowSize = 0;
+    private int windowPosition = 0;
+    private long renderedFrames = 0;
+    private long droppedFrames = 0;
+    private long overrunFrames = 0;
+    private long failedFrames = 0;
+
+    private volatile RuntimeException lastError;
+    private volatile Thread thread;
+    private boolean scheduled = false;
+    private boolean resumed = false;
+    private long startNanos;
+    private long nextFrameNanos;
+    private long frameNumber;
+    private long lastFrameNanos;
+
+    private FrameEngine(final Builder builder) {
+        this.targetFps = builder.targetFps;
+        this.periodNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / builder.targetFps));
+        this.clock = builder.clock;
+        this.frameStarts = new long[builder.statisticsWindow];
+        this.frameTimes = new long[builder.statisticsWindow];
+    }
+
+    /**
+     * @return Returns a new builder for a frame engine.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param producer The producer to call for every frame. Producers are called in the order they were added.
+     */
+    public void addProducer(@NonNull final FrameProducer producer) {
+        producers.add(producer);
+    }
+
+    /**
+     * @param producer The producer to remove.
+     */
+    public void removeProducer(@NonNull final FrameProducer producer) {
+        producers.remove(producer);
+    }
+
+    /**
+     * @return Returns the duration of a frame in nanoseconds, which is also the budget of a frame.
+     */
+    public long getFramePeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * @return Returns the last exception thrown by a producer or an empty optional if no producer failed.
+     */
+    public Optional<RuntimeException> getLastError() {
+        return Optional.ofNullable(lastError);
+    }
+
+    /**
+     * Starts rendering frames on the thread of the engine.
+     * @throws IllegalStateException Thrown if the engine is already running.
+     */
+    public synchronized void start() {
+        Validate.validState(thread == null, "The frame engine is already running.");
+        resumed = true;
+        final Thread engineThread = THREAD_FACTORY.newThread(this::run);
+        thread = engineThread;
+        engineThread.start();
+    }
+
+    /**
+     * @return Returns true if the engine renders frames on its own thread.
+     */
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    /**
+     * Stops rendering frames and waits for the frame currently being rendered to finish. The thread of the engine is
+     * woken from waiting for the next frame, but not interrupted, so producers and the backend calls they make are not
+     * disturbed. The engine can be started again afterwards. The frames of the pause are neither rendered nor counted as dropped; frame numbers and elapsed
+     * times continue where they stopped.
+     */
+    public void stop() {
+        final Thread engineThread;
+        synchronized (this) {
+            engineThread = thread;
+            thread = null;
+        }
+        if (engineThread == null || engineThread == Thread.currentThread()) {
+            return;
+        }
+        // Wakes the thread if it waits for the next frame; it then sees that it no longer is the engine thread.
+        LockSupport.unpark(engineThread);
+        boolean interrupted = false;
+        while (engineThread.isAlive()) {
+            try {
+                engineThread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the engine. See {@link #stop()}.
+     */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Renders the given number of frame slots on the calling thread, waiting for the scheduled time of each frame.
+     * Dropped frames count towards the number of frames.
+     * @param frames The number of frames.
+     * @throws IllegalStateException Thrown if the engine is running on its own thread.
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting for a frame.
+     */
+    public void runFrames(final long frames) throws InterruptedException {
+        Validate.isTrue(frames >= 0, "The number of frames must not be negative.");
+        Validate.validState(thread == null, "The frame engine is already running.");
+        resumed = true;
+        final long lastFrame = frameNumber + frames;
+        while (frameNumber < lastFrame) {
+            renderNextFrame(false);
+        }
+    }
+
+    /**
+     * @return Returns the current statistics of the engine.
+     */
+    public synchronized FrameStatistics getStatistics() {
+        final long[] times = new long[windowSize];
+        long oldestStart = Long.MAX_VALUE;
+        long newestStart = Long.MIN_VALUE;
+        for (int i = 0; i < windowSize; i++) {
+            times[i] = frameTimes[i];
+            oldestStart = Math.min(oldestStart, frameStarts[i]);
+            newestStart = Math.max(newestStart, frameStarts[i]);
+        }
+        Arrays.sort(times);
+        final double actualFps = windowSize > 1 && newestStart > oldestStart
+                ? (windowSize - 1) * (double) TimeUnit.SECONDS.toNanos(1) / (newestStart - oldestStart)
+                : 0;
+        return new FrameStatistics(targetFps, actualFps, renderedFrames, droppedFrames, overrunFrames, failedFrames,
+                percentile(times, 0.50), percentile(times, 0.95), percentile(times, 0.99),
+                times.length == 0 ? 0 : times[times.length - 1]);
+    }
+
+    private void run() {
+        try {
+            while (thread == Thread.currentThread() && renderNextFrame(true)) {
+                // Render until stopped.
+            }
+        } catch (final InterruptedException e) {
+            // Interrupted by other code than stop(); the engine thread ends.
+        }
+    }
+
+    /**
+     * @param stoppable True if the frame is rendered on the thread of the engine, which {@link #stop()} may stop while
+     *                  it waits for the frame.
+     * @return Returns false if the engine was stopped before the frame was rendered.
+     */
+    private boolean renderNextFrame(final boolean stoppable) throws InterruptedException {
+        if (!scheduled) {
+            startNanos = clock.nanoTime();
+            nextFrameNanos = startNanos;
+            lastFrameNanos = startNanos;
+            scheduled = true;
+        } else if (resumed) {
+            // Shift the schedule by the length of the pause since the last run.
+            final long pause = clock.nanoTime() - nextFrameNanos;
+            if (pause > 0) {
+                startNanos += pause;
+                nextFrameNanos += pause;
+                lastFrameNanos += pause;
+            }
+        }
+        resumed = false;
+        while (clock.nanoTime() - nextFrameNanos < 0) {
+            if (stoppable && thread != Thread.currentThread()) {
+                return false;
+            }
+            clock.parkUntil(nextFrameNanos);
+        }
+
+        // Drop every frame whose successor is already due, i.e. render only the most recent frame that is still due.
+        final long lateness = clock.nanoTime() - nextFrameNanos;
+        long dropped = 0;
+        if (lateness >= periodNanos) {
+            dropped = lateness / periodNanos;
+            nextFrameNanos += dropped * periodNanos;
+            frameNumber += dropped;
+            synchronized (this) {
+                droppedFrames += dropped;
+            }
+        }
+
+        final Object event = FlightRecorderEvents.beginFrame();
+        final long frameStart = clock.nanoTime();
+        context.update(frameNumber, nextFrameNanos, nextFrameNanos - startNanos, nextFrameNanos - lastFrameNanos);
+        boolean failed = false;
+        for (final FrameProducer producer : producers) {
+            try {
+                producer.renderFrame(context);
+            } catch (final RuntimeException e) {
+                lastError = e;
+                failed = true;
+            }
+        }
+        final long frameTime = clock.nanoTime() - frameStart;
+        recordFrame(frameStart, frameTime, failed);
+        FlightRecorderEvents.commitFrame(event, frameNumber, dropped, periodNanos, failed);
+
+        lastFrameNanos = nextFrameNanos;
+        nextFrameNanos += periodNanos;
+        frameNumber++;
+        return true;
+    }
+
+    private synchronized void recordFrame(final long frameStart, final long frameTime, final boolean failed) {
+        frameStarts[windowPosition] = frameStart;
+        frameTimes[windowPosition] = frameTime;
+        windowPosition = (windowPosition + 1) % frameTimes.length;
+        windowSize = Math.min(windowSize + 1, frameTimes.length);
+        renderedFrames++;
+        if (frameTime > periodNanos) {
+            overrunFrames++;
+        }
+        if (failed) {
+            failedFrames++;
+        }
+    }
+
+    private static long percentile(final long[] sortedValues, final double percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, index)];
+    }
+
+    /**
+     * Builder for {@link FrameEngine}.
+     */
+    public static final class Builder {
+        private double targetFps = 30;
+        private FrameClock clock = FrameClock.system();
+        private int statisticsWindow = 256;
+
+        private Builder() {
+        }
+
+        /**
+         * @param targetFps The number of frames per second to render. Defaults to 30.
+         * @return Returns this builder.
+         */
+        public Builder targetFps(final double targetFps) {
+            Validate.isTrue(targetFps > 0 && targetFps <= TimeUnit.SECONDS.toNanos(1), "The target FPS must be in range (0, 1e9].");
+            this.targetFps = targetFps;
+            return this;
+        }
+
+        /**
+         * @param clock The clock of the engine. Defaults to {@link FrameClock#system()}.
+         * @return Returns this builder.
+         */
+        public Builder clock(@NonNull final FrameClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * @param frames The number of most recent frames the frame rate and the frame time percentiles are computed
+         *               over. Defaults to 256.
+         * @return Returns this builder.
+         */
+        public Builder statisticsWindow(final int frames) {
+            Validate.isTrue(frames > 0, "The statistics window must be positive.");
+            this.statisticsWindow = frames;
+            return this;
+        }
+
+        /**
+         * @return Returns the frame engine. The engine is not started.
+         */
+        public FrameEngine build() {
+            return new FrameEngine(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package de.matthiasfisch.mysticlight4j;
+
+/**
+ * Renders the frames of an animation driven by a {@link FrameEngine}.
+ * Producers are called one after another on the thread of the engine and should write their LEDs, e.g. using a
+ * {@link Batch}, and return within the frame budget.
+ */
+@FunctionalInterface
+public interface FrameProducer {
+    /**
+     * Renders a frame.
+     * @param frame The timing of the frame. The object is reused by the engine and must not be retained.
+     */
+    void renderFrame(FrameContext frame);
+}
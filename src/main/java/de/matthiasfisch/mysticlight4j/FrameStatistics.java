@@ -0,0 +1,41 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the statistics of a {@link FrameEngine}.
+ * The frame rate and the frame time percentiles are computed over the most recent frames, see
+ * {@link FrameEngine.Builder#statisticsWindow(int)}. The counters cover the whole lifetime of the engine.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class FrameStatistics {
+    private final double targetFps;
+    private final double actualFps;
+    private final long renderedFrames;
+    private final long droppedFrames;
+    private final long overrunFrames;
+    private final long failedFrames;
+    private final long frameTimeP50Nanos;
+    private final long frameTimeP95Nanos;
+    private final long frameTimeP99Nanos;
+    private final long maxFrameTimeNanos;
+
+    FrameStatistics(final double targetFps, final double actualFps, final long renderedFrames, final long droppedFrames,
+                    final long overrunFrames, final long failedFrames, final long frameTimeP50Nanos,
+                    final long frameTimeP95Nanos, final long frameTimeP99Nanos, final long maxFrameTimeNanos) {
+        this.targetFps = targetFps;
+        this.actualFps = actualFps;
+        this.renderedFrames = renderedFrames;
+        this.droppedFrames = droppedFrames;
+        this.overrunFrames = overrunFrames;
+        this.failedFrames = failedFrames;
+        this.frameTimeP50Nanos = frameTimeP50Nanos;
+        this.frameTimeP95Nanos = frameTimeP95Nanos;
+        this.frameTimeP99Nanos = frameTimeP99Nanos;
+        this.maxFrameTimeNanos = maxFrameTimeNanos;
+    }
+}
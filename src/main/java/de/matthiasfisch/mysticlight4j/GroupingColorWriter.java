@@ -0,0 +1,173 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writes the colors of a frame with as few backend calls as possible.
+ * The colors of a frame are collected with {@link #setColor(LED, Color)} and written with {@link #flush()}. On flush
+ * the LEDs of each device are grouped by their target color, and every group of at least the minimum group size is
+ * written with one call of {@link Device#setColors(java.util.Collection, Color)} instead of one call per LED. LEDs
+ * in smaller groups and LEDs whose names are not unique on their device are written with {@link LED#setColor(Color)}.
+ * If the SDK does not provide multi-LED writes for a device ({@code MLAPI_NO_IMPLEMENTED}), the group is written LED
+ * by LED and the device is written LED by LED from then on.
+ * The writes to a device are serialized with the commits of {@link Batch}es touching the device. Writers are not
+ * thread safe.
+ */
+public final class GroupingColorWriter {
+    /**
+     * The minimum number of LEDs sharing a color that are written with one call if not configured otherwise.
+     */
+    public static final int DEFAULT_MINIMUM_GROUP_SIZE = 2;
+
+    private final int minimumGroupSize;
+    private final FrameColors colors = new FrameColors();
+    private final NotImplementedFallback singleWriteFallback = new NotImplementedFallback();
+    private final WriteFailures failures = new WriteFailures();
+
+    private long flushes = 0;
+    private long groupCalls = 0;
+    private long groupedLeds = 0;
+    private long singleCalls = 0;
+
+    /**
+     * Creates a writer with the {@link #DEFAULT_MINIMUM_GROUP_SIZE default minimum group size}.
+     */
+    public GroupingColorWriter() {
+        this(DEFAULT_MINIMUM_GROUP_SIZE);
+    }
+
+    /**
+     * @param minimumGroupSize The minimum number of LEDs of a device sharing a color that are written with one call.
+     */
+    public GroupingColorWriter(final int minimumGroupSize) {
+        Validate.isTrue(minimumGroupSize >= 2, "The minimum group size must be at least 2.");
+        this.minimumGroupSize = minimumGroupSize;
+    }
+
+    /**
+     * Sets the target color of a LED for the current frame. Replaces the color set before.
+     * @param led The LED.
+     * @param color The color.
+     * @return Returns this writer.
+     */
+    public GroupingColorWriter setColor(@NonNull final LED led, @NonNull final Color color) {
+        return setColorRgb(led, color.getRgb());
+    }
+
+    /**
+     * Sets the target color of a LED for the current frame. Replaces the color set before.
+     * @param led The LED.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @return Returns this writer.
+     */
+    public GroupingColorWriter setColorRgb(@NonNull final LED led, final int rgb) {
+        colors.put(led, rgb);
+        return this;
+    }
+
+    /**
+     * @return Returns the number of LEDs with a target color that were not flushed yet.
+     */
+    public int getPendingCount() {
+        return colors.size();
+    }
+
+    /**
+     * Discards the target colors that were not flushed yet.
+     */
+    public void clear() {
+        colors.clear();
+    }
+
+    /**
+     * Writes the target colors of the current frame. A failing call does not prevent the remaining colors from being
+     * written; the last error is available from {@link #getLastError()}. Afterwards the writer is empty.
+     * @return Returns the number of calls made to the backends. Group and single writes skipped by write suppression
+     * are counted as calls as well, so the result doesn't depend on whether write suppression is enabled.
+     */
+    public int flush() {
+        int calls = 0;
+        for (final Map.Entry<Device, Map<LED, Integer>> deviceColors : colors.drainByDevice().entrySet()) {
+            final Device device = deviceColors.getKey();
+            final Map<Integer, List<LED>> groups = new LinkedHashMap<>();
+            deviceColors.getValue().forEach((led, rgb) -> groups.computeIfAbsent(rgb, color -> new ArrayList<>()).add(led));
+            synchronized (device.batchLock()) {
+                final Set<String> duplicateNames = device.getDuplicateLEDNames();
+                for (final Map.Entry<Integer, List<LED>> group : groups.entrySet()) {
+                    calls += write(device, Color.ofRgb(group.getKey()), group.getValue(), duplicateNames);
+                }
+            }
+        }
+        flushes++;
+        return calls;
+    }
+
+    /**
+     * @return Returns the current metrics of the writer.
+     */
+    public GroupingStatistics getStatistics() {
+        return new GroupingStatistics(flushes, groupCalls, groupedLeds, singleCalls, failures.getCount());
+    }
+
+    /**
+     * @return Returns the last error of a write or an empty optional if no write failed.
+     */
+    public Optional<RuntimeException> getLastError() {
+        return Optional.ofNullable(failures.getLastErrorOrNull());
+    }
+
+    private int write(final Device device, final Color color, final List<LED> leds, final Set<String> duplicateNames) {
+        final List<LED> grouped = new ArrayList<>(leds.size());
+        final List<LED> singles = new ArrayList<>();
+        for (final LED led : leds) {
+            if (duplicateNames.contains(led.getName())) {
+                singles.add(led);
+            } else {
+                grouped.add(led);
+            }
+        }
+
+        int calls = 0;
+        if (grouped.size() >= minimumGroupSize && !singleWriteFallback.isFallback(device)) {
+            try {
+                device.setColors(grouped, color);
+                calls++;
+                groupCalls++;
+                groupedLeds += grouped.size();
+                grouped.clear();
+            } catch (final MysticLightAPIException e) {
+                calls++;
+                if (!singleWriteFallback.fallBackIfNotImplemented(device, e)) {
+                    failures.record(e);
+                    grouped.clear();
+                }
+            } catch (final RuntimeException e) {
+                calls++;
+                failures.record(e);
+                grouped.clear();
+            }
+        }
+        singles.addAll(grouped);
+
+        for (final LED led : singles) {
+            calls++;
+            try {
+                led.setColor(color);
+                singleCalls++;
+            } catch (final RuntimeException e) {
+                failures.record(e);
+            }
+        }
+        return calls;
+    }
+}
@@ -0,0 +1,28 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the metrics of a {@link GroupingColorWriter}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class GroupingStatistics {
+    private final long flushes;
+    private final long groupCalls;
+    private final long groupedLeds;
+    private final long singleCalls;
+    private final long failedCalls;
+
+    GroupingStatistics(final long flushes, final long groupCalls, final long groupedLeds, final long singleCalls,
+                       final long failedCalls) {
+        this.flushes = flushes;
+        this.groupCalls = groupCalls;
+        this.groupedLeds = groupedLeds;
+        this.singleCalls = singleCalls;
+        this.failedCalls = failedCalls;
+    }
+}
@@ -0,0 +1,33 @@
+package de.matthiasfisch.mysticlight4j;
+
+/**
+ * Range checks for the per-LED write paths. These are called once per LED write, so they test the bounds with plain
+ * comparisons and only build the message when the check fails: {@code Validate.isTrue(boolean, String, Object...)}
+ * would box the index and allocate its varargs array on every call, even for valid indexes.
+ */
+final class IndexChecks {
+    private IndexChecks() {
+    }
+
+    /**
+     * @param ledIndex The index of the LED.
+     * @param ledCount The number of LEDs.
+     * @throws IllegalArgumentException if the index is not in range {@code [0, ledCount)}.
+     */
+    static void checkLedIndex(final int ledIndex, final int ledCount) {
+        if (ledIndex < 0 || ledIndex >= ledCount) {
+            throw new IllegalArgumentException(String.format("LED index must be in range [0, %s]", ledCount));
+        }
+    }
+
+    /**
+     * @param slot The slot.
+     * @param slotCount The number of slots.
+     * @throws IndexOutOfBoundsException if the slot is not in range {@code [0, slotCount)}.
+     */
+    static void checkSlot(final int slot, final int slotCount) {
+        if (slot < 0 || slot >= slotCount) {
+            throw new IndexOutOfBoundsException("Slot must be in range [0, " + (slotCount - 1) + "]");
+        }
+    }
+}
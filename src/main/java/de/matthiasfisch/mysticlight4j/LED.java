@@ -2,7 +2,6 @@ package de.matthiasfisch.mysticlight4j;
 
 import de.matthiasfisch.mysticlight4j.api.Color;
 import de.matthiasfisch.mysticlight4j.api.LedInfo;
-import de.matthiasfisch.mysticlight4j.api.MysticLightAPI;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
@@ -18,26 +17,101 @@ import java.util.List;
  */
 @Getter
 @EqualsAndHashCode
-@ToString
+@ToString(doNotUseGetters = true)
 public final class LED {
     private final Device device;
     private final int index;
     @EqualsAndHashCode.Exclude
-    private final LedInfo ledInfo;
+    private volatile LedInfo ledInfo;
+    @EqualsAndHashCode.Exclude
+    private volatile LedCapabilities capabilities;
 
     protected LED(@NonNull final Device device, final int index) {
+        this(device, index, false);
+    }
+
+    /**
+     * @param device The device the LED belongs to.
+     * @param index The index of the LED on the device.
+     * @param lazy Whether to defer probing the LED information and capabilities until they are accessed first.
+     */
+    LED(@NonNull final Device device, final int index, final boolean lazy) {
         Validate.isTrue(index >= 0, "The LED index must not be negative.");
         Validate.isTrue(index < device.getNumberOfLEDs(), "The LED index must be less than the number of LEDs of the device.");
         this.device = device;
         this.index = index;
-        this.ledInfo = MysticLightAPI.getLedInfo(device.getIdentifier(), index);
+        if (!lazy) {
+            reprobeCapabilities();
+        }
+    }
+
+    /**
+     * Probes the LED information and the capabilities of this LED again. The capabilities are probed once when the LED
+     * is created or, for lazily discovered LEDs, when they are accessed first. Calling this method is only required if
+     * the capabilities may have changed since then.
+     * @return Returns the new capabilities.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if probing the capabilities fails.
+     */
+    public synchronized LedCapabilities reprobeCapabilities() {
+        final String deviceId = device.getIdentifier();
+        final LedInfo probedInfo = device.getBackend().getLedInfo(deviceId, index);
+        final LedCapabilities probedCapabilities = new LedCapabilities(
+                device.getBackend().getLedMaxBright(deviceId, index),
+                device.getBackend().getLedMaxSpeed(deviceId, index),
+                Arrays.asList(probedInfo.getStyles()));
+        this.ledInfo = probedInfo;
+        this.capabilities = probedCapabilities;
+        device.invalidateNameIndex();
+        return probedCapabilities;
+    }
+
+    /**
+     * @return Returns the information about this LED as returned by the backend.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if the LED was discovered lazily and probing it fails.
+     */
+    public LedInfo getLedInfo() {
+        getCapabilities();
+        return ledInfo;
+    }
+
+    /**
+     * @return Returns the capabilities of this LED.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if the LED was discovered lazily and probing it fails.
+     */
+    public LedCapabilities getCapabilities() {
+        LedCapabilities probed = capabilities;
+        if (probed == null) {
+            synchronized (this) {
+                probed = capabilities;
+                if (probed == null) {
+                    probed = reprobeCapabilities();
+                }
+            }
+        }
+        return probed;
+    }
+
+    /**
+     * @return Returns true if the information and capabilities of this LED were already probed.
+     */
+    public boolean isProbed() {
+        return capabilities != null;
     }
 
     /**
      * @return Returns the human readable name of the LED.
      */
     public String getName() {
-        return ledInfo.getName();
+        return getLedInfo().getName();
+    }
+
+    /**
+     * Returns an asynchronous view of this LED whose calls are executed on the given executor.
+     * @param executor The executor performing the calls.
+     * @return Returns the asynchronous view.
+     */
+    public AsyncLED async(@NonNull final NativeCallExecutor executor) {
+        return new AsyncLED(this, executor);
     }
 
     /**
@@ -46,59 +120,151 @@ public final class LED {
      * @return Returns the styles available for this LED.
      */
     public List<String> getAvailableStyles() {
-        return Arrays.asList(ledInfo.getStyles());
+        return getCapabilities().getStyles();
     }
 
     /**
+     * Returns the currently active color of the LED.
+     * If the state cache of the device is enabled, the value may be served from the cache.
      * @return Returns the currently active color of the LED.
      */
     public Color getColor() {
-        return MysticLightAPI.getLedColor(device.getIdentifier(), index);
+        final LedStateCache cache = device.stateCacheOrNull();
+        if (cache != null) {
+            final Color cached = cache.getColor(index);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final Color color = device.getBackend().getLedColor(device.getIdentifier(), index);
+        if (cache != null) {
+            cache.putColor(index, color);
+        }
+        return color;
     }
 
     /**
+     * Returns the currently active color of the LED. See {@link #getColor()}.
+     * @return Returns the currently active color of the LED as {@code 0xRRGGBB}.
+     */
+    public int getColorRgb() {
+        final LedStateCache cache = device.stateCacheOrNull();
+        if (cache != null) {
+            final int cached = cache.getColorRgb(index);
+            if (cached != LedStateCache.MISS) {
+                return cached;
+            }
+        }
+        final Color color = device.getBackend().getLedColor(device.getIdentifier(), index);
+        if (cache != null) {
+            cache.putColor(index, color);
+        }
+        return color.getRgb();
+    }
+
+    /**
+     * Returns the currently set style of the LED.
+     * If the state cache of the device is enabled, the value may be served from the cache.
      * @return Returns the currently set style of the LED.
      */
     public String getStyle() {
-        return MysticLightAPI.getLedStyle(device.getIdentifier(), index);
+        return getStyleHandle().getName();
+    }
+
+    /**
+     * Returns the handle of the currently set style of the LED.
+     * If the state cache of the device is enabled, the value may be served from the cache without resolving the name.
+     * @return Returns the handle of the currently set style.
+     */
+    public Style getStyleHandle() {
+        final LedStateCache cache = device.stateCacheOrNull();
+        if (cache != null) {
+            final Style cached = cache.getStyle(index);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final Style style = Style.of(device.getBackend().getLedStyle(device.getIdentifier(), index));
+        if (cache != null) {
+            cache.putStyle(index, style);
+        }
+        return style;
     }
 
     /**
      * Returns the maximum brightness level of the LED. This is the maximum value that can be set with {@link #setBrightnessLevel(int)}.
+     * The value is taken from the {@link #getCapabilities() capabilities} of the LED.
      * @return The maximum brightness level.
      */
     public int getMaximumBrightnessLevel() {
-        return MysticLightAPI.getLedMaxBright(device.getIdentifier(), index);
+        return getCapabilities().getMaximumBrightnessLevel();
     }
 
     /**
+     * Returns the current brightness level of the LED.
+     * If the state cache of the device is enabled, the value may be served from the cache.
      * @return Returns the current brightness level of the LED.
      */
     public int getBrightnessLevel() {
-        return MysticLightAPI.getLedBright(device.getIdentifier(), index);
+        final LedStateCache cache = device.stateCacheOrNull();
+        if (cache != null) {
+            final int cached = cache.getBrightnessLevel(index);
+            if (cached != LedStateCache.MISS) {
+                return cached;
+            }
+        }
+        final int brightnessLevel = device.getBackend().getLedBright(device.getIdentifier(), index);
+        if (cache != null) {
+            cache.putBrightnessLevel(index, brightnessLevel);
+        }
+        return brightnessLevel;
     }
 
     /**
      * Returns the maximum speed level of the LED. This is the maximum value that can be set with {@link #setSpeedLevel(int)}.
+     * The value is taken from the {@link #getCapabilities() capabilities} of the LED.
      * @return Returns the maximum speed level.
      */
     public int getMaximumSpeedLevel() {
-        return MysticLightAPI.getLedMaxSpeed(device.getIdentifier(), index);
+        return getCapabilities().getMaximumSpeedLevel();
     }
 
     /**
+     * Returns the current speed level of the LED.
+     * If the state cache of the device is enabled, the value may be served from the cache.
      * @return Returns the current speed level of the LED.
      */
     public int getSpeedLevel() {
-        return MysticLightAPI.getLedSpeed(device.getIdentifier(), index);
+        final LedStateCache cache = device.stateCacheOrNull();
+        if (cache != null) {
+            final int cached = cache.getSpeedLevel(index);
+            if (cached != LedStateCache.MISS) {
+                return cached;
+            }
+        }
+        final int speedLevel = device.getBackend().getLedSpeed(device.getIdentifier(), index);
+        if (cache != null) {
+            cache.putSpeedLevel(index, speedLevel);
+        }
+        return speedLevel;
     }
 
     /**
      * Sets the color of the LED.
+     * If write suppression is enabled for the device, the write is skipped if the color was already written.
      * @param color The color to set.
      */
     public void setColor(@NonNull final Color color) {
-        MysticLightAPI.setLedColor(device.getIdentifier(), index, color);
+        if (isColorWriteSuppressed(color)) {
+            return;
+        }
+        try {
+            device.getBackend().setLedColor(device.getIdentifier(), index, color);
+        } catch (final RuntimeException e) {
+            colorWriteFailed();
+            throw e;
+        }
+        colorWritten(color);
     }
 
     /**
@@ -108,7 +274,16 @@ public final class LED {
      * @param blue The blue color channel in range [0,255].
      */
     public void setColor(final int red, final int green, final int blue) {
-        setColor(new Color((short) red, (short) green, (short) blue));
+        setColorRgb(Color.pack(red, green, blue));
+    }
+
+    /**
+     * Sets the color of the LED. Unlike {@link #setColor(Color)} with a new color object, this doesn't allocate if
+     * the color is in the cache of {@link Color#ofRgb(int)}.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     */
+    public void setColorRgb(final int rgb) {
+        setColor(Color.ofRgb(rgb));
     }
 
     /**
@@ -116,8 +291,40 @@ public final class LED {
      * @param style The style to set.
      */
     public void setStyle(@NonNull final String style) {
-        Validate.isTrue(Arrays.asList(ledInfo.getStyles()).contains(style), "The given style is not available for the LED.");
-        MysticLightAPI.setLedStyle(device.getIdentifier(), index, style);
+        final Style handle = Style.find(style);
+        Validate.isTrue(handle != null, "The given style is not available for the LED.");
+        setStyle(handle);
+    }
+
+    /**
+     * Sets the active style of the LED. This must be one of the styles in {@link LedCapabilities#getStyleHandles()}.
+     * The membership check is a single bit lookup in the {@link #getCapabilities() capabilities} of the LED.
+     * @param style The handle of the style to set.
+     */
+    public void setStyle(@NonNull final Style style) {
+        Validate.isTrue(getCapabilities().supportsStyle(style), "The given style is not available for the LED.");
+        final WriteSuppressor suppressor = device.writeSuppressorOrNull();
+        if (suppressor != null && suppressor.suppressStyle(index, style)) {
+            return;
+        }
+        final LedStateCache cache = device.stateCacheOrNull();
+        try {
+            device.getBackend().setLedStyle(device.getIdentifier(), index, style.getName());
+        } catch (final RuntimeException e) {
+            if (cache != null) {
+                cache.invalidate(index);
+            }
+            if (suppressor != null) {
+                suppressor.invalidate(index);
+            }
+            throw e;
+        }
+        if (cache != null) {
+            cache.putStyle(index, style);
+        }
+        if (suppressor != null) {
+            suppressor.rememberStyle(index, style);
+        }
     }
 
     /**
@@ -125,8 +332,29 @@ public final class LED {
      * @param brightnessLevel The brightness level in range [0, {@link #getMaximumBrightnessLevel()}].
      */
     public void setBrightnessLevel(final int brightnessLevel) {
-        Validate.inclusiveBetween(0, getMaximumBrightnessLevel(), brightnessLevel, "The brightness level is out of range.");
-        MysticLightAPI.setLedBright(device.getIdentifier(), index, brightnessLevel);
+        Validate.isTrue(getCapabilities().isValidBrightnessLevel(brightnessLevel), "The brightness level is out of range.");
+        final WriteSuppressor suppressor = device.writeSuppressorOrNull();
+        if (suppressor != null && suppressor.suppressBrightnessLevel(index, brightnessLevel)) {
+            return;
+        }
+        final LedStateCache cache = device.stateCacheOrNull();
+        try {
+            device.getBackend().setLedBright(device.getIdentifier(), index, brightnessLevel);
+        } catch (final RuntimeException e) {
+            if (cache != null) {
+                cache.invalidate(index);
+            }
+            if (suppressor != null) {
+                suppressor.invalidate(index);
+            }
+            throw e;
+        }
+        if (cache != null) {
+            cache.putBrightnessLevel(index, brightnessLevel);
+        }
+        if (suppressor != null) {
+            suppressor.rememberBrightnessLevel(index, brightnessLevel);
+        }
     }
 
     /**
@@ -134,7 +362,124 @@ public final class LED {
      * @param speedLevel The speed level of the LED in range [0, {@link #getMaximumSpeedLevel()}].
      */
     public void setSpeedLevel(final int speedLevel) {
-        Validate.inclusiveBetween(0, getMaximumSpeedLevel(), speedLevel, "The speed level is out of range.");
-        MysticLightAPI.setLedSpeed(device.getIdentifier(), index, speedLevel);
+        Validate.isTrue(getCapabilities().isValidSpeedLevel(speedLevel), "The speed level is out of range.");
+        final WriteSuppressor suppressor = device.writeSuppressorOrNull();
+        if (suppressor != null && suppressor.suppressSpeedLevel(index, speedLevel)) {
+            return;
+        }
+        final LedStateCache cache = device.stateCacheOrNull();
+        try {
+            device.getBackend().setLedSpeed(device.getIdentifier(), index, speedLevel);
+        } catch (final RuntimeException e) {
+            if (cache != null) {
+                cache.invalidate(index);
+            }
+            if (suppressor != null) {
+                suppressor.invalidate(index);
+            }
+            throw e;
+        }
+        if (cache != null) {
+            cache.putSpeedLevel(index, speedLevel);
+        }
+        if (suppressor != null) {
+            suppressor.rememberSpeedLevel(index, speedLevel);
+        }
+    }
+
+    /**
+     * @param color The color about to be written.
+     * @return Returns true if write suppression is enabled for the device and the color was already written.
+     */
+    boolean isColorWriteSuppressed(final Color color) {
+        final WriteSuppressor suppressor = device.writeSuppressorOrNull();
+        return suppressor != null && suppressor.suppressColor(index, color);
+    }
+
+    /**
+     * @param color The color about to be written.
+     * @return Returns true if write suppression is enabled for the device and would skip writing the color. Unlike
+     * {@link #isColorWriteSuppressed(Color)}, the check is not counted by the write suppression.
+     */
+    boolean wouldSuppressColorWrite(final Color color) {
+        final WriteSuppressor suppressor = device.writeSuppressorOrNull();
+        return suppressor != null && suppressor.isColorRemembered(index, color);
+    }
+
+    /**
+     * Updates the state cache and the write suppression of the device after the color was written.
+     * @param color The written color.
+     */
+    void colorWritten(final Color color) {
+        final LedStateCache cache = device.stateCacheOrNull();
+        if (cache != null) {
+            cache.putColor(index, color);
+        }
+        final WriteSuppressor suppressor = device.writeSuppressorOrNull();
+        if (suppressor != null) {
+            suppressor.rememberColor(index, color);
+        }
+    }
+
+    /**
+     * Discards the state of this LED from the state cache and the write suppression of the device after writing the
+     * color failed, as the state of the LED is unknown.
+     */
+    void colorWriteFailed() {
+        final LedStateCache cache = device.stateCacheOrNull();
+        if (cache != null) {
+            cache.invalidate(index);
+        }
+        final WriteSuppressor suppressor = device.writeSuppressorOrNull();
+        if (suppressor != null) {
+            suppressor.invalidate(index);
+        }
+    }
+
+    /**
+     * Reloads the color, style, brightness and speed level of this LED from the backend into the state cache of the
+     * device. Does nothing if caching is not enabled.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if reading the state fails.
+     */
+    public void refreshState() {
+        final LedStateCache cache = device.stateCacheOrNull();
+        if (cache == null) {
+            return;
+        }
+        final String deviceId = device.getIdentifier();
+        cache.putColor(index, device.getBackend().getLedColor(deviceId, index));
+        cache.putStyle(index, Style.of(device.getBackend().getLedStyle(deviceId, index)));
+        cache.putBrightnessLevel(index, device.getBackend().getLedBright(deviceId, index));
+        cache.putSpeedLevel(index, device.getBackend().getLedSpeed(deviceId, index));
+    }
+
+    /**
+     * Writes the values remembered by the write suppression of the device to this LED again, even if they are
+     * unchanged. This restores the state after other software may have changed the LED. Does nothing if write
+     * suppression is not enabled.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if a write fails.
+     */
+    public void forceResync() {
+        final WriteSuppressor suppressor = device.writeSuppressorOrNull();
+        if (suppressor == null) {
+            return;
+        }
+        final Style style = suppressor.getStyle(index);
+        final int brightnessLevel = suppressor.getBrightnessLevel(index);
+        final int speedLevel = suppressor.getSpeedLevel(index);
+        final Color color = suppressor.getColor(index);
+        suppressor.invalidate(index);
+        if (style != null) {
+            setStyle(style);
+        }
+        if (brightnessLevel >= 0) {
+            setBrightnessLevel(brightnessLevel);
+        }
+        if (speedLevel >= 0) {
+            setSpeedLevel(speedLevel);
+        }
+        if (color != null) {
+            setColor(color);
+        }
     }
 }
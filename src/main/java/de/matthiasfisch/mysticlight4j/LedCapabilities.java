@@ -0,0 +1,88 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.collect.ImmutableList;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import org.apache.commons.lang3.Validate;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the capabilities of a {@link LED}, i.e. its maximum brightness level, its maximum speed level
+ * and the styles it supports.
+ * The capabilities are probed once when the LED is created, so that the setters of {@link LED} can validate their
+ * arguments without calling the backend. If the capabilities of a LED may have changed they can be probed again
+ * with {@link LED#reprobeCapabilities()}.
+ * The supported styles are resolved to {@link Style} handles once, so that {@link #supportsStyle(Style)} is a single
+ * bit lookup.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class LedCapabilities {
+    private final int maximumBrightnessLevel;
+    private final int maximumSpeedLevel;
+    private final ImmutableList<String> styles;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final ImmutableList<Style> styleHandles;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private final BitSet styleOrdinals;
+
+    /**
+     * @param maximumBrightnessLevel The maximum brightness level of the LED.
+     * @param maximumSpeedLevel The maximum speed level of the LED.
+     * @param styles The styles supported by the LED.
+     */
+    public LedCapabilities(final int maximumBrightnessLevel, final int maximumSpeedLevel, @NonNull final List<String> styles) {
+        Validate.isTrue(maximumBrightnessLevel >= 0, "The maximum brightness level must not be negative.");
+        Validate.isTrue(maximumSpeedLevel >= 0, "The maximum speed level must not be negative.");
+        this.maximumBrightnessLevel = maximumBrightnessLevel;
+        this.maximumSpeedLevel = maximumSpeedLevel;
+        this.styles = ImmutableList.copyOf(styles);
+        this.styleHandles = this.styles.stream()
+                .map(Style::of)
+                .collect(ImmutableList.toImmutableList());
+        this.styleOrdinals = new BitSet();
+        styleHandles.forEach(style -> styleOrdinals.set(style.getOrdinal()));
+    }
+
+    /**
+     * @param style The name of the style.
+     * @return Returns true if the LED supports the style.
+     */
+    public boolean supportsStyle(@NonNull final String style) {
+        final Style handle = Style.find(style);
+        return handle != null && supportsStyle(handle);
+    }
+
+    /**
+     * @param style The handle of the style.
+     * @return Returns true if the LED supports the style.
+     */
+    public boolean supportsStyle(@NonNull final Style style) {
+        return styleOrdinals.get(style.getOrdinal());
+    }
+
+    /**
+     * @param brightnessLevel The brightness level.
+     * @return Returns true if the brightness level is in range [0, {@link #getMaximumBrightnessLevel()}].
+     */
+    public boolean isValidBrightnessLevel(final int brightnessLevel) {
+        return brightnessLevel >= 0 && brightnessLevel <= maximumBrightnessLevel;
+    }
+
+    /**
+     * @param speedLevel The speed level.
+     * @return Returns true if the speed level is in range [0, {@link #getMaximumSpeedLevel()}].
+     */
+    public boolean isValidSpeedLevel(final int speedLevel) {
+        return speedLevel >= 0 && speedLevel <= maximumSpeedLevel;
+    }
+}
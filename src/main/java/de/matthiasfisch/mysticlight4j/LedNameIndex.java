@@ -0,0 +1,88 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import lombok.NonNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the LEDs of a {@link Device} by their names.
+ * Lookups by exact name are a single hash map access. Results of prefix and pattern lookups are computed once and
+ * then served from a memo, so repeated lookups with the same argument are hash map accesses as well.
+ * Names that are used by more than one LED of the device are detected when the index is built.
+ */
+final class LedNameIndex {
+    /**
+     * Maximum number of memoized prefix and pattern lookups. Further lookups are computed but not memoized.
+     */
+    private static final int MAX_MEMOIZED_LOOKUPS = 256;
+
+    private final ImmutableList<LED> leds;
+    private final ImmutableMap<String, LED> ledsByName;
+    private final ImmutableSet<String> duplicateNames;
+    private final Map<String, ImmutableList<LED>> prefixLookups = new ConcurrentHashMap<>();
+    private final Map<String, ImmutableList<LED>> patternLookups = new ConcurrentHashMap<>();
+
+    LedNameIndex(@NonNull final List<LED> leds) {
+        final Map<String, LED> byName = new HashMap<>();
+        final Set<String> duplicates = new LinkedHashSet<>();
+        for (final LED led : leds) {
+            if (byName.putIfAbsent(led.getName(), led) != null) {
+                duplicates.add(led.getName());
+            }
+        }
+        duplicates.forEach(byName::remove);
+        this.leds = ImmutableList.copyOf(leds);
+        this.ledsByName = ImmutableMap.copyOf(byName);
+        this.duplicateNames = ImmutableSet.copyOf(duplicates);
+    }
+
+    /**
+     * @param name The name of the LED.
+     * @return Returns the LED with the given name or null if there is no such LED.
+     * @throws IllegalArgumentException Thrown if multiple LEDs have the given name.
+     */
+    LED get(@NonNull final String name) {
+        final LED led = ledsByName.get(name);
+        if (led == null && duplicateNames.contains(name)) {
+            throw new IllegalArgumentException(String.format("There are multiple LEDs with name %s.", name));
+        }
+        return led;
+    }
+
+    ImmutableSet<String> getDuplicateNames() {
+        return duplicateNames;
+    }
+
+    ImmutableList<LED> getByPrefix(@NonNull final String prefix) {
+        return lookup(prefixLookups, prefix, led -> led.getName().startsWith(prefix));
+    }
+
+    ImmutableList<LED> getMatching(@NonNull final Pattern pattern) {
+        final String key = pattern.flags() + ":" + pattern.pattern();
+        return lookup(patternLookups, key, led -> pattern.matcher(led.getName()).matches());
+    }
+
+    private ImmutableList<LED> lookup(final Map<String, ImmutableList<LED>> memo, final String key, final Predicate<LED> filter) {
+        final ImmutableList<LED> memoized = memo.get(key);
+        if (memoized != null) {
+            return memoized;
+        }
+        final ImmutableList<LED> result = leds.stream()
+                .filter(filter)
+                .collect(ImmutableList.toImmutableList());
+        if (memo.size() < MAX_MEMOIZED_LOOKUPS) {
+            memo.put(key, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,155 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache for the state of the LEDs of a single {@link Device}.
+ * The cache is enabled with {@link Device#enableStateCache(long, TimeUnit)}. If enabled the getters of {@link LED}
+ * return cached values as long as they are not older than the configured staleness bound, and the setters of {@link LED}
+ * update the cache after the value was written (write-through).
+ * The state is stored in primitive arrays indexed by the LED index. Colors are stored as packed {@code 0xRRGGBB} values
+ * and styles as the ordinals of their {@link Style} handles.
+ * The cache can't detect changes made by other software. Use {@link #invalidate()} or {@link Device#refreshState()}
+ * if the state may have been changed externally.
+ */
+public final class LedStateCache {
+    private static final int COLOR = 0;
+    private static final int STYLE = 1;
+    private static final int BRIGHTNESS = 2;
+    private static final int SPEED = 3;
+    private static final int PROPERTY_COUNT = 4;
+    private static final long NOT_LOADED = Long.MIN_VALUE;
+
+    /**
+     * Value returned by the integer getters if there is no valid cache entry.
+     */
+    static final int MISS = -1;
+
+    private final int ledCount;
+    private final long maxStalenessNanos;
+    private final int[] colors;
+    private final int[] styles;
+    private final int[] brightnessLevels;
+    private final int[] speedLevels;
+    private final long[] loadedAt;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    LedStateCache(final int ledCount, final long maxStaleness, @NonNull final TimeUnit unit) {
+        Validate.isTrue(ledCount >= 0, "The number of LEDs must not be negative.");
+        Validate.isTrue(maxStaleness >= 0, "The maximum staleness must not be negative.");
+        this.ledCount = ledCount;
+        this.maxStalenessNanos = unit.toNanos(maxStaleness);
+        this.colors = new int[ledCount];
+        this.styles = new int[ledCount];
+        this.brightnessLevels = new int[ledCount];
+        this.speedLevels = new int[ledCount];
+        this.loadedAt = new long[ledCount * PROPERTY_COUNT];
+        Arrays.fill(loadedAt, NOT_LOADED);
+    }
+
+    /**
+     * @return Returns the maximum age of a cache entry in nanoseconds before it is considered stale.
+     */
+    public long getMaxStalenessNanos() {
+        return maxStalenessNanos;
+    }
+
+    /**
+     * @return Returns the number of reads served from the cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Returns the number of reads that had to be forwarded to the backend.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Invalidates all entries of the cache. The next read of every property will be forwarded to the backend.
+     */
+    public synchronized void invalidate() {
+        Arrays.fill(loadedAt, NOT_LOADED);
+    }
+
+    /**
+     * Invalidates all entries of a single LED.
+     * @param ledIndex The index of the LED.
+     */
+    public synchronized void invalidate(final int ledIndex) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        for (int property = 0; property < PROPERTY_COUNT; property++) {
+            loadedAt[slot(property, ledIndex)] = NOT_LOADED;
+        }
+    }
+
+    synchronized Color getColor(final int ledIndex) {
+        return isValid(COLOR, ledIndex) ? Color.ofRgb(colors[ledIndex]) : null;
+    }
+
+    synchronized int getColorRgb(final int ledIndex) {
+        return isValid(COLOR, ledIndex) ? colors[ledIndex] : MISS;
+    }
+
+    synchronized Style getStyle(final int ledIndex) {
+        return isValid(STYLE, ledIndex) ? Style.byOrdinal(styles[ledIndex]) : null;
+    }
+
+    synchronized int getBrightnessLevel(final int ledIndex) {
+        return isValid(BRIGHTNESS, ledIndex) ? brightnessLevels[ledIndex] : MISS;
+    }
+
+    synchronized int getSpeedLevel(final int ledIndex) {
+        return isValid(SPEED, ledIndex) ? speedLevels[ledIndex] : MISS;
+    }
+
+    synchronized void putColor(final int ledIndex, @NonNull final Color color) {
+        loaded(COLOR, ledIndex);
+        colors[ledIndex] = color.getRgb();
+    }
+
+    synchronized void putStyle(final int ledIndex, @NonNull final Style style) {
+        loaded(STYLE, ledIndex);
+        styles[ledIndex] = style.getOrdinal();
+    }
+
+    synchronized void putBrightnessLevel(final int ledIndex, final int brightnessLevel) {
+        loaded(BRIGHTNESS, ledIndex);
+        brightnessLevels[ledIndex] = brightnessLevel;
+    }
+
+    synchronized void putSpeedLevel(final int ledIndex, final int speedLevel) {
+        loaded(SPEED, ledIndex);
+        speedLevels[ledIndex] = speedLevel;
+    }
+
+    private boolean isValid(final int property, final int ledIndex) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        final long timestamp = loadedAt[slot(property, ledIndex)];
+        if (timestamp != NOT_LOADED && System.nanoTime() - timestamp <= maxStalenessNanos) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    private void loaded(final int property, final int ledIndex) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        loadedAt[slot(property, ledIndex)] = System.nanoTime();
+    }
+
+    private int slot(final int property, final int ledIndex) {
+        return property * ledCount + ledIndex;
+    }
+}
@@ -1,15 +1,32 @@
 package de.matthiasfisch.mysticlight4j;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import de.matthiasfisch.mysticlight4j.api.Color;
 import de.matthiasfisch.mysticlight4j.api.MysticLightAPI;
+import de.matthiasfisch.mysticlight4j.api.MysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.NativeMysticLightBackend;
 import lombok.NonNull;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -19,8 +36,11 @@ import java.util.stream.Collectors;
  * accessed via these objects.
  * If you don't want to use the OOP interface, you can directly access the Mystic Light SDK API functions via the
  * {@link MysticLightAPI} JNI interface.
+ * All calls are made through a {@link MysticLightBackend}. By default this is the native SDK, but another backend such as
+ * the {@link de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend} can be passed to {@link #MysticLight4j(MysticLightBackend)}.
  */
 public class MysticLight4j {
+    private final MysticLightBackend backend;
 
     /**
      * Initializes a new MysticLight4j instance initializing the native API if necessary.
@@ -52,14 +72,202 @@ public class MysticLight4j {
             throw new IllegalStateException("The JVM must run with administrator privileges in order to control Mystic Light devices.");
         }
         MysticLightAPI.initialize();
+        this.backend = NativeMysticLightBackend.INSTANCE;
+    }
+
+    /**
+     * Initializes a new MysticLight4j instance that performs all calls through the given backend.
+     * The backend is initialized by this constructor. No native DLL is loaded unless the backend does so.
+     * @param backend The backend to use.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if initialization of the backend fails.
+     */
+    public MysticLight4j(@NonNull final MysticLightBackend backend) {
+        backend.initialize();
+        this.backend = backend;
+    }
+
+    /**
+     * @return Returns the backend through which all calls of this instance are made.
+     */
+    public MysticLightBackend getBackend() {
+        return backend;
     }
 
     /**
      * @return Returns all accessible Mystic Light devices.
      */
     public List<Device> getAllAvailableDevices() {
-        return Arrays.stream(MysticLightAPI.getDeviceInfo())
-                .map(Device::new)
+        return Arrays.stream(backend.getDeviceInfo())
+                .map(deviceInfo -> new Device(backend, deviceInfo))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Creates a batch for writing to the LEDs of any device. See {@link Batch} for details.
+     * @return Returns a new empty batch.
+     */
+    public Batch batch() {
+        return new Batch(null);
+    }
+
+    /**
+     * Creates a frame buffer for the LEDs of all accessible devices. See {@link FrameBuffer} for details.
+     * @return Returns a new frame buffer.
+     */
+    public FrameBuffer createFrameBuffer() {
+        return new FrameBuffer(getAllAvailableDevices());
+    }
+
+    /**
+     * Creates a committer writing to all accessible devices at the same time. See {@link SynchronizedCommitter} for
+     * details. The committer must be closed to stop its worker threads.
+     * @return Returns a new committer with the default settings.
+     */
+    public SynchronizedCommitter createSynchronizedCommitter() {
+        return SynchronizedCommitter.builder(getAllAvailableDevices()).build();
+    }
+
+    /**
+     * Creates a registry holding a snapshot of the accessible devices which is refreshed periodically in the background.
+     * Listing the devices of the registry is a memory read, whereas {@link #getAllAvailableDevices()} enumerates and
+     * probes all devices on every call. The registry must be closed to stop the background refresh.
+     * @param refreshInterval The delay between two refreshes.
+     * @param unit The time unit of {@code refreshInterval}.
+     * @return Returns the registry.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if enumerating or probing the devices fails.
+     */
+    public TopologyRegistry createTopologyRegistry(final long refreshInterval, @NonNull final TimeUnit unit) {
+        return TopologyRegistry.builder(backend)
+                .refreshInterval(refreshInterval, unit)
+                .build();
+    }
+
+    /**
+     * Discovers all accessible Mystic Light devices according to the given options.
+     * In lazy mode only the devices are enumerated and the LEDs are probed when they are accessed first. Otherwise the
+     * LEDs of up to {@link DiscoveryOptions#getParallelism()} devices are probed concurrently on as many daemon threads.
+     * @param options The discovery options.
+     * @return Returns the discovered devices and the timing of the discovery.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if enumerating the devices fails.
+     *         Errors while probing the LEDs of a device are reported in {@link DiscoveryResult#getFailedDevices()}.
+     */
+    public DiscoveryResult discoverDevices(@NonNull final DiscoveryOptions options) {
+        final long start = System.nanoTime();
+        final List<Device> devices = Arrays.stream(backend.getDeviceInfo())
+                .map(deviceInfo -> new Device(backend, deviceInfo, true))
+                .collect(Collectors.toList());
+        final Map<String, Long> deviceDurations = new LinkedHashMap<>();
+        final Set<String> timedOutDevices = new LinkedHashSet<>();
+        final Map<String, RuntimeException> failedDevices = new LinkedHashMap<>();
+        if (!options.isLazy() && !devices.isEmpty()) {
+            final List<CompletableFuture<Long>> results = probeDevices(devices, options);
+            for (int i = 0; i < devices.size(); i++) {
+                final String deviceId = devices.get(i).getIdentifier();
+                try {
+                    deviceDurations.put(deviceId, results.get(i).join());
+                } catch (final CompletionException e) {
+                    if (e.getCause() instanceof TimeoutException) {
+                        timedOutDevices.add(deviceId);
+                    } else if (e.getCause() instanceof RuntimeException) {
+                        failedDevices.put(deviceId, (RuntimeException) e.getCause());
+                    } else {
+                        throw e;
+                    }
+                }
+            }
+        }
+        return new DiscoveryResult(devices, System.nanoTime() - start, deviceDurations, timedOutDevices, failedDevices);
+    }
+
+    private static List<CompletableFuture<Long>> probeDevices(final List<Device> devices, final DiscoveryOptions options) {
+        // A worker keeps its permit until its probe returns, even after the device timed out, so there are never more
+        // workers than permits. If all of them are stuck on timed out devices, the devices left are reported as timed
+        // out instead of waiting for a worker that may never come back.
+        final Semaphore permits = new Semaphore(options.getParallelism());
+        final ExecutorService workers = Executors.newFixedThreadPool(options.getParallelism(), daemonThreadFactory("mysticlight4j-discovery-%d"));
+        final ScheduledExecutorService timer = options.hasDeviceTimeout()
+                ? Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("mysticlight4j-discovery-timer-%d"))
+                : null;
+        final List<CompletableFuture<Long>> results = new ArrayList<>(devices.size());
+        try {
+            boolean workersStuck = false;
+            for (final Device device : devices) {
+                final CompletableFuture<Long> result = new CompletableFuture<>();
+                results.add(result);
+                if (!acquirePermit(permits, options, workersStuck)) {
+                    workersStuck = true;
+                    result.completeExceptionally(new TimeoutException());
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        probeDevice(device, result, timer, options.getDeviceTimeoutNanos());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+        } finally {
+            workers.shutdown();
+            if (timer != null) {
+                timer.shutdownNow();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Waits for a free worker. Without a device timeout this waits as long as it takes. Otherwise a running probe that
+     * has not timed out returns within the timeout, so if no permit becomes free within the timeout, all workers are
+     * stuck on timed out devices. Once they are, a permit is only taken if one is free right away.
+     * @return Returns true if a permit was taken, false if the device has to be reported as timed out.
+     */
+    private static boolean acquirePermit(final Semaphore permits, final DiscoveryOptions options, final boolean workersStuck) {
+        if (!options.hasDeviceTimeout()) {
+            permits.acquireUninterruptibly();
+            return true;
+        }
+        if (workersStuck) {
+            return permits.tryAcquire();
+        }
+        final long deadline = System.nanoTime() + options.getDeviceTimeoutNanos();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void probeDevice(final Device device, final CompletableFuture<Long> result, final ScheduledExecutorService timer, final long timeoutNanos) {
+        final long start = System.nanoTime();
+        final ScheduledFuture<?> timeout = timer == null ? null : timer.schedule(
+                () -> result.completeExceptionally(new TimeoutException()), timeoutNanos, TimeUnit.NANOSECONDS);
+        try {
+            device.loadLedMetadata();
+            result.complete(System.nanoTime() - start);
+        } catch (final Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String nameFormat) {
+        return new ThreadFactoryBuilder()
+                .setNameFormat(nameFormat)
+                .setDaemon(true)
+                .build();
+    }
 }
@@ -0,0 +1,275 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executes calls to the Mystic Light SDK on a single dedicated thread and returns their results as
+ * {@link CompletableFuture}s.
+ * Callers are never blocked by slow SDK calls: calls are queued in a bounded queue and the executor thread takes all
+ * queued calls at once and executes them back to back. If the queue is full the {@link RejectionPolicy} decides what
+ * happens with a new call.
+ * As JNI calls pin the carrier of virtual threads, confining all native calls to one platform thread is also the
+ * preferred way to call the SDK from virtual threads.
+ * Futures are completed on the executor thread. Dependent stages that do more than trivial work should therefore use
+ * the {@code *Async} methods of {@link CompletableFuture}, otherwise they delay the following native calls.
+ */
+public final class NativeCallExecutor implements Closeable {
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("mysticlight4j-native-io-%d")
+            .setDaemon(true)
+            .build();
+
+    // Queued by close() to wake the executor thread. Interrupting the thread instead would leak the interrupt into
+    // the calls that are still executed, e.g. into the latency or backoff waits of the backends.
+    private static final Call<Void> WAKE_UP = new Call<>(() -> null, 0);
+
+    private final BlockingQueue<Call<?>> queue;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final Thread thread;
+    private volatile boolean closed = false;
+    private volatile boolean terminated = false;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    private NativeCallExecutor(final Builder builder) {
+        this.queueCapacity = builder.queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+        this.rejectionPolicy = builder.rejectionPolicy;
+        this.thread = THREAD_FACTORY.newThread(this::run);
+        thread.start();
+    }
+
+    /**
+     * @return Returns a new builder for an executor.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Queues a call for execution on the executor thread.
+     * @param call The call.
+     * @param <T> The type of the result of the call.
+     * @return Returns a future completed with the result of the call, or exceptionally if the call fails or is rejected.
+     */
+    public <T> CompletableFuture<T> submit(@NonNull final Callable<T> call) {
+        final Call<T> task = new Call<>(call, System.nanoTime());
+        submitted.increment();
+        if (closed) {
+            reject(task, "The native call executor is closed.");
+            return task.future;
+        }
+        switch (rejectionPolicy) {
+            case ABORT:
+                if (!queue.offer(task)) {
+                    reject(task, "The native call queue is full.");
+                }
+                break;
+            case CALLER_RUNS:
+                if (!queue.offer(task)) {
+                    callerRuns.increment();
+                    task.execute();
+                    completed.increment();
+                }
+                break;
+            case DISCARD_OLDEST:
+                while (!queue.offer(task)) {
+                    final Call<?> oldest = queue.poll();
+                    if (oldest != null && oldest != WAKE_UP) {
+                        discarded.increment();
+                        oldest.future.completeExceptionally(new RejectedExecutionException("The call was discarded in favor of a newer call."));
+                    }
+                }
+                break;
+            case BLOCK:
+                try {
+                    queue.put(task);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    reject(task, "Interrupted while waiting for space in the native call queue.");
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown rejection policy " + rejectionPolicy);
+        }
+        if (terminated && queue.remove(task)) {
+            // The executor was closed concurrently and its thread won't take the call anymore.
+            reject(task, "The native call executor is closed.");
+        }
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return task.future;
+    }
+
+    /**
+     * Queues a call without a result for execution on the executor thread.
+     * @param call The call.
+     * @return Returns a future completed when the call finished, or exceptionally if the call fails or is rejected.
+     */
+    public CompletableFuture<Void> execute(@NonNull final Runnable call) {
+        return submit(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return Returns true if the current thread is the executor thread.
+     */
+    public boolean isExecutorThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * @return Returns the current metrics of the executor.
+     */
+    public NativeCallStatistics getStatistics() {
+        return new NativeCallStatistics(queue.size(), (int) maxQueueDepth.get(), queueCapacity, submitted.sum(),
+                completed.sum(), rejected.sum(), discarded.sum(), callerRuns.sum(), totalWaitNanos.sum(),
+                maxWaitNanos.get());
+    }
+
+    /**
+     * Stops accepting calls, executes the calls that are already queued and waits for the executor thread to
+     * terminate. Calls submitted afterwards are rejected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        // If the queue is full, the executor thread is not waiting and sees the flag after it took the queued calls.
+        queue.offer(WAKE_UP);
+        if (isExecutorThread()) {
+            return;
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        final List<Call<?>> calls = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                calls.add(queue.take());
+            } catch (final InterruptedException e) {
+                // The loop condition decides whether to continue.
+                continue;
+            }
+            queue.drainTo(calls);
+            for (final Call<?> call : calls) {
+                if (call == WAKE_UP) {
+                    continue;
+                }
+                final long waitNanos = System.nanoTime() - call.submittedAtNanos;
+                totalWaitNanos.add(waitNanos);
+                maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+                call.execute();
+                completed.increment();
+            }
+            calls.clear();
+        }
+        // Calls queued by submitters that raced with close() are rejected here or by the submitters themselves.
+        terminated = true;
+        Call<?> call;
+        while ((call = queue.poll()) != null) {
+            if (call == WAKE_UP) {
+                continue;
+            }
+            reject(call, "The native call executor is closed.");
+        }
+    }
+
+    private void reject(final Call<?> task, final String message) {
+        rejected.increment();
+        task.future.completeExceptionally(new RejectedExecutionException(message));
+    }
+
+    private static final class Call<T> {
+        private final Callable<T> callable;
+        private final long submittedAtNanos;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Call(final Callable<T> callable, final long submittedAtNanos) {
+            this.callable = callable;
+            this.submittedAtNanos = submittedAtNanos;
+        }
+
+        private void execute() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(callable.call());
+            } catch (final Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link NativeCallExecutor}.
+     */
+    public static final class Builder {
+        private int queueCapacity = 1024;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+        private Builder() {
+        }
+
+        /**
+         * @param queueCapacity The maximum number of queued calls. Defaults to 1024.
+         * @return Returns this builder.
+         */
+        public Builder queueCapacity(final int queueCapacity) {
+            Validate.isTrue(queueCapacity > 0, "The queue capacity must be positive.");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param rejectionPolicy The policy applied to calls submitted while the queue is full. Defaults to {@link RejectionPolicy#ABORT}.
+         * @return Returns this builder.
+         */
+        public Builder rejectionPolicy(@NonNull final RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+            return this;
+        }
+
+        /**
+         * Creates the executor and starts its thread.
+         * @return Returns the executor.
+         */
+        public NativeCallExecutor build() {
+            return new NativeCallExecutor(this);
+        }
+    }
+}
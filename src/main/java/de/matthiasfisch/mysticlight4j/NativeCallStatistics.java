@@ -0,0 +1,48 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the metrics of a {@link NativeCallExecutor}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class NativeCallStatistics {
+    private final int queueDepth;
+    private final int maxQueueDepth;
+    private final int queueCapacity;
+    private final long submittedCalls;
+    private final long completedCalls;
+    private final long rejectedCalls;
+    private final long discardedCalls;
+    private final long callerRunsCalls;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    NativeCallStatistics(final int queueDepth, final int maxQueueDepth, final int queueCapacity,
+                         final long submittedCalls, final long completedCalls, final long rejectedCalls,
+                         final long discardedCalls, final long callerRunsCalls, final long totalWaitNanos,
+                         final long maxWaitNanos) {
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+        this.queueCapacity = queueCapacity;
+        this.submittedCalls = submittedCalls;
+        this.completedCalls = completedCalls;
+        this.rejectedCalls = rejectedCalls;
+        this.discardedCalls = discardedCalls;
+        this.callerRunsCalls = callerRunsCalls;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * @return Returns the average time calls executed on the executor thread waited in the queue in nanoseconds.
+     */
+    public double getAverageWaitNanos() {
+        final long executed = completedCalls - callerRunsCalls;
+        return executed <= 0 ? 0 : totalWaitNanos / (double) executed;
+    }
+}
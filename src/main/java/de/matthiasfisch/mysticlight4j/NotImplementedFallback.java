@@ -0,0 +1,37 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import lombok.NonNull;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the devices on which an optional SDK function failed with {@code MLAPI_NO_IMPLEMENTED}, so the function is
+ * not called for them again and the caller falls back to single LED writes from then on. Thread safe.
+ */
+final class NotImplementedFallback {
+    private final Set<Device> devices = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param device The device.
+     * @return Returns true if the optional function is not implemented for the device.
+     */
+    boolean isFallback(@NonNull final Device device) {
+        return devices.contains(device);
+    }
+
+    /**
+     * Remembers the device if the error reports the optional function as not implemented.
+     * @param device The device the function was called for.
+     * @param e The error of the call.
+     * @return Returns true if the caller should fall back, false if the error must be handled as a failure.
+     */
+    boolean fallBackIfNotImplemented(@NonNull final Device device, @NonNull final MysticLightAPIException e) {
+        if (e.getMlApiErrorCode() != MysticLightAPIException.MLAPI_NO_IMPLEMENTED) {
+            return false;
+        }
+        devices.add(device);
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package de.matthiasfisch.mysticlight4j;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Determines what a {@link NativeCallExecutor} does with a call submitted while its queue is full.
+ */
+public enum RejectionPolicy {
+    /**
+     * The call is not executed and its future is completed with a {@link RejectedExecutionException}.
+     */
+    ABORT,
+    /**
+     * The call is executed on the submitting thread. This throttles the submitters but breaks thread confinement for
+     * the rejected call.
+     */
+    CALLER_RUNS,
+    /**
+     * The oldest queued call is removed and its future is completed with a {@link RejectedExecutionException}, then
+     * the new call is queued. Suitable for calls whose result is superseded by newer calls, e.g. animation frames.
+     */
+    DISCARD_OLDEST,
+    /**
+     * The submitting thread waits until there is space in the queue.
+     */
+    BLOCK
+}
@@ -0,0 +1,88 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned handle for the style (i.e. the animation) of a {@link LED}.
+ * There is exactly one instance per style name, so handles can be compared by identity. Every handle has a unique
+ * ordinal which allows constant time membership checks such as {@link LedCapabilities#supportsStyle(Style)} without
+ * hashing or comparing strings.
+ * Handles are created with {@link #of(String)}. As handles are never released, only names of styles actually
+ * supported by the devices should be interned; use {@link #find(String)} to resolve arbitrary input.
+ */
+public final class Style {
+    private static final Map<String, Style> STYLES_BY_NAME = new ConcurrentHashMap<>();
+    private static volatile Style[] stylesByOrdinal = new Style[0];
+
+    private final String name;
+    private final int ordinal;
+
+    private Style(final String name, final int ordinal) {
+        this.name = name;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * Returns the handle for the style with the given name. If there is no handle for the name yet, it is created.
+     * @param name The name of the style as used by the Mystic Light SDK.
+     * @return Returns the handle of the style.
+     */
+    public static Style of(@NonNull final String name) {
+        final Style style = STYLES_BY_NAME.get(name);
+        return style != null ? style : register(name);
+    }
+
+    /**
+     * Returns the handle for the style with the given name if it was already created.
+     * @param name The name of the style.
+     * @return Returns the handle or null if no handle was created for the name.
+     */
+    public static Style find(@NonNull final String name) {
+        return STYLES_BY_NAME.get(name);
+    }
+
+    /**
+     * @param ordinal The ordinal of a handle.
+     * @return Returns the handle with the given ordinal.
+     */
+    static Style byOrdinal(final int ordinal) {
+        return stylesByOrdinal[ordinal];
+    }
+
+    private static synchronized Style register(final String name) {
+        final Style existing = STYLES_BY_NAME.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        final Style[] styles = stylesByOrdinal;
+        final Style style = new Style(name, styles.length);
+        final Style[] newStyles = Arrays.copyOf(styles, styles.length + 1);
+        newStyles[style.ordinal] = style;
+        stylesByOrdinal = newStyles;
+        STYLES_BY_NAME.put(name, style);
+        return style;
+    }
+
+    /**
+     * @return Returns the name of the style as used by the Mystic Light SDK.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Returns the unique ordinal of this handle.
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
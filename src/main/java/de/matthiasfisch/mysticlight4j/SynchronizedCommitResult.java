@@ -0,0 +1,132 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.collect.ImmutableList;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The result of a {@link SynchronizedCommitter#commit()}.
+ * The release of a device is the moment its worker passed the barrier and started writing; a device is applied when
+ * its last write returned. The skews are the differences between the first and the last device.
+ */
+@Getter
+@ToString
+public final class SynchronizedCommitResult {
+    private final ImmutableList<DeviceCommit> deviceCommits;
+    private final boolean releasedTogether;
+    private final long durationNanos;
+
+    SynchronizedCommitResult(final ImmutableList<DeviceCommit> deviceCommits, final boolean releasedTogether,
+                             final long durationNanos) {
+        this.deviceCommits = deviceCommits;
+        this.releasedTogether = releasedTogether;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return Returns the results of the devices written by the commit in the order their first LED was set.
+     */
+    public List<DeviceCommit> getDeviceCommits() {
+        return deviceCommits;
+    }
+
+    /**
+     * @return Returns true if all workers passed the barrier together, false if a worker timed out waiting for the others.
+     */
+    public boolean isReleasedTogether() {
+        return releasedTogether;
+    }
+
+    /**
+     * @return Returns the time between the release of the first and the last device in nanoseconds.
+     */
+    public long getReleaseSkewNanos() {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (final DeviceCommit deviceCommit : deviceCommits) {
+            first = Math.min(first, deviceCommit.getReleasedAtNanos());
+            last = Math.max(last, deviceCommit.getReleasedAtNanos());
+        }
+        return deviceCommits.isEmpty() ? 0 : last - first;
+    }
+
+    /**
+     * @return Returns the time between the first and the last device being applied in nanoseconds.
+     */
+    public long getApplySkewNanos() {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (final DeviceCommit deviceCommit : deviceCommits) {
+            first = Math.min(first, deviceCommit.getAppliedAtNanos());
+            last = Math.max(last, deviceCommit.getAppliedAtNanos());
+        }
+        return deviceCommits.isEmpty() ? 0 : last - first;
+    }
+
+    /**
+     * @return Returns the number of LEDs written successfully on all devices.
+     */
+    public int getWrittenLeds() {
+        return deviceCommits.stream().mapToInt(DeviceCommit::getWrittenLeds).sum();
+    }
+
+    /**
+     * @return Returns the number of failed writes on all devices.
+     */
+    public int getFailedWrites() {
+        return deviceCommits.stream().mapToInt(DeviceCommit::getFailedWrites).sum();
+    }
+
+    /**
+     * @return Returns true if no write failed.
+     */
+    public boolean isSuccessful() {
+        return getFailedWrites() == 0;
+    }
+
+    /**
+     * The result of the writes to a single device.
+     */
+    @Getter
+        @ToString
+    public static final class DeviceCommit {
+        private final Device device;
+        private final int writtenLeds;
+        private final int syncWrittenLeds;
+        private final int failedWrites;
+        private final RuntimeException lastError;
+        private final long releasedAtNanos;
+        private final long appliedAtNanos;
+        private final boolean releasedTogether;
+
+        DeviceCommit(final Device device, final int writtenLeds, final int syncWrittenLeds, final int failedWrites,
+                     final RuntimeException lastError, final long releasedAtNanos, final long appliedAtNanos,
+                     final boolean releasedTogether) {
+            this.device = device;
+            this.writtenLeds = writtenLeds;
+            this.syncWrittenLeds = syncWrittenLeds;
+            this.failedWrites = failedWrites;
+            this.lastError = lastError;
+            this.releasedAtNanos = releasedAtNanos;
+            this.appliedAtNanos = appliedAtNanos;
+            this.releasedTogether = releasedTogether;
+        }
+
+        /**
+         * @return Returns the last error of a write to the device or an empty optional if no write failed.
+         */
+        public Optional<RuntimeException> getLastError() {
+            return Optional.ofNullable(lastError);
+        }
+
+        /**
+         * @return Returns the time the worker of the device spent writing in nanoseconds.
+         */
+        public long getWriteNanos() {
+            return appliedAtNanos - releasedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Commits the colors of a frame to several devices at the same time, so a scene spanning e.g. the mainboard, the
+ * graphics card and the memory changes on all devices together instead of device after device.
+ * Colors are collected with {@link #setColor(LED, Color)}. On {@link #commit()} the writes of each device are
+ * prepared up front, i.e. grouped by device with the names of the LEDs resolved, and handed to the worker thread of
+ * the device. The workers wait at a barrier until all of them are ready and then issue their writes in parallel. If
+ * enabled and supported by the SDK, the colors of a device are written with {@code MLAPI_SetLedColorSync}: all writes
+ * but the last are staged with the synchronization flag cleared, and the last write sets the flag, so the SDK applies
+ * the staged colors of the device together. If the write setting the flag fails, the staged writes are reported as
+ * failed as well, and the state cache and the write suppression forget the colors of their LEDs. Otherwise, and for LEDs whose names are not unique on their device, the
+ * colors are written with {@link LED#setColor(Color)}. The result of a commit reports the skew between the devices.
+ * Each device has its own worker thread, which is stopped by {@link #close()}. Committers are not thread safe.
+ */
+public final class SynchronizedCommitter implements Closeable {
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("mysticlight4j-synchronized-commit-%d")
+            .setDaemon(true)
+            .build();
+
+    private final ImmutableList<Device> devices;
+    private final Map<Device, ExecutorService> workers = new LinkedHashMap<>();
+    private final boolean useSyncFlag;
+    private final long barrierTimeoutNanos;
+    private final FrameColors colors = new FrameColors();
+    private final NotImplementedFallback syncFallback = new NotImplementedFallback();
+    private volatile boolean closed = false;
+
+    private SynchronizedCommitter(final Builder builder) {
+        this.devices = builder.devices;
+        this.useSyncFlag = builder.useSyncFlag;
+        this.barrierTimeoutNanos = builder.barrierTimeoutNanos;
+        for (final Device device : devices) {
+            workers.put(device, Executors.newSingleThreadExecutor(THREAD_FACTORY));
+        }
+    }
+
+    /**
+     * @param devices The devices the committer writes to. Must not contain a device twice.
+     * @return Returns a new builder for a committer.
+     */
+    public static Builder builder(@NonNull final List<Device> devices) {
+        return new Builder(devices);
+    }
+
+    /**
+     * @return Returns the devices the committer writes to.
+     */
+    public List<Device> getDevices() {
+        return devices;
+    }
+
+    /**
+     * Sets the target color of a LED for the next commit. Replaces the color set before.
+     * @param led The LED. It must belong to one of the devices of the committer.
+     * @param color The color.
+     * @return Returns this committer.
+     */
+    public SynchronizedCommitter setColor(@NonNull final LED led, @NonNull final Color color) {
+        return setColorRgb(led, color.getRgb());
+    }
+
+    /**
+     * Sets the target color of a LED for the next commit. Replaces the color set before.
+     * @param led The LED. It must belong to one of the devices of the committer.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @return Returns this committer.
+     */
+    public SynchronizedCommitter setColorRgb(@NonNull final LED led, final int rgb) {
+        Validate.isTrue(workers.containsKey(led.getDevice()), "The LED does not belong to a device of the committer.");
+        colors.put(led, rgb);
+        return this;
+    }
+
+    /**
+     * @return Returns the number of LEDs with a target color that were not committed yet.
+     */
+    public int getPendingCount() {
+        return colors.size();
+    }
+
+    /**
+     * Discards the target colors that were not committed yet.
+     */
+    public void clear() {
+        colors.clear();
+    }
+
+    /**
+     * Writes the target colors to all devices at the same time and waits until all writes finished. A failing write
+     * does not prevent the remaining writes from being issued; failures are reported in the result. Afterwards the
+     * committer is empty.
+     * @return Returns the result of the commit.
+     * @throws IllegalStateException Thrown if the committer is closed.
+     */
+    public SynchronizedCommitResult commit() {
+        Validate.validState(!closed, "The committer is closed.");
+        final long start = System.nanoTime();
+        final List<DeviceWrites> prepared = prepare();
+        if (prepared.isEmpty()) {
+            return new SynchronizedCommitResult(ImmutableList.of(), true, System.nanoTime() - start);
+        }
+
+        final CyclicBarrier barrier = new CyclicBarrier(prepared.size());
+        final List<CompletableFuture<SynchronizedCommitResult.DeviceCommit>> futures = new ArrayList<>(prepared.size());
+        for (final DeviceWrites writes : prepared) {
+            futures.add(CompletableFuture.supplyAsync(() -> writes.apply(barrier), workers.get(writes.device)));
+        }
+
+        final ImmutableList.Builder<SynchronizedCommitResult.DeviceCommit> deviceCommits = ImmutableList.builder();
+        boolean releasedTogether = true;
+        boolean interrupted = false;
+        for (final CompletableFuture<SynchronizedCommitResult.DeviceCommit> future : futures) {
+            while (true) {
+                try {
+                    final SynchronizedCommitResult.DeviceCommit deviceCommit = future.get();
+                    releasedTogether &= deviceCommit.isReleasedTogether();
+                    deviceCommits.add(deviceCommit);
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                } catch (final ExecutionException e) {
+                    throw new IllegalStateException("A commit worker failed.", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return new SynchronizedCommitResult(deviceCommits.build(), releasedTogether, System.nanoTime() - start);
+    }
+
+    /**
+     * Stops the worker threads after they finished the commit in progress.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.values().forEach(ExecutorService::shutdown);
+        boolean interrupted = false;
+        for (final ExecutorService worker : workers.values()) {
+            while (!worker.isTerminated()) {
+                try {
+                    worker.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<DeviceWrites> prepare() {
+        final List<DeviceWrites> prepared = new ArrayList<>();
+        colors.drainByDevice().forEach((device, ledColors) -> {
+            final DeviceWrites deviceWrites = new DeviceWrites(device);
+            ledColors.forEach((led, rgb) -> deviceWrites.add(led, Color.ofRgb(rgb)));
+            deviceWrites.resolveNames();
+            prepared.add(deviceWrites);
+        });
+        return prepared;
+    }
+
+    /**
+     * The writes of a single device prepared for a commit.
+     */
+    private final class DeviceWrites {
+        private final Device device;
+        private final List<LED> leds = new ArrayList<>();
+        private final List<Color> ledColors = new ArrayList<>();
+        private boolean[] addressableByName;
+        // The state of apply(). The indexes of the LEDs whose colors were staged but not applied yet.
+        private final List<Integer> staged = new ArrayList<>();
+        private final WriteFailures failures = new WriteFailures();
+        private int written = 0;
+        private int syncWritten = 0;
+
+        private DeviceWrites(final Device device) {
+            this.device = device;
+        }
+
+        private void add(final LED led, final Color color) {
+            leds.add(led);
+            ledColors.add(color);
+        }
+
+        private void resolveNames() {
+            addressableByName = new boolean[leds.size()];
+            if (!useSyncFlag) {
+                return;
+            }
+            final Set<String> duplicateNames = device.getDuplicateLEDNames();
+            for (int i = 0; i < leds.size(); i++) {
+                addressableByName[i] = !duplicateNames.contains(leds.get(i).getName());
+            }
+        }
+
+        private SynchronizedCommitResult.DeviceCommit apply(final CyclicBarrier barrier) {
+            boolean releasedTogether = true;
+            try {
+                barrier.await(barrierTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                releasedTogether = false;
+            } catch (final BrokenBarrierException | TimeoutException e) {
+                // The writes are issued anyway; the result reports that the devices were not released together.
+                releasedTogether = false;
+            }
+            final long releasedAt = System.nanoTime();
+            synchronized (device.batchLock()) {
+                final int lastSyncWrite = findLastSyncWrite();
+                for (int i = 0; i < leds.size(); i++) {
+                    if (addressableByName[i] && !syncFallback.isFallback(device)) {
+                        writeSync(i, i == lastSyncWrite);
+                    } else {
+                        writePlain(i);
+                    }
+                }
+                if (!staged.isEmpty()) {
+                    // Only if the device fell back to plain writes after colors were staged.
+                    stagedWritesFailed(new MysticLightAPIException("The staged colors were not applied.",
+                            MysticLightAPIException.MLAPI_ERROR));
+                }
+            }
+            return new SynchronizedCommitResult.DeviceCommit(device, written, syncWritten, (int) failures.getCount(),
+                    failures.getLastErrorOrNull(), releasedAt, System.nanoTime(), releasedTogether);
+        }
+
+        /**
+         * @return Returns the index of the last LED that is written with {@code MLAPI_SetLedColorSync} and not skipped
+         * by write suppression, or -1 if there is none. The write of this LED sets the synchronization flag.
+         */
+        private int findLastSyncWrite() {
+            if (syncFallback.isFallback(device)) {
+                return -1;
+            }
+            for (int i = leds.size() - 1; i >= 0; i--) {
+                if (addressableByName[i] && !leds.get(i).wouldSuppressColorWrite(ledColors.get(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Writes a color with {@code MLAPI_SetLedColorSync}. Until the write setting the synchronization flag succeeded,
+         * the SDK has not applied the staged colors, so the state cache and the write suppression of the LEDs are only
+         * updated then.
+         * @param sync Whether to set the synchronization flag, which makes the SDK apply the staged colors.
+         */
+        private void writeSync(final int i, final boolean sync) {
+            final LED led = leds.get(i);
+            final Color color = ledColors.get(i);
+            // The write setting the flag is issued even if suppressed, otherwise the staged colors were never applied.
+            if (led.isColorWriteSuppressed(color) && !sync) {
+                written++;
+                syncWritten++;
+                return;
+            }
+            staged.add(i);
+            try {
+                device.issueColorSync(led, color, sync);
+            } catch (final RuntimeException e) {
+                if (e instanceof MysticLightAPIException
+                        && syncFallback.fallBackIfNotImplemented(device, (MysticLightAPIException) e)) {
+                    staged.remove(staged.size() - 1);
+                    led.colorWriteFailed();
+                    writePlain(i);
+                } else if (sync) {
+                    stagedWritesFailed(e);
+                } else {
+                    staged.remove(staged.size() - 1);
+                    led.colorWriteFailed();
+                    failures.record(e);
+                }
+                return;
+            }
+            if (sync) {
+                for (final int index : staged) {
+                    leds.get(index).colorWritten(ledColors.get(index));
+                }
+                written += staged.size();
+                syncWritten += staged.size();
+                staged.clear();
+            }
+        }
+
+        private void writePlain(final int i) {
+            try {
+                leds.get(i).setColor(ledColors.get(i));
+                written++;
+            } catch (final RuntimeException e) {
+                failures.record(e);
+            }
+        }
+
+        /**
+         * Reports the staged writes as failed, as the SDK did not apply them.
+         */
+        private void stagedWritesFailed(final RuntimeException e) {
+            for (final int index : staged) {
+                leds.get(index).colorWriteFailed();
+                failures.record(e);
+            }
+            staged.clear();
+        }
+    }
+
+    /**
+     * Builder for {@link SynchronizedCommitter}.
+     */
+    public static final class Builder {
+        private final ImmutableList<Device> devices;
+        private boolean useSyncFlag = true;
+        private long barrierTimeoutNanos = TimeUnit.SECONDS.toNanos(1);
+
+        private Builder(final List<Device> devices) {
+            Validate.noNullElements(devices, "The devices must not contain null.");
+            Validate.isTrue(devices.stream().distinct().count() == devices.size(), "The devices must not contain a device twice.");
+            this.devices = ImmutableList.copyOf(devices);
+        }
+
+        /**
+         * @param useSyncFlag Whether to write with {@code MLAPI_SetLedColorSync} and the synchronization flag set where
+         *                    the SDK supports it. Defaults to true.
+         * @return Returns this builder.
+         */
+        public Builder useSyncFlag(final boolean useSyncFlag) {
+            this.useSyncFlag = useSyncFlag;
+            return this;
+        }
+
+        /**
+         * @param timeout The maximum time a worker waits at the barrier for the workers of the other devices. If it
+         *                elapses, the worker writes anyway. Defaults to one second.
+         * @param unit The time unit of {@code timeout}.
+         * @return Returns this builder.
+         */
+        public Builder barrierTimeout(final long timeout, @NonNull final TimeUnit unit) {
+            Validate.isTrue(timeout > 0, "The barrier timeout must be positive.");
+            this.barrierTimeoutNanos = unit.toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * Creates the committer and starts one worker thread per device.
+         * @return Returns the committer.
+         */
+        public SynchronizedCommitter build() {
+            return new SynchronizedCommitter(this);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package de.matthiasfisch.mysticlight4j;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link FrameClock} based on {@link System#nanoTime()}.
+ */
+final class SystemFrameClock implements FrameClock {
+    static final SystemFrameClock INSTANCE = new SystemFrameClock();
+
+    private SystemFrameClock() {
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void sleepUntil(final long deadlineNanos) throws InterruptedException {
+        // parkNanos may return early, so park again until the deadline has actually passed.
+        long remaining = deadlineNanos - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = deadlineNanos - System.nanoTime();
+        }
+    }
+
+    @Override
+    public void parkUntil(final long deadlineNanos) throws InterruptedException {
+        final long remaining = deadlineNanos - System.nanoTime();
+        if (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
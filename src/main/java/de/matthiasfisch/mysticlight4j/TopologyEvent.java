@@ -0,0 +1,75 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Optional;
+
+/**
+ * A change of the device topology detected by a {@link TopologyRegistry}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class TopologyEvent {
+    /**
+     * The kind of a topology change.
+     */
+    public enum Type {
+        /**
+         * A device was plugged in.
+         */
+        ADDED,
+        /**
+         * A device was unplugged.
+         */
+        REMOVED,
+        /**
+         * The information reported for a device, e.g. its number of LEDs, changed.
+         */
+        CHANGED
+    }
+
+    private final Type type;
+    private final String deviceIdentifier;
+    @Getter(AccessLevel.NONE)
+    private final Device previousDevice;
+    @Getter(AccessLevel.NONE)
+    private final Device currentDevice;
+    private final long snapshotVersion;
+
+    /**
+     * @param type The kind of change.
+     * @param deviceIdentifier The identifier of the device.
+     * @param previousDevice The device before the change or null if it was added.
+     * @param currentDevice The device after the change or null if it was removed.
+     * @param snapshotVersion The version of the first snapshot containing the change.
+     */
+    TopologyEvent(@NonNull final Type type, @NonNull final String deviceIdentifier, final Device previousDevice, final Device currentDevice, final long snapshotVersion) {
+        Validate.isTrue((previousDevice == null) == (type == Type.ADDED), "Only added devices have no previous device.");
+        Validate.isTrue((currentDevice == null) == (type == Type.REMOVED), "Only removed devices have no current device.");
+        this.type = type;
+        this.deviceIdentifier = deviceIdentifier;
+        this.previousDevice = previousDevice;
+        this.currentDevice = currentDevice;
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    /**
+     * @return Returns the device before the change or an empty optional if the device was added.
+     */
+    public Optional<Device> getPreviousDevice() {
+        return Optional.ofNullable(previousDevice);
+    }
+
+    /**
+     * @return Returns the device after the change or an empty optional if the device was removed.
+     */
+    public Optional<Device> getCurrentDevice() {
+        return Optional.ofNullable(currentDevice);
+    }
+}
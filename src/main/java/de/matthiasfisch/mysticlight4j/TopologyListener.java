@@ -0,0 +1,14 @@
+package de.matthiasfisch.mysticlight4j;
+
+/**
+ * Listener for changes of the device topology observed by a {@link TopologyRegistry}.
+ */
+@FunctionalInterface
+public interface TopologyListener {
+    /**
+     * Called after the registry published a snapshot containing the change. Listeners are called on the thread that
+     * refreshed the registry and should return quickly.
+     * @param event The change.
+     */
+    void onTopologyChanged(TopologyEvent event);
+}
@@ -0,0 +1,285 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.matthiasfisch.mysticlight4j.api.DeviceInfo;
+import de.matthiasfisch.mysticlight4j.api.MysticLightBackend;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Registry holding an immutable {@link TopologySnapshot} of the available devices.
+ * Readers get the current snapshot with a single volatile read and never block. The snapshot is replaced by
+ * {@link #refresh()}, which enumerates the devices, diffs the reported {@link DeviceInfo}s against the current
+ * snapshot and publishes a new snapshot if anything changed. Unchanged devices are carried over, so only added and
+ * changed devices cost native calls. After publishing, the registered {@link TopologyListener}s are notified about
+ * each change on the refreshing thread. Refreshes and notifications are serialized, so listeners receive the events in
+ * the order of the snapshot versions, even if several threads refresh concurrently. A slow listener therefore delays
+ * concurrent refreshes, but not readers of the snapshot.
+ * If a refresh interval is configured, a daemon thread refreshes the registry periodically until {@link #close()} is
+ * called.
+ */
+public final class TopologyRegistry implements Closeable {
+    private final MysticLightBackend backend;
+    private final boolean lazy;
+    private final List<TopologyListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile TopologySnapshot snapshot;
+    private volatile RuntimeException lastRefreshError;
+    private volatile RuntimeException lastListenerError;
+
+    private TopologyRegistry(final Builder builder) {
+        this.backend = builder.backend;
+        this.lazy = builder.lazy;
+        this.snapshot = new TopologySnapshot(0, System.nanoTime(), createDevices(backend.getDeviceInfo()));
+        if (builder.refreshIntervalNanos > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("mysticlight4j-topology-%d")
+                    .setDaemon(true)
+                    .build());
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                    builder.refreshIntervalNanos, builder.refreshIntervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * @param backend The backend used to enumerate the devices.
+     * @return Returns a new builder for a registry.
+     */
+    public static Builder builder(@NonNull final MysticLightBackend backend) {
+        return new Builder(backend);
+    }
+
+    /**
+     * @return Returns the current snapshot.
+     */
+    public TopologySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return Returns the devices of the current snapshot.
+     */
+    public List<Device> getDevices() {
+        return snapshot.getDevices();
+    }
+
+    /**
+     * @param identifier The identifier of the device.
+     * @return Returns the device of the current snapshot with the given identifier or an empty optional if there is no such device.
+     */
+    public Optional<Device> getDevice(@NonNull final String identifier) {
+        return snapshot.getDevice(identifier);
+    }
+
+    /**
+     * @return Returns the error of the last refresh, periodic or not, or an empty optional if the last refresh succeeded.
+     */
+    public Optional<RuntimeException> getLastRefreshError() {
+        return Optional.ofNullable(lastRefreshError);
+    }
+
+    /**
+     * @return Returns the last error thrown by a listener or an empty optional if no listener failed so far. Listener
+     *         errors are not refresh errors, as the snapshot was published before the listeners were notified.
+     */
+    public Optional<RuntimeException> getLastListenerError() {
+        return Optional.ofNullable(lastListenerError);
+    }
+
+    /**
+     * @param listener The listener to notify about topology changes.
+     */
+    public void addListener(@NonNull final TopologyListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener The listener to remove.
+     */
+    public void removeListener(@NonNull final TopologyListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Enumerates the devices and publishes a new snapshot if the topology changed.
+     * @return Returns the changes that were published. The list is empty if the topology did not change.
+     * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if enumerating or probing the devices fails.
+     *         The current snapshot is retained in this case and the error is also reported by {@link #getLastRefreshError()}.
+     * @throws RuntimeException Thrown if a listener fails. All listeners are notified about all changes before the
+     *         first error is rethrown. The error is also reported by {@link #getLastListenerError()}.
+     */
+    public List<TopologyEvent> refresh() {
+        final List<TopologyEvent> events;
+        final RuntimeException listenerError;
+        synchronized (this) {
+            events = publishChanges();
+            listenerError = notifyListeners(events);
+        }
+        if (listenerError != null) {
+            throw listenerError;
+        }
+        return events;
+    }
+
+    /**
+     * @return Returns true if the registry is refreshed periodically and was not closed yet.
+     */
+    public boolean isRefreshingPeriodically() {
+        return scheduler != null && !scheduler.isShutdown();
+    }
+
+    /**
+     * Stops the periodic refresh. The current snapshot remains readable and {@link #refresh()} can still be called.
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void refreshQuietly() {
+        // Exceptions must not escape, otherwise the scheduler would cancel all further refreshes. Refresh and listener
+        // errors are both recorded by refresh().
+        try {
+            refresh();
+        } catch (final RuntimeException e) {
+            // Reported by getLastRefreshError() or getLastListenerError()
+        }
+    }
+
+    /**
+     * Must be called while holding the monitor of this registry.
+     */
+    private List<TopologyEvent> publishChanges() {
+        final List<TopologyEvent> events;
+        try {
+            final TopologySnapshot current = snapshot;
+            final long version = current.getVersion() + 1;
+            final DeviceInfo[] deviceInfos = backend.getDeviceInfo();
+            final List<Device> devices = new ArrayList<>(deviceInfos.length);
+            events = new ArrayList<>();
+            for (final DeviceInfo deviceInfo : deviceInfos) {
+                final Device previous = current.getDevice(deviceInfo.getDeviceType()).orElse(null);
+                if (previous == null) {
+                    final Device added = new Device(backend, deviceInfo, lazy);
+                    devices.add(added);
+                    events.add(new TopologyEvent(TopologyEvent.Type.ADDED, added.getIdentifier(), null, added, version));
+                } else if (previous.getNumberOfLEDs() != deviceInfo.getLedCount()) {
+                    final Device changed = new Device(backend, deviceInfo, lazy);
+                    devices.add(changed);
+                    events.add(new TopologyEvent(TopologyEvent.Type.CHANGED, changed.getIdentifier(), previous, changed, version));
+                } else {
+                    devices.add(previous);
+                }
+            }
+            final Set<String> identifiers = devices.stream()
+                    .map(Device::getIdentifier)
+                    .collect(Collectors.toSet());
+            for (final Device previous : current.getDevices()) {
+                if (!identifiers.contains(previous.getIdentifier())) {
+                    events.add(new TopologyEvent(TopologyEvent.Type.REMOVED, previous.getIdentifier(), previous, null, version));
+                }
+            }
+            if (!events.isEmpty()) {
+                snapshot = new TopologySnapshot(version, System.nanoTime(), devices);
+            }
+        } catch (final RuntimeException e) {
+            lastRefreshError = e;
+            throw e;
+        }
+        lastRefreshError = null;
+        return events;
+    }
+
+    /**
+     * Notifies all listeners about all events, even if a listener fails.
+     * @return Returns the first listener error, with later errors suppressed, or null if no listener failed.
+     */
+    private RuntimeException notifyListeners(final List<TopologyEvent> events) {
+        RuntimeException listenerError = null;
+        for (final TopologyEvent event : events) {
+            for (final TopologyListener listener : listeners) {
+                try {
+                    listener.onTopologyChanged(event);
+                } catch (final RuntimeException e) {
+                    if (listenerError == null) {
+                        listenerError = e;
+                    } else {
+                        listenerError.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (listenerError != null) {
+            lastListenerError = listenerError;
+        }
+        return listenerError;
+    }
+
+    private List<Device> createDevices(final DeviceInfo[] deviceInfos) {
+        final List<Device> devices = new ArrayList<>(deviceInfos.length);
+        for (final DeviceInfo deviceInfo : deviceInfos) {
+            devices.add(new Device(backend, deviceInfo, lazy));
+        }
+        return devices;
+    }
+
+    /**
+     * Builder for {@link TopologyRegistry}.
+     */
+    public static final class Builder {
+        private final MysticLightBackend backend;
+        private boolean lazy = false;
+        private long refreshIntervalNanos = 0;
+
+        private Builder(final MysticLightBackend backend) {
+            this.backend = backend;
+        }
+
+        /**
+         * Sets whether the LEDs of added and changed devices are probed lazily. See {@link DiscoveryOptions.Builder#lazy(boolean)}.
+         * @param lazy Whether to probe the LEDs lazily.
+         * @return Returns this builder.
+         */
+        public Builder lazy(final boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        /**
+         * Sets the delay between the end of a periodic refresh and the start of the next one. By default the
+         * registry is only refreshed by calling {@link TopologyRegistry#refresh()}.
+         * @param interval The refresh interval.
+         * @param unit The time unit of {@code interval}.
+         * @return Returns this builder.
+         */
+        public Builder refreshInterval(final long interval, @NonNull final TimeUnit unit) {
+            Validate.isTrue(interval > 0, "The refresh interval must be positive.");
+            this.refreshIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        /**
+         * Creates the registry. The initial snapshot is created by this method.
+         * @return Returns the registry.
+         * @throws de.matthiasfisch.mysticlight4j.api.MysticLightAPIException Thrown if enumerating or probing the devices fails.
+         */
+        public TopologyRegistry build() {
+            return new TopologyRegistry(this);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package de.matthiasfisch.mysticlight4j;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the devices known to a {@link TopologyRegistry}.
+ * Devices that did not change between two snapshots are the same {@link Device} instances, so their LED metadata,
+ * state caches and memoized names are retained.
+ */
+@Getter
+@ToString
+public final class TopologySnapshot {
+    private final long version;
+    private final long createdAtNanos;
+    @ToString.Exclude
+    private final ImmutableList<Device> devices;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final ImmutableMap<String, Device> devicesByIdentifier;
+
+    /**
+     * @param version The version of the snapshot. Each published snapshot has a higher version than its predecessor.
+     * @param createdAtNanos The value of {@link System#nanoTime()} when the snapshot was created.
+     * @param devices The devices in the order reported by the backend.
+     */
+    TopologySnapshot(final long version, final long createdAtNanos, @NonNull final List<Device> devices) {
+        this.version = version;
+        this.createdAtNanos = createdAtNanos;
+        this.devices = ImmutableList.copyOf(devices);
+        this.devicesByIdentifier = this.devices.stream()
+                .collect(ImmutableMap.toImmutableMap(Device::getIdentifier, device -> device));
+    }
+
+    /**
+     * @param identifier The identifier of the device.
+     * @return Returns the device with the given identifier or an empty optional if there is no such device.
+     */
+    public Optional<Device> getDevice(@NonNull final String identifier) {
+        return Optional.ofNullable(devicesByIdentifier.get(identifier));
+    }
+}
@@ -0,0 +1,54 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link FrameClock} whose time only moves when it is advanced explicitly or when {@link #sleepUntil(long)} is called.
+ * Sleeping jumps to the deadline immediately, so a {@link FrameEngine} using this clock renders frames as fast as
+ * possible while the producers observe exactly the frame times of the target frame rate. Producers can simulate
+ * expensive frames by calling {@link #advance(long, TimeUnit)}.
+ */
+public final class VirtualFrameClock implements FrameClock {
+    private final AtomicLong now;
+
+    /**
+     * Creates a virtual clock starting at zero.
+     */
+    public VirtualFrameClock() {
+        this(0);
+    }
+
+    /**
+     * @param startNanos The initial time of the clock in nanoseconds.
+     */
+    public VirtualFrameClock(final long startNanos) {
+        this.now = new AtomicLong(startNanos);
+    }
+
+    @Override
+    public long nanoTime() {
+        return now.get();
+    }
+
+    @Override
+    public void sleepUntil(final long deadlineNanos) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        now.accumulateAndGet(deadlineNanos, Math::max);
+    }
+
+    /**
+     * Moves the time of the clock forward.
+     * @param duration The duration to advance the clock by.
+     * @param unit The time unit of {@code duration}.
+     */
+    public void advance(final long duration, @NonNull final TimeUnit unit) {
+        Validate.isTrue(duration >= 0, "The duration must not be negative.");
+        now.addAndGet(unit.toNanos(duration));
+    }
+}
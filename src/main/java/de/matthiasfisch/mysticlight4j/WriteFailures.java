@@ -0,0 +1,34 @@
+package de.matthiasfisch.mysticlight4j;
+
+import lombok.NonNull;
+
+/**
+ * Counts the failed writes of a {@link GroupingColorWriter} or of a device in a {@link SynchronizedCommitter} commit
+ * and keeps the last error. Not thread safe.
+ */
+final class WriteFailures {
+    private long count = 0;
+    private RuntimeException lastError;
+
+    /**
+     * @param e The error of the failed write.
+     */
+    void record(@NonNull final RuntimeException e) {
+        count++;
+        lastError = e;
+    }
+
+    /**
+     * @return Returns the number of failed writes.
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Returns the last error or null if no write failed.
+     */
+    RuntimeException getLastErrorOrNull() {
+        return lastError;
+    }
+}
@@ -0,0 +1,168 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the last value written to each property of the LEDs of a single {@link Device} and suppresses writes that
+ * would not change anything.
+ * Write suppression is enabled with {@link Device#enableWriteSuppression()}. If enabled the setters of {@link LED}
+ * return without calling the backend if the value equals the last value successfully written through them. A failed
+ * write makes the suppressor forget all values of the LED, so the next write of every property is issued.
+ * Like {@link LedStateCache} the values are stored in primitive arrays indexed by the LED index, with colors packed as
+ * {@code 0xRRGGBB} and styles stored as the ordinals of their {@link Style} handles.
+ * The suppressor can't detect changes made by other software. Use {@link Device#forceResync()} to write the remembered
+ * values again or {@link #invalidate()} to let the next writes pass.
+ */
+public final class WriteSuppressor {
+    private static final int UNKNOWN = -1;
+
+    private final int ledCount;
+    private final int[] colors;
+    private final int[] styles;
+    private final int[] brightnessLevels;
+    private final int[] speedLevels;
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder issued = new LongAdder();
+
+    WriteSuppressor(final int ledCount) {
+        Validate.isTrue(ledCount >= 0, "The number of LEDs must not be negative.");
+        this.ledCount = ledCount;
+        this.colors = new int[ledCount];
+        this.styles = new int[ledCount];
+        this.brightnessLevels = new int[ledCount];
+        this.speedLevels = new int[ledCount];
+        invalidate();
+    }
+
+    /**
+     * @return Returns the number of writes that were skipped because they would not have changed the LED.
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    /**
+     * @return Returns the number of writes that were forwarded to the backend.
+     */
+    public long getIssuedCount() {
+        return issued.sum();
+    }
+
+    /**
+     * Forgets all remembered values. The next write of every property will be forwarded to the backend.
+     */
+    public synchronized void invalidate() {
+        Arrays.fill(colors, UNKNOWN);
+        Arrays.fill(styles, UNKNOWN);
+        Arrays.fill(brightnessLevels, UNKNOWN);
+        Arrays.fill(speedLevels, UNKNOWN);
+    }
+
+    /**
+     * Forgets the remembered values of a single LED.
+     * @param ledIndex The index of the LED.
+     */
+    public synchronized void invalidate(final int ledIndex) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        colors[ledIndex] = UNKNOWN;
+        styles[ledIndex] = UNKNOWN;
+        brightnessLevels[ledIndex] = UNKNOWN;
+        speedLevels[ledIndex] = UNKNOWN;
+    }
+
+    /**
+     * @param ledIndex The index of the LED.
+     * @param color The color to write.
+     * @return Returns true if the write can be skipped. Otherwise the write is counted as issued.
+     */
+    synchronized boolean suppressColor(final int ledIndex, @NonNull final Color color) {
+        return suppress(colors, ledIndex, color.getRgb());
+    }
+
+    /**
+     * @param ledIndex The index of the LED.
+     * @param color The color to write.
+     * @return Returns true if the color is remembered for the LED. Unlike {@link #suppressColor(int, Color)}, the check
+     * is not counted.
+     */
+    synchronized boolean isColorRemembered(final int ledIndex, @NonNull final Color color) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        return colors[ledIndex] == color.getRgb();
+    }
+
+    synchronized boolean suppressStyle(final int ledIndex, @NonNull final Style style) {
+        return suppress(styles, ledIndex, style.getOrdinal());
+    }
+
+    synchronized boolean suppressBrightnessLevel(final int ledIndex, final int brightnessLevel) {
+        return suppress(brightnessLevels, ledIndex, brightnessLevel);
+    }
+
+    synchronized boolean suppressSpeedLevel(final int ledIndex, final int speedLevel) {
+        return suppress(speedLevels, ledIndex, speedLevel);
+    }
+
+    synchronized void rememberColor(final int ledIndex, @NonNull final Color color) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        colors[ledIndex] = color.getRgb();
+    }
+
+    synchronized void rememberStyle(final int ledIndex, @NonNull final Style style) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        styles[ledIndex] = style.getOrdinal();
+    }
+
+    synchronized void rememberBrightnessLevel(final int ledIndex, final int brightnessLevel) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        brightnessLevels[ledIndex] = brightnessLevel;
+    }
+
+    synchronized void rememberSpeedLevel(final int ledIndex, final int speedLevel) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        speedLevels[ledIndex] = speedLevel;
+    }
+
+    /**
+     * @param ledIndex The index of the LED.
+     * @return Returns the last color written or null if it is unknown.
+     */
+    synchronized Color getColor(final int ledIndex) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        final int rgb = colors[ledIndex];
+        return rgb == UNKNOWN ? null : Color.ofRgb(rgb);
+    }
+
+    synchronized Style getStyle(final int ledIndex) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        return styles[ledIndex] == UNKNOWN ? null : Style.byOrdinal(styles[ledIndex]);
+    }
+
+    /**
+     * @param ledIndex The index of the LED.
+     * @return Returns the last brightness level written or a negative value if it is unknown.
+     */
+    synchronized int getBrightnessLevel(final int ledIndex) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        return brightnessLevels[ledIndex];
+    }
+
+    synchronized int getSpeedLevel(final int ledIndex) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        return speedLevels[ledIndex];
+    }
+
+    private boolean suppress(final int[] values, final int ledIndex, final int value) {
+        IndexChecks.checkLedIndex(ledIndex, ledCount);
+        if (values[ledIndex] == value) {
+            suppressed.increment();
+            return true;
+        }
+        issued.increment();
+        return false;
+    }
+}
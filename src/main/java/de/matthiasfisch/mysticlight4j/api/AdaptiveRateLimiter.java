@@ -0,0 +1,198 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces the writes to a single device and adapts the allowed rate to the measured behavior of the device.
+ * Writes are spaced evenly by the inverse of the current rate. The latencies and outcomes of the calls to the device
+ * are kept in a window of the most recent {@link RateLimitPolicy#getWindowSize()} calls. Each time the window has been
+ * filled with new calls the rate is adjusted additive-increase/multiplicative-decrease: it is lowered by the decrease
+ * factor if the average latency or the error rate exceeded the targets of the policy and raised by the additive
+ * increase otherwise.
+ * An exception thrown by a listener doesn't reach the caller whose call completed the window; it is recorded and
+ * available from {@link #getLastListenerError()}.
+ * Limiters are created by {@link RateLimitedMysticLightBackend}.
+ */
+public final class AdaptiveRateLimiter {
+    private final String deviceIdentifier;
+    private final RateLimitPolicy policy;
+    private final List<RateLimitListener> listeners;
+
+    // Guarded by the limiter instance.
+    private final long[] latencies;
+    private final boolean[] errors;
+    private int windowFill = 0;
+    private int windowPosition = 0;
+    private int samplesSinceAdjustment = 0;
+    private double rate;
+    private long intervalNanos;
+    private long nextPermitNanos;
+    private long recordedCalls = 0;
+    private long increases = 0;
+    private long decreases = 0;
+    private long throttledWrites = 0;
+    private long totalThrottleNanos = 0;
+    private long listenerFailures = 0;
+    private RuntimeException lastListenerError;
+
+    /**
+     * @param deviceIdentifier The identifier of the device.
+     * @param policy The policy.
+     * @param listeners The listeners notified about changes of the rate. The list is read on every change, so listeners
+     *                  added later are notified as well.
+     */
+    AdaptiveRateLimiter(@NonNull final String deviceIdentifier, @NonNull final RateLimitPolicy policy,
+                        @NonNull final List<RateLimitListener> listeners) {
+        this.deviceIdentifier = deviceIdentifier;
+        this.policy = policy;
+        this.listeners = listeners;
+        this.latencies = new long[policy.getWindowSize()];
+        this.errors = new boolean[policy.getWindowSize()];
+        this.nextPermitNanos = System.nanoTime();
+        setRate(policy.getInitialRate());
+    }
+
+    /**
+     * @return Returns the identifier of the device.
+     */
+    public String getDeviceIdentifier() {
+        return deviceIdentifier;
+    }
+
+    /**
+     * @return Returns the number of writes per second currently allowed.
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    /**
+     * @return Returns the current state of the limiter.
+     */
+    public synchronized RateLimitStatistics getStatistics() {
+        return new RateLimitStatistics(deviceIdentifier, rate, averageLatency(), errorRate(), recordedCalls, increases,
+                decreases, throttledWrites, totalThrottleNanos);
+    }
+
+    /**
+     * @return Returns the number of times a listener threw an exception.
+     */
+    public synchronized long getListenerFailures() {
+        return listenerFailures;
+    }
+
+    /**
+     * @return Returns the last exception thrown by a listener or an empty optional if no listener failed.
+     */
+    public synchronized Optional<RuntimeException> getLastListenerError() {
+        return Optional.ofNullable(lastListenerError);
+    }
+
+    /**
+     * Waits until the next write may be issued. The time slot is reserved before waiting, so concurrent writers are
+     * spaced evenly as well. If the thread is interrupted the wait ends early and the interrupt flag is kept.
+     * @return Returns the time waited in nanoseconds.
+     */
+    long acquire() {
+        final long now = System.nanoTime();
+        final long permit;
+        synchronized (this) {
+            permit = Math.max(now, nextPermitNanos);
+            nextPermitNanos = permit + intervalNanos;
+            if (permit > now) {
+                throttledWrites++;
+                totalThrottleNanos += permit - now;
+            }
+        }
+        long remaining = permit - now;
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, remaining);
+            remaining = permit - System.nanoTime();
+        }
+        return Math.max(0, permit - now);
+    }
+
+    /**
+     * Records the outcome of a call to the device and adjusts the rate if a new window is complete.
+     * @param latencyNanos The duration of the call.
+     * @param congested True if the call failed in a way that indicates an overloaded device.
+     */
+    void record(final long latencyNanos, final boolean congested) {
+        final RateLimitEvent event;
+        synchronized (this) {
+            latencies[windowPosition] = latencyNanos;
+            errors[windowPosition] = congested;
+            windowPosition = (windowPosition + 1) % latencies.length;
+            windowFill = Math.min(windowFill + 1, latencies.length);
+            recordedCalls++;
+            if (++samplesSinceAdjustment < latencies.length) {
+                return;
+            }
+            samplesSinceAdjustment = 0;
+            event = adjust();
+        }
+        if (event == null) {
+            return;
+        }
+        for (final RateLimitListener listener : listeners) {
+            try {
+                listener.onRateChanged(event);
+            } catch (final RuntimeException e) {
+                synchronized (this) {
+                    listenerFailures++;
+                    lastListenerError = e;
+                }
+            }
+        }
+    }
+
+    private RateLimitEvent adjust() {
+        final double previousRate = rate;
+        final double averageLatency = averageLatency();
+        final double errorRate = errorRate();
+        final boolean overloaded = averageLatency > policy.getTargetLatencyNanos() || errorRate > policy.getMaximumErrorRate();
+        if (overloaded) {
+            setRate(Math.max(policy.getMinimumRate(), rate * policy.getDecreaseFactor()));
+        } else {
+            setRate(Math.min(policy.getMaximumRate(), rate + policy.getAdditiveIncrease()));
+        }
+        if (rate == previousRate) {
+            return null;
+        }
+        if (overloaded) {
+            decreases++;
+        } else {
+            increases++;
+        }
+        return new RateLimitEvent(overloaded ? RateLimitEvent.Type.DECREASED : RateLimitEvent.Type.INCREASED,
+                deviceIdentifier, previousRate, rate, averageLatency, errorRate);
+    }
+
+    private void setRate(final double rate) {
+        this.rate = rate;
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / rate));
+    }
+
+    private double averageLatency() {
+        long sum = 0;
+        for (int i = 0; i < windowFill; i++) {
+            sum += latencies[i];
+        }
+        return windowFill == 0 ? 0 : sum / (double) windowFill;
+    }
+
+    private double errorRate() {
+        int count = 0;
+        for (int i = 0; i < windowFill; i++) {
+            if (errors[i]) {
+                count++;
+            }
+        }
+        return windowFill == 0 ? 0 : count / (double) windowFill;
+    }
+}
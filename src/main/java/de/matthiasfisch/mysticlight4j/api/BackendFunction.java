@@ -0,0 +1,49 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+/**
+ * The functions of a {@link MysticLightBackend}. Used by decorators such as {@link ForwardingMysticLightBackend} to
+ * identify a call without inspecting its arguments.
+ */
+public enum BackendFunction {
+    INITIALIZE("MLAPI_Initialize", false),
+    GET_DEVICE_INFO("MLAPI_GetDeviceInfo", false),
+    GET_DEVICE_NAME("MLAPI_GetDeviceName", false),
+    GET_DEVICE_NAME_EX("MLAPI_GetDeviceNameEx", false),
+    GET_LED_INFO("MLAPI_GetLedInfo", false),
+    GET_LED_NAME("MLAPI_GetLedName", false),
+    GET_LED_COLOR("MLAPI_GetLedColor", false),
+    GET_LED_STYLE("MLAPI_GetLedStyle", false),
+    GET_LED_MAX_BRIGHT("MLAPI_GetLedMaxBright", false),
+    GET_LED_BRIGHT("MLAPI_GetLedBright", false),
+    GET_LED_MAX_SPEED("MLAPI_GetLedMaxSpeed", false),
+    GET_LED_SPEED("MLAPI_GetLedSpeed", false),
+    SET_LED_COLOR("MLAPI_SetLedColor", true),
+    SET_LED_STYLE("MLAPI_SetLedStyle", true),
+    SET_LED_BRIGHT("MLAPI_SetLedBright", true),
+    SET_LED_SPEED("MLAPI_SetLedSpeed", true),
+    SET_LED_COLORS("MLAPI_SetLedColors", true),
+    SET_LED_COLOR_EX("MLAPI_SetLedColorEx", true),
+    SET_LED_COLOR_SYNC("MLAPI_SetLedColorSync", true);
+
+    private final String nativeName;
+    private final boolean write;
+
+    BackendFunction(final String nativeName, final boolean write) {
+        this.nativeName = nativeName;
+        this.write = write;
+    }
+
+    /**
+     * @return Returns the name of the corresponding function of the Mystic Light SDK.
+     */
+    public String getNativeName() {
+        return nativeName;
+    }
+
+    /**
+     * @return Returns true if the function changes the state of a LED.
+     */
+    public boolean isWrite() {
+        return write;
+    }
+}
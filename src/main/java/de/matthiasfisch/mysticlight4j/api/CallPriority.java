@@ -0,0 +1,16 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+/**
+ * The lanes of a {@link FairShareScheduler}.
+ */
+public enum CallPriority {
+    /**
+     * Calls that a user waits for, e.g. applying a color picked in a UI. Queued interactive calls are always
+     * dispatched before bulk calls.
+     */
+    INTERACTIVE,
+    /**
+     * Background traffic such as animation frames. Dispatched when no interactive call is queued.
+     */
+    BULK
+}
@@ -0,0 +1,190 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Circuit breaker of a single device used by {@link ResilientMysticLightBackend}.
+ * The circuit is {@link State#CLOSED} while the device works. After {@link ResiliencePolicy#getFailureThreshold()}
+ * consecutive failed attempts it opens and calls fail fast with a {@link CircuitBreakerOpenException}. After
+ * {@link ResiliencePolicy#getOpenDurationNanos()} a single trial call is let through: if it succeeds the circuit closes,
+ * otherwise it opens again.
+ * The listeners are notified about each transition. An exception thrown by a listener doesn't reach the caller whose
+ * call caused the transition; it is recorded and available from {@link #getLastListenerError()}.
+ */
+public final class CircuitBreaker {
+    /**
+     * The state of a circuit.
+     */
+    public enum State {
+        /** Calls are forwarded. */
+        CLOSED,
+        /** Calls are rejected. */
+        OPEN,
+        /** A single trial call is forwarded to test whether the device recovered. */
+        HALF_OPEN
+    }
+
+    private final String deviceIdentifier;
+    private final ResiliencePolicy policy;
+    private final List<CircuitBreakerListener> listeners;
+
+    // Guarded by the breaker instance.
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtNanos;
+    private boolean trialInProgress = false;
+    private long rejectedCalls = 0;
+    private long listenerFailures = 0;
+    private RuntimeException lastListenerError;
+
+    /**
+     * @param listeners The listeners to notify. The list is read on every transition, so listeners added later are
+     *                  notified as well.
+     */
+    CircuitBreaker(@NonNull final String deviceIdentifier, @NonNull final ResiliencePolicy policy,
+                   @NonNull final List<CircuitBreakerListener> listeners) {
+        this.deviceIdentifier = deviceIdentifier;
+        this.policy = policy;
+        this.listeners = listeners;
+    }
+
+    /**
+     * @return Returns the identifier of the device.
+     */
+    public String getDeviceIdentifier() {
+        return deviceIdentifier;
+    }
+
+    /**
+     * @return Returns the current state. An open circuit whose open duration elapsed is reported as open until the
+     * next call is attempted.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return Returns the number of consecutive failed attempts.
+     */
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return Returns the number of calls rejected because the circuit was open.
+     */
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    /**
+     * @return Returns the number of times a listener threw an exception.
+     */
+    public synchronized long getListenerFailures() {
+        return listenerFailures;
+    }
+
+    /**
+     * @return Returns the last exception thrown by a listener or an empty optional if no listener failed.
+     */
+    public synchronized Optional<RuntimeException> getLastListenerError() {
+        return Optional.ofNullable(lastListenerError);
+    }
+
+    /**
+     * Closes the circuit and forgets all failures.
+     */
+    public void reset() {
+        transition(State.CLOSED);
+    }
+
+    /**
+     * @return Returns true if an attempt may be made. The outcome of a permitted attempt must be reported with
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    boolean tryAcquire() {
+        final CircuitBreakerEvent event;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= policy.getOpenDurationNanos()) {
+                event = changeState(State.HALF_OPEN);
+            } else if (state == State.HALF_OPEN && !trialInProgress) {
+                event = null;
+            } else {
+                rejectedCalls++;
+                return false;
+            }
+            trialInProgress = true;
+        }
+        notifyListener(event);
+        return true;
+    }
+
+    void onSuccess() {
+        transition(State.CLOSED);
+    }
+
+    void onFailure() {
+        final CircuitBreakerEvent event;
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= policy.getFailureThreshold())) {
+                event = changeState(State.OPEN);
+            } else {
+                event = null;
+            }
+        }
+        notifyListener(event);
+    }
+
+    /**
+     * Reports an attempt whose outcome says nothing about the health of the device, e.g. an invalid argument.
+     */
+    synchronized void onIgnored() {
+        trialInProgress = false;
+    }
+
+    private void transition(final State target) {
+        final CircuitBreakerEvent event;
+        synchronized (this) {
+            event = changeState(target);
+        }
+        notifyListener(event);
+    }
+
+    private CircuitBreakerEvent changeState(final State target) {
+        trialInProgress = false;
+        if (target == State.CLOSED) {
+            consecutiveFailures = 0;
+        } else if (target == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+        if (state == target) {
+            return null;
+        }
+        final CircuitBreakerEvent event = new CircuitBreakerEvent(deviceIdentifier, state, target);
+        state = target;
+        return event;
+    }
+
+    private void notifyListener(final CircuitBreakerEvent event) {
+        if (event == null) {
+            return;
+        }
+        for (final CircuitBreakerListener listener : listeners) {
+            try {
+                listener.onStateChanged(event);
+            } catch (final RuntimeException e) {
+                synchronized (this) {
+                    listenerFailures++;
+                    lastListenerError = e;
+                }
+            }
+        }
+    }
+}
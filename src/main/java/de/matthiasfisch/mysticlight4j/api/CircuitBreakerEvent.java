@@ -0,0 +1,25 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Transition of the {@link CircuitBreaker} of a device.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CircuitBreakerEvent {
+    private final String deviceIdentifier;
+    private final CircuitBreaker.State previousState;
+    private final CircuitBreaker.State currentState;
+
+    CircuitBreakerEvent(@NonNull final String deviceIdentifier, @NonNull final CircuitBreaker.State previousState,
+                        @NonNull final CircuitBreaker.State currentState) {
+        this.deviceIdentifier = deviceIdentifier;
+        this.previousState = previousState;
+        this.currentState = currentState;
+    }
+}
@@ -0,0 +1,13 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+/**
+ * Listener notified when the circuit breaker of a device changes its state.
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+    /**
+     * Called on the thread whose call caused the transition. Implementations should return quickly.
+     * @param event The transition.
+     */
+    void onStateChanged(CircuitBreakerEvent event);
+}
@@ -0,0 +1,16 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown by a {@link ResilientMysticLightBackend} instead of calling the SDK if the circuit of the device is open.
+ */
+@Getter
+public final class CircuitBreakerOpenException extends RuntimeException {
+    private final String deviceIdentifier;
+
+    public CircuitBreakerOpenException(final String deviceIdentifier) {
+        super(String.format("The circuit breaker of device %s is open.", deviceIdentifier));
+        this.deviceIdentifier = deviceIdentifier;
+    }
+}
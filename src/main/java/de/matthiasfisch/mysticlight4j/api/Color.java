@@ -1,36 +1,152 @@
 package de.matthiasfisch.mysticlight4j.api;
 
 import lombok.*;
-import org.apache.commons.lang3.Validate;
 
 /**
  * POJO for 24-bit RGB colors.
+ * Colors can also be handled as packed {@code 0xRRGGBB} integers with the static helpers of this class, which neither
+ * allocate nor box. {@link #of(int, int, int)} and {@link #ofRgb(int)} return canonical instances from a cache of
+ * recently used colors, so writing the same colors again and again, as animations usually do, doesn't create garbage.
  */
 @Getter
 @EqualsAndHashCode
 @ToString
 public final class Color {
+    public static final Color BLACK = new Color((short) 0, (short) 0, (short) 0);
+    public static final Color WHITE = new Color((short) 255, (short) 255, (short) 255);
+    public static final Color RED = new Color((short) 255, (short) 0, (short) 0);
+    public static final Color GREEN = new Color((short) 0, (short) 255, (short) 0);
+    public static final Color BLUE = new Color((short) 0, (short) 0, (short) 255);
+
+    private static final String RED_RANGE = "Red value must be in range [0, 255].";
+    private static final String GREEN_RANGE = "Green value must be in range [0, 255].";
+    private static final String BLUE_RANGE = "Blue value must be in range [0, 255].";
+    private static final int MAX_RGB = 0xFFFFFF;
+    private static final int CACHE_BITS = 12;
+    // Direct mapped cache of canonical instances. Races are benign: colors are immutable and a lost update only
+    // costs a cache miss.
+    private static final Color[] CACHE = new Color[1 << CACHE_BITS];
+
+    static {
+        for (final Color color : new Color[] { BLACK, WHITE, RED, GREEN, BLUE }) {
+            CACHE[slot(color.getRgb())] = color;
+        }
+    }
+
     private final short red;
     private final short green;
     private final short blue;
 
     public Color(final short red, final short green, final short blue) {
-        Validate.inclusiveBetween(0, 255, red, "Red value must be in range [0, 255].");
-        Validate.inclusiveBetween(0, 255, green, "Green value must be in range [0, 255].");
-        Validate.inclusiveBetween(0, 255, blue, "Blue value must be in range [0, 255].");
+        checkChannel(red, RED_RANGE);
+        checkChannel(green, GREEN_RANGE);
+        checkChannel(blue, BLUE_RANGE);
         this.red = red;
         this.green = green;
         this.blue = blue;
     }
 
     /**
-     * Creates a color object with the given color values.
+     * Returns the color object with the given color values.
      * @param red The red channel value. Must be in range [0, 255].
      * @param green The green channel value. Must be in range [0, 255].
      * @param blue The blue channel value. Must be in range [0, 255].
      * @return Returns the color object with the specified color values.
      */
     public static Color of(final int red, final int green, final int blue) {
-        return new Color((short) red, (short) green, (short) blue);
+        return ofRgb(pack(red, green, blue));
+    }
+
+    /**
+     * Returns the color object for a packed color. The object is taken from the cache of canonical instances if
+     * possible.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @return Returns the color object.
+     */
+    public static Color ofRgb(final int rgb) {
+        validateRgb(rgb);
+        final int slot = slot(rgb);
+        final Color cached = CACHE[slot];
+        if (cached != null && cached.getRgb() == rgb) {
+            return cached;
+        }
+        final Color color = new Color((short) red(rgb), (short) green(rgb), (short) blue(rgb));
+        CACHE[slot] = color;
+        return color;
+    }
+
+    /**
+     * Packs color channels into an integer.
+     * @param red The red channel value. Must be in range [0, 255].
+     * @param green The green channel value. Must be in range [0, 255].
+     * @param blue The blue channel value. Must be in range [0, 255].
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public static int pack(final int red, final int green, final int blue) {
+        checkChannel(red, RED_RANGE);
+        checkChannel(green, GREEN_RANGE);
+        checkChannel(blue, BLUE_RANGE);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @return Returns the red channel value of the packed color.
+     */
+    public static int red(final int rgb) {
+        return (rgb >> 16) & 0xFF;
+    }
+
+    /**
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @return Returns the green channel value of the packed color.
+     */
+    public static int green(final int rgb) {
+        return (rgb >> 8) & 0xFF;
+    }
+
+    /**
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @return Returns the blue channel value of the packed color.
+     */
+    public static int blue(final int rgb) {
+        return rgb & 0xFF;
+    }
+
+    /**
+     * @param rgb The value to check.
+     * @return Returns true if the value is a packed color, i.e. in range [0, 0xFFFFFF].
+     */
+    public static boolean isValidRgb(final int rgb) {
+        return rgb >= 0 && rgb <= MAX_RGB;
+    }
+
+    /**
+     * @param rgb The value to check.
+     * @return Returns the value.
+     * @throws IllegalArgumentException Thrown if the value is not a packed color.
+     */
+    public static int validateRgb(final int rgb) {
+        if (!isValidRgb(rgb)) {
+            throw new IllegalArgumentException("Packed color must be in range [0, 0xFFFFFF].");
+        }
+        return rgb;
+    }
+
+    /**
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public int getRgb() {
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private static int slot(final int rgb) {
+        return (rgb * 0x9E3779B1) >>> (Integer.SIZE - CACHE_BITS);
+    }
+
+    private static void checkChannel(final int value, final String message) {
+        if (value < 0 || value > 255) {
+            throw new IllegalArgumentException(message);
+        }
     }
 }
@@ -0,0 +1,358 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches the calls to a {@link MysticLightBackend} within a global budget of calls per second.
+ * Calls are queued in one of two lanes. Queued {@link CallPriority#INTERACTIVE} calls are always dispatched before
+ * {@link CallPriority#BULK} calls. Within a lane the calls of the devices are interleaved by weighted fair queueing
+ * with a virtual clock per lane:
+ * each call gets a virtual finish time of {@code max(virtual time, finish time of the previous call of the device) +
+ * 1 / weight of the device} and the call with the earliest finish time is dispatched next. A device flooding its lane
+ * therefore only delays its own calls, and a device with weight 2 gets twice the share of a device with weight 1.
+ * All calls are executed on the single dispatcher thread of the scheduler. Calls not referring to a device, such as
+ * {@link MysticLightBackend#getDeviceInfo()}, share the queue of the pseudo device {@link #GLOBAL}.
+ * Use {@link #lane(CallPriority)} to get a backend whose calls are scheduled in a lane.
+ */
+public final class FairShareScheduler implements Closeable {
+    /**
+     * The queue of calls not referring to a device.
+     */
+    public static final String GLOBAL = "";
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("mysticlight4j-scheduler-%d")
+            .setDaemon(true)
+            .build();
+    private static final Comparator<ScheduledCall<?>> DISPATCH_ORDER = Comparator
+            .<ScheduledCall<?>>comparingDouble(call -> call.finishTime)
+            .thenComparingLong(call -> call.sequence);
+
+    private final MysticLightBackend backend;
+    private final double callsPerSecond;
+    private final long intervalNanos;
+    private final Map<String, Double> weights;
+    private final Map<CallPriority, Lane> lanes = new EnumMap<>(CallPriority.class);
+    private final Thread thread;
+
+    // Guarded by the lock.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition callQueued = lock.newCondition();
+    private long sequence = 0;
+    private boolean closed = false;
+
+    private FairShareScheduler(final Builder builder) {
+        this.backend = builder.backend;
+        this.callsPerSecond = builder.callsPerSecond;
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / builder.callsPerSecond));
+        this.weights = new HashMap<>(builder.weights);
+        for (final CallPriority priority : CallPriority.values()) {
+            lanes.put(priority, new Lane());
+        }
+        this.thread = THREAD_FACTORY.newThread(this::run);
+        thread.start();
+    }
+
+    /**
+     * @param backend The backend the scheduled calls are forwarded to.
+     * @return Returns a new builder for a scheduler.
+     */
+    public static Builder builder(@NonNull final MysticLightBackend backend) {
+        return new Builder(backend);
+    }
+
+    /**
+     * @return Returns the maximum number of calls dispatched per second.
+     */
+    public double getCallsPerSecond() {
+        return callsPerSecond;
+    }
+
+    /**
+     * @param priority The lane.
+     * @return Returns a backend that schedules its calls in the given lane and waits for their completion.
+     */
+    public MysticLightBackend lane(@NonNull final CallPriority priority) {
+        return new LaneBackend(priority);
+    }
+
+    /**
+     * Queues a call in a lane.
+     * @param priority The lane.
+     * @param deviceIdentifier The identifier of the device the call refers to or {@link #GLOBAL}.
+     * @param call The call. It receives the backend of the scheduler.
+     * @param <T> The type of the result of the call.
+     * @return Returns a future completed with the result of the call on the dispatcher thread, or exceptionally if the
+     * call fails or the scheduler is closed.
+     */
+    public <T> CompletableFuture<T> submit(@NonNull final CallPriority priority, @NonNull final String deviceIdentifier,
+                                           @NonNull final BackendCall<T> call) {
+        final Lane lane = lanes.get(priority);
+        final ScheduledCall<T> scheduled = new ScheduledCall<>(lane, call, System.nanoTime());
+        lane.submitted.increment();
+        lock.lock();
+        try {
+            if (closed) {
+                lane.failed.increment();
+                scheduled.future.completeExceptionally(new RejectedExecutionException("The scheduler is closed."));
+                return scheduled.future;
+            }
+            final double start = Math.max(lane.virtualTime, lane.lastFinishTimes.getOrDefault(deviceIdentifier, 0.0));
+            scheduled.finishTime = start + 1.0 / weights.getOrDefault(deviceIdentifier, 1.0);
+            scheduled.sequence = sequence++;
+            lane.lastFinishTimes.put(deviceIdentifier, scheduled.finishTime);
+            lane.queue.add(scheduled);
+            callQueued.signal();
+        } finally {
+            lock.unlock();
+        }
+        return scheduled.future;
+    }
+
+    /**
+     * @param priority The lane.
+     * @return Returns the current metrics of the lane.
+     */
+    public LaneStatistics getStatistics(@NonNull final CallPriority priority) {
+        final Lane lane = lanes.get(priority);
+        final int queued;
+        lock.lock();
+        try {
+            queued = lane.queue.size();
+        } finally {
+            lock.unlock();
+        }
+        return new LaneStatistics(priority, queued, lane.submitted.sum(), lane.completed.sum(), lane.failed.sum(),
+                lane.totalWaitNanos.sum(), lane.maxWaitNanos.get(), lane.totalLatencyNanos.sum(),
+                lane.maxLatencyNanos.get());
+    }
+
+    /**
+     * @return Returns true if the current thread is the dispatcher thread.
+     */
+    public boolean isDispatcherThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Stops accepting calls, dispatches the calls that are already queued within the budget and waits for the
+     * dispatcher thread to terminate.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            callQueued.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (isDispatcherThread()) {
+            return;
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long nextPermitNanos = System.nanoTime();
+        while (true) {
+            // Waiting for the budget before taking a call lets interactive calls queued meanwhile overtake bulk calls.
+            long remaining = nextPermitNanos - System.nanoTime();
+            while (remaining > 0) {
+                LockSupport.parkNanos(this, remaining);
+                remaining = nextPermitNanos - System.nanoTime();
+            }
+            final ScheduledCall<?> call = take();
+            if (call == null) {
+                return;
+            }
+            nextPermitNanos = Math.max(nextPermitNanos, System.nanoTime()) + intervalNanos;
+            call.execute(backend);
+        }
+    }
+
+    private ScheduledCall<?> take() {
+        lock.lock();
+        try {
+            while (true) {
+                for (final Lane lane : lanes.values()) {
+                    final ScheduledCall<?> call = lane.queue.poll();
+                    if (call != null) {
+                        lane.virtualTime = call.finishTime;
+                        return call;
+                    }
+                }
+                if (closed) {
+                    return null;
+                }
+                callQueued.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A call to the backend of a scheduler.
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface BackendCall<T> {
+        /**
+         * @param backend The backend of the scheduler.
+         * @return Returns the result of the call.
+         * @throws Exception Thrown if the call fails.
+         */
+        T call(MysticLightBackend backend) throws Exception;
+    }
+
+    private static final class Lane {
+        // The queue and the virtual clock are guarded by the lock of the scheduler.
+        private final PriorityQueue<ScheduledCall<?>> queue = new PriorityQueue<>(DISPATCH_ORDER);
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        private final Map<String, Double> lastFinishTimes = new HashMap<>();
+        private double virtualTime = 0;
+    }
+
+    private static final class ScheduledCall<T> {
+        private final Lane lane;
+        private final BackendCall<T> call;
+        private final long submittedAtNanos;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private double finishTime;
+        private long sequence;
+
+        private ScheduledCall(final Lane lane, final BackendCall<T> call, final long submittedAtNanos) {
+            this.lane = lane;
+            this.call = call;
+            this.submittedAtNanos = submittedAtNanos;
+        }
+
+        private void execute(final MysticLightBackend backend) {
+            final long waitNanos = System.nanoTime() - submittedAtNanos;
+            lane.totalWaitNanos.add(waitNanos);
+            lane.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            T result = null;
+            Throwable error = null;
+            try {
+                result = call.call(backend);
+            } catch (final Throwable e) {
+                error = e;
+            }
+            final long latencyNanos = System.nanoTime() - submittedAtNanos;
+            lane.totalLatencyNanos.add(latencyNanos);
+            lane.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+            lane.completed.increment();
+            if (error == null) {
+                future.complete(result);
+            } else {
+                lane.failed.increment();
+                future.completeExceptionally(error);
+            }
+        }
+    }
+
+    private final class LaneBackend extends ForwardingMysticLightBackend {
+        private final CallPriority priority;
+
+        private LaneBackend(final CallPriority priority) {
+            super(backend);
+            this.priority = priority;
+        }
+
+        @Override
+        protected <T> T invoke(@NonNull final BackendFunction function, final String device, @NonNull final Supplier<T> call) throws MysticLightAPIException {
+            if (isDispatcherThread()) {
+                // A call made by a scheduled call would wait for itself.
+                return call.get();
+            }
+            try {
+                return submit(priority, device == null ? GLOBAL : device, ignored -> call.get()).join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link FairShareScheduler}.
+     */
+    public static final class Builder {
+        private final MysticLightBackend backend;
+        private double callsPerSecond = 1000;
+        private final Map<String, Double> weights = new HashMap<>();
+
+        private Builder(final MysticLightBackend backend) {
+            this.backend = backend;
+        }
+
+        /**
+         * @param callsPerSecond The maximum number of calls dispatched per second across all lanes and devices.
+         *                       Defaults to 1000.
+         * @return Returns this builder.
+         */
+        public Builder callsPerSecond(final double callsPerSecond) {
+            Validate.isTrue(callsPerSecond > 0, "The calls per second must be positive.");
+            this.callsPerSecond = callsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param deviceIdentifier The identifier of the device.
+         * @param weight The share of the device relative to other devices with queued calls. Defaults to 1.
+         * @return Returns this builder.
+         */
+        public Builder weight(@NonNull final String deviceIdentifier, final double weight) {
+            Validate.isTrue(weight > 0, "The weight must be positive.");
+            weights.put(deviceIdentifier, weight);
+            return this;
+        }
+
+        /**
+         * Creates the scheduler and starts its dispatcher thread.
+         * @return Returns the scheduler.
+         */
+        public FairShareScheduler build() {
+            return new FairShareScheduler(this);
+        }
+    }
+}
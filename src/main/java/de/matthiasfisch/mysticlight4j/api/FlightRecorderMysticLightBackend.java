@@ -0,0 +1,111 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.NonNull;
+
+import java.util.function.Supplier;
+
+/**
+ * Backend decorator that emits a JDK Flight Recorder event of type {@value #EVENT_NAME} for every call.
+ * The event records the native function, the device, the LED index, the status code and the duration of the call.
+ * While the event is not enabled in a recording, the cost per call is a read of the enabled state of the event type;
+ * no event is allocated. On JVMs without JFR support the calls are forwarded without events.
+ */
+public final class FlightRecorderMysticLightBackend extends ForwardingMysticLightBackend {
+    /**
+     * The name of the event emitted for each call.
+     */
+    public static final String EVENT_NAME = "de.matthiasfisch.mysticlight4j.NativeCall";
+
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     */
+    public FlightRecorderMysticLightBackend(@NonNull final MysticLightBackend delegate) {
+        super(delegate);
+    }
+
+    /**
+     * @return Returns true if the JVM supports JFR events.
+     */
+    public static boolean isAvailable() {
+        return JFR_AVAILABLE;
+    }
+
+    @Override
+    protected <T> T invoke(@NonNull final BackendFunction function, final String device, final int ledIndex, @NonNull final Supplier<T> call) throws MysticLightAPIException {
+        if (!JFR_AVAILABLE) {
+            return call.get();
+        }
+        return Events.record(function, device, ledIndex, call);
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Isolates the references to the JFR API, so this class is only loaded on JVMs supporting JFR.
+     */
+    private static final class Events {
+        private static final EventType NATIVE_CALL = EventType.getEventType(NativeCallEvent.class);
+
+        private static <T> T record(final BackendFunction function, final String device, final int ledIndex, final Supplier<T> call) {
+            if (!NATIVE_CALL.isEnabled()) {
+                return call.get();
+            }
+            final NativeCallEvent event = new NativeCallEvent();
+            event.begin();
+            int status = MysticLightAPIException.MLAPI_OK;
+            try {
+                return call.get();
+            } catch (final MysticLightAPIException e) {
+                status = e.getMlApiErrorCode();
+                throw e;
+            } catch (final RuntimeException e) {
+                status = MysticLightAPIException.MLAPI_ERROR;
+                throw e;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.function = function.getNativeName();
+                    event.device = device;
+                    event.ledIndex = ledIndex;
+                    event.status = status;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    @Name(EVENT_NAME)
+    @Label("Mystic Light Native Call")
+    @Category({"Mystic Light", "Native Calls"})
+    @Description("A call of a function of the Mystic Light SDK")
+    static final class NativeCallEvent extends Event {
+        @Label("Function")
+        String function;
+
+        @Label("Device")
+        String device;
+
+        @Label("LED Index")
+        @Description("The index of the LED or -1 if the call does not refer to a LED")
+        int ledIndex;
+
+        @Label("Status")
+        @Description("The MLAPI status code, 0 if the call succeeded")
+        int status;
+    }
+}
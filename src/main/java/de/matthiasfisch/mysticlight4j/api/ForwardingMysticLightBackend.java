@@ -0,0 +1,181 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+import java.util.function.Supplier;
+
+/**
+ * Base class for decorators of a {@link MysticLightBackend}.
+ * Every call is forwarded to the delegate through {@link #invoke(BackendFunction, String, int, Supplier)}, which calls
+ * {@link #invoke(BackendFunction, String, Supplier)} by default. A decorator only has to override one of these methods
+ * to add behavior such as rate limiting, retries or metrics around all functions of the backend.
+ */
+public abstract class ForwardingMysticLightBackend implements MysticLightBackend {
+    /**
+     * The LED index passed to {@link #invoke(BackendFunction, String, int, Supplier)} for calls not referring to a LED.
+     */
+    protected static final int NO_LED = -1;
+
+    private final MysticLightBackend delegate;
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     */
+    protected ForwardingMysticLightBackend(@NonNull final MysticLightBackend delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return Returns the backend the calls are forwarded to.
+     */
+    public MysticLightBackend getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Performs a call of the delegate. The default implementation just performs the call.
+     * @param function The function that is called.
+     * @param device The identifier of the device the call refers to or null if the call does not refer to a device.
+     * @param call Performs the call of the delegate.
+     * @param <T> The type of the result of the call.
+     * @return Returns the result of the call.
+     * @throws MysticLightAPIException Thrown if the call fails.
+     */
+    protected <T> T invoke(@NonNull final BackendFunction function, final String device, @NonNull final Supplier<T> call) throws MysticLightAPIException {
+        return call.get();
+    }
+
+    /**
+     * Performs a call of the delegate. Override this method instead of {@link #invoke(BackendFunction, String, Supplier)}
+     * if the index of the LED is needed. The default implementation calls {@link #invoke(BackendFunction, String, Supplier)}.
+     * @param function The function that is called.
+     * @param device The identifier of the device the call refers to or null if the call does not refer to a device.
+     * @param ledIndex The index of the LED the call refers to or {@link #NO_LED} if the call does not refer to a LED.
+     * @param call Performs the call of the delegate.
+     * @param <T> The type of the result of the call.
+     * @return Returns the result of the call.
+     * @throws MysticLightAPIException Thrown if the call fails.
+     */
+    protected <T> T invoke(@NonNull final BackendFunction function, final String device, final int ledIndex, @NonNull final Supplier<T> call) throws MysticLightAPIException {
+        return invoke(function, device, call);
+    }
+
+    @Override
+    public void initialize() throws MysticLightAPIException {
+        invoke(BackendFunction.INITIALIZE, null, NO_LED, () -> {
+            delegate.initialize();
+            return null;
+        });
+    }
+
+    @Override
+    public DeviceInfo[] getDeviceInfo() throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_DEVICE_INFO, null, NO_LED, () -> delegate.getDeviceInfo());
+    }
+
+    @Override
+    public String[] getDeviceName(@NonNull final String device) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_DEVICE_NAME, device, NO_LED, () -> delegate.getDeviceName(device));
+    }
+
+    @Override
+    public String getDeviceNameEx(@NonNull final String device, final int deviceId) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_DEVICE_NAME_EX, device, NO_LED, () -> delegate.getDeviceNameEx(device, deviceId));
+    }
+
+    @Override
+    public LedInfo getLedInfo(@NonNull final String device, final int index) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_LED_INFO, device, index, () -> delegate.getLedInfo(device, index));
+    }
+
+    @Override
+    public String[] getLedName(@NonNull final String device) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_LED_NAME, device, NO_LED, () -> delegate.getLedName(device));
+    }
+
+    @Override
+    public Color getLedColor(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_LED_COLOR, device, ledIndex, () -> delegate.getLedColor(device, ledIndex));
+    }
+
+    @Override
+    public String getLedStyle(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_LED_STYLE, device, ledIndex, () -> delegate.getLedStyle(device, ledIndex));
+    }
+
+    @Override
+    public int getLedMaxBright(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_LED_MAX_BRIGHT, device, ledIndex, () -> delegate.getLedMaxBright(device, ledIndex));
+    }
+
+    @Override
+    public int getLedBright(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_LED_BRIGHT, device, ledIndex, () -> delegate.getLedBright(device, ledIndex));
+    }
+
+    @Override
+    public int getLedMaxSpeed(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_LED_MAX_SPEED, device, ledIndex, () -> delegate.getLedMaxSpeed(device, ledIndex));
+    }
+
+    @Override
+    public int getLedSpeed(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return invoke(BackendFunction.GET_LED_SPEED, device, ledIndex, () -> delegate.getLedSpeed(device, ledIndex));
+    }
+
+    @Override
+    public void setLedColor(@NonNull final String device, final int ledIndex, @NonNull final Color color) throws MysticLightAPIException {
+        invoke(BackendFunction.SET_LED_COLOR, device, ledIndex, () -> {
+            delegate.setLedColor(device, ledIndex, color);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedColors(@NonNull final String device, final int ledIndex, @NonNull final String[] ledNames, @NonNull final Color color) throws MysticLightAPIException {
+        invoke(BackendFunction.SET_LED_COLORS, device, ledIndex, () -> {
+            delegate.setLedColors(device, ledIndex, ledNames, color);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedColorEx(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        invoke(BackendFunction.SET_LED_COLOR_EX, device, ledIndex, () -> {
+            delegate.setLedColorEx(device, ledIndex, ledName, color, sync);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedColorSync(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        invoke(BackendFunction.SET_LED_COLOR_SYNC, device, ledIndex, () -> {
+            delegate.setLedColorSync(device, ledIndex, ledName, color, sync);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedStyle(@NonNull final String device, final int ledIndex, @NonNull final String style) throws MysticLightAPIException {
+        invoke(BackendFunction.SET_LED_STYLE, device, ledIndex, () -> {
+            delegate.setLedStyle(device, ledIndex, style);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedBright(@NonNull final String device, final int ledIndex, final int level) throws MysticLightAPIException {
+        invoke(BackendFunction.SET_LED_BRIGHT, device, ledIndex, () -> {
+            delegate.setLedBright(device, ledIndex, level);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedSpeed(@NonNull final String device, final int ledIndex, final int level) throws MysticLightAPIException {
+        invoke(BackendFunction.SET_LED_SPEED, device, ledIndex, () -> {
+            delegate.setLedSpeed(device, ledIndex, level);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,223 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Backend decorator that records the number of calls, the errors by error code and a {@link LatencyHistogram} of the
+ * latencies for each {@link BackendFunction} and each device.
+ * The metrics can be published as MXBeans with {@link #registerMBeans()} under the names
+ * {@code de.matthiasfisch.mysticlight4j:type=NativeCalls,name=<name>,function=<native function>} and
+ * {@code de.matthiasfisch.mysticlight4j:type=NativeCalls,name=<name>,device=<device identifier>}.
+ * Wrap {@link NativeMysticLightBackend#INSTANCE} to instrument the calls of the Mystic Light SDK.
+ */
+public final class InstrumentedMysticLightBackend extends ForwardingMysticLightBackend {
+    /**
+     * The JMX domain of the MBeans.
+     */
+    public static final String JMX_DOMAIN = "de.matthiasfisch.mysticlight4j";
+
+    private final String name;
+    private final Map<BackendFunction, NativeCallMetrics> functionMetrics = new EnumMap<>(BackendFunction.class);
+    private final ConcurrentMap<String, NativeCallMetrics> deviceMetrics = new ConcurrentHashMap<>();
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+    private MBeanServer mBeanServer;
+    private volatile RuntimeException lastRegistrationError;
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     * @param name The name distinguishing the MBeans of this backend from those of other instances.
+     */
+    public InstrumentedMysticLightBackend(@NonNull final MysticLightBackend delegate, @NonNull final String name) {
+        super(delegate);
+        this.name = name;
+        for (final BackendFunction function : BackendFunction.values()) {
+            functionMetrics.put(function, new NativeCallMetrics(function.getNativeName()));
+        }
+    }
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     */
+    public InstrumentedMysticLightBackend(@NonNull final MysticLightBackend delegate) {
+        this(delegate, "default");
+    }
+
+    /**
+     * @return Returns the name distinguishing the MBeans of this backend from those of other instances.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param function The function.
+     * @return Returns the metrics of the function.
+     */
+    public NativeCallMetrics getFunctionMetrics(@NonNull final BackendFunction function) {
+        return functionMetrics.get(function);
+    }
+
+    /**
+     * @param deviceIdentifier The identifier of the device.
+     * @return Returns the metrics of the device or an empty optional if the device was not called yet.
+     */
+    public Optional<NativeCallMetrics> getDeviceMetrics(@NonNull final String deviceIdentifier) {
+        return Optional.ofNullable(deviceMetrics.get(deviceIdentifier));
+    }
+
+    /**
+     * @return Returns the metrics of all devices called so far, sorted by device identifier.
+     */
+    public Map<String, NativeCallMetrics> getDeviceMetrics() {
+        return new TreeMap<>(deviceMetrics);
+    }
+
+    /**
+     * @return Returns the last error registering the MBean of a device that was called for the first time after
+     * {@link #registerMBeans(MBeanServer)}, or an empty optional if no such registration failed. These errors are not
+     * thrown to the caller of the backend.
+     */
+    public Optional<RuntimeException> getLastRegistrationError() {
+        return Optional.ofNullable(lastRegistrationError);
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server. See {@link #registerMBeans(MBeanServer)}.
+     */
+    public void registerMBeans() {
+        registerMBeans(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Registers the metrics of all functions and devices with the given MBean server. Devices called for the first
+     * time afterwards are registered when they are called.
+     * @param server The MBean server.
+     * @throws IllegalStateException Thrown if the MBeans are already registered or can't be registered.
+     */
+    public synchronized void registerMBeans(@NonNull final MBeanServer server) {
+        if (mBeanServer != null) {
+            throw new IllegalStateException("The MBeans are already registered.");
+        }
+        mBeanServer = server;
+        try {
+            for (final NativeCallMetrics metrics : functionMetrics.values()) {
+                register(metrics, "function");
+            }
+            for (final NativeCallMetrics metrics : deviceMetrics.values()) {
+                register(metrics, "device");
+            }
+        } catch (final RuntimeException e) {
+            unregisterMBeans();
+            throw e;
+        }
+    }
+
+    /**
+     * Unregisters all MBeans registered by this backend. Does nothing if the MBeans are not registered.
+     */
+    public synchronized void unregisterMBeans() {
+        if (mBeanServer == null) {
+            return;
+        }
+        for (final ObjectName objectName : registeredNames) {
+            try {
+                mBeanServer.unregisterMBean(objectName);
+            } catch (final InstanceNotFoundException e) {
+                // Already unregistered by someone else.
+            } catch (final JMException e) {
+                throw new IllegalStateException("Failed to unregister MBean " + objectName, e);
+            }
+        }
+        registeredNames.clear();
+        mBeanServer = null;
+    }
+
+    /**
+     * @param metrics The metrics.
+     * @param key The key of the property of the object name identifying the metrics.
+     * @return Returns the object name the metrics are registered under.
+     */
+    ObjectName objectName(final NativeCallMetrics metrics, final String key) {
+        try {
+            return new ObjectName(String.format("%s:type=NativeCalls,name=%s,%s=%s", JMX_DOMAIN,
+                    ObjectName.quote(name), key, ObjectName.quote(metrics.getName())));
+        } catch (final JMException e) {
+            throw new IllegalStateException("Invalid object name for " + metrics.getName(), e);
+        }
+    }
+
+    @Override
+    protected <T> T invoke(@NonNull final BackendFunction function, final String device, @NonNull final Supplier<T> call) throws MysticLightAPIException {
+        final NativeCallMetrics byFunction = functionMetrics.get(function);
+        final NativeCallMetrics byDevice = device == null ? null : deviceMetrics(device);
+        final long start = System.nanoTime();
+        try {
+            final T result = call.get();
+            final long latency = System.nanoTime() - start;
+            byFunction.recordSuccess(latency);
+            if (byDevice != null) {
+                byDevice.recordSuccess(latency);
+            }
+            return result;
+        } catch (final RuntimeException e) {
+            final long latency = System.nanoTime() - start;
+            final Integer errorCode = e instanceof MysticLightAPIException ? ((MysticLightAPIException) e).getMlApiErrorCode() : null;
+            byFunction.recordError(latency, errorCode);
+            if (byDevice != null) {
+                byDevice.recordError(latency, errorCode);
+            }
+            throw e;
+        }
+    }
+
+    private NativeCallMetrics deviceMetrics(final String device) {
+        final NativeCallMetrics metrics = deviceMetrics.get(device);
+        if (metrics != null) {
+            return metrics;
+        }
+        final NativeCallMetrics created = new NativeCallMetrics(device);
+        final NativeCallMetrics existing = deviceMetrics.putIfAbsent(device, created);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            // registerMBeans() may have registered the device since it was added to the map.
+            if (mBeanServer != null && !registeredNames.contains(objectName(created, "device"))) {
+                try {
+                    register(created, "device");
+                } catch (final RuntimeException e) {
+                    lastRegistrationError = e;
+                }
+            }
+        }
+        return created;
+    }
+
+    private void register(final NativeCallMetrics metrics, final String key) {
+        final ObjectName objectName = objectName(metrics, key);
+        try {
+            mBeanServer.registerMBean(metrics, objectName);
+        } catch (final InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("An MBean named " + objectName + " is already registered. Use a distinct name for each instrumented backend.", e);
+        } catch (final JMException e) {
+            throw new IllegalStateException("Failed to register MBean " + objectName, e);
+        }
+        registeredNames.add(objectName);
+    }
+}
@@ -0,0 +1,52 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the metrics of a lane of a {@link FairShareScheduler}.
+ * The wait time is the time a call spent queued, the latency is the time from submitting a call until it completed.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class LaneStatistics {
+    private final CallPriority priority;
+    private final int queuedCalls;
+    private final long submittedCalls;
+    private final long completedCalls;
+    private final long failedCalls;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long totalLatencyNanos;
+    private final long maxLatencyNanos;
+
+    LaneStatistics(final CallPriority priority, final int queuedCalls, final long submittedCalls,
+                   final long completedCalls, final long failedCalls, final long totalWaitNanos,
+                   final long maxWaitNanos, final long totalLatencyNanos, final long maxLatencyNanos) {
+        this.priority = priority;
+        this.queuedCalls = queuedCalls;
+        this.submittedCalls = submittedCalls;
+        this.completedCalls = completedCalls;
+        this.failedCalls = failedCalls;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    /**
+     * @return Returns the average time completed calls spent queued in nanoseconds.
+     */
+    public double getAverageWaitNanos() {
+        return completedCalls == 0 ? 0 : totalWaitNanos / (double) completedCalls;
+    }
+
+    /**
+     * @return Returns the average time from submitting a call until it completed in nanoseconds.
+     */
+    public double getAverageLatencyNanos() {
+        return completedCalls == 0 ? 0 : totalLatencyNanos / (double) completedCalls;
+    }
+}
@@ -0,0 +1,113 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with power-of-two buckets.
+ * Bucket 0 counts zero latencies and bucket {@code i > 0} counts latencies in range {@code [2^(i-1), 2^i)}. Recording
+ * a value is a few atomic increments and never allocates, so the histogram can be updated on every native call.
+ * Percentiles are estimated as the upper bound of the bucket containing them, so they overestimate by less than a
+ * factor of two. Snapshots taken while values are recorded may be slightly inconsistent.
+ */
+public final class LatencyHistogram {
+    /**
+     * The number of buckets.
+     */
+    public static final int BUCKET_COUNT = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param latencyNanos The latency to record. Negative values are recorded as zero.
+     */
+    public void record(final long latencyNanos) {
+        final long value = Math.max(0, latencyNanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * @return Returns the number of recorded values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return Returns the sum of all recorded values.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return Returns the largest recorded value.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return Returns the average of the recorded values or 0 if no values were recorded.
+     */
+    public double getMean() {
+        final long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / (double) n;
+    }
+
+    /**
+     * @return Returns a copy of the bucket counts.
+     */
+    public long[] getBucketCounts() {
+        final long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * @param percentile The percentile in range [0, 1].
+     * @return Returns an upper bound of the percentile of the recorded values or 0 if no values were recorded.
+     */
+    public long getPercentile(final double percentile) {
+        final long[] counts = getBucketCounts();
+        long total = 0;
+        for (final long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(getMax(), upperBound(i));
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @param latencyNanos A latency.
+     * @return Returns the index of the bucket the latency is counted in.
+     */
+    static int bucketOf(final long latencyNanos) {
+        return Math.min(BUCKET_COUNT - 1, Long.SIZE - Long.numberOfLeadingZeros(latencyNanos));
+    }
+
+    private static long upperBound(final int bucket) {
+        return bucket == 0 ? 0 : bucket >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -3,7 +3,6 @@ package de.matthiasfisch.mysticlight4j.api;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.NonNull;
 import lombok.Synchronized;
-import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.Validate;
 
 import java.io.File;
@@ -263,16 +262,61 @@ public class MysticLightAPI {
         MysticLightNativeBinding.setLedColor(device, ledIndex, color);
     }
 
-    public static void setLedColors(@NonNull final String device, int ledIndex, @NonNull final String[] ledNames, @NonNull final Color color) throws MysticLightAPIException {
-        throw new NotImplementedException("This function is currently not implemented");
+    /**
+     * Sets the color of a LED of a specific Mystic Light device. The color object passed to the native binding is
+     * taken from the cache of {@link Color#ofRgb(int)}.
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @param rgb The color to set as {@code 0xRRGGBB}.
+     * @throws MysticLightAPIException Thrown if the native function does not return {@code MLAPI_OK}.
+     */
+    public static void setLedColorRgb(@NonNull final String device, final int ledIndex, final int rgb) throws MysticLightAPIException {
+        MysticLightNativeBinding.setLedColor(device, ledIndex, Color.ofRgb(rgb));
+    }
+
+    /**
+     * Sets the color of several LEDs of a specific Mystic Light device with a single native call. The LEDs are
+     * identified by their names as returned by {@link #getLedName(String)}.
+     * @param device The identifier of the device the LEDs belong to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the names are resolved in.
+     * @param ledNames The names of the LEDs. Must not be empty.
+     * @param color The color to set.
+     * @throws MysticLightAPIException Thrown if the native function does not return {@code MLAPI_OK}. Installations
+     * of the SDK which do not provide the function fail with {@link MysticLightAPIException#MLAPI_NO_IMPLEMENTED}.
+     */
+    public static void setLedColors(@NonNull final String device, final int ledIndex, @NonNull final String[] ledNames, @NonNull final Color color) throws MysticLightAPIException {
+        Validate.isTrue(ledNames.length > 0, "At least one LED name is required.");
+        Validate.noNullElements(ledNames, "The LED names must not contain null.");
+        MysticLightNativeBinding.setLedColors(device, ledIndex, ledNames, color);
     }
 
+    /**
+     * Sets the color of a LED of a specific Mystic Light device which is identified by its name.
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the name is resolved in.
+     * @param ledName The name of the LED.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     * @throws MysticLightAPIException Thrown if the native function does not return {@code MLAPI_OK}. Installations
+     * of the SDK which do not provide the function fail with {@link MysticLightAPIException#MLAPI_NO_IMPLEMENTED}.
+     */
     public static void setLedColorEx(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
-        throw new NotImplementedException("This function is currently not implemented");
+        MysticLightNativeBinding.setLedColorEx(device, ledIndex, ledName, color, sync);
     }
 
-    public static void setLedColorSync(@NonNull final String device, final int ledIndex, @NonNull final  String ledName, @NonNull final  Color color, final boolean sync) throws MysticLightAPIException {
-        throw new NotImplementedException("This function is currently not implemented");
+    /**
+     * Sets the color of a LED of a specific Mystic Light device which is identified by its name using the
+     * synchronized variant of {@link #setLedColorEx(String, int, String, Color, boolean)}.
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the name is resolved in.
+     * @param ledName The name of the LED.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     * @throws MysticLightAPIException Thrown if the native function does not return {@code MLAPI_OK}. Installations
+     * of the SDK which do not provide the function fail with {@link MysticLightAPIException#MLAPI_NO_IMPLEMENTED}.
+     */
+    public static void setLedColorSync(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        MysticLightNativeBinding.setLedColorSync(device, ledIndex, ledName, color, sync);
     }
 
     /**
@@ -11,7 +11,23 @@ import lombok.Getter;
 @Getter
 @EqualsAndHashCode(callSuper = true)
 public final class MysticLightAPIException extends RuntimeException {
+    /** Success. */
+    public static final int MLAPI_OK = 0;
+    /** Generic error. */
+    public static final int MLAPI_ERROR = -1;
+    /** Request is timeout. */
+    public static final int MLAPI_TIMEOUT = -2;
+    /** MSI application not found or installed version not supported. */
+    public static final int MLAPI_NO_IMPLEMENTED = -3;
+    /** MLAPI_Initialize has not been called successful. */
+    public static final int MLAPI_NOT_INITIALIZED = -4;
+    /** The parameter value is not valid. */
+    public static final int MLAPI_INVALID_ARGUMENT = -101;
+    /** The device is not found. */
+    public static final int MLAPI_DEVICE_NOT_FOUND = -102;
+
     private final int mlApiErrorCode;
+
     public MysticLightAPIException(final String message, final int mlApiErrorCode) {
         super(message);
         this.mlApiErrorCode = mlApiErrorCode;
@@ -0,0 +1,183 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+/**
+ * Instance-based access to the functions of the Mystic Light SDK.
+ * The object oriented API in {@link de.matthiasfisch.mysticlight4j} performs all its calls through an implementation of
+ * this interface. {@link NativeMysticLightBackend} forwards the calls to the static functions of {@link MysticLightAPI}
+ * and therefore to the native SDK. {@link SimulatedMysticLightBackend} provides a pure Java implementation that can be
+ * used where no MSI hardware is available, e.g. for tests and benchmarks.
+ * The semantics of all methods correspond to the equally named methods of {@link MysticLightAPI}.
+ */
+public interface MysticLightBackend {
+
+    /**
+     * Initializes the backend. This method must be called before any other method of the backend is called and it
+     * must be safe to call it multiple times.
+     * @throws MysticLightAPIException Thrown if the initialization fails.
+     * @see MysticLightAPI#initialize()
+     */
+    void initialize() throws MysticLightAPIException;
+
+    /**
+     * @return Returns information about all Mystic Light devices installed.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getDeviceInfo()
+     */
+    DeviceInfo[] getDeviceInfo() throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device. This is a value as returned by {@link #getDeviceInfo()}.
+     * @return Returns the display names of the device.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getDeviceName(String)
+     */
+    String[] getDeviceName(String device) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param deviceId The index of the device name.
+     * @return Returns the display name of the device.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getDeviceNameEx(String, int)
+     */
+    String getDeviceNameEx(String device, int deviceId) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param index The index of the LED.
+     * @return Returns information about the specified LED.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getLedInfo(String, int)
+     */
+    LedInfo getLedInfo(String device, int index) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LEDs belong to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @return Returns the names of the LEDs of the device.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getLedName(String)
+     */
+    String[] getLedName(String device) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @return Returns the color of the specified LED.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getLedColor(String, int)
+     */
+    Color getLedColor(String device, int ledIndex) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @return Returns the active style of the specified LED.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getLedStyle(String, int)
+     */
+    String getLedStyle(String device, int ledIndex) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @return Returns the maximum brightness level of the specified LED.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getLedMaxBright(String, int)
+     */
+    int getLedMaxBright(String device, int ledIndex) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @return Returns the current brightness level of the specified LED.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getLedBright(String, int)
+     */
+    int getLedBright(String device, int ledIndex) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @return Returns the maximum speed level of the specified LED.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getLedMaxSpeed(String, int)
+     */
+    int getLedMaxSpeed(String device, int ledIndex) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @return Returns the current speed level of the specified LED.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#getLedSpeed(String, int)
+     */
+    int getLedSpeed(String device, int ledIndex) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @param color The color to set.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#setLedColor(String, int, Color)
+     */
+    void setLedColor(String device, int ledIndex, Color color) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LEDs belong to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the names are resolved in.
+     * @param ledNames The names of the LEDs as returned by {@link #getLedName(String)}. Must not be empty.
+     * @param color The color to set.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#setLedColors(String, int, String[], Color)
+     */
+    void setLedColors(String device, int ledIndex, String[] ledNames, Color color) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the name is resolved in.
+     * @param ledName The name of the LED as returned by {@link #getLedName(String)}.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#setLedColorEx(String, int, String, Color, boolean)
+     */
+    void setLedColorEx(String device, int ledIndex, String ledName, Color color, boolean sync) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the name is resolved in.
+     * @param ledName The name of the LED as returned by {@link #getLedName(String)}.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#setLedColorSync(String, int, String, Color, boolean)
+     */
+    void setLedColorSync(String device, int ledIndex, String ledName, Color color, boolean sync) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @param style The style to set. Must be one of the styles returned by {@link #getLedInfo(String, int)} for this LED.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#setLedStyle(String, int, String)
+     */
+    void setLedStyle(String device, int ledIndex, String style) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @param level The brightness level to set. Must be a value between 0 and {@link #getLedMaxBright(String, int)}.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#setLedBright(String, int, int)
+     */
+    void setLedBright(String device, int ledIndex, int level) throws MysticLightAPIException;
+
+    /**
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED.
+     * @param level The speed level to set. Must be a value between 0 and {@link #getLedMaxSpeed(String, int)}.
+     * @throws MysticLightAPIException Thrown if the call does not return {@code MLAPI_OK}.
+     * @see MysticLightAPI#setLedSpeed(String, int, int)
+     */
+    void setLedSpeed(String device, int ledIndex, int level) throws MysticLightAPIException;
+}
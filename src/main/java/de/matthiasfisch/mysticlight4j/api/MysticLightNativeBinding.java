@@ -118,10 +118,37 @@ class MysticLightNativeBinding {
      */
     public static native void setLedColor(String device, int ledIndex, Color color) throws MysticLightAPIException;
 
+    /**
+     * Sets the color of several LEDs of a specific Mystic Light device which are identified by their names.
+     * @param device The identifier of the device the LEDs belong to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the names are resolved in.
+     * @param ledNames The names of the LEDs.
+     * @param color The color to set.
+     * @throws MysticLightAPIException Thrown if the native function does not return {@code MLAPI_OK}.
+     */
     public static native void setLedColors(String device, int ledIndex, String[] ledNames, Color color) throws MysticLightAPIException;
 
+    /**
+     * Sets the color of a LED of a specific Mystic Light device which is identified by its name.
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the name is resolved in.
+     * @param ledName The name of the LED.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     * @throws MysticLightAPIException Thrown if the native function does not return {@code MLAPI_OK}.
+     */
     public static native void setLedColorEx(String device, int ledIndex, String ledName, Color color, boolean sync) throws MysticLightAPIException;
 
+    /**
+     * Sets the color of a LED of a specific Mystic Light device which is identified by its name using
+     * {@code MLAPI_SetLedColorSync}.
+     * @param device The identifier of the device the LED belongs to. This is a value as returned by {@link #getDeviceInfo()}.
+     * @param ledIndex The index of the LED area the name is resolved in.
+     * @param ledName The name of the LED.
+     * @param color The color to set.
+     * @param sync The synchronization flag passed to the SDK.
+     * @throws MysticLightAPIException Thrown if the native function does not return {@code MLAPI_OK}.
+     */
     public static native void setLedColorSync(String device, int ledIndex, String ledName, Color color, boolean sync) throws MysticLightAPIException;
 
     /**
@@ -0,0 +1,103 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the calls of one function or one device recorded by an {@link InstrumentedMysticLightBackend}.
+ */
+public final class NativeCallMetrics implements NativeCallMetricsMXBean {
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentMap<Integer, LongAdder> errorsByCode = new ConcurrentHashMap<>();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    NativeCallMetrics(@NonNull final String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return Returns the name of the function or the identifier of the device.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Returns the latency histogram.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public Map<Integer, Long> getErrorCountsByCode() {
+        final Map<Integer, Long> counts = new TreeMap<>();
+        errorsByCode.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public double getMeanLatencyNanos() {
+        return latencies.getMean();
+    }
+
+    @Override
+    public long getMaxLatencyNanos() {
+        return latencies.getMax();
+    }
+
+    @Override
+    public long getP50LatencyNanos() {
+        return latencies.getPercentile(0.50);
+    }
+
+    @Override
+    public long getP95LatencyNanos() {
+        return latencies.getPercentile(0.95);
+    }
+
+    @Override
+    public long getP99LatencyNanos() {
+        return latencies.getPercentile(0.99);
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return latencies.getBucketCounts();
+    }
+
+    void recordSuccess(final long latencyNanos) {
+        calls.increment();
+        latencies.record(latencyNanos);
+    }
+
+    /**
+     * @param latencyNanos The duration of the call.
+     * @param errorCode The error code of the {@link MysticLightAPIException} or null if the call failed otherwise.
+     */
+    void recordError(final long latencyNanos, final Integer errorCode) {
+        calls.increment();
+        errors.increment();
+        latencies.record(latencyNanos);
+        if (errorCode != null) {
+            errorsByCode.computeIfAbsent(errorCode, code -> new LongAdder()).increment();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import java.util.Map;
+
+/**
+ * Management interface of the metrics of the calls of one function or one device, published by
+ * {@link InstrumentedMysticLightBackend#registerMBeans()}.
+ * Latencies are in nanoseconds.
+ */
+public interface NativeCallMetricsMXBean {
+    /**
+     * @return Returns the number of calls.
+     */
+    long getCallCount();
+
+    /**
+     * @return Returns the number of failed calls.
+     */
+    long getErrorCount();
+
+    /**
+     * @return Returns the number of calls that failed with a {@link MysticLightAPIException} by error code.
+     */
+    Map<Integer, Long> getErrorCountsByCode();
+
+    double getMeanLatencyNanos();
+
+    long getMaxLatencyNanos();
+
+    long getP50LatencyNanos();
+
+    long getP95LatencyNanos();
+
+    long getP99LatencyNanos();
+
+    /**
+     * @return Returns the counts of the buckets of the latency histogram. See {@link LatencyHistogram}.
+     */
+    long[] getLatencyHistogram();
+}
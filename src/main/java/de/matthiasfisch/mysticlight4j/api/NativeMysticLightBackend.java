@@ -0,0 +1,111 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+/**
+ * {@link MysticLightBackend} that forwards all calls to the static functions of {@link MysticLightAPI} and therefore to
+ * the native Mystic Light SDK. The backend holds no state of its own, so the shared {@link #INSTANCE} can be used.
+ * The native DLL must have been loaded with {@link MysticLightAPI#loadNativeDll(java.nio.file.Path)} or
+ * {@link MysticLightAPI#initialize(java.nio.file.Path)} before using this backend.
+ */
+public final class NativeMysticLightBackend implements MysticLightBackend {
+    /**
+     * The shared instance of this backend.
+     */
+    public static final NativeMysticLightBackend INSTANCE = new NativeMysticLightBackend();
+
+    @Override
+    public void initialize() throws MysticLightAPIException {
+        MysticLightAPI.initialize();
+    }
+
+    @Override
+    public DeviceInfo[] getDeviceInfo() throws MysticLightAPIException {
+        return MysticLightAPI.getDeviceInfo();
+    }
+
+    @Override
+    public String[] getDeviceName(@NonNull final String device) throws MysticLightAPIException {
+        return MysticLightAPI.getDeviceName(device);
+    }
+
+    @Override
+    public String getDeviceNameEx(@NonNull final String device, final int deviceId) throws MysticLightAPIException {
+        return MysticLightAPI.getDeviceNameEx(device, deviceId);
+    }
+
+    @Override
+    public LedInfo getLedInfo(@NonNull final String device, final int index) throws MysticLightAPIException {
+        return MysticLightAPI.getLedInfo(device, index);
+    }
+
+    @Override
+    public String[] getLedName(@NonNull final String device) throws MysticLightAPIException {
+        return MysticLightAPI.getLedName(device);
+    }
+
+    @Override
+    public Color getLedColor(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return MysticLightAPI.getLedColor(device, ledIndex);
+    }
+
+    @Override
+    public String getLedStyle(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return MysticLightAPI.getLedStyle(device, ledIndex);
+    }
+
+    @Override
+    public int getLedMaxBright(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return MysticLightAPI.getLedMaxBright(device, ledIndex);
+    }
+
+    @Override
+    public int getLedBright(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return MysticLightAPI.getLedBright(device, ledIndex);
+    }
+
+    @Override
+    public int getLedMaxSpeed(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return MysticLightAPI.getLedMaxSpeed(device, ledIndex);
+    }
+
+    @Override
+    public int getLedSpeed(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        return MysticLightAPI.getLedSpeed(device, ledIndex);
+    }
+
+    @Override
+    public void setLedColor(@NonNull final String device, final int ledIndex, @NonNull final Color color) throws MysticLightAPIException {
+        MysticLightAPI.setLedColor(device, ledIndex, color);
+    }
+
+    @Override
+    public void setLedColors(@NonNull final String device, final int ledIndex, @NonNull final String[] ledNames, @NonNull final Color color) throws MysticLightAPIException {
+        MysticLightAPI.setLedColors(device, ledIndex, ledNames, color);
+    }
+
+    @Override
+    public void setLedColorEx(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        MysticLightAPI.setLedColorEx(device, ledIndex, ledName, color, sync);
+    }
+
+    @Override
+    public void setLedColorSync(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        MysticLightAPI.setLedColorSync(device, ledIndex, ledName, color, sync);
+    }
+
+    @Override
+    public void setLedStyle(@NonNull final String device, final int ledIndex, @NonNull final String style) throws MysticLightAPIException {
+        MysticLightAPI.setLedStyle(device, ledIndex, style);
+    }
+
+    @Override
+    public void setLedBright(@NonNull final String device, final int ledIndex, final int level) throws MysticLightAPIException {
+        MysticLightAPI.setLedBright(device, ledIndex, level);
+    }
+
+    @Override
+    public void setLedSpeed(@NonNull final String device, final int ledIndex, final int level) throws MysticLightAPIException {
+        MysticLightAPI.setLedSpeed(device, ledIndex, level);
+    }
+}
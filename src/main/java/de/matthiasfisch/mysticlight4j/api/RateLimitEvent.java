@@ -0,0 +1,41 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Change of the write rate allowed for a device by an {@link AdaptiveRateLimiter}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class RateLimitEvent {
+    /**
+     * The direction of the change.
+     */
+    public enum Type {
+        /** The rate was lowered because the device was too slow or failed too often. */
+        DECREASED,
+        /** The rate was raised because the device kept up with the previous rate. */
+        INCREASED
+    }
+
+    private final Type type;
+    private final String deviceIdentifier;
+    private final double previousRate;
+    private final double currentRate;
+    private final double averageLatencyNanos;
+    private final double errorRate;
+
+    RateLimitEvent(@NonNull final Type type, @NonNull final String deviceIdentifier, final double previousRate,
+                   final double currentRate, final double averageLatencyNanos, final double errorRate) {
+        this.type = type;
+        this.deviceIdentifier = deviceIdentifier;
+        this.previousRate = previousRate;
+        this.currentRate = currentRate;
+        this.averageLatencyNanos = averageLatencyNanos;
+        this.errorRate = errorRate;
+    }
+}
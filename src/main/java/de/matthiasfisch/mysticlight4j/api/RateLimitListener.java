@@ -0,0 +1,13 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+/**
+ * Listener notified when an {@link AdaptiveRateLimiter} changes the write rate of a device.
+ */
+@FunctionalInterface
+public interface RateLimitListener {
+    /**
+     * Called on the thread whose call completed the evaluated window. Implementations should return quickly.
+     * @param event The change.
+     */
+    void onRateChanged(RateLimitEvent event);
+}
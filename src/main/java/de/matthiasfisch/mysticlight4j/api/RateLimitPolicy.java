@@ -0,0 +1,158 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import org.apache.commons.lang3.Validate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of an {@link AdaptiveRateLimiter}.
+ * The limiter evaluates the latency and the error rate of the calls to a device every {@link #getWindowSize()} calls.
+ * If the average latency exceeds the target latency or the error rate exceeds the maximum error rate, the allowed
+ * write rate is multiplied with the decrease factor. Otherwise it is raised by the additive increase. The rate always
+ * stays in range [{@link #getMinimumRate()}, {@link #getMaximumRate()}].
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class RateLimitPolicy {
+    private final long targetLatencyNanos;
+    private final double maximumErrorRate;
+    private final double initialRate;
+    private final double minimumRate;
+    private final double maximumRate;
+    private final double additiveIncrease;
+    private final double decreaseFactor;
+    private final int windowSize;
+
+    private RateLimitPolicy(final Builder builder) {
+        this.targetLatencyNanos = builder.targetLatencyNanos;
+        this.maximumErrorRate = builder.maximumErrorRate;
+        this.initialRate = builder.initialRate;
+        this.minimumRate = builder.minimumRate;
+        this.maximumRate = builder.maximumRate;
+        this.additiveIncrease = builder.additiveIncrease;
+        this.decreaseFactor = builder.decreaseFactor;
+        this.windowSize = builder.windowSize;
+    }
+
+    /**
+     * @return Returns the default policy.
+     */
+    public static RateLimitPolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @return Returns a new builder for a policy.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link RateLimitPolicy}.
+     */
+    public static final class Builder {
+        private long targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(20);
+        private double maximumErrorRate = 0.05;
+        private double initialRate = 200;
+        private double minimumRate = 5;
+        private double maximumRate = 1000;
+        private double additiveIncrease = 10;
+        private double decreaseFactor = 0.5;
+        private int windowSize = 20;
+
+        private Builder() {
+        }
+
+        /**
+         * @param latency The average latency of native calls the limiter aims to stay below. Defaults to 20ms.
+         * @param unit The time unit of {@code latency}.
+         * @return Returns this builder.
+         */
+        public Builder targetLatency(final long latency, @NonNull final TimeUnit unit) {
+            Validate.isTrue(latency > 0, "The target latency must be positive.");
+            this.targetLatencyNanos = unit.toNanos(latency);
+            return this;
+        }
+
+        /**
+         * @param maximumErrorRate The share of calls in a window that may fail with {@link MysticLightAPIException#MLAPI_TIMEOUT}
+         *                         or {@link MysticLightAPIException#MLAPI_ERROR} before the rate is decreased, in range [0, 1].
+         *                         Defaults to 0.05.
+         * @return Returns this builder.
+         */
+        public Builder maximumErrorRate(final double maximumErrorRate) {
+            Validate.inclusiveBetween(0.0, 1.0, maximumErrorRate, "The maximum error rate must be in range [0, 1].");
+            this.maximumErrorRate = maximumErrorRate;
+            return this;
+        }
+
+        /**
+         * @param initialRate The writes per second allowed before the first adjustment. Defaults to 200.
+         * @return Returns this builder.
+         */
+        public Builder initialRate(final double initialRate) {
+            Validate.isTrue(initialRate > 0, "The initial rate must be positive.");
+            this.initialRate = initialRate;
+            return this;
+        }
+
+        /**
+         * @param minimumRate The lowest number of writes per second the rate is decreased to. Defaults to 5.
+         * @param maximumRate The highest number of writes per second the rate is increased to. Defaults to 1000.
+         * @return Returns this builder.
+         */
+        public Builder rateRange(final double minimumRate, final double maximumRate) {
+            Validate.isTrue(minimumRate > 0, "The minimum rate must be positive.");
+            Validate.isTrue(maximumRate >= minimumRate, "The maximum rate must not be lower than the minimum rate.");
+            this.minimumRate = minimumRate;
+            this.maximumRate = maximumRate;
+            return this;
+        }
+
+        /**
+         * @param additiveIncrease The writes per second added to the rate after a window within the targets. Defaults to 10.
+         * @return Returns this builder.
+         */
+        public Builder additiveIncrease(final double additiveIncrease) {
+            Validate.isTrue(additiveIncrease >= 0, "The additive increase must not be negative.");
+            this.additiveIncrease = additiveIncrease;
+            return this;
+        }
+
+        /**
+         * @param decreaseFactor The factor the rate is multiplied with after a window exceeding the targets, in range
+         *                       (0, 1]. Defaults to 0.5.
+         * @return Returns this builder.
+         */
+        public Builder decreaseFactor(final double decreaseFactor) {
+            Validate.isTrue(decreaseFactor > 0 && decreaseFactor <= 1, "The decrease factor must be in range (0, 1].");
+            this.decreaseFactor = decreaseFactor;
+            return this;
+        }
+
+        /**
+         * @param windowSize The number of calls evaluated for each adjustment of the rate. Defaults to 20.
+         * @return Returns this builder.
+         */
+        public Builder windowSize(final int windowSize) {
+            Validate.isTrue(windowSize > 0, "The window size must be positive.");
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * @return Returns the policy.
+         * @throws IllegalArgumentException Thrown if the initial rate is outside of the rate range.
+         */
+        public RateLimitPolicy build() {
+            Validate.isTrue(initialRate >= minimumRate && initialRate <= maximumRate, "The initial rate must be in the rate range.");
+            return new RateLimitPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the state of an {@link AdaptiveRateLimiter}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class RateLimitStatistics {
+    private final String deviceIdentifier;
+    private final double currentRate;
+    private final double averageLatencyNanos;
+    private final double errorRate;
+    private final long recordedCalls;
+    private final long increases;
+    private final long decreases;
+    private final long throttledWrites;
+    private final long totalThrottleNanos;
+
+    RateLimitStatistics(final String deviceIdentifier, final double currentRate, final double averageLatencyNanos,
+                        final double errorRate, final long recordedCalls, final long increases, final long decreases,
+                        final long throttledWrites, final long totalThrottleNanos) {
+        this.deviceIdentifier = deviceIdentifier;
+        this.currentRate = currentRate;
+        this.averageLatencyNanos = averageLatencyNanos;
+        this.errorRate = errorRate;
+        this.recordedCalls = recordedCalls;
+        this.increases = increases;
+        this.decreases = decreases;
+        this.throttledWrites = throttledWrites;
+        this.totalThrottleNanos = totalThrottleNanos;
+    }
+}
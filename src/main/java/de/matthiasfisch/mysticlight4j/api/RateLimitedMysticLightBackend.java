@@ -0,0 +1,107 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Backend decorator that limits the rate of writes to each device with an {@link AdaptiveRateLimiter}.
+ * The SDK gets slow or fails with {@link MysticLightAPIException#MLAPI_TIMEOUT} if writes are issued too fast. This
+ * backend measures the latency of every call to a device and counts calls failing with
+ * {@link MysticLightAPIException#MLAPI_TIMEOUT} or {@link MysticLightAPIException#MLAPI_ERROR}. Writes wait for their
+ * time slot before they are forwarded, and the rate of each device is adapted so the latency stays below the target of
+ * the {@link RateLimitPolicy}. Reads are measured but never delayed.
+ */
+public final class RateLimitedMysticLightBackend extends ForwardingMysticLightBackend {
+    private final RateLimitPolicy policy;
+    private final ConcurrentMap<String, AdaptiveRateLimiter> limiters = new ConcurrentHashMap<>();
+    private final List<RateLimitListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     * @param policy The policy applied to each device.
+     */
+    public RateLimitedMysticLightBackend(@NonNull final MysticLightBackend delegate, @NonNull final RateLimitPolicy policy) {
+        super(delegate);
+        this.policy = policy;
+    }
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     */
+    public RateLimitedMysticLightBackend(@NonNull final MysticLightBackend delegate) {
+        this(delegate, RateLimitPolicy.defaults());
+    }
+
+    /**
+     * @return Returns the policy applied to each device.
+     */
+    public RateLimitPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @param listener The listener to notify when the rate of a device changes. Exceptions thrown by the listener are
+     *                 recorded by the limiter instead of failing the call.
+     */
+    public void addListener(@NonNull final RateLimitListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener The listener to remove.
+     */
+    public void removeListener(@NonNull final RateLimitListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param deviceIdentifier The identifier of the device.
+     * @return Returns the limiter of the device or an empty optional if the device was not called yet.
+     */
+    public Optional<AdaptiveRateLimiter> getLimiter(@NonNull final String deviceIdentifier) {
+        return Optional.ofNullable(limiters.get(deviceIdentifier));
+    }
+
+    /**
+     * @return Returns the state of the limiters of all devices called so far, sorted by device identifier.
+     */
+    public Map<String, RateLimitStatistics> getStatistics() {
+        final Map<String, RateLimitStatistics> statistics = new TreeMap<>();
+        limiters.forEach((device, limiter) -> statistics.put(device, limiter.getStatistics()));
+        return statistics;
+    }
+
+    @Override
+    protected <T> T invoke(@NonNull final BackendFunction function, final String device, @NonNull final Supplier<T> call) throws MysticLightAPIException {
+        if (device == null) {
+            return call.get();
+        }
+        final AdaptiveRateLimiter limiter = limiters.computeIfAbsent(device, id -> new AdaptiveRateLimiter(id, policy, listeners));
+        if (function.isWrite()) {
+            limiter.acquire();
+        }
+        final long start = System.nanoTime();
+        final T result;
+        try {
+            result = call.get();
+        } catch (final MysticLightAPIException e) {
+            limiter.record(System.nanoTime() - start, isCongestion(e));
+            throw e;
+        }
+        limiter.record(System.nanoTime() - start, false);
+        return result;
+    }
+
+    private static boolean isCongestion(final MysticLightAPIException e) {
+        return e.getMlApiErrorCode() == MysticLightAPIException.MLAPI_TIMEOUT
+                || e.getMlApiErrorCode() == MysticLightAPIException.MLAPI_ERROR;
+    }
+}
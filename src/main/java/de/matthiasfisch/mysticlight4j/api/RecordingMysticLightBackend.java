@@ -0,0 +1,133 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+import java.util.function.Supplier;
+
+/**
+ * Backend decorator that records every call into a {@link TraceWriter}.
+ * The function, the arguments, the result, the status and the timing of each call are appended to the writer, which
+ * writes them on its own thread. Recording therefore adds little more than an allocation and a queue insertion to each
+ * call. A call is appended when it completes, so the records of concurrent calls are not in the order the calls
+ * started. The trace can be replayed with a {@link TraceReplayer}, which restores that order.
+ */
+public final class RecordingMysticLightBackend extends ForwardingMysticLightBackend {
+    private final TraceWriter writer;
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     * @param writer The writer the calls are recorded to. It is not closed by this backend.
+     */
+    public RecordingMysticLightBackend(@NonNull final MysticLightBackend delegate, @NonNull final TraceWriter writer) {
+        super(delegate);
+        this.writer = writer;
+    }
+
+    /**
+     * @return Returns the writer the calls are recorded to.
+     */
+    public TraceWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public String getDeviceNameEx(@NonNull final String device, final int deviceId) throws MysticLightAPIException {
+        return record(BackendFunction.GET_DEVICE_NAME_EX, device, deviceId, TraceRecord.NONE, null,
+                () -> getDelegate().getDeviceNameEx(device, deviceId));
+    }
+
+    @Override
+    public void setLedColor(@NonNull final String device, final int ledIndex, @NonNull final Color color) throws MysticLightAPIException {
+        record(BackendFunction.SET_LED_COLOR, device, ledIndex, color.getRgb(), null, () -> {
+            getDelegate().setLedColor(device, ledIndex, color);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedColors(@NonNull final String device, final int ledIndex, @NonNull final String[] ledNames, @NonNull final Color color) throws MysticLightAPIException {
+        record(BackendFunction.SET_LED_COLORS, device, ledIndex, color.getRgb(), String.join(TraceRecord.NAME_SEPARATOR, ledNames), () -> {
+            getDelegate().setLedColors(device, ledIndex, ledNames, color);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedColorEx(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        record(BackendFunction.SET_LED_COLOR_EX, device, ledIndex, withSyncFlag(color, sync), ledName, () -> {
+            getDelegate().setLedColorEx(device, ledIndex, ledName, color, sync);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedColorSync(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        record(BackendFunction.SET_LED_COLOR_SYNC, device, ledIndex, withSyncFlag(color, sync), ledName, () -> {
+            getDelegate().setLedColorSync(device, ledIndex, ledName, color, sync);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedStyle(@NonNull final String device, final int ledIndex, @NonNull final String style) throws MysticLightAPIException {
+        record(BackendFunction.SET_LED_STYLE, device, ledIndex, TraceRecord.NONE, style, () -> {
+            getDelegate().setLedStyle(device, ledIndex, style);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedBright(@NonNull final String device, final int ledIndex, final int level) throws MysticLightAPIException {
+        record(BackendFunction.SET_LED_BRIGHT, device, ledIndex, level, null, () -> {
+            getDelegate().setLedBright(device, ledIndex, level);
+            return null;
+        });
+    }
+
+    @Override
+    public void setLedSpeed(@NonNull final String device, final int ledIndex, final int level) throws MysticLightAPIException {
+        record(BackendFunction.SET_LED_SPEED, device, ledIndex, level, null, () -> {
+            getDelegate().setLedSpeed(device, ledIndex, level);
+            return null;
+        });
+    }
+
+    @Override
+    protected <T> T invoke(@NonNull final BackendFunction function, final String device, final int ledIndex, @NonNull final Supplier<T> call) throws MysticLightAPIException {
+        return record(function, device, ledIndex, TraceRecord.NONE, null, call);
+    }
+
+    private static int withSyncFlag(final Color color, final boolean sync) {
+        return sync ? color.getRgb() | TraceRecord.SYNC_FLAG : color.getRgb();
+    }
+
+    private <T> T record(final BackendFunction function, final String device, final int index, final int argument,
+                         final String textArgument, final Supplier<T> call) {
+        final long start = System.nanoTime();
+        int status = MysticLightAPIException.MLAPI_OK;
+        T result = null;
+        try {
+            result = call.get();
+            return result;
+        } catch (final MysticLightAPIException e) {
+            status = e.getMlApiErrorCode();
+            throw e;
+        } catch (final RuntimeException e) {
+            status = MysticLightAPIException.MLAPI_ERROR;
+            throw e;
+        } finally {
+            final long end = System.nanoTime();
+            int value = argument;
+            String text = textArgument;
+            if (result instanceof Integer) {
+                value = (Integer) result;
+            } else if (result instanceof Color) {
+                value = ((Color) result).getRgb();
+            } else if (result instanceof String) {
+                text = (String) result;
+            }
+            writer.append(new TraceRecord(start - writer.getStartNanos(), end - start, function, device,
+                    index == NO_LED ? TraceRecord.NONE : index, value, text, status));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a replay of a trace by a {@link TraceReplayer}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ReplayResult {
+    private final long replayedCalls;
+    private final long failedCalls;
+    private final long statusMismatches;
+    private final long durationNanos;
+    private final long recordedDurationNanos;
+    private final long totalCallNanos;
+
+    ReplayResult(final long replayedCalls, final long failedCalls, final long statusMismatches,
+                 final long durationNanos, final long recordedDurationNanos, final long totalCallNanos) {
+        this.replayedCalls = replayedCalls;
+        this.failedCalls = failedCalls;
+        this.statusMismatches = statusMismatches;
+        this.durationNanos = durationNanos;
+        this.recordedDurationNanos = recordedDurationNanos;
+        this.totalCallNanos = totalCallNanos;
+    }
+
+    /**
+     * @return Returns the number of calls replayed per second.
+     */
+    public double getCallsPerSecond() {
+        return durationNanos == 0 ? 0 : replayedCalls * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+    }
+
+    /**
+     * @return Returns the average duration of a replayed call in nanoseconds.
+     */
+    public double getAverageCallNanos() {
+        return replayedCalls == 0 ? 0 : totalCallNanos / (double) replayedCalls;
+    }
+}
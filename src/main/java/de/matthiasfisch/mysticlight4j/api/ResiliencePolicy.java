@@ -0,0 +1,207 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of a {@link ResilientMysticLightBackend}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ResiliencePolicy {
+    /**
+     * Value of {@link #getDeadlineNanos()} if calls have no deadline.
+     */
+    public static final long NO_DEADLINE = 0;
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double backoffMultiplier;
+    private final double jitter;
+    private final Set<Integer> retryableErrorCodes;
+    private final long deadlineNanos;
+    private final int deadlineWorkers;
+    private final boolean reinitializeOnNotInitialized;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private ResiliencePolicy(final Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoffNanos;
+        this.maxBackoffNanos = builder.maxBackoffNanos;
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.jitter = builder.jitter;
+        this.retryableErrorCodes = builder.retryableErrorCodes;
+        this.deadlineNanos = builder.deadlineNanos;
+        this.deadlineWorkers = builder.deadlineWorkers;
+        this.reinitializeOnNotInitialized = builder.reinitializeOnNotInitialized;
+        this.failureThreshold = builder.failureThreshold;
+        this.openDurationNanos = builder.openDurationNanos;
+    }
+
+    /**
+     * @return Returns the default policy.
+     */
+    public static ResiliencePolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @return Returns a new builder for a policy.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return Returns true if calls have a deadline.
+     */
+    public boolean hasDeadline() {
+        return deadlineNanos != NO_DEADLINE;
+    }
+
+    /**
+     * @param errorCode An error code of the Mystic Light SDK.
+     * @return Returns true if calls failing with the error code are retried.
+     */
+    public boolean isRetryable(final int errorCode) {
+        return retryableErrorCodes.contains(errorCode);
+    }
+
+    /**
+     * Builder for {@link ResiliencePolicy}.
+     */
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private long initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(10);
+        private long maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(500);
+        private double backoffMultiplier = 2;
+        private double jitter = 0.5;
+        private Set<Integer> retryableErrorCodes = ImmutableSet.of(MysticLightAPIException.MLAPI_TIMEOUT, MysticLightAPIException.MLAPI_ERROR);
+        private long deadlineNanos = NO_DEADLINE;
+        private int deadlineWorkers = 4;
+        private boolean reinitializeOnNotInitialized = true;
+        private int failureThreshold = 5;
+        private long openDurationNanos = TimeUnit.SECONDS.toNanos(5);
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxAttempts The maximum number of attempts of a call including the first one. Defaults to 3.
+         * @return Returns this builder.
+         */
+        public Builder maxAttempts(final int maxAttempts) {
+            Validate.isTrue(maxAttempts > 0, "The maximum number of attempts must be positive.");
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the delay between attempts. The delay before the n-th retry is
+         * {@code min(maxBackoff, initialBackoff * multiplier^(n-1))}, shortened by a random share of up to {@code jitter}.
+         * Defaults to an initial backoff of 10ms, a maximum backoff of 500ms and a multiplier of 2.
+         * @param initialBackoff The delay before the first retry.
+         * @param maxBackoff The maximum delay before a retry.
+         * @param unit The time unit of {@code initialBackoff} and {@code maxBackoff}.
+         * @param multiplier The factor the delay grows by with each retry.
+         * @return Returns this builder.
+         */
+        public Builder backoff(final long initialBackoff, final long maxBackoff, @NonNull final TimeUnit unit, final double multiplier) {
+            Validate.isTrue(initialBackoff >= 0, "The initial backoff must not be negative.");
+            Validate.isTrue(maxBackoff >= initialBackoff, "The maximum backoff must not be lower than the initial backoff.");
+            Validate.isTrue(multiplier >= 1, "The backoff multiplier must be at least 1.");
+            this.initialBackoffNanos = unit.toNanos(initialBackoff);
+            this.maxBackoffNanos = unit.toNanos(maxBackoff);
+            this.backoffMultiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * @param jitter The maximum share the backoff is randomly shortened by, in range [0, 1]. Spreads the retries of
+         *               concurrent callers. Defaults to 0.5.
+         * @return Returns this builder.
+         */
+        public Builder jitter(final double jitter) {
+            Validate.inclusiveBetween(0.0, 1.0, jitter, "The jitter must be in range [0, 1].");
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * @param errorCodes The error codes of {@link MysticLightAPIException} that are retried. Defaults to
+         *                   {@link MysticLightAPIException#MLAPI_TIMEOUT} and {@link MysticLightAPIException#MLAPI_ERROR}.
+         * @return Returns this builder.
+         */
+        public Builder retryableErrorCodes(@NonNull final Integer... errorCodes) {
+            this.retryableErrorCodes = ImmutableSet.copyOf(errorCodes);
+            return this;
+        }
+
+        /**
+         * @param deadline The maximum time a call may take including all retries. If the deadline elapses the call
+         *                 fails with {@link MysticLightAPIException#MLAPI_TIMEOUT}. Defaults to no deadline.
+         * @param unit The time unit of {@code deadline}.
+         * @return Returns this builder.
+         */
+        public Builder deadline(final long deadline, @NonNull final TimeUnit unit) {
+            Validate.isTrue(deadline > 0, "The deadline must be positive.");
+            this.deadlineNanos = unit.toNanos(deadline);
+            return this;
+        }
+
+        /**
+         * @param deadlineWorkers The maximum number of worker threads making calls with a deadline. A call that times
+         *                        out keeps its worker busy until the SDK returns, so calls are rejected with
+         *                        {@link MysticLightAPIException#MLAPI_TIMEOUT} while all workers are busy instead of
+         *                        piling up threads on a hanging SDK. Defaults to 4.
+         * @return Returns this builder.
+         */
+        public Builder deadlineWorkers(final int deadlineWorkers) {
+            Validate.isTrue(deadlineWorkers > 0, "The number of deadline workers must be positive.");
+            this.deadlineWorkers = deadlineWorkers;
+            return this;
+        }
+
+        /**
+         * @param reinitialize True to call {@link MysticLightBackend#initialize()} and retry the call if a call fails with
+         *                     {@link MysticLightAPIException#MLAPI_NOT_INITIALIZED}. Defaults to true.
+         * @return Returns this builder.
+         */
+        public Builder reinitializeOnNotInitialized(final boolean reinitialize) {
+            this.reinitializeOnNotInitialized = reinitialize;
+            return this;
+        }
+
+        /**
+         * Configures the circuit breaker of each device. Defaults to 5 failures and 5 seconds.
+         * @param failureThreshold The number of consecutive failed attempts after which the circuit of a device opens.
+         * @param openDuration The time an open circuit rejects calls before a trial call is let through.
+         * @param unit The time unit of {@code openDuration}.
+         * @return Returns this builder.
+         */
+        public Builder circuitBreaker(final int failureThreshold, final long openDuration, @NonNull final TimeUnit unit) {
+            Validate.isTrue(failureThreshold > 0, "The failure threshold must be positive.");
+            Validate.isTrue(openDuration >= 0, "The open duration must not be negative.");
+            this.failureThreshold = failureThreshold;
+            this.openDurationNanos = unit.toNanos(openDuration);
+            return this;
+        }
+
+        /**
+         * @return Returns the policy.
+         */
+        public ResiliencePolicy build() {
+            return new ResiliencePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Backend decorator that applies a {@link ResiliencePolicy} to every call.
+ * <ul>
+ *     <li>Calls failing with a retryable error code are retried with exponential, jittered backoff.</li>
+ *     <li>Calls failing with {@link MysticLightAPIException#MLAPI_NOT_INITIALIZED} trigger
+ *     {@link MysticLightBackend#initialize()} and are retried.</li>
+ *     <li>If the policy has a deadline, calls are made on a worker thread and the caller gives up with
+ *     {@link MysticLightAPIException#MLAPI_TIMEOUT} once the deadline elapsed. The native call can't be aborted and
+ *     keeps its worker busy until the SDK returns. The number of workers is bounded by
+ *     {@link ResiliencePolicy#getDeadlineWorkers()}; while all workers are busy, attempts fail with
+ *     {@link MysticLightAPIException#MLAPI_TIMEOUT} right away. {@link #close()} stops the workers.</li>
+ *     <li>Each device has a {@link CircuitBreaker}. Failed attempts count against the breaker, except failures with
+ *     {@link MysticLightAPIException#MLAPI_INVALID_ARGUMENT} and {@link MysticLightAPIException#MLAPI_NOT_INITIALIZED},
+ *     which don't indicate a misbehaving device. While the circuit is open, calls fail with a
+ *     {@link CircuitBreakerOpenException} without calling the SDK, so threads don't pile up on a hanging device.</li>
+ * </ul>
+ */
+public final class ResilientMysticLightBackend extends ForwardingMysticLightBackend implements Closeable {
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("mysticlight4j-resilience-%d")
+            .setDaemon(true)
+            .build();
+
+    private final ResiliencePolicy policy;
+    // Null if the policy has no deadline.
+    private final ThreadPoolExecutor deadlineWorkers;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object initializeLock = new Object();
+    private final AtomicLong initializeGeneration = new AtomicLong();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder reinitializations = new LongAdder();
+    private final LongAdder deadlinesExceeded = new LongAdder();
+    private final LongAdder saturatedAttempts = new LongAdder();
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     * @param policy The policy.
+     */
+    public ResilientMysticLightBackend(@NonNull final MysticLightBackend delegate, @NonNull final ResiliencePolicy policy) {
+        super(delegate);
+        this.policy = policy;
+        if (policy.hasDeadline()) {
+            // No queue: an attempt either gets an idle worker or is rejected.
+            this.deadlineWorkers = new ThreadPoolExecutor(policy.getDeadlineWorkers(), policy.getDeadlineWorkers(),
+                    60, TimeUnit.SECONDS, new SynchronousQueue<>(), THREAD_FACTORY);
+            deadlineWorkers.allowCoreThreadTimeOut(true);
+        } else {
+            this.deadlineWorkers = null;
+        }
+    }
+
+    /**
+     * @param delegate The backend the calls are forwarded to.
+     */
+    public ResilientMysticLightBackend(@NonNull final MysticLightBackend delegate) {
+        this(delegate, ResiliencePolicy.defaults());
+    }
+
+    /**
+     * @return Returns the policy.
+     */
+    public ResiliencePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @param listener The listener to notify when the circuit of a device changes its state. Exceptions thrown by the
+     *                 listener are recorded by the circuit breaker instead of failing the call.
+     */
+    public void addListener(@NonNull final CircuitBreakerListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener The listener to remove.
+     */
+    public void removeListener(@NonNull final CircuitBreakerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param deviceIdentifier The identifier of the device.
+     * @return Returns the circuit breaker of the device or an empty optional if the device was not called yet.
+     */
+    public Optional<CircuitBreaker> getCircuitBreaker(@NonNull final String deviceIdentifier) {
+        return Optional.ofNullable(breakers.get(deviceIdentifier));
+    }
+
+    /**
+     * @return Returns the number of retried attempts.
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * @return Returns the number of times the backend was initialized again after {@link MysticLightAPIException#MLAPI_NOT_INITIALIZED}.
+     */
+    public long getReinitializationCount() {
+        return reinitializations.sum();
+    }
+
+    /**
+     * @return Returns the number of calls that failed because their deadline elapsed.
+     */
+    public long getDeadlineExceededCount() {
+        return deadlinesExceeded.sum();
+    }
+
+    /**
+     * @return Returns the number of attempts that failed because all workers for calls with a deadline were busy.
+     */
+    public long getSaturatedAttemptCount() {
+        return saturatedAttempts.sum();
+    }
+
+    /**
+     * Stops the workers for calls with a deadline once they are idle. Calls in progress are not interrupted. Afterwards
+     * calls fail with an {@link IllegalStateException} if the policy has a deadline.
+     */
+    @Override
+    public void close() {
+        if (deadlineWorkers != null) {
+            deadlineWorkers.shutdown();
+        }
+    }
+
+    @Override
+    protected <T> T invoke(@NonNull final BackendFunction function, final String device, @NonNull final Supplier<T> call) throws MysticLightAPIException {
+        final long deadlineNanos = policy.hasDeadline() ? System.nanoTime() + policy.getDeadlineNanos() : 0;
+        final CircuitBreaker breaker = device == null
+                ? null
+                : breakers.computeIfAbsent(device, id -> new CircuitBreaker(id, policy, listeners));
+        for (int attempt = 1; ; attempt++) {
+            if (breaker != null && !breaker.tryAcquire()) {
+                throw new CircuitBreakerOpenException(device);
+            }
+            final long generation = initializeGeneration.get();
+            try {
+                final T result = attempt(call, deadlineNanos);
+                if (breaker != null) {
+                    breaker.onSuccess();
+                }
+                return result;
+            } catch (final MysticLightAPIException e) {
+                if (breaker != null) {
+                    if (countsAsFailure(e)) {
+                        breaker.onFailure();
+                    } else {
+                        breaker.onIgnored();
+                    }
+                }
+                if (attempt >= policy.getMaxAttempts() || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                if (e.getMlApiErrorCode() == MysticLightAPIException.MLAPI_NOT_INITIALIZED
+                        && policy.isReinitializeOnNotInitialized() && function != BackendFunction.INITIALIZE) {
+                    reinitialize(generation);
+                } else if (!policy.isRetryable(e.getMlApiErrorCode()) || !backoff(attempt, deadlineNanos)) {
+                    throw e;
+                }
+                retries.increment();
+            } catch (final RuntimeException e) {
+                if (breaker != null) {
+                    breaker.onIgnored();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private <T> T attempt(final Supplier<T> call, final long deadlineNanos) {
+        if (deadlineNanos == 0) {
+            return call.get();
+        }
+        final long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            throw deadlineExceeded();
+        }
+        final Future<T> future;
+        try {
+            future = deadlineWorkers.submit(call::get);
+        } catch (final RejectedExecutionException e) {
+            Validate.validState(!deadlineWorkers.isShutdown(), "The backend is closed.");
+            saturatedAttempts.increment();
+            throw new MysticLightAPIException("All workers for calls with a deadline are busy.", MysticLightAPIException.MLAPI_TIMEOUT);
+        }
+        // Cancelled without interrupting, as the interrupt would hit the worker inside the native or backend call.
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            future.cancel(false);
+            throw deadlineExceeded();
+        } catch (final InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new MysticLightAPIException("Interrupted while waiting for the call.", MysticLightAPIException.MLAPI_ERROR);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private MysticLightAPIException deadlineExceeded() {
+        deadlinesExceeded.increment();
+        return new MysticLightAPIException("The call did not complete within its deadline.", MysticLightAPIException.MLAPI_TIMEOUT);
+    }
+
+    /**
+     * Waits before the next attempt.
+     * @return Returns false if the next attempt would start after the deadline.
+     */
+    private boolean backoff(final int attempt, final long deadlineNanos) {
+        final double exponential = policy.getInitialBackoffNanos() * Math.pow(policy.getBackoffMultiplier(), attempt - 1);
+        final double capped = Math.min(policy.getMaxBackoffNanos(), exponential);
+        final long delay = (long) (capped * (1 - policy.getJitter() * ThreadLocalRandom.current().nextDouble()));
+        final long resumeAt = System.nanoTime() + delay;
+        if (deadlineNanos != 0 && resumeAt - deadlineNanos >= 0) {
+            return false;
+        }
+        long remaining = delay;
+        while (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            remaining = resumeAt - System.nanoTime();
+        }
+        return true;
+    }
+
+    private void reinitialize(final long failedGeneration) {
+        synchronized (initializeLock) {
+            // Only the first of several callers failing concurrently initializes the backend again.
+            if (initializeGeneration.get() != failedGeneration) {
+                return;
+            }
+            getDelegate().initialize();
+            initializeGeneration.incrementAndGet();
+            reinitializations.increment();
+        }
+    }
+
+    private static boolean countsAsFailure(final MysticLightAPIException e) {
+        return e.getMlApiErrorCode() != MysticLightAPIException.MLAPI_INVALID_ARGUMENT
+                && e.getMlApiErrorCode() != MysticLightAPIException.MLAPI_NOT_INITIALIZED;
+    }
+}
@@ -0,0 +1,565 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pure Java {@link MysticLightBackend} simulating a set of Mystic Light devices in memory.
+ * This backend does not require the native DLL, the SDK or MSI hardware and can therefore be used on any operating
+ * system, e.g. for tests, benchmarks and load tests on CI machines.
+ * The topology of the simulated rig, the latency of each call and the rate of injected errors can be configured using
+ * {@link #builder()}. Like the SDK the backend must be initialized with {@link #initialize()} before any other call,
+ * otherwise {@link MysticLightAPIException#MLAPI_NOT_INITIALIZED} is returned.
+ */
+public final class SimulatedMysticLightBackend implements MysticLightBackend {
+    /**
+     * The styles supported by LEDs added without explicitly specifying styles.
+     */
+    public static final String[] DEFAULT_STYLES = {"Off", "Steady", "Breathing", "Flashing", "Double Flashing", "Lightning", "Rainbow"};
+    /**
+     * The maximum brightness level of LEDs added without explicitly specifying it.
+     */
+    public static final int DEFAULT_MAX_BRIGHTNESS = 5;
+    /**
+     * The maximum speed level of LEDs added without explicitly specifying it.
+     */
+    public static final int DEFAULT_MAX_SPEED = 2;
+
+    private final ImmutableMap<String, SimulatedDevice> devices;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    // Null without a seed. The thread local generator is used then, so concurrent calls don't contend on one generator.
+    private final Random random;
+    private final Map<Integer, Double> errorProbabilities;
+    private final Queue<Integer> forcedErrors = new ConcurrentLinkedQueue<>();
+    private final AtomicLong callCount = new AtomicLong();
+    private final Set<String> disconnectedDevices = ConcurrentHashMap.newKeySet();
+    private volatile boolean initialized = false;
+
+    private SimulatedMysticLightBackend(@NonNull final Builder builder) {
+        final ImmutableMap.Builder<String, SimulatedDevice> devicesBuilder = ImmutableMap.builder();
+        builder.devices.forEach((type, device) -> devicesBuilder.put(type, device.build(type)));
+        this.devices = devicesBuilder.build();
+        this.latencyNanos = builder.latencyNanos;
+        this.jitterNanos = builder.jitterNanos;
+        this.random = builder.seed == null ? null : new Random(builder.seed);
+        this.errorProbabilities = new ConcurrentHashMap<>(builder.errorProbabilities);
+    }
+
+    /**
+     * @return Returns a new builder for configuring a simulated backend.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Sets the probability with which a call fails with the given error code. A probability of zero disables the
+     * injection of this error code.
+     * @param errorCode The error code the call fails with, e.g. {@link MysticLightAPIException#MLAPI_TIMEOUT}.
+     * @param probability The probability in range [0, 1].
+     */
+    public void setErrorProbability(final int errorCode, final double probability) {
+        Validate.inclusiveBetween(0.0, 1.0, probability, "The error probability must be in range [0, 1].");
+        Validate.isTrue(errorCode != MysticLightAPIException.MLAPI_OK, "MLAPI_OK is not an error code.");
+        if (probability == 0) {
+            errorProbabilities.remove(errorCode);
+        } else {
+            errorProbabilities.put(errorCode, probability);
+        }
+    }
+
+    /**
+     * Lets the next calls to this backend fail with the given error code regardless of the configured probabilities.
+     * @param errorCode The error code the calls fail with.
+     * @param count The number of calls that fail.
+     */
+    public void failNextCalls(final int errorCode, final int count) {
+        Validate.isTrue(errorCode != MysticLightAPIException.MLAPI_OK, "MLAPI_OK is not an error code.");
+        Validate.isTrue(count >= 0, "The number of failing calls must not be negative.");
+        for (int i = 0; i < count; i++) {
+            forcedErrors.add(errorCode);
+        }
+    }
+
+    /**
+     * Simulates unplugging a device. The device is no longer reported by {@link #getDeviceInfo()} and calls for the
+     * device fail with {@link MysticLightAPIException#MLAPI_DEVICE_NOT_FOUND} until it is connected again.
+     * The state of its LEDs is retained.
+     * @param deviceType The identifier of the device.
+     */
+    public void disconnect(@NonNull final String deviceType) {
+        Validate.isTrue(devices.containsKey(deviceType), "Unknown device %s.", deviceType);
+        disconnectedDevices.add(deviceType);
+    }
+
+    /**
+     * Simulates plugging in a device that was disconnected with {@link #disconnect(String)}.
+     * @param deviceType The identifier of the device.
+     */
+    public void connect(@NonNull final String deviceType) {
+        Validate.isTrue(devices.containsKey(deviceType), "Unknown device %s.", deviceType);
+        disconnectedDevices.remove(deviceType);
+    }
+
+    /**
+     * @return Returns the number of calls made to this backend, including failed calls and calls to {@link #initialize()}.
+     */
+    public long getCallCount() {
+        return callCount.get();
+    }
+
+    @Override
+    public void initialize() throws MysticLightAPIException {
+        callCount.incrementAndGet();
+        simulateLatency();
+        initialized = true;
+    }
+
+    @Override
+    public DeviceInfo[] getDeviceInfo() throws MysticLightAPIException {
+        beginCall();
+        return devices.values().stream()
+                .filter(device -> !disconnectedDevices.contains(device.type))
+                .map(device -> new DeviceInfo(device.type, device.ledInfos.length))
+                .toArray(DeviceInfo[]::new);
+    }
+
+    @Override
+    public String[] getDeviceName(@NonNull final String device) throws MysticLightAPIException {
+        return beginCall(device).names.clone();
+    }
+
+    @Override
+    public String getDeviceNameEx(@NonNull final String device, final int deviceId) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        if (deviceId < 0 || deviceId >= simulatedDevice.names.length) {
+            throw error(MysticLightAPIException.MLAPI_INVALID_ARGUMENT);
+        }
+        return simulatedDevice.names[deviceId];
+    }
+
+    @Override
+    public LedInfo getLedInfo(@NonNull final String device, final int index) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        return simulatedDevice.ledInfos[simulatedDevice.checkIndex(index)];
+    }
+
+    @Override
+    public String[] getLedName(@NonNull final String device) throws MysticLightAPIException {
+        return Arrays.stream(beginCall(device).ledInfos)
+                .map(LedInfo::getName)
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public Color getLedColor(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        synchronized (simulatedDevice) {
+            return simulatedDevice.colors[simulatedDevice.checkIndex(ledIndex)];
+        }
+    }
+
+    @Override
+    public String getLedStyle(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        synchronized (simulatedDevice) {
+            return simulatedDevice.styles[simulatedDevice.checkIndex(ledIndex)];
+        }
+    }
+
+    @Override
+    public int getLedMaxBright(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        return simulatedDevice.maxBrightness[simulatedDevice.checkIndex(ledIndex)];
+    }
+
+    @Override
+    public int getLedBright(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        synchronized (simulatedDevice) {
+            return simulatedDevice.brightness[simulatedDevice.checkIndex(ledIndex)];
+        }
+    }
+
+    @Override
+    public int getLedMaxSpeed(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        return simulatedDevice.maxSpeed[simulatedDevice.checkIndex(ledIndex)];
+    }
+
+    @Override
+    public int getLedSpeed(@NonNull final String device, final int ledIndex) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        synchronized (simulatedDevice) {
+            return simulatedDevice.speed[simulatedDevice.checkIndex(ledIndex)];
+        }
+    }
+
+    @Override
+    public void setLedColor(@NonNull final String device, final int ledIndex, @NonNull final Color color) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        synchronized (simulatedDevice) {
+            simulatedDevice.colors[simulatedDevice.checkIndex(ledIndex)] = color;
+        }
+    }
+
+    /**
+     * Sets the color of the LEDs with the given names.
+     * The names are resolved against the names of all LEDs of the device; if several LEDs share a name, the one with
+     * the lowest index is written. The area index must be a valid LED index.
+     */
+    @Override
+    public void setLedColors(@NonNull final String device, final int ledIndex, @NonNull final String[] ledNames, @NonNull final Color color) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        simulatedDevice.checkIndex(ledIndex);
+        if (ledNames.length == 0) {
+            throw error(MysticLightAPIException.MLAPI_INVALID_ARGUMENT);
+        }
+        final int[] indices = new int[ledNames.length];
+        for (int i = 0; i < ledNames.length; i++) {
+            indices[i] = simulatedDevice.indexOf(ledNames[i]);
+        }
+        synchronized (simulatedDevice) {
+            for (final int index : indices) {
+                simulatedDevice.colors[index] = color;
+            }
+        }
+    }
+
+    /**
+     * Sets the color of the LED with the given name.
+     * The name is resolved like in {@link #setLedColors(String, int, String[], Color)}. The synchronization flag is ignored.
+     */
+    @Override
+    public void setLedColorEx(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        setLedColorByName(device, ledIndex, ledName, color);
+    }
+
+    /**
+     * Sets the color of the LED with the given name.
+     * The name is resolved like in {@link #setLedColors(String, int, String[], Color)}. The synchronization flag is ignored.
+     */
+    @Override
+    public void setLedColorSync(@NonNull final String device, final int ledIndex, @NonNull final String ledName, @NonNull final Color color, final boolean sync) throws MysticLightAPIException {
+        setLedColorByName(device, ledIndex, ledName, color);
+    }
+
+    @Override
+    public void setLedStyle(@NonNull final String device, final int ledIndex, @NonNull final String style) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        final int index = simulatedDevice.checkIndex(ledIndex);
+        if (!Arrays.asList(simulatedDevice.ledInfos[index].getStyles()).contains(style)) {
+            throw error(MysticLightAPIException.MLAPI_INVALID_ARGUMENT);
+        }
+        synchronized (simulatedDevice) {
+            simulatedDevice.styles[index] = style;
+        }
+    }
+
+    @Override
+    public void setLedBright(@NonNull final String device, final int ledIndex, final int level) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        final int index = simulatedDevice.checkIndex(ledIndex);
+        if (level < 0 || level > simulatedDevice.maxBrightness[index]) {
+            throw error(MysticLightAPIException.MLAPI_INVALID_ARGUMENT);
+        }
+        synchronized (simulatedDevice) {
+            simulatedDevice.brightness[index] = level;
+        }
+    }
+
+    @Override
+    public void setLedSpeed(@NonNull final String device, final int ledIndex, final int level) throws MysticLightAPIException {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        final int index = simulatedDevice.checkIndex(ledIndex);
+        if (level < 0 || level > simulatedDevice.maxSpeed[index]) {
+            throw error(MysticLightAPIException.MLAPI_INVALID_ARGUMENT);
+        }
+        synchronized (simulatedDevice) {
+            simulatedDevice.speed[index] = level;
+        }
+    }
+
+    private void setLedColorByName(final String device, final int ledIndex, final String ledName, final Color color) {
+        final SimulatedDevice simulatedDevice = beginCall(device);
+        simulatedDevice.checkIndex(ledIndex);
+        final int index = simulatedDevice.indexOf(ledName);
+        synchronized (simulatedDevice) {
+            simulatedDevice.colors[index] = color;
+        }
+    }
+
+    private SimulatedDevice beginCall(final String device) {
+        beginCall();
+        final SimulatedDevice simulatedDevice = devices.get(device);
+        if (simulatedDevice == null || disconnectedDevices.contains(device)) {
+            throw error(MysticLightAPIException.MLAPI_DEVICE_NOT_FOUND);
+        }
+        return simulatedDevice;
+    }
+
+    private void beginCall() {
+        callCount.incrementAndGet();
+        simulateLatency();
+        if (!initialized) {
+            throw error(MysticLightAPIException.MLAPI_NOT_INITIALIZED);
+        }
+
+        final Integer forcedError = forcedErrors.poll();
+        if (forcedError != null) {
+            throw error(forcedError);
+        }
+        for (final Map.Entry<Integer, Double> errorProbability : errorProbabilities.entrySet()) {
+            if (nextRandom() < errorProbability.getValue()) {
+                throw error(errorProbability.getKey());
+            }
+        }
+    }
+
+    private void simulateLatency() {
+        long delayNanos = latencyNanos;
+        if (jitterNanos > 0) {
+            delayNanos += (long) (nextRandom() * jitterNanos);
+        }
+        if (delayNanos > 0) {
+            final long deadline = System.nanoTime() + delayNanos;
+            long remaining = delayNanos;
+            while (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+    }
+
+    private double nextRandom() {
+        return random == null ? ThreadLocalRandom.current().nextDouble() : random.nextDouble();
+    }
+
+    private static MysticLightAPIException error(final int errorCode) {
+        final String message;
+        switch (errorCode) {
+            case MysticLightAPIException.MLAPI_TIMEOUT: message = "Request is timeout"; break;
+            case MysticLightAPIException.MLAPI_NO_IMPLEMENTED: message = "MSI application not found or installed version not supported"; break;
+            case MysticLightAPIException.MLAPI_NOT_INITIALIZED: message = "MLAPI_Initialize has not been called successful"; break;
+            case MysticLightAPIException.MLAPI_INVALID_ARGUMENT: message = "The parameter value is not valid"; break;
+            case MysticLightAPIException.MLAPI_DEVICE_NOT_FOUND: message = "The device is not found"; break;
+            default: message = "Generic error";
+        }
+        return new MysticLightAPIException(message, errorCode);
+    }
+
+    /**
+     * The state of a simulated device. Accesses to the mutable state are synchronized on the instance.
+     */
+    private static final class SimulatedDevice {
+        private final String type;
+        private final String[] names;
+        private final LedInfo[] ledInfos;
+        private final int[] maxBrightness;
+        private final int[] maxSpeed;
+        private final Color[] colors;
+        private final String[] styles;
+        private final int[] brightness;
+        private final int[] speed;
+
+        private SimulatedDevice(final String type, final String[] names, final List<LedSpec> leds) {
+            this.type = type;
+            this.names = names;
+            this.ledInfos = new LedInfo[leds.size()];
+            this.maxBrightness = new int[leds.size()];
+            this.maxSpeed = new int[leds.size()];
+            this.colors = new Color[leds.size()];
+            this.styles = new String[leds.size()];
+            this.brightness = new int[leds.size()];
+            this.speed = new int[leds.size()];
+            for (int i = 0; i < leds.size(); i++) {
+                final LedSpec led = leds.get(i);
+                ledInfos[i] = new LedInfo(type, i, led.name, led.styles);
+                maxBrightness[i] = led.maxBrightness;
+                maxSpeed[i] = led.maxSpeed;
+                colors[i] = Color.of(0, 0, 0);
+                styles[i] = led.styles[0];
+                brightness[i] = led.maxBrightness;
+                speed[i] = 0;
+            }
+        }
+
+        private int checkIndex(final int ledIndex) {
+            if (ledIndex < 0 || ledIndex >= ledInfos.length) {
+                throw error(MysticLightAPIException.MLAPI_INVALID_ARGUMENT);
+            }
+            return ledIndex;
+        }
+
+        private int indexOf(final String ledName) {
+            for (int i = 0; i < ledInfos.length; i++) {
+                if (ledInfos[i].getName().equals(ledName)) {
+                    return i;
+                }
+            }
+            throw error(MysticLightAPIException.MLAPI_INVALID_ARGUMENT);
+        }
+    }
+
+    private static final class LedSpec {
+        private final String name;
+        private final String[] styles;
+        private final int maxBrightness;
+        private final int maxSpeed;
+
+        private LedSpec(final String name, final String[] styles, final int maxBrightness, final int maxSpeed) {
+            this.name = name;
+            this.styles = styles;
+            this.maxBrightness = maxBrightness;
+            this.maxSpeed = maxSpeed;
+        }
+    }
+
+    private static final class DeviceSpec {
+        private final String name;
+        private final List<LedSpec> leds = new ArrayList<>();
+
+        private DeviceSpec(final String name) {
+            this.name = name;
+        }
+
+        private SimulatedDevice build(final String type) {
+            return new SimulatedDevice(type, new String[] {name}, leds);
+        }
+    }
+
+    /**
+     * Builder for {@link SimulatedMysticLightBackend}.
+     */
+    public static final class Builder {
+        private final Map<String, DeviceSpec> devices = new LinkedHashMap<>();
+        private final Map<Integer, Double> errorProbabilities = new LinkedHashMap<>();
+        private long latencyNanos = 0;
+        private long jitterNanos = 0;
+        private Long seed = null;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a device without LEDs. LEDs can be added with {@link #addLed(String, String, int, int, String...)}.
+         * @param deviceType The identifier of the device.
+         * @param name The display name of the device.
+         * @return Returns this builder.
+         */
+        public Builder addDevice(@NonNull final String deviceType, @NonNull final String name) {
+            Validate.isTrue(!devices.containsKey(deviceType), "The device %s was already added.", deviceType);
+            devices.put(deviceType, new DeviceSpec(name));
+            return this;
+        }
+
+        /**
+         * Adds a device with the given number of LEDs. The LEDs support the {@link #DEFAULT_STYLES} and have the
+         * {@link #DEFAULT_MAX_BRIGHTNESS} and {@link #DEFAULT_MAX_SPEED}.
+         * @param deviceType The identifier of the device.
+         * @param name The display name of the device.
+         * @param ledCount The number of LEDs of the device.
+         * @return Returns this builder.
+         */
+        public Builder addDevice(@NonNull final String deviceType, @NonNull final String name, final int ledCount) {
+            Validate.isTrue(ledCount >= 0, "The number of LEDs must not be negative.");
+            addDevice(deviceType, name);
+            for (int i = 0; i < ledCount; i++) {
+                addLed(deviceType, String.format("%s LED %d", name, i), DEFAULT_MAX_BRIGHTNESS, DEFAULT_MAX_SPEED, DEFAULT_STYLES);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a LED to a previously added device. The LED gets the next free index of the device.
+         * @param deviceType The identifier of the device.
+         * @param ledName The name of the LED.
+         * @param maxBrightness The maximum brightness level of the LED.
+         * @param maxSpeed The maximum speed level of the LED.
+         * @param styles The styles supported by the LED, at least one. The first style is initially active.
+         * @return Returns this builder.
+         */
+        public Builder addLed(@NonNull final String deviceType, @NonNull final String ledName, final int maxBrightness, final int maxSpeed, @NonNull final String... styles) {
+            final DeviceSpec device = devices.get(deviceType);
+            Validate.isTrue(device != null, "The device %s must be added before its LEDs.", deviceType);
+            Validate.isTrue(maxBrightness >= 0, "The maximum brightness level must not be negative.");
+            Validate.isTrue(maxSpeed >= 0, "The maximum speed level must not be negative.");
+            Validate.isTrue(styles.length > 0, "A LED must support at least one style.");
+            device.leds.add(new LedSpec(ledName, styles.clone(), maxBrightness, maxSpeed));
+            return this;
+        }
+
+        /**
+         * Sets the latency every call to the backend takes.
+         * @param latency The latency.
+         * @param unit The time unit of the latency.
+         * @return Returns this builder.
+         */
+        public Builder latency(final long latency, @NonNull final TimeUnit unit) {
+            Validate.isTrue(latency >= 0, "The latency must not be negative.");
+            this.latencyNanos = unit.toNanos(latency);
+            return this;
+        }
+
+        /**
+         * Sets the maximum jitter. Every call takes an additional, uniformly distributed time between zero and this value.
+         * @param jitter The maximum jitter.
+         * @param unit The time unit of the jitter.
+         * @return Returns this builder.
+         */
+        public Builder jitter(final long jitter, @NonNull final TimeUnit unit) {
+            Validate.isTrue(jitter >= 0, "The jitter must not be negative.");
+            this.jitterNanos = unit.toNanos(jitter);
+            return this;
+        }
+
+        /**
+         * Sets the probability with which a call fails with the given error code.
+         * @param errorCode The error code the call fails with, e.g. {@link MysticLightAPIException#MLAPI_TIMEOUT}.
+         * @param probability The probability in range [0, 1].
+         * @return Returns this builder.
+         */
+        public Builder errorProbability(final int errorCode, final double probability) {
+            Validate.inclusiveBetween(0.0, 1.0, probability, "The error probability must be in range [0, 1].");
+            Validate.isTrue(errorCode != MysticLightAPIException.MLAPI_OK, "MLAPI_OK is not an error code.");
+            errorProbabilities.put(errorCode, probability);
+            return this;
+        }
+
+        /**
+         * Sets the seed for the random number generator used for jitter and error injection. This makes the behaviour
+         * of a single-threaded simulation reproducible, but the generator is then shared by all calls. Without a seed
+         * each thread uses its own generator.
+         * @param seed The seed.
+         * @return Returns this builder.
+         */
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @return Returns the configured backend. The backend must be initialized before use.
+         */
+        public SimulatedMysticLightBackend build() {
+            return new SimulatedMysticLightBackend(this);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and primitives of the binary trace format written by {@link TraceWriter} and read by {@link TraceReader}.
+ * A trace starts with the magic number, the format version and the wall clock time of the start of the trace in
+ * milliseconds since the epoch. Each record follows as: the ordinal of the function, the start of the call relative to
+ * the start of the previous record (negative if the call started earlier, see {@link TraceWriter}), the duration, the
+ * device, the index, the value, the text and the status. Numbers are variable-length zig-zag encoded. Strings are
+ * interned: the first occurrence is written as a new table index followed by the string, later occurrences as the
+ * index only. Index 0 denotes null.
+ */
+final class TraceFormat {
+    static final int MAGIC = 0x4D4C5452;
+    static final int VERSION = 1;
+
+    private TraceFormat() {
+    }
+
+    static void writeVarLong(final DataOutput out, final long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    static long readVarLong(final DataInput in) throws IOException {
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length number.");
+    }
+}
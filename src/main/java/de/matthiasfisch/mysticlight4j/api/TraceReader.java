@@ -0,0 +1,121 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@link TraceRecord}s of a trace written by a {@link TraceWriter}.
+ * The records are returned in the order of the trace, which is not strictly the order of the start of the calls.
+ */
+public final class TraceReader implements Closeable {
+    private static final BackendFunction[] FUNCTIONS = BackendFunction.values();
+
+    private final DataInputStream in;
+    private final long startEpochMillis;
+    private final List<String> strings = new ArrayList<>();
+    private long previousStartNanos = 0;
+
+    /**
+     * Creates a reader and reads the header of the trace.
+     * @param in The stream the trace is read from. It is closed when the reader is closed.
+     * @throws IOException Thrown if the stream does not contain a trace of a supported version.
+     */
+    public TraceReader(@NonNull final InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        if (this.in.readInt() != TraceFormat.MAGIC) {
+            throw new IOException("The stream does not contain a mysticlight4j trace.");
+        }
+        final int version = this.in.readInt();
+        if (version != TraceFormat.VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+        this.startEpochMillis = this.in.readLong();
+    }
+
+    /**
+     * @param file The trace file.
+     * @return Returns a reader of the file.
+     * @throws IOException Thrown if the file can't be opened or does not contain a trace.
+     */
+    public static TraceReader open(@NonNull final Path file) throws IOException {
+        return new TraceReader(Files.newInputStream(file));
+    }
+
+    /**
+     * @param file The trace file.
+     * @return Returns all records of the trace.
+     * @throws IOException Thrown if the file can't be read.
+     */
+    public static List<TraceRecord> readAll(@NonNull final Path file) throws IOException {
+        try (TraceReader reader = open(file)) {
+            final List<TraceRecord> records = new ArrayList<>();
+            TraceRecord record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+            return records;
+        }
+    }
+
+    /**
+     * @return Returns the wall clock time of the start of the trace in milliseconds since the epoch.
+     */
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * @return Returns the next record or null if the end of the trace is reached.
+     * @throws IOException Thrown if the trace can't be read or is malformed.
+     */
+    public TraceRecord read() throws IOException {
+        final int function = in.read();
+        if (function < 0) {
+            return null;
+        }
+        if (function >= FUNCTIONS.length) {
+            throw new IOException("Unknown function " + function);
+        }
+        try {
+            final long startNanos = previousStartNanos + TraceFormat.readVarLong(in);
+            previousStartNanos = startNanos;
+            final long durationNanos = TraceFormat.readVarLong(in);
+            final String device = readString();
+            final int index = (int) TraceFormat.readVarLong(in);
+            final int value = (int) TraceFormat.readVarLong(in);
+            final String text = readString();
+            final int status = (int) TraceFormat.readVarLong(in);
+            return new TraceRecord(startNanos, durationNanos, FUNCTIONS[function], device, index, value, text, status);
+        } catch (final EOFException e) {
+            throw new IOException("The trace ends within a record.", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        final int index = (int) TraceFormat.readVarLong(in);
+        if (index == 0) {
+            return null;
+        }
+        if (index == strings.size() + 1) {
+            strings.add(in.readUTF());
+        } else if (index < 0 || index > strings.size()) {
+            throw new IOException("Invalid string reference " + index);
+        }
+        return strings.get(index - 1);
+    }
+}
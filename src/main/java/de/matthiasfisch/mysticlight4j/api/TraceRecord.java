@@ -0,0 +1,82 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * A call of a {@link MysticLightBackend} recorded by a {@link RecordingMysticLightBackend}.
+ * The arguments and the result of the call are stored in the generic fields {@link #getIndex()},
+ * {@link #getValue()} and {@link #getText()}:
+ * <ul>
+ *     <li>{@code index} is the LED index, the area index of the functions writing LEDs by name, the LED info index of {@link BackendFunction#GET_LED_INFO} or the device id of
+ *     {@link BackendFunction#GET_DEVICE_NAME_EX}, and {@value #NONE} for other calls.</li>
+ *     <li>{@code value} is the level written by {@link BackendFunction#SET_LED_BRIGHT} and {@link BackendFunction#SET_LED_SPEED},
+ *     the color written by {@link BackendFunction#SET_LED_COLOR} and {@link BackendFunction#SET_LED_COLORS} packed as
+ *     {@code 0xRRGGBB}, the color written by {@link BackendFunction#SET_LED_COLOR_EX} and
+ *     {@link BackendFunction#SET_LED_COLOR_SYNC} packed as {@code 0xRRGGBB} combined with {@link #SYNC_FLAG} if the
+ *     synchronization flag was set, or the result of a getter returning an int or a {@link Color}. It is {@value #NONE}
+ *     for other calls.</li>
+ *     <li>{@code text} is the style written by {@link BackendFunction#SET_LED_STYLE}, the name of the LED written by
+ *     {@link BackendFunction#SET_LED_COLOR_EX} and {@link BackendFunction#SET_LED_COLOR_SYNC}, the names of the LEDs
+ *     written by {@link BackendFunction#SET_LED_COLORS} joined with {@link #NAME_SEPARATOR}, or the result of a getter
+ *     returning a single string. It is null for other calls.</li>
+ * </ul>
+ * Results of calls returning arrays or {@link LedInfo}s are not recorded.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class TraceRecord {
+    /**
+     * Value of {@link #getIndex()} and {@link #getValue()} if the field is not used by the call.
+     */
+    public static final int NONE = -1;
+    /**
+     * Bit of {@link #getValue()} marking a call with the synchronization flag set.
+     */
+    public static final int SYNC_FLAG = 0x1000000;
+    /**
+     * Separator of the LED names in {@link #getText()} of {@link BackendFunction#SET_LED_COLORS}.
+     */
+    public static final String NAME_SEPARATOR = "\n";
+
+    private final long startNanos;
+    private final long durationNanos;
+    private final BackendFunction function;
+    private final String device;
+    private final int index;
+    private final int value;
+    private final String text;
+    private final int status;
+
+    /**
+     * @param startNanos The start of the call relative to the start of the trace.
+     * @param durationNanos The duration of the call.
+     * @param function The called function.
+     * @param device The identifier of the device or null if the call does not refer to a device.
+     * @param index See the class documentation.
+     * @param value See the class documentation.
+     * @param text See the class documentation.
+     * @param status The status code of the call, {@link MysticLightAPIException#MLAPI_OK} if the call succeeded.
+     */
+    TraceRecord(final long startNanos, final long durationNanos, @NonNull final BackendFunction function,
+                final String device, final int index, final int value, final String text, final int status) {
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.function = function;
+        this.device = device;
+        this.index = index;
+        this.value = value;
+        this.text = text;
+        this.status = status;
+    }
+
+    /**
+     * @return Returns true if the call succeeded.
+     */
+    public boolean isSuccessful() {
+        return status == MysticLightAPIException.MLAPI_OK;
+    }
+}
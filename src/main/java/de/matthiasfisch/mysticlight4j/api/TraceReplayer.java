@@ -0,0 +1,188 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a recorded trace against a {@link MysticLightBackend}, e.g. a {@link SimulatedMysticLightBackend} or a
+ * backend stack with a scheduler under test.
+ * The calls are issued one after another on the calling thread in the order of their recorded start. The records of
+ * concurrent calls are written in about the order the calls completed, so the replayer sorts them by start first; calls
+ * with the same start keep their order in the trace. At a speed of 1 each call is
+ * issued at the same offset from the start of the replay as it was in the recording, at a speed of 2 at half the
+ * offset, and so on. With {@link #MAX_SPEED} the calls are issued back to back. A call taking longer than recorded
+ * delays the following calls; it does not cause them to be skipped.
+ */
+public final class TraceReplayer {
+    /**
+     * Speed replaying the calls without pauses.
+     */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+    static final Comparator<TraceRecord> BY_START = Comparator.comparingLong(TraceRecord::getStartNanos);
+
+    private final MysticLightBackend backend;
+    private final double speed;
+
+    private TraceReplayer(final Builder builder) {
+        this.backend = builder.backend;
+        this.speed = builder.speed;
+    }
+
+    /**
+     * @param backend The backend the calls are replayed against.
+     * @return Returns a new builder for a replayer.
+     */
+    public static Builder builder(@NonNull final MysticLightBackend backend) {
+        return new Builder(backend);
+    }
+
+    /**
+     * Replays all records of a trace.
+     * @param reader The reader of the trace.
+     * @return Returns the outcome of the replay.
+     * @throws IOException Thrown if the trace can't be read.
+     */
+    public ReplayResult replay(@NonNull final TraceReader reader) throws IOException {
+        final List<TraceRecord> records = new ArrayList<>();
+        TraceRecord record;
+        while ((record = reader.read()) != null) {
+            records.add(record);
+        }
+        return replay(records);
+    }
+
+    /**
+     * Replays the given records.
+     * @param records The records in the order of the trace.
+     * @return Returns the outcome of the replay.
+     */
+    public ReplayResult replay(@NonNull final Iterable<TraceRecord> records) {
+        final List<TraceRecord> sorted = new ArrayList<>();
+        records.forEach(sorted::add);
+        sorted.sort(BY_START);
+        final Replay replay = new Replay();
+        for (final TraceRecord record : sorted) {
+            replay.replay(record);
+        }
+        return replay.result();
+    }
+
+    private void call(final TraceRecord record) {
+        final String device = record.getDevice();
+        switch (record.getFunction()) {
+            case INITIALIZE: backend.initialize(); break;
+            case GET_DEVICE_INFO: backend.getDeviceInfo(); break;
+            case GET_DEVICE_NAME: backend.getDeviceName(device); break;
+            case GET_DEVICE_NAME_EX: backend.getDeviceNameEx(device, record.getIndex()); break;
+            case GET_LED_INFO: backend.getLedInfo(device, record.getIndex()); break;
+            case GET_LED_NAME: backend.getLedName(device); break;
+            case GET_LED_COLOR: backend.getLedColor(device, record.getIndex()); break;
+            case GET_LED_STYLE: backend.getLedStyle(device, record.getIndex()); break;
+            case GET_LED_MAX_BRIGHT: backend.getLedMaxBright(device, record.getIndex()); break;
+            case GET_LED_BRIGHT: backend.getLedBright(device, record.getIndex()); break;
+            case GET_LED_MAX_SPEED: backend.getLedMaxSpeed(device, record.getIndex()); break;
+            case GET_LED_SPEED: backend.getLedSpeed(device, record.getIndex()); break;
+            case SET_LED_COLOR: backend.setLedColor(device, record.getIndex(), Color.ofRgb(record.getValue())); break;
+            case SET_LED_STYLE: backend.setLedStyle(device, record.getIndex(), record.getText()); break;
+            case SET_LED_BRIGHT: backend.setLedBright(device, record.getIndex(), record.getValue()); break;
+            case SET_LED_SPEED: backend.setLedSpeed(device, record.getIndex(), record.getValue()); break;
+            case SET_LED_COLORS:
+                backend.setLedColors(device, record.getIndex(), record.getText().split(TraceRecord.NAME_SEPARATOR, -1), Color.ofRgb(record.getValue()));
+                break;
+            case SET_LED_COLOR_EX:
+                backend.setLedColorEx(device, record.getIndex(), record.getText(), Color.ofRgb(record.getValue() & ~TraceRecord.SYNC_FLAG),
+                        (record.getValue() & TraceRecord.SYNC_FLAG) != 0);
+                break;
+            case SET_LED_COLOR_SYNC:
+                backend.setLedColorSync(device, record.getIndex(), record.getText(), Color.ofRgb(record.getValue() & ~TraceRecord.SYNC_FLAG),
+                        (record.getValue() & TraceRecord.SYNC_FLAG) != 0);
+                break;
+            default: throw new IllegalStateException("Unknown function " + record.getFunction());
+        }
+    }
+
+    /**
+     * The state of a single replay.
+     */
+    private final class Replay {
+        private final long startNanos = System.nanoTime();
+        private long firstRecordNanos = Long.MIN_VALUE;
+        private long lastRecordNanos;
+        private long replayed = 0;
+        private long failed = 0;
+        private long mismatches = 0;
+        private long totalCallNanos = 0;
+
+        private void replay(final TraceRecord record) {
+            if (firstRecordNanos == Long.MIN_VALUE) {
+                firstRecordNanos = record.getStartNanos();
+            }
+            lastRecordNanos = Math.max(lastRecordNanos, record.getStartNanos() + record.getDurationNanos());
+            if (speed != MAX_SPEED) {
+                final long due = startNanos + (long) ((record.getStartNanos() - firstRecordNanos) / speed);
+                long remaining = due - System.nanoTime();
+                while (remaining > 0) {
+                    LockSupport.parkNanos(remaining);
+                    remaining = due - System.nanoTime();
+                }
+            }
+            final long callStart = System.nanoTime();
+            int status = MysticLightAPIException.MLAPI_OK;
+            try {
+                call(record);
+            } catch (final MysticLightAPIException e) {
+                status = e.getMlApiErrorCode();
+            } catch (final RuntimeException e) {
+                status = MysticLightAPIException.MLAPI_ERROR;
+            }
+            totalCallNanos += System.nanoTime() - callStart;
+            replayed++;
+            if (status != MysticLightAPIException.MLAPI_OK) {
+                failed++;
+            }
+            if (status != record.getStatus()) {
+                mismatches++;
+            }
+        }
+
+        private ReplayResult result() {
+            final long recordedDuration = firstRecordNanos == Long.MIN_VALUE ? 0 : lastRecordNanos - firstRecordNanos;
+            return new ReplayResult(replayed, failed, mismatches, System.nanoTime() - startNanos, recordedDuration, totalCallNanos);
+        }
+    }
+
+    /**
+     * Builder for {@link TraceReplayer}.
+     */
+    public static final class Builder {
+        private final MysticLightBackend backend;
+        private double speed = 1;
+
+        private Builder(final MysticLightBackend backend) {
+            this.backend = backend;
+        }
+
+        /**
+         * @param speed The factor the recorded timing is accelerated by or {@link #MAX_SPEED}. Defaults to 1.
+         * @return Returns this builder.
+         */
+        public Builder speed(final double speed) {
+            Validate.isTrue(speed > 0, "The speed must be positive.");
+            this.speed = speed;
+            return this;
+        }
+
+        /**
+         * @return Returns the replayer.
+         */
+        public TraceReplayer build() {
+            return new TraceReplayer(this);
+        }
+    }
+}
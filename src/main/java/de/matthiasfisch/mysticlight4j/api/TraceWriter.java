@@ -0,0 +1,213 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes {@link TraceRecord}s to a binary trace on a dedicated thread.
+ * {@link #append(TraceRecord)} only puts the record into a bounded queue and never blocks. If the writer thread falls
+ * behind and the queue is full, records are dropped and counted instead of slowing down the traced calls. The writer
+ * thread takes all queued records at once, sorts them by start and writes them through a buffer. Records are appended
+ * when their call completes, so a concurrent call that started earlier but completed later than the records of an
+ * already written batch is written after them; a trace is thus ordered by start only within each batch.
+ * {@link TraceReplayer} sorts the records by start before replaying them. The format is described in
+ * {@link TraceFormat}.
+ */
+public final class TraceWriter implements Closeable {
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("mysticlight4j-trace-writer-%d")
+            .setDaemon(true)
+            .build();
+    // Queued by close() to wake up the writer thread. Interrupts can't be used as they close interruptible channels.
+    private static final TraceRecord WAKE_UP = new TraceRecord(0, 0, BackendFunction.INITIALIZE, null, TraceRecord.NONE, TraceRecord.NONE, null, 0);
+
+    private final DataOutputStream out;
+    private final BlockingQueue<TraceRecord> queue;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final long startNanos;
+    private final Thread thread;
+    private long previousStartNanos = 0;
+    private volatile boolean closed = false;
+    private volatile IOException lastError;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a writer and writes the header of the trace.
+     * @param out The stream the trace is written to. It is closed when the writer is closed.
+     * @param queueCapacity The maximum number of records waiting to be written.
+     * @throws IOException Thrown if the header can't be written.
+     */
+    public TraceWriter(@NonNull final OutputStream out, final int queueCapacity) throws IOException {
+        Validate.isTrue(queueCapacity > 0, "The queue capacity must be positive.");
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.startNanos = System.nanoTime();
+        this.out.writeInt(TraceFormat.MAGIC);
+        this.out.writeInt(TraceFormat.VERSION);
+        this.out.writeLong(System.currentTimeMillis());
+        this.thread = THREAD_FACTORY.newThread(this::run);
+        thread.start();
+    }
+
+    /**
+     * Creates a writer with a queue of 65536 records that writes to a file.
+     * @param file The file. It is created or replaced.
+     * @return Returns the writer.
+     * @throws IOException Thrown if the file can't be created or the header can't be written.
+     */
+    public static TraceWriter open(@NonNull final Path file) throws IOException {
+        return new TraceWriter(Files.newOutputStream(file), 65536);
+    }
+
+    /**
+     * @return Returns the value of {@link System#nanoTime()} at the start of the trace.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Queues a record for writing. Returns immediately.
+     * @param record The record.
+     * @return Returns true if the record was queued, false if it was dropped because the queue is full or the writer is closed.
+     */
+    public boolean append(@NonNull final TraceRecord record) {
+        if (closed || !queue.offer(record)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Returns the number of records written.
+     */
+    public long getWrittenRecords() {
+        return written.sum();
+    }
+
+    /**
+     * @return Returns the number of records dropped.
+     */
+    public long getDroppedRecords() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Returns the error that stopped the writer or an empty optional if no write failed.
+     */
+    public Optional<IOException> getLastError() {
+        return Optional.ofNullable(lastError);
+    }
+
+    /**
+     * Writes the queued records, flushes and closes the stream.
+     * @throws IOException Thrown if writing the trace failed.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        queue.offer(WAKE_UP);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (lastError != null) {
+            throw lastError;
+        }
+    }
+
+    private void run() {
+        final List<TraceRecord> records = new ArrayList<>();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                final TraceRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // Flush in idle periods, so a trace of a crashed process loses at most the last burst.
+                    out.flush();
+                    continue;
+                }
+                records.add(first);
+                queue.drainTo(records);
+                records.sort(TraceReplayer.BY_START);
+                for (final TraceRecord record : records) {
+                    if (record != WAKE_UP) {
+                        write(record);
+                        written.increment();
+                    }
+                }
+                records.clear();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException e) {
+            lastError = e;
+        }
+        try {
+            out.close();
+        } catch (final IOException e) {
+            if (lastError == null) {
+                lastError = e;
+            }
+        }
+        queue.remove(WAKE_UP);
+        dropped.add(queue.size());
+        queue.clear();
+    }
+
+    private void write(final TraceRecord record) throws IOException {
+        out.writeByte(record.getFunction().ordinal());
+        TraceFormat.writeVarLong(out, record.getStartNanos() - previousStartNanos);
+        previousStartNanos = record.getStartNanos();
+        TraceFormat.writeVarLong(out, record.getDurationNanos());
+        writeString(record.getDevice());
+        TraceFormat.writeVarLong(out, record.getIndex());
+        TraceFormat.writeVarLong(out, record.getValue());
+        writeString(record.getText());
+        TraceFormat.writeVarLong(out, record.getStatus());
+    }
+
+    private void writeString(final String value) throws IOException {
+        if (value == null) {
+            TraceFormat.writeVarLong(out, 0);
+            return;
+        }
+        final Integer index = strings.get(value);
+        if (index != null) {
+            TraceFormat.writeVarLong(out, index);
+            return;
+        }
+        final int newIndex = strings.size() + 1;
+        strings.put(value, newIndex);
+        TraceFormat.writeVarLong(out, newIndex);
+        out.writeUTF(value);
+    }
+}
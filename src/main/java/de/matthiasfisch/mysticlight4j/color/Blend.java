@@ -0,0 +1,104 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Blending and scaling of packed {@code 0xRRGGBB} colors. All operations work per channel on the 8-bit sRGB values,
+ * which is cheap and usually good enough for fades. For perceptually even gradients use {@link OkLab#mix(int, int, float)}.
+ */
+public final class Blend {
+    private Blend() {
+    }
+
+    /**
+     * Interpolates linearly between two colors.
+     * @param from The color at {@code t = 0} as {@code 0xRRGGBB}.
+     * @param to The color at {@code t = 1} as {@code 0xRRGGBB}.
+     * @param t The position between the colors in range [0, 1].
+     * @return Returns the interpolated color as {@code 0xRRGGBB}.
+     */
+    public static int lerp(final int from, final int to, final float t) {
+        Color.validateRgb(from);
+        Color.validateRgb(to);
+        Validate.inclusiveBetween(0.0, 1.0, t, "The position must be in range [0, 1].");
+        return (lerpChannel(Color.red(from), Color.red(to), t) << 16)
+                | (lerpChannel(Color.green(from), Color.green(to), t) << 8)
+                | lerpChannel(Color.blue(from), Color.blue(to), t);
+    }
+
+    /**
+     * Interpolates linearly between two colors using integer arithmetic only.
+     * @param from The color at {@code amount = 0} as {@code 0xRRGGBB}.
+     * @param to The color at {@code amount = 255} as {@code 0xRRGGBB}.
+     * @param amount The position between the colors in range [0, 255].
+     * @return Returns the interpolated color as {@code 0xRRGGBB}.
+     */
+    public static int lerp8(final int from, final int to, final int amount) {
+        Color.validateRgb(from);
+        Color.validateRgb(to);
+        Validate.inclusiveBetween(0, 255, amount, "The amount must be in range [0, 255].");
+        final int inverse = 255 - amount;
+        return (div255(Color.red(from) * inverse + Color.red(to) * amount) << 16)
+                | (div255(Color.green(from) * inverse + Color.green(to) * amount) << 8)
+                | div255(Color.blue(from) * inverse + Color.blue(to) * amount);
+    }
+
+    /**
+     * Scales the brightness of a color.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @param factor The factor in range [0, 255], where 255 keeps the color unchanged.
+     * @return Returns the scaled color as {@code 0xRRGGBB}.
+     */
+    public static int scale8(final int rgb, final int factor) {
+        return lerp8(0, rgb, factor);
+    }
+
+    /**
+     * Adds two colors channel by channel, saturating at 255.
+     * @param first The first color as {@code 0xRRGGBB}.
+     * @param second The second color as {@code 0xRRGGBB}.
+     * @return Returns the sum as {@code 0xRRGGBB}.
+     */
+    public static int add(final int first, final int second) {
+        Color.validateRgb(first);
+        Color.validateRgb(second);
+        return (Math.min(255, Color.red(first) + Color.red(second)) << 16)
+                | (Math.min(255, Color.green(first) + Color.green(second)) << 8)
+                | Math.min(255, Color.blue(first) + Color.blue(second));
+    }
+
+    /**
+     * Multiplies two colors channel by channel, which darkens the first color by the second.
+     * @param first The first color as {@code 0xRRGGBB}.
+     * @param second The second color as {@code 0xRRGGBB}.
+     * @return Returns the product as {@code 0xRRGGBB}.
+     */
+    public static int multiply(final int first, final int second) {
+        Color.validateRgb(first);
+        Color.validateRgb(second);
+        return (div255(Color.red(first) * Color.red(second)) << 16)
+                | (div255(Color.green(first) * Color.green(second)) << 8)
+                | div255(Color.blue(first) * Color.blue(second));
+    }
+
+    /**
+     * Screens two colors channel by channel, the inverse of multiplying the inverted colors, which lightens the colors.
+     * @param first The first color as {@code 0xRRGGBB}.
+     * @param second The second color as {@code 0xRRGGBB}.
+     * @return Returns the result as {@code 0xRRGGBB}.
+     */
+    public static int screen(final int first, final int second) {
+        return 0xFFFFFF ^ multiply(0xFFFFFF ^ Color.validateRgb(first), 0xFFFFFF ^ Color.validateRgb(second));
+    }
+
+    private static int lerpChannel(final int from, final int to, final float t) {
+        return (int) (from + (to - from) * t + 0.5f);
+    }
+
+    static int div255(final int value) {
+        // Exact rounded division by 255 for values in range [0, 255 * 255].
+        final int rounded = value + 128;
+        return (rounded + (rounded >> 8)) >> 8;
+    }
+}
@@ -0,0 +1,75 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Approximates the color of black-body radiation of a color temperature, e.g. for warm or cold white effects.
+ * The color is computed with the curve fit of Tanner Helland for the range [1000 K, 40000 K], which is close enough
+ * for lighting but not colorimetrically exact. {@link #toRgbFast(int)} interpolates in a table of the colors at every
+ * 100 K instead of evaluating logarithms and powers.
+ */
+public final class ColorTemperature {
+    /**
+     * The lowest supported color temperature in Kelvin.
+     */
+    public static final int MIN_KELVIN = 1000;
+    /**
+     * The highest supported color temperature in Kelvin.
+     */
+    public static final int MAX_KELVIN = 40000;
+
+    private static final int TABLE_STEP = 100;
+    private static final int[] TABLE = new int[(MAX_KELVIN - MIN_KELVIN) / TABLE_STEP + 1];
+    // The colors at the start and at the end of each interval of the table, approached from within the interval. The
+    // curve fit is not continuous at 6600 K, so these differ from the colors at the table entries there.
+    private static final int[] INTERVAL_STARTS = new int[TABLE.length - 1];
+    private static final int[] INTERVAL_ENDS = new int[TABLE.length - 1];
+
+    static {
+        for (int i = 0; i < TABLE.length; i++) {
+            TABLE[i] = toRgb(MIN_KELVIN + i * TABLE_STEP);
+        }
+        for (int i = 0; i < INTERVAL_ENDS.length; i++) {
+            INTERVAL_STARTS[i] = toRgb(MIN_KELVIN + i * TABLE_STEP + 1e-6);
+            INTERVAL_ENDS[i] = toRgb(MIN_KELVIN + (i + 1) * TABLE_STEP - 1e-6);
+        }
+    }
+
+    private ColorTemperature() {
+    }
+
+    /**
+     * @param kelvin The color temperature in range [{@value #MIN_KELVIN}, {@value #MAX_KELVIN}].
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public static int toRgb(final double kelvin) {
+        Validate.inclusiveBetween(MIN_KELVIN, MAX_KELVIN, kelvin, "The color temperature must be in range [1000, 40000].");
+        final double t = kelvin / 100;
+        final double red = t <= 66 ? 255 : 329.698727446 * Math.pow(t - 60, -0.1332047592);
+        final double green = t <= 66
+                ? 99.4708025861 * Math.log(t) - 161.1195681661
+                : 288.1221695283 * Math.pow(t - 60, -0.0755148492);
+        final double blue = t >= 66 ? 255 : (t <= 19 ? 0 : 138.5177312231 * Math.log(t - 10) - 305.0447927307);
+        return (clamp(red) << 16) | (clamp(green) << 8) | clamp(blue);
+    }
+
+    /**
+     * Table based variant of {@link #toRgb(double)}. Each channel differs from the exact value by at most two.
+     * @param kelvin The color temperature in range [{@value #MIN_KELVIN}, {@value #MAX_KELVIN}].
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public static int toRgbFast(final int kelvin) {
+        Validate.inclusiveBetween(MIN_KELVIN, MAX_KELVIN, kelvin, "The color temperature must be in range [1000, 40000].");
+        final int offset = kelvin - MIN_KELVIN;
+        final int index = offset / TABLE_STEP;
+        final int remainder = offset % TABLE_STEP;
+        if (remainder == 0) {
+            return TABLE[index];
+        }
+        return Blend.lerp(INTERVAL_STARTS[index], INTERVAL_ENDS[index], remainder / (float) TABLE_STEP);
+    }
+
+    private static int clamp(final double channel) {
+        return (int) Math.round(Math.min(255, Math.max(0, channel)));
+    }
+}
@@ -0,0 +1,103 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Gamma correction of packed {@code 0xRRGGBB} colors and the sRGB transfer function.
+ * LEDs respond about linearly to the written value, while the eye does not, so effects usually look better if the
+ * channels are corrected with a power law before they are written. An instance precomputes the corrected value of
+ * every 8-bit channel value, so correcting a color is three table lookups.
+ * The static methods convert between 8-bit sRGB channels and linear light as needed for blending and for
+ * {@link OkLab}. Decoding uses a table of all 256 channel values. Encoding is available exactly and, with
+ * {@link #encodeSrgbFast(float)}, through a table of 4096 linear values, which is at most one step off.
+ */
+@EqualsAndHashCode(of = "gamma")
+@ToString(of = "gamma")
+public final class Gamma {
+    private static final float[] SRGB_TO_LINEAR = new float[256];
+    private static final int LINEAR_STEPS = 4095;
+    private static final byte[] LINEAR_TO_SRGB = new byte[LINEAR_STEPS + 1];
+
+    static {
+        for (int channel = 0; channel < SRGB_TO_LINEAR.length; channel++) {
+            SRGB_TO_LINEAR[channel] = (float) decode(channel / 255.0);
+        }
+        for (int step = 0; step <= LINEAR_STEPS; step++) {
+            LINEAR_TO_SRGB[step] = (byte) encodeSrgb((float) step / LINEAR_STEPS);
+        }
+    }
+
+    @Getter
+    private final double gamma;
+    private final byte[] table = new byte[256];
+
+    private Gamma(final double gamma) {
+        this.gamma = gamma;
+        for (int channel = 0; channel < table.length; channel++) {
+            table[channel] = (byte) Math.round(Math.pow(channel / 255.0, gamma) * 255);
+        }
+    }
+
+    /**
+     * Creates a gamma correction. A gamma of 2.2 to 2.8 is a good starting point for LEDs.
+     * @param gamma The exponent applied to the normalized channels. Must be positive.
+     * @return Returns the gamma correction.
+     */
+    public static Gamma of(final double gamma) {
+        Validate.isTrue(gamma > 0 && !Double.isInfinite(gamma), "The gamma must be positive.");
+        return new Gamma(gamma);
+    }
+
+    /**
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @return Returns the corrected color as {@code 0xRRGGBB}.
+     */
+    public int correct(final int rgb) {
+        Color.validateRgb(rgb);
+        return (correctChannel(Color.red(rgb)) << 16) | (correctChannel(Color.green(rgb)) << 8) | correctChannel(Color.blue(rgb));
+    }
+
+    /**
+     * @param channel The channel value in range [0, 255].
+     * @return Returns the corrected channel value.
+     */
+    public int correctChannel(final int channel) {
+        return table[channel] & 0xFF;
+    }
+
+    /**
+     * @param channel A sRGB channel value in range [0, 255].
+     * @return Returns the linear light intensity of the channel in range [0, 1].
+     */
+    public static float decodeSrgb(final int channel) {
+        return SRGB_TO_LINEAR[channel];
+    }
+
+    /**
+     * @param linear The linear light intensity. Values outside of [0, 1] are clamped.
+     * @return Returns the sRGB channel value in range [0, 255].
+     */
+    public static int encodeSrgb(final float linear) {
+        final double clamped = Math.min(1, Math.max(0, linear));
+        final double encoded = clamped <= 0.0031308 ? 12.92 * clamped : 1.055 * Math.pow(clamped, 1 / 2.4) - 0.055;
+        return (int) Math.round(encoded * 255);
+    }
+
+    /**
+     * Table based variant of {@link #encodeSrgb(float)}. The result differs from the exact value by at most one.
+     * @param linear The linear light intensity. Values outside of [0, 1] are clamped.
+     * @return Returns the sRGB channel value in range [0, 255].
+     */
+    public static int encodeSrgbFast(final float linear) {
+        final float clamped = linear < 0 ? 0 : (linear > 1 ? 1 : linear);
+        return LINEAR_TO_SRGB[(int) (clamped * LINEAR_STEPS + 0.5f)] & 0xFF;
+    }
+
+    private static double decode(final double channel) {
+        return channel <= 0.04045 ? channel / 12.92 : Math.pow((channel + 0.055) / 1.055, 2.4);
+    }
+}
@@ -0,0 +1,51 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Conversions between packed {@code 0xRRGGBB} colors and the HSL color space.
+ * Hues are given in degrees and wrap around, saturation and lightness are in range [0, 1].
+ */
+public final class Hsl {
+    private Hsl() {
+    }
+
+    /**
+     * Converts a HSL color to RGB.
+     * @param hue The hue in degrees. Values outside of [0, 360) wrap around.
+     * @param saturation The saturation in range [0, 1].
+     * @param lightness The lightness in range [0, 1].
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public static int toRgb(final float hue, final float saturation, final float lightness) {
+        Validate.inclusiveBetween(0.0, 1.0, saturation, "The saturation must be in range [0, 1].");
+        Validate.inclusiveBetween(0.0, 1.0, lightness, "The lightness must be in range [0, 1].");
+        // HSL is HSV with a different parametrization of saturation and brightness.
+        final float value = lightness + saturation * Math.min(lightness, 1 - lightness);
+        final float hsvSaturation = value == 0 ? 0 : Math.min(1, 2 * (1 - lightness / value));
+        return Hsv.toRgb(hue, hsvSaturation, Math.min(1, value));
+    }
+
+    /**
+     * Converts a RGB color to HSL.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @param hsl The array the hue in degrees [0, 360), the saturation and the lightness are written to. Must have a length of at least 3.
+     * @return Returns the given array.
+     */
+    public static float[] fromRgb(final int rgb, @NonNull final float[] hsl) {
+        Color.validateRgb(rgb);
+        final int red = Color.red(rgb);
+        final int green = Color.green(rgb);
+        final int blue = Color.blue(rgb);
+        final int max = Math.max(red, Math.max(green, blue));
+        final int min = Math.min(red, Math.min(green, blue));
+        final int chroma = max - min;
+        final float lightness = (max + min) / 510f;
+        hsl[0] = Hsv.hue(red, green, blue, max, chroma);
+        hsl[1] = chroma == 0 ? 0 : chroma / (255f - Math.abs(max + min - 255));
+        hsl[2] = lightness;
+        return hsl;
+    }
+}
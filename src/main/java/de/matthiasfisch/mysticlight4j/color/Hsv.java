@@ -0,0 +1,127 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Conversions between packed {@code 0xRRGGBB} colors and the HSV color space.
+ * Hues are given in degrees and wrap around, saturation and value are in range [0, 1]. {@link #toRgb8(int, int, int)}
+ * is an integer-only variant for effects working with 8-bit channels.
+ */
+public final class Hsv {
+    private Hsv() {
+    }
+
+    /**
+     * Converts a HSV color to RGB.
+     * @param hue The hue in degrees. Values outside of [0, 360) wrap around.
+     * @param saturation The saturation in range [0, 1].
+     * @param value The value in range [0, 1].
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public static int toRgb(final float hue, final float saturation, final float value) {
+        Validate.inclusiveBetween(0.0, 1.0, saturation, "The saturation must be in range [0, 1].");
+        Validate.inclusiveBetween(0.0, 1.0, value, "The value must be in range [0, 1].");
+        final int v = channel(value);
+        if (saturation == 0) {
+            return gray(v);
+        }
+        final float sector = wrapDegrees(hue) / 60;
+        final int index = (int) sector;
+        final float fraction = sector - index;
+        final int p = channel(value * (1 - saturation));
+        final int q = channel(value * (1 - saturation * fraction));
+        final int t = channel(value * (1 - saturation * (1 - fraction)));
+        return sector(index, v, p, q, t);
+    }
+
+    /**
+     * Converts a HSV color with 8-bit components to RGB using integer arithmetic only.
+     * @param hue The hue in range [0, 255], where 256 corresponds to 360 degrees.
+     * @param saturation The saturation in range [0, 255].
+     * @param value The value in range [0, 255].
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public static int toRgb8(final int hue, final int saturation, final int value) {
+        Validate.inclusiveBetween(0, 255, hue, "The hue must be in range [0, 255].");
+        Validate.inclusiveBetween(0, 255, saturation, "The saturation must be in range [0, 255].");
+        Validate.inclusiveBetween(0, 255, value, "The value must be in range [0, 255].");
+        if (saturation == 0) {
+            return gray(value);
+        }
+        final int scaled = hue * 6;
+        final int index = scaled >> 8;
+        final int fraction = scaled & 0xFF;
+        final int p = Blend.div255(value * (255 - saturation));
+        final int q = Blend.div255(value * (255 - Blend.div255(saturation * fraction)));
+        final int t = Blend.div255(value * (255 - Blend.div255(saturation * (255 - fraction))));
+        return sector(index, value, p, q, t);
+    }
+
+    /**
+     * Converts a RGB color to HSV.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @param hsv The array the hue in degrees [0, 360), the saturation and the value are written to. Must have a length of at least 3.
+     * @return Returns the given array.
+     */
+    public static float[] fromRgb(final int rgb, @NonNull final float[] hsv) {
+        Color.validateRgb(rgb);
+        final int red = Color.red(rgb);
+        final int green = Color.green(rgb);
+        final int blue = Color.blue(rgb);
+        final int max = Math.max(red, Math.max(green, blue));
+        final int min = Math.min(red, Math.min(green, blue));
+        hsv[0] = hue(red, green, blue, max, max - min);
+        hsv[1] = max == 0 ? 0 : (max - min) / (float) max;
+        hsv[2] = max / 255f;
+        return hsv;
+    }
+
+    /**
+     * @param red The red channel.
+     * @param green The green channel.
+     * @param blue The blue channel.
+     * @param max The largest of the channels.
+     * @param chroma The difference of the largest and the smallest channel.
+     * @return Returns the hue shared by HSV and HSL in degrees [0, 360).
+     */
+    static float hue(final int red, final int green, final int blue, final int max, final int chroma) {
+        if (chroma == 0) {
+            return 0;
+        }
+        final float hue;
+        if (max == red) {
+            hue = (green - blue) / (float) chroma;
+        } else if (max == green) {
+            hue = 2 + (blue - red) / (float) chroma;
+        } else {
+            hue = 4 + (red - green) / (float) chroma;
+        }
+        return wrapDegrees(hue * 60);
+    }
+
+    static float wrapDegrees(final float degrees) {
+        final float wrapped = degrees % 360;
+        return wrapped < 0 ? wrapped + 360 : (wrapped >= 360 ? 0 : wrapped);
+    }
+
+    static int channel(final float value) {
+        return (int) (value * 255 + 0.5f);
+    }
+
+    private static int gray(final int value) {
+        return (value << 16) | (value << 8) | value;
+    }
+
+    private static int sector(final int index, final int v, final int p, final int q, final int t) {
+        switch (index) {
+            case 0: return (v << 16) | (t << 8) | p;
+            case 1: return (q << 16) | (v << 8) | p;
+            case 2: return (p << 16) | (v << 8) | t;
+            case 3: return (p << 16) | (q << 8) | v;
+            case 4: return (t << 16) | (p << 8) | v;
+            default: return (v << 16) | (p << 8) | q;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import lombok.NonNull;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Conversions between packed {@code 0xRRGGBB} sRGB colors and the perceptual OKLab color space of Bj&ouml;rn Ottosson.
+ * Equal distances in OKLab are perceived as about equal color differences, which makes it the right space for
+ * gradients and fades that should look even. The sRGB channels are decoded with the table of {@link Gamma}. Colors
+ * outside of the sRGB gamut are clamped channel by channel when converted back.
+ */
+public final class OkLab {
+    private OkLab() {
+    }
+
+    /**
+     * Converts a RGB color to OKLab.
+     * @param rgb The color as {@code 0xRRGGBB}.
+     * @param lab The array the lightness L and the components a and b are written to. Must have a length of at least 3.
+     * @return Returns the given array.
+     */
+    public static float[] fromRgb(final int rgb, @NonNull final float[] lab) {
+        Color.validateRgb(rgb);
+        final float red = Gamma.decodeSrgb(Color.red(rgb));
+        final float green = Gamma.decodeSrgb(Color.green(rgb));
+        final float blue = Gamma.decodeSrgb(Color.blue(rgb));
+        final float l = (float) Math.cbrt(0.4122214708f * red + 0.5363325363f * green + 0.0514459929f * blue);
+        final float m = (float) Math.cbrt(0.2119034982f * red + 0.6806995451f * green + 0.1073969566f * blue);
+        final float s = (float) Math.cbrt(0.0883024619f * red + 0.2817188376f * green + 0.6299787005f * blue);
+        lab[0] = 0.2104542553f * l + 0.7936177850f * m - 0.0040720468f * s;
+        lab[1] = 1.9779984951f * l - 2.4285922050f * m + 0.4505937099f * s;
+        lab[2] = 0.0259040371f * l + 0.7827717662f * m - 0.8086757660f * s;
+        return lab;
+    }
+
+    /**
+     * Converts an OKLab color to RGB.
+     * @param lightness The lightness L.
+     * @param a The green-red component a.
+     * @param b The blue-yellow component b.
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public static int toRgb(final float lightness, final float a, final float b) {
+        return toRgb(lightness, a, b, false);
+    }
+
+    /**
+     * Variant of {@link #toRgb(float, float, float)} encoding the channels with {@link Gamma#encodeSrgbFast(float)}.
+     * Each channel differs from the exact value by at most one.
+     * @param lightness The lightness L.
+     * @param a The green-red component a.
+     * @param b The blue-yellow component b.
+     * @return Returns the color as {@code 0xRRGGBB}.
+     */
+    public static int toRgbFast(final float lightness, final float a, final float b) {
+        return toRgb(lightness, a, b, true);
+    }
+
+    /**
+     * Interpolates between two colors in OKLab.
+     * @param from The color at {@code t = 0} as {@code 0xRRGGBB}.
+     * @param to The color at {@code t = 1} as {@code 0xRRGGBB}.
+     * @param t The position between the colors in range [0, 1].
+     * @return Returns the interpolated color as {@code 0xRRGGBB}.
+     */
+    public static int mix(final int from, final int to, final float t) {
+        Validate.inclusiveBetween(0.0, 1.0, t, "The position must be in range [0, 1].");
+        Color.validateRgb(from);
+        Color.validateRgb(to);
+        final float fromRed = Gamma.decodeSrgb(Color.red(from));
+        final float fromGreen = Gamma.decodeSrgb(Color.green(from));
+        final float fromBlue = Gamma.decodeSrgb(Color.blue(from));
+        final float toRed = Gamma.decodeSrgb(Color.red(to));
+        final float toGreen = Gamma.decodeSrgb(Color.green(to));
+        final float toBlue = Gamma.decodeSrgb(Color.blue(to));
+        // Mixing the cube roots of the LMS responses is equivalent to mixing L, a and b, as these are linear in them.
+        final float l = mixCbrt(0.4122214708f * fromRed + 0.5363325363f * fromGreen + 0.0514459929f * fromBlue,
+                0.4122214708f * toRed + 0.5363325363f * toGreen + 0.0514459929f * toBlue, t);
+        final float m = mixCbrt(0.2119034982f * fromRed + 0.6806995451f * fromGreen + 0.1073969566f * fromBlue,
+                0.2119034982f * toRed + 0.6806995451f * toGreen + 0.1073969566f * toBlue, t);
+        final float s = mixCbrt(0.0883024619f * fromRed + 0.2817188376f * fromGreen + 0.6299787005f * fromBlue,
+                0.0883024619f * toRed + 0.2817188376f * toGreen + 0.6299787005f * toBlue, t);
+        return lmsToRgb(l * l * l, m * m * m, s * s * s, true);
+    }
+
+    private static float mixCbrt(final float from, final float to, final float t) {
+        final float cbrtFrom = (float) Math.cbrt(from);
+        return cbrtFrom + ((float) Math.cbrt(to) - cbrtFrom) * t;
+    }
+
+    private static int toRgb(final float lightness, final float a, final float b, final boolean fast) {
+        final float l = lightness + 0.3963377774f * a + 0.2158037573f * b;
+        final float m = lightness - 0.1055613458f * a - 0.0638541728f * b;
+        final float s = lightness - 0.0894841775f * a - 1.2914855480f * b;
+        return lmsToRgb(l * l * l, m * m * m, s * s * s, fast);
+    }
+
+    private static int lmsToRgb(final float l, final float m, final float s, final boolean fast) {
+        final float red = 4.0767416621f * l - 3.3077115913f * m + 0.2309699292f * s;
+        final float green = -1.2684380046f * l + 2.6097574011f * m - 0.3413193965f * s;
+        final float blue = -0.0041960863f * l - 0.7034186147f * m + 1.7076147010f * s;
+        return (encode(red, fast) << 16) | (encode(green, fast) << 8) | encode(blue, fast);
+    }
+
+    private static int encode(final float linear, final boolean fast) {
+        return fast ? Gamma.encodeSrgbFast(linear) : Gamma.encodeSrgb(linear);
+    }
+}
@@ -0,0 +1,185 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BatchTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private MysticLight4j mysticLight;
+    private Device mainboard;
+    private Device graphicsCard;
+
+    @Before
+    public void setUp() {
+        backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 2)
+                .addDevice("MSI_VGA", "Graphics card", 1)
+                .build();
+        mysticLight = new MysticLight4j(backend);
+        final List<Device> devices = mysticLight.getAllAvailableDevices();
+        mainboard = devices.get(0);
+        graphicsCard = devices.get(1);
+    }
+
+    @Test
+    public void testCommit_repeatedWrites_writesCollapsed() {
+        // Arrange
+        final LED led = mainboard.getLED(0);
+        final Batch subject = mainboard.batch()
+                .setColor(led, 1, 2, 3)
+                .setBrightnessLevel(led, 1)
+                .setColor(led, 4, 5, 6);
+        final long callsBefore = backend.getCallCount();
+
+        // Act
+        final BatchResult result = subject.commit();
+
+        // Assert
+        assertTrue(result.isSuccessful());
+        assertThat(result.getQueuedOperationCount(), is(3));
+        assertThat(result.getIssuedOperationCount(), is(2));
+        assertThat(backend.getCallCount() - callsBefore, is(2L));
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.of(4, 5, 6)));
+        assertThat(backend.getLedBright("MSI_MB", 0), is(1));
+    }
+
+    @Test
+    public void testGetOperations_mixedProperties_orderedByProperty() {
+        // Arrange
+        final LED led0 = mainboard.getLED(0);
+        final LED led1 = mainboard.getLED(1);
+        final Batch subject = mainboard.batch()
+                .setColor(led0, Color.of(1, 1, 1))
+                .setSpeedLevel(led1, 1)
+                .setStyle(led1, "Rainbow")
+                .setBrightnessLevel(led0, 2)
+                .setStyle(led0, "Steady");
+
+        // Act
+        final List<BatchOperation.Property> result = subject.getOperations().stream()
+                .map(BatchOperation::getProperty)
+                .collect(Collectors.toList());
+
+        // Assert
+        assertThat(result.size(), is(5));
+        assertThat(result.get(0), is(BatchOperation.Property.STYLE));
+        assertThat(result.get(1), is(BatchOperation.Property.STYLE));
+        assertThat(result.get(2), is(BatchOperation.Property.BRIGHTNESS));
+        assertThat(result.get(3), is(BatchOperation.Property.SPEED));
+        assertThat(result.get(4), is(BatchOperation.Property.COLOR));
+        assertThat(subject.getOperations().get(0).getLed(), equalTo(led1));
+    }
+
+    @Test
+    public void testCommit_writeFails_remainingWritesIssuedAndFailureReported() {
+        // Arrange
+        final Batch subject = mysticLight.batch()
+                .setStyle(mainboard.getLED(1), "Breathing")
+                .setColor(graphicsCard.getLED(0), 9, 8, 7);
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        final BatchResult result = subject.commit();
+
+        // Assert
+        assertFalse(result.isSuccessful());
+        assertThat(result.getFailures().size(), is(1));
+        assertThat(result.getFailures().get(0).getOperation().getProperty(), is(BatchOperation.Property.STYLE));
+        assertTrue(result.getFailures().get(0).getError().get() instanceof MysticLightAPIException);
+        assertTrue(result.getResults().get(1).isSuccessful());
+        assertThat(backend.getLedColor("MSI_VGA", 0), equalTo(Color.of(9, 8, 7)));
+        assertTrue(result.getCommitDurationNanos() >= result.getResults().get(1).getDurationNanos());
+    }
+
+    @Test
+    public void testCommit_committed_batchEmptyAndReusable() {
+        // Arrange
+        final Batch subject = mainboard.batch().setSpeedLevel(mainboard.getLED(0), 2);
+        subject.commit();
+
+        // Act
+        final BatchResult result = subject.setSpeedLevel(mainboard.getLED(0), 1).commit();
+
+        // Assert
+        assertThat(result.getQueuedOperationCount(), is(1));
+        assertThat(backend.getLedSpeed("MSI_MB", 0), is(1));
+    }
+
+    @Test
+    public void testSetColor_ledOfOtherDevice_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The LED does not belong to device MSI_MB.");
+
+        // Act + Assert - via rule
+        mainboard.batch().setColor(graphicsCard.getLED(0), Color.of(0, 0, 0));
+    }
+
+    @Test
+    public void testSetColor_channelBeyondShortRange_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        mainboard.batch().setColor(mainboard.getLED(0), 65536, 0, 0);
+    }
+
+    @Test
+    public void testSetBrightnessLevel_outOfRange_illegalArgumentExceptionWhenQueued() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The brightness level is out of range.");
+
+        // Act + Assert - via rule
+        mainboard.batch().setBrightnessLevel(mainboard.getLED(0), SimulatedMysticLightBackend.DEFAULT_MAX_BRIGHTNESS + 1);
+    }
+
+    @Test
+    public void testSetStyle_unsupportedStyle_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The given style is not available for the LED.");
+
+        // Act + Assert - via rule
+        mainboard.batch().setStyle(mainboard.getLED(0), "Disco");
+    }
+
+    @Test
+    public void testCommitAsync_executor_committedOnExecutorAndBatchReusable() throws Exception {
+        // Arrange
+        final Batch subject = mainboard.batch().setColor(mainboard.getLED(1), 7, 7, 7);
+
+        // Act
+        final BatchResult result;
+        try (NativeCallExecutor executor = NativeCallExecutor.builder().build()) {
+            final CompletableFuture<BatchResult> future = subject.commitAsync(executor);
+            assertThat(subject.getQueuedOperationCount(), is(0));
+            result = future.get(10, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        assertTrue(result.isSuccessful());
+        assertThat(result.getIssuedOperationCount(), is(1));
+        assertThat(backend.getLedColor("MSI_MB", 1), equalTo(Color.of(7, 7, 7)));
+    }
+}
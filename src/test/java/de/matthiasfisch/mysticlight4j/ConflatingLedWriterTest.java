@@ -0,0 +1,160 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ConflatingLedWriterTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private ConflatingLedWriter subject;
+
+    @After
+    public void tearDown() {
+        if (subject != null) {
+            subject.close();
+        }
+    }
+
+    @Test
+    public void testSetColor_producerFasterThanBackend_intermediateValuesConflated() throws Exception {
+        // Arrange
+        subject = new ConflatingLedWriter(createDevice(2, TimeUnit.MILLISECONDS.toNanos(2)));
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            subject.setColor(0, Color.of(i, 0, 0));
+        }
+        final boolean drained = subject.awaitDrained(10, TimeUnit.SECONDS);
+
+        // Assert
+        final ConflationStatistics statistics = subject.getStatistics();
+        assertTrue(drained);
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.of(199, 0, 0)));
+        assertThat(statistics.getPostedWrites(), is(200L));
+        assertThat(statistics.getAppliedWrites() + statistics.getConflatedWrites(), is(200L));
+        assertTrue(statistics.getConflationRatio() > 0.5);
+        assertTrue(statistics.getMaxApplyLatencyNanos() > 0);
+    }
+
+    @Test
+    public void testSetters_differentProperties_allApplied() throws Exception {
+        // Arrange
+        subject = new ConflatingLedWriter(createDevice(2, 0));
+
+        // Act
+        subject.setStyle(1, Style.of("Rainbow"));
+        subject.setBrightnessLevel(1, 3);
+        subject.setSpeedLevel(1, 1);
+        subject.setColor(1, Color.of(1, 2, 3));
+        final boolean drained = subject.awaitDrained(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(drained);
+        assertThat(backend.getLedStyle("MSI_MB", 1), equalTo("Rainbow"));
+        assertThat(backend.getLedBright("MSI_MB", 1), is(3));
+        assertThat(backend.getLedSpeed("MSI_MB", 1), is(1));
+        assertThat(backend.getLedColor("MSI_MB", 1), equalTo(Color.of(1, 2, 3)));
+        assertThat(subject.getStatistics().getConflatedWrites(), is(0L));
+    }
+
+    @Test
+    public void testSetColor_backendFails_failureCountedAndNextValueApplied() throws Exception {
+        // Arrange
+        subject = new ConflatingLedWriter(createDevice(1, 0));
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+        subject.setColor(0, Color.of(5, 5, 5));
+        subject.awaitDrained(10, TimeUnit.SECONDS);
+
+        // Act
+        subject.setColor(0, Color.of(6, 6, 6));
+        final boolean drained = subject.awaitDrained(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(drained);
+        assertThat(subject.getStatistics().getFailedWrites(), is(1L));
+        assertTrue(subject.getLastError().get() instanceof MysticLightAPIException);
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.of(6, 6, 6)));
+    }
+
+    @Test
+    public void testSetBrightnessLevel_outOfRange_illegalArgumentException() {
+        // Arrange
+        subject = new ConflatingLedWriter(createDevice(1, 0));
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The brightness level is out of range.");
+
+        // Act + Assert - via rule
+        subject.setBrightnessLevel(0, SimulatedMysticLightBackend.DEFAULT_MAX_BRIGHTNESS + 1);
+    }
+
+    @Test
+    public void testSetColor_indexOutOfRange_illegalArgumentException() {
+        // Arrange
+        subject = new ConflatingLedWriter(createDevice(1, 0));
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("LED index must be in range [0, 1]");
+
+        // Act + Assert - via rule
+        subject.setColor(1, Color.of(0, 0, 0));
+    }
+
+    @Test
+    public void testSetColor_afterClose_ignoredAndNotCounted() throws Exception {
+        // Arrange
+        subject = new ConflatingLedWriter(createDevice(1, 0));
+        subject.close();
+
+        // Act
+        subject.setColor(0, Color.of(1, 2, 3));
+        final boolean drained = subject.awaitDrained(0, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(drained);
+        assertThat(subject.getStatistics().getPostedWrites(), is(0L));
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.BLACK));
+    }
+
+    @Test
+    public void testClose_racingPosts_noPostLeftPending() throws Exception {
+        // Arrange
+        final Device device = createDevice(1, 0);
+
+        // Act + Assert - the race is only hit now and then, hence the repetitions
+        for (int i = 0; i < 3000; i++) {
+            subject = new ConflatingLedWriter(device);
+            final ConflatingLedWriter writer = subject;
+            final Thread producer = new Thread(() -> {
+                for (int value = 0; value < 1000; value++) {
+                    writer.setColor(0, Color.of(value & 0xFF, 0, 0));
+                }
+            });
+            producer.start();
+            subject.close();
+            producer.join();
+            assertTrue(subject.awaitDrained(1, TimeUnit.SECONDS));
+        }
+    }
+
+    private Device createDevice(final int ledCount, final long latencyNanos) {
+        backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", ledCount)
+                .latency(latencyNanos, TimeUnit.NANOSECONDS)
+                .build();
+        return new MysticLight4j(backend).getAllAvailableDevices().get(0);
+    }
+}
@@ -17,12 +17,18 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.powermock.api.mockito.PowerMockito.*;
 
 @RunWith(PowerMockRunner.class)
@@ -35,6 +41,8 @@ public class DeviceTest {
     @Before
     public void setUp() {
         mockStatic(MysticLightAPI.class);
+        when(MysticLightAPI.getLedInfo(anyString(), anyInt())).thenAnswer(invocation ->
+                new LedInfo(invocation.getArgument(0), invocation.getArgument(1), "LED", new String[] {"style1"}));
     }
 
     @Test
@@ -117,6 +125,43 @@ public class DeviceTest {
         MysticLightAPI.getDeviceNameEx(eq(deviceType), eq(0));
     }
 
+    @Test
+    public void testGetName_calledTwice_nativeFunctionCalledOnce() {
+        // Arrange
+        final String deviceType = "deviceType";
+        final Device subject = new Device(new DeviceInfo(deviceType, 1));
+        when(MysticLightAPI.getDeviceNameEx(deviceType, 0)).thenReturn("deviceName");
+
+        // Act
+        subject.getName();
+        final String result = subject.getName();
+
+        // Assert
+        assertThat(result, equalTo("deviceName"));
+        verifyStatic(MysticLightAPI.class, times(1));
+        MysticLightAPI.getDeviceNameEx(eq(deviceType), eq(0));
+    }
+
+    @Test
+    public void testRefreshNames_afterFirstCall_namesFetchedAgain() {
+        // Arrange
+        final String deviceType = "deviceType";
+        final Device subject = new Device(new DeviceInfo(deviceType, 1));
+        when(MysticLightAPI.getDeviceNameEx(deviceType, 0)).thenReturn("oldName", "newName");
+        when(MysticLightAPI.getDeviceName(deviceType)).thenReturn(new String[] {"oldName"}, new String[] {"newName"});
+        subject.getName();
+        subject.getNames();
+
+        // Act
+        subject.refreshNames();
+
+        // Assert
+        assertThat(subject.getName(), equalTo("newName"));
+        assertThat(subject.getNames(), equalTo(Collections.singletonList("newName")));
+        verifyStatic(MysticLightAPI.class, times(2));
+        MysticLightAPI.getDeviceNameEx(eq(deviceType), eq(0));
+    }
+
     @Test
     public void testGetLED_negativeIndex_illegalArgumentException() {
         // Arrange
@@ -199,6 +244,58 @@ public class DeviceTest {
         MysticLightAPI.getLedInfo(eq(deviceType), eq(0));
     }
 
+    @Test
+    public void testGetLED_duplicateName_illegalArgumentException() {
+        // Arrange
+        final String deviceType = "deviceType";
+        when(MysticLightAPI.getLedInfo(deviceType, 0)).thenReturn(new LedInfo(deviceType, 0, "JRGB", new String[] {"style1"}));
+        when(MysticLightAPI.getLedInfo(deviceType, 1)).thenReturn(new LedInfo(deviceType, 1, "JRGB", new String[] {"style1"}));
+        when(MysticLightAPI.getLedInfo(deviceType, 2)).thenReturn(new LedInfo(deviceType, 2, "Logo", new String[] {"style1"}));
+        final Device subject = new Device(new DeviceInfo(deviceType, 3));
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("There are multiple LEDs with name JRGB.");
+
+        // Act + Assert - via rule
+        try {
+            subject.getLED("JRGB");
+        } finally {
+            assertThat(subject.getDuplicateLEDNames(), equalTo(Collections.singleton("JRGB")));
+            assertThat(subject.getLED("Logo").map(LED::getIndex), equalTo(Optional.of(2)));
+        }
+    }
+
+    @Test
+    public void testGetLEDsByPrefix_matchingLeds_ledsInIndexOrderAndMemoized() {
+        // Arrange
+        final String deviceType = "deviceType";
+        when(MysticLightAPI.getLedInfo(deviceType, 0)).thenReturn(new LedInfo(deviceType, 0, "JRGB1", new String[] {"style1"}));
+        when(MysticLightAPI.getLedInfo(deviceType, 1)).thenReturn(new LedInfo(deviceType, 1, "Logo", new String[] {"style1"}));
+        when(MysticLightAPI.getLedInfo(deviceType, 2)).thenReturn(new LedInfo(deviceType, 2, "JRGB2", new String[] {"style1"}));
+        final Device subject = new Device(new DeviceInfo(deviceType, 3));
+
+        // Act
+        final List<LED> result = subject.getLEDsByPrefix("JRGB");
+
+        // Assert
+        assertThat(result, equalTo(Arrays.asList(subject.getLED(0), subject.getLED(2))));
+        assertSame(result, subject.getLEDsByPrefix("JRGB"));
+    }
+
+    @Test
+    public void testGetLEDsMatching_pattern_matchingLedsReturned() {
+        // Arrange
+        final String deviceType = "deviceType";
+        when(MysticLightAPI.getLedInfo(deviceType, 0)).thenReturn(new LedInfo(deviceType, 0, "JRGB1", new String[] {"style1"}));
+        when(MysticLightAPI.getLedInfo(deviceType, 1)).thenReturn(new LedInfo(deviceType, 1, "Logo", new String[] {"style1"}));
+        final Device subject = new Device(new DeviceInfo(deviceType, 2));
+
+        // Act
+        final List<LED> result = subject.getLEDsMatching(Pattern.compile("L.*"));
+
+        // Assert
+        assertThat(result, equalTo(Collections.singletonList(subject.getLED(1))));
+    }
+
     @Test
     public void testEqualsAndHashCode_withVerifier_verificationOk() {
         // Arrange
@@ -207,7 +304,7 @@ public class DeviceTest {
         // Act + Assert - via verifier
         EqualsVerifier.forClass(Device.class)
                 .withPrefabValues(LED.class, redLed, blackLed)
-                .withIgnoredFields("leds")
+                .withIgnoredFields("leds", "backend", "stateCache", "nameIndex", "nameIndexGeneration", "nameIndexLock", "displayName", "displayNames", "writeSuppressor", "batchLock")
                 .verify();
     }
 
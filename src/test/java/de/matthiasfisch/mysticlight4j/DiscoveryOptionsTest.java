@@ -0,0 +1,59 @@
+package de.matthiasfisch.mysticlight4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DiscoveryOptionsTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testDefaults_noOptionsSet_eagerSerialWithoutTimeout() {
+        // Act
+        final DiscoveryOptions result = DiscoveryOptions.defaults();
+
+        // Assert
+        assertFalse(result.isLazy());
+        assertThat(result.getParallelism(), is(1));
+        assertFalse(result.hasDeviceTimeout());
+    }
+
+    @Test
+    public void testDeviceTimeout_validTimeout_convertedToNanos() {
+        // Act
+        final DiscoveryOptions result = DiscoveryOptions.builder().deviceTimeout(2, TimeUnit.MILLISECONDS).build();
+
+        // Assert
+        assertTrue(result.hasDeviceTimeout());
+        assertThat(result.getDeviceTimeoutNanos(), is(2_000_000L));
+    }
+
+    @Test
+    public void testParallelism_zero_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The parallelism must be positive.");
+
+        // Act + Assert - via rule
+        DiscoveryOptions.builder().parallelism(0);
+    }
+
+    @Test
+    public void testDeviceTimeout_zero_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The device timeout must be positive.");
+
+        // Act + Assert - via rule
+        DiscoveryOptions.builder().deviceTimeout(0, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,86 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FlightRecorderEventsTest {
+    private Recording recording;
+    private Path dump;
+
+    @Before
+    public void setUp() throws IOException {
+        dump = Files.createTempFile("mysticlight4j", ".jfr");
+        recording = new Recording();
+        recording.enable(FlightRecorderEvents.BATCH_COMMIT_EVENT_NAME);
+        recording.enable(FlightRecorderEvents.FRAME_EVENT_NAME);
+        recording.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        recording.close();
+        Files.deleteIfExists(dump);
+    }
+
+    @Test
+    public void testCommit_recordingEnabled_batchCommitEventRecorded() throws IOException {
+        // Arrange
+        final MysticLight4j mysticLight = new MysticLight4j(SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 2)
+                .build());
+        final Device device = mysticLight.getAllAvailableDevices().get(0);
+        final Batch batch = device.batch()
+                .setColor(device.getLED(0), 1, 2, 3)
+                .setColor(device.getLED(0), 4, 5, 6)
+                .setBrightnessLevel(device.getLED(1), 1);
+
+        // Act
+        batch.commit();
+
+        // Assert
+        final List<RecordedEvent> events = stopAndRead(FlightRecorderEvents.BATCH_COMMIT_EVENT_NAME);
+        assertThat(events.size(), is(1));
+        assertThat(events.get(0).getInt("deviceCount"), is(1));
+        assertThat(events.get(0).getInt("operationCount"), is(2));
+        assertThat(events.get(0).getInt("queuedOperationCount"), is(3));
+        assertThat(events.get(0).getInt("failedOperationCount"), is(0));
+    }
+
+    @Test
+    public void testRunFrames_recordingEnabled_frameEventPerRenderedFrame() throws Exception {
+        // Arrange
+        final VirtualFrameClock clock = new VirtualFrameClock();
+        final FrameEngine engine = FrameEngine.builder().targetFps(50).clock(clock).build();
+
+        // Act
+        engine.runFrames(3);
+
+        // Assert
+        final List<RecordedEvent> events = stopAndRead(FlightRecorderEvents.FRAME_EVENT_NAME);
+        assertThat(events.size(), is(3));
+        assertThat(events.get(2).getLong("frameNumber"), is(2L));
+        assertThat(events.get(2).getLong("budget"), is(engine.getFramePeriodNanos()));
+    }
+
+    private List<RecordedEvent> stopAndRead(final String eventName) throws IOException {
+        recording.stop();
+        recording.dump(dump);
+        return RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,238 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.BackendFunction;
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.ForwardingMysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.InstrumentedMysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class FrameBufferTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private InstrumentedMysticLightBackend instrumented;
+    private List<Device> devices;
+
+    @Before
+    public void setUp() {
+        final InstrumentedSimulation simulation = new InstrumentedSimulation(SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 3)
+                .addDevice("MSI_VGA", "Graphics card", 2)
+                .build());
+        backend = simulation.backend;
+        instrumented = simulation.instrumented;
+        devices = simulation.devices;
+    }
+
+    @Test
+    public void testCTOR_twoDevices_slotsInDeviceAndIndexOrder() {
+        // Arrange
+
+        // Act
+        final FrameBuffer subject = new FrameBuffer(devices);
+
+        // Assert
+        assertThat(subject.getSlotCount(), is(5));
+        assertThat(subject.getFirstSlot(devices.get(1)), is(3));
+        assertThat(subject.getSlot(devices.get(1).getLED(1)), is(4));
+        assertThat(subject.getLED(2), equalTo(devices.get(0).getLED(2)));
+        assertTrue(subject.getBuffer().isDirect());
+        assertThat(subject.getBuffer().capacity(), is(5 * FrameBuffer.SLOT_SIZE));
+    }
+
+    @Test
+    public void testCTOR_deviceTwice_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        new FrameBuffer(Arrays.asList(devices.get(0), devices.get(0)));
+    }
+
+    @Test
+    public void testSetColor_colorAndBrightness_documentedLayout() {
+        // Arrange
+        final FrameBuffer subject = new FrameBuffer(devices);
+
+        // Act
+        subject.setColor(1, 0x102030);
+        subject.setBrightnessLevel(1, 4);
+
+        // Assert
+        final ByteBuffer buffer = subject.getBuffer();
+        assertThat(buffer.getInt(FrameBuffer.SLOT_SIZE), is(0x10203004));
+        assertThat(buffer.get(FrameBuffer.SLOT_SIZE), is((byte) 0x10));
+        assertThat(buffer.getInt(0), is(FrameBuffer.BRIGHTNESS_UNCHANGED));
+        assertThat(subject.getColor(1), is(0x102030));
+        assertThat(subject.getBrightnessLevel(1), is(4));
+    }
+
+    @Test
+    public void testSetColor_slotOutOfRange_indexOutOfBoundsExceptionThrown() {
+        // Arrange
+        final FrameBuffer subject = new FrameBuffer(devices);
+        thrown.expect(IndexOutOfBoundsException.class);
+
+        // Act + Assert - via rule
+        subject.setColor(5, 0);
+    }
+
+    @Test
+    public void testCommit_firstCommit_allSlotsWritten() {
+        // Arrange
+        final FrameBuffer subject = new FrameBuffer(devices);
+        subject.setColor(4, 0x00FF00);
+
+        // Act
+        final int result = subject.commit();
+
+        // Assert
+        assertThat(result, is(5));
+        assertThat(backend.getLedColor("MSI_VGA", 1), equalTo(Color.GREEN));
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.BLACK));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_BRIGHT).getCallCount(), is(0L));
+    }
+
+    @Test
+    public void testCommit_oneSlotChanged_onlyChangedSlotWritten() {
+        // Arrange
+        final FrameBuffer subject = new FrameBuffer(devices);
+        subject.commit();
+        final long colorWrites = instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR).getCallCount();
+        subject.setColor(3, 0x0000FF);
+        subject.setBrightnessLevel(0, 2);
+
+        // Act
+        final int result = subject.commit();
+
+        // Assert
+        assertThat(result, is(2));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR).getCallCount(), is(colorWrites + 1));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_BRIGHT).getCallCount(), is(1L));
+        assertThat(backend.getLedColor("MSI_VGA", 0), equalTo(Color.BLUE));
+        assertThat(backend.getLedBright("MSI_MB", 0), is(2));
+        assertThat(subject.getStatistics().getUnchangedSlots(), is(3L));
+    }
+
+    @Test
+    public void testCommit_directBufferWrite_committed() {
+        // Arrange
+        final FrameBuffer subject = new FrameBuffer(devices);
+        subject.commit();
+
+        // Act
+        subject.getBuffer().putInt(2 * FrameBuffer.SLOT_SIZE, 0xFF0000FF);
+        final int result = subject.commit();
+
+        // Assert
+        assertThat(result, is(1));
+        assertThat(backend.getLedColor("MSI_MB", 2), equalTo(Color.RED));
+    }
+
+    @Test
+    public void testCommit_failingWrite_writtenAgainOnNextCommit() {
+        // Arrange
+        final FrameBuffer subject = new FrameBuffer(devices);
+        subject.commit();
+        subject.setColor(0, 0xFFFFFF);
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        final int failedCommit = subject.commit();
+        final int result = subject.commit();
+
+        // Assert
+        assertThat(failedCommit, is(0));
+        assertThat(result, is(1));
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.WHITE));
+        assertThat(subject.getStatistics().getFailedWrites(), is(1L));
+        assertTrue(subject.getLastError().isPresent());
+    }
+
+    @Test
+    public void testForceResync_unchangedSlots_allSlotsWrittenAgain() {
+        // Arrange
+        final FrameBuffer subject = new FrameBuffer(devices);
+        subject.commit();
+
+        // Act
+        subject.forceResync();
+        final int result = subject.commit();
+
+        // Assert
+        assertThat(result, is(5));
+        assertThat(subject.commit(), is(0));
+    }
+
+    @Test
+    public void testForceResync_writeSuppressionEnabled_colorsWrittenToBackendAgain() {
+        // Arrange
+        devices.forEach(Device::enableWriteSuppression);
+        final FrameBuffer subject = new FrameBuffer(devices);
+        subject.fill(0xFF0000);
+        subject.commit();
+        backend.setLedColor("MSI_MB", 0, Color.BLUE);
+
+        // Act
+        subject.forceResync();
+        subject.commit();
+
+        // Assert
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR).getCallCount(), is(10L));
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.RED));
+    }
+
+    @Test
+    public void testCommit_renderLoop_noAllocationPerFrame() {
+        // Arrange
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final FrameBuffer subject = new FrameBuffer(InstrumentedSimulation.discover(new NoOpColorBackend(backend)));
+        final int frames = 20_000;
+        renderFrames(subject, frames);
+
+        // Act
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        renderFrames(subject, frames);
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Assert
+        assertTrue("Allocated " + allocated + " bytes", allocated < frames);
+    }
+
+    private static void renderFrames(final FrameBuffer frameBuffer, final int frames) {
+        for (int frame = 0; frame < frames; frame++) {
+            frameBuffer.fill(frame & 0x0F);
+            frameBuffer.commit();
+        }
+    }
+
+    /**
+     * Discards color writes, as the simulated backend itself allocates.
+     */
+    private static final class NoOpColorBackend extends ForwardingMysticLightBackend {
+        private NoOpColorBackend(final SimulatedMysticLightBackend delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void setLedColor(final String device, final int ledIndex, final Color color) {
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package de.matthiasfisch.mysticlight4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class FrameEngineTest {
+    private static final long PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final VirtualFrameClock clock = new VirtualFrameClock();
+
+    @Test
+    public void testRunFrames_virtualClock_framesScheduledAtFixedRate() throws Exception {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().targetFps(50).clock(clock).build();
+        final List<Long> frameTimes = new ArrayList<>();
+        final List<Long> frameNumbers = new ArrayList<>();
+        subject.addProducer(frame -> {
+            frameTimes.add(frame.getElapsedNanos());
+            frameNumbers.add(frame.getFrameNumber());
+        });
+
+        // Act
+        subject.runFrames(5);
+
+        // Assert
+        assertThat(subject.getFramePeriodNanos(), is(PERIOD_NANOS));
+        assertThat(frameNumbers.size(), is(5));
+        for (int i = 0; i < 5; i++) {
+            assertThat(frameNumbers.get(i), is((long) i));
+            assertThat(frameTimes.get(i), is(i * PERIOD_NANOS));
+        }
+        assertThat(subject.getStatistics().getActualFps(), is(50.0));
+        assertThat(subject.getStatistics().getRenderedFrames(), is(5L));
+    }
+
+    @Test
+    public void testRunFrames_frameExceedsBudget_lateFramesDropped() throws Exception {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().targetFps(50).clock(clock).build();
+        final List<Long> frameNumbers = new ArrayList<>();
+        final List<Long> deltas = new ArrayList<>();
+        subject.addProducer(frame -> {
+            frameNumbers.add(frame.getFrameNumber());
+            deltas.add(frame.getDeltaNanos());
+            if (frame.getFrameNumber() == 1) {
+                clock.advance(50, TimeUnit.MILLISECONDS);
+            }
+        });
+
+        // Act
+        subject.runFrames(5);
+
+        // Assert
+        final FrameStatistics statistics = subject.getStatistics();
+        assertThat(frameNumbers.size(), is(4));
+        assertThat(frameNumbers.get(2), is(3L));
+        assertThat(deltas.get(2), is(2 * PERIOD_NANOS));
+        assertThat(statistics.getDroppedFrames(), is(1L));
+        assertThat(statistics.getOverrunFrames(), is(1L));
+        assertThat(statistics.getMaxFrameTimeNanos(), is(TimeUnit.MILLISECONDS.toNanos(50)));
+    }
+
+    @Test
+    public void testGetStatistics_varyingFrameTimes_percentilesComputed() throws Exception {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().targetFps(10).clock(clock).statisticsWindow(100).build();
+        subject.addProducer(frame -> clock.advance(frame.getFrameNumber() + 1, TimeUnit.MILLISECONDS));
+
+        // Act
+        subject.runFrames(100);
+
+        // Assert
+        final FrameStatistics statistics = subject.getStatistics();
+        assertThat(statistics.getFrameTimeP50Nanos(), is(TimeUnit.MILLISECONDS.toNanos(50)));
+        assertThat(statistics.getFrameTimeP95Nanos(), is(TimeUnit.MILLISECONDS.toNanos(95)));
+        assertThat(statistics.getFrameTimeP99Nanos(), is(TimeUnit.MILLISECONDS.toNanos(99)));
+        assertThat(statistics.getOverrunFrames(), is(0L));
+        assertThat(statistics.getTargetFps(), is(10.0));
+    }
+
+    @Test
+    public void testRunFrames_producerFails_otherProducersCalledAndFailureCounted() throws Exception {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().clock(clock).build();
+        final IllegalStateException error = new IllegalStateException("broken");
+        final List<Long> frameNumbers = new ArrayList<>();
+        subject.addProducer(frame -> {
+            throw error;
+        });
+        subject.addProducer(frame -> frameNumbers.add(frame.getFrameNumber()));
+
+        // Act
+        subject.runFrames(2);
+
+        // Assert
+        assertThat(frameNumbers.size(), is(2));
+        assertThat(subject.getStatistics().getFailedFrames(), is(2L));
+        assertTrue(subject.getLastError().get() == error);
+    }
+
+    @Test
+    public void testRunFrames_resumedAfterPause_pauseNotCountedAsDropped() throws Exception {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().targetFps(50).clock(clock).build();
+        final List<Long> frameTimes = new ArrayList<>();
+        subject.addProducer(frame -> frameTimes.add(frame.getElapsedNanos()));
+        subject.runFrames(2);
+        clock.advance(1, TimeUnit.SECONDS);
+
+        // Act
+        subject.runFrames(1);
+
+        // Assert
+        assertThat(frameTimes.get(2), is(2 * PERIOD_NANOS));
+        assertThat(subject.getStatistics().getDroppedFrames(), is(0L));
+    }
+
+    @Test
+    public void testStart_systemClock_framesRenderedUntilStopped() throws Exception {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().targetFps(200).build();
+        final CountDownLatch frames = new CountDownLatch(5);
+        subject.addProducer(frame -> frames.countDown());
+
+        // Act
+        subject.start();
+        final boolean rendered = frames.await(10, TimeUnit.SECONDS);
+        subject.stop();
+
+        // Assert
+        assertTrue(rendered);
+        assertFalse(subject.isRunning());
+        final long renderedFrames = subject.getStatistics().getRenderedFrames();
+        Thread.sleep(50);
+        assertThat(subject.getStatistics().getRenderedFrames(), is(renderedFrames));
+    }
+
+    @Test
+    public void testStop_duringFrame_producerNotInterrupted() throws Exception {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().targetFps(100).build();
+        final CountDownLatch rendering = new CountDownLatch(1);
+        final List<Boolean> interrupted = new ArrayList<>();
+        subject.addProducer(frame -> {
+            rendering.countDown();
+            final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            while (System.nanoTime() - end < 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(end - System.nanoTime());
+            }
+            interrupted.add(Thread.currentThread().isInterrupted());
+        });
+        subject.start();
+        assertTrue(rendering.await(10, TimeUnit.SECONDS));
+
+        // Act
+        subject.stop();
+
+        // Assert
+        assertFalse(interrupted.contains(true));
+        assertFalse(subject.isRunning());
+    }
+
+    @Test
+    public void testStop_waitingForNextFrame_stopsWithoutWaitingForFrame() throws Exception {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().targetFps(0.1).build();
+        final CountDownLatch rendered = new CountDownLatch(1);
+        subject.addProducer(frame -> rendered.countDown());
+        subject.start();
+        assertTrue(rendered.await(10, TimeUnit.SECONDS));
+
+        // Act
+        final long start = System.nanoTime();
+        subject.stop();
+
+        // Assert
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertThat(subject.getStatistics().getRenderedFrames(), is(1L));
+    }
+
+    @Test
+    public void testStart_alreadyRunning_illegalStateException() {
+        // Arrange
+        final FrameEngine subject = FrameEngine.builder().build();
+        subject.start();
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("The frame engine is already running.");
+
+        // Act + Assert - via rule
+        try {
+            subject.start();
+        } finally {
+            subject.close();
+        }
+    }
+
+    @Test
+    public void testTargetFps_zero_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        FrameEngine.builder().targetFps(0);
+    }
+}
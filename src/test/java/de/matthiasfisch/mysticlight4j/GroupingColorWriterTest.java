@@ -0,0 +1,199 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.BackendFunction;
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.ForwardingMysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.InstrumentedMysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class GroupingColorWriterTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private InstrumentedMysticLightBackend instrumented;
+    private Device device;
+
+    @Before
+    public void setUp() {
+        final InstrumentedSimulation simulation = new InstrumentedSimulation(SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 4)
+                .build());
+        backend = simulation.backend;
+        instrumented = simulation.instrumented;
+        device = simulation.devices.get(0);
+    }
+
+    @Test
+    public void testFlush_ledsSharingColor_oneMultiLedCallPerColor() {
+        // Arrange
+        final GroupingColorWriter subject = new GroupingColorWriter();
+        subject.setColor(device.getLED(0), Color.RED)
+                .setColor(device.getLED(1), Color.BLUE)
+                .setColor(device.getLED(2), Color.RED)
+                .setColor(device.getLED(3), Color.BLUE);
+
+        // Act
+        final int calls = subject.flush();
+
+        // Assert
+        assertThat(calls, is(2));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLORS).getCallCount(), is(2L));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR).getCallCount(), is(0L));
+        assertThat(backend.getLedColor("MSI_MB", 2), equalTo(Color.RED));
+        assertThat(backend.getLedColor("MSI_MB", 3), equalTo(Color.BLUE));
+        assertThat(subject.getPendingCount(), is(0));
+        assertThat(subject.getStatistics().getGroupedLeds(), is(4L));
+    }
+
+    @Test
+    public void testFlush_groupBelowMinimumSize_singleLedCalls() {
+        // Arrange
+        final GroupingColorWriter subject = new GroupingColorWriter(3);
+        subject.setColor(device.getLED(0), Color.RED)
+                .setColor(device.getLED(1), Color.RED)
+                .setColor(device.getLED(2), Color.GREEN);
+
+        // Act
+        final int calls = subject.flush();
+
+        // Assert
+        assertThat(calls, is(3));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLORS).getCallCount(), is(0L));
+        assertThat(subject.getStatistics().getSingleCalls(), is(3L));
+        assertThat(backend.getLedColor("MSI_MB", 1), equalTo(Color.RED));
+    }
+
+    @Test
+    public void testFlush_multiLedCallNotImplemented_fallsBackToSingleCallsPermanently() {
+        // Arrange
+        final Device unsupported = InstrumentedSimulation.discover(new NoMultiLedBackend(backend)).get(0);
+        final GroupingColorWriter subject = new GroupingColorWriter();
+        subject.setColor(unsupported.getLED(0), Color.RED).setColor(unsupported.getLED(1), Color.RED);
+
+        // Act
+        final int firstCalls = subject.flush();
+        subject.setColor(unsupported.getLED(0), Color.GREEN).setColor(unsupported.getLED(1), Color.GREEN);
+        final int secondCalls = subject.flush();
+
+        // Assert
+        assertThat(firstCalls, is(3));
+        assertThat(secondCalls, is(2));
+        assertThat(backend.getLedColor("MSI_MB", 1), equalTo(Color.GREEN));
+        assertThat(subject.getStatistics().getFailedCalls(), is(0L));
+        assertFalse(subject.getLastError().isPresent());
+    }
+
+    @Test
+    public void testFlush_callFails_errorRecordedAndOtherGroupsWritten() {
+        // Arrange
+        final GroupingColorWriter subject = new GroupingColorWriter();
+        subject.setColor(device.getLED(0), Color.RED)
+                .setColor(device.getLED(1), Color.RED)
+                .setColor(device.getLED(2), Color.BLUE)
+                .setColor(device.getLED(3), Color.BLUE);
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        subject.flush();
+
+        // Assert
+        assertThat(subject.getStatistics().getFailedCalls(), is(1L));
+        assertTrue(subject.getLastError().isPresent());
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.BLACK));
+        assertThat(backend.getLedColor("MSI_MB", 3), equalTo(Color.BLUE));
+    }
+
+    @Test
+    public void testFlush_writeSuppressionEnabled_suppressedGroupAndSingleWritesCountedAlike() {
+        // Arrange
+        device.enableWriteSuppression();
+        final GroupingColorWriter subject = new GroupingColorWriter();
+        subject.setColor(device.getLED(0), Color.RED).setColor(device.getLED(1), Color.RED).setColor(device.getLED(2), Color.GREEN);
+        final int firstCalls = subject.flush();
+        subject.setColor(device.getLED(0), Color.RED).setColor(device.getLED(1), Color.RED).setColor(device.getLED(2), Color.GREEN);
+
+        // Act
+        final int secondCalls = subject.flush();
+
+        // Assert
+        assertThat(firstCalls, is(2));
+        assertThat(secondCalls, is(2));
+        assertThat(subject.getStatistics().getGroupCalls(), is(2L));
+        assertThat(subject.getStatistics().getGroupedLeds(), is(4L));
+        assertThat(subject.getStatistics().getSingleCalls(), is(2L));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLORS).getCallCount(), is(1L));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR).getCallCount(), is(1L));
+    }
+
+    @Test
+    public void testSetColors_writeSuppressionEnabled_unchangedLedsLeftOut() {
+        // Arrange
+        device.enableWriteSuppression();
+        device.getLED(0).setColor(Color.RED);
+
+        // Act
+        final int written = device.setColors(Arrays.asList(device.getLED(0), device.getLED(1)), Color.RED);
+        final int rewritten = device.setColors(Arrays.asList(device.getLED(0), device.getLED(1)), Color.RED);
+
+        // Assert
+        assertThat(written, is(1));
+        assertThat(rewritten, is(0));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLORS).getCallCount(), is(1L));
+        assertThat(backend.getLedColor("MSI_MB", 1), equalTo(Color.RED));
+    }
+
+    @Test
+    public void testSetColors_ledOfOtherDevice_illegalArgumentExceptionThrown() {
+        // Arrange
+        final SimulatedMysticLightBackend otherBackend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_VGA", "Graphics card", 1)
+                .build();
+        final Device other = InstrumentedSimulation.discover(otherBackend).get(0);
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        device.setColors(Collections.singletonList(other.getLED(0)), Color.RED);
+    }
+
+    @Test
+    public void testSetColorEx_led_namedWriteUpdatesStateCache() {
+        // Arrange
+        device.enableStateCache(1, TimeUnit.MINUTES);
+
+        // Act
+        device.setColorEx(device.getLED(2), Color.GREEN, false);
+
+        // Assert
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR_EX).getCallCount(), is(1L));
+        assertThat(backend.getLedColor("MSI_MB", 2), equalTo(Color.GREEN));
+        assertThat(device.getLED(2).getColor(), equalTo(Color.GREEN));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.GET_LED_COLOR).getCallCount(), is(0L));
+    }
+
+    private static final class NoMultiLedBackend extends ForwardingMysticLightBackend {
+        private NoMultiLedBackend(final SimulatedMysticLightBackend delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void setLedColors(final String device, final int ledIndex, final String[] ledNames, final Color color) {
+            throw new MysticLightAPIException("MSI application not found or installed version not supported",
+                    MysticLightAPIException.MLAPI_NO_IMPLEMENTED);
+        }
+    }
+}
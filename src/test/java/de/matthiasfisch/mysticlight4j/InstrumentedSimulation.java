@@ -0,0 +1,30 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.InstrumentedMysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.MysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+
+import java.util.List;
+
+/**
+ * Test fixture: a simulated backend behind an instrumented backend, with the devices discovered through the latter.
+ */
+final class InstrumentedSimulation {
+    final SimulatedMysticLightBackend backend;
+    final InstrumentedMysticLightBackend instrumented;
+    final List<Device> devices;
+
+    InstrumentedSimulation(final SimulatedMysticLightBackend backend) {
+        this.backend = backend;
+        this.instrumented = new InstrumentedMysticLightBackend(backend);
+        this.devices = discover(instrumented);
+    }
+
+    /**
+     * @param backend The backend.
+     * @return Returns the devices available through the backend.
+     */
+    static List<Device> discover(final MysticLightBackend backend) {
+        return new MysticLight4j(backend).getAllAvailableDevices();
+    }
+}
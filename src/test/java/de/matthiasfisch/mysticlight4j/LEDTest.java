@@ -2,8 +2,10 @@ package de.matthiasfisch.mysticlight4j;
 
 import de.matthiasfisch.mysticlight4j.api.Color;
 import de.matthiasfisch.mysticlight4j.api.DeviceInfo;
+import de.matthiasfisch.mysticlight4j.api.ForwardingMysticLightBackend;
 import de.matthiasfisch.mysticlight4j.api.LedInfo;
 import de.matthiasfisch.mysticlight4j.api.MysticLightAPI;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.Before;
 import org.junit.Rule;
@@ -12,18 +14,27 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.powermock.api.mockito.PowerMockito.*;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(fullyQualifiedNames = "de.matthiasfisch.mysticlight4j.api.MysticLightAPI")
+@PowerMockIgnore("com.sun.management.*")
 public class LEDTest {
     private static final String DEVICE_ID = "DEVICE_ID";
     private static final int DEVICE_LED_COUNT = 1;
@@ -41,6 +52,8 @@ public class LEDTest {
     @Before
     public void setUp() {
         mockStatic(MysticLightAPI.class);
+        when(MysticLightAPI.getLedInfo(anyString(), anyInt())).thenAnswer(invocation ->
+                new LedInfo(invocation.getArgument(0), invocation.getArgument(1), LED_NAME, LED_STYLES));
         when(MysticLightAPI.getLedInfo(eq(DEVICE_ID), eq(0))).thenReturn(new LedInfo(DEVICE_ID, 0, LED_NAME, LED_STYLES));
         device = new Device(new DeviceInfo(DEVICE_ID, DEVICE_LED_COUNT));
         subject = device.getLED(0);
@@ -137,17 +150,18 @@ public class LEDTest {
     }
 
     @Test
-    public void testGetMaximumBrightnessLevel_noParameters_nativeMethodCalled() {
+    public void testGetMaximumBrightnessLevel_capabilitiesReprobed_probedValueReturned() {
         // Arrange
         final int maxLevel = 5;
         when(MysticLightAPI.getLedMaxBright(eq(DEVICE_ID), eq(0))).thenReturn(maxLevel);
+        subject.reprobeCapabilities();
 
         // Act
         final int result = subject.getMaximumBrightnessLevel();
 
         // Assert
         assertThat(result, equalTo(maxLevel));
-        verifyStatic(MysticLightAPI.class);
+        verifyStatic(MysticLightAPI.class, times(2)); // Once called in setUp
         MysticLightAPI.getLedMaxBright(eq(DEVICE_ID), eq(0));
     }
 
@@ -167,17 +181,18 @@ public class LEDTest {
     }
 
     @Test
-    public void testGetMaximumSpeedLevel_noParameters_nativeMethodCalled() {
+    public void testGetMaximumSpeedLevel_capabilitiesReprobed_probedValueReturned() {
         // Arrange
         final int maxSpeed = 10;
         when(MysticLightAPI.getLedMaxSpeed(eq(DEVICE_ID), eq(0))).thenReturn(maxSpeed);
+        subject.reprobeCapabilities();
 
         // Act
         final int result = subject.getMaximumSpeedLevel();
 
         // Assert
         assertThat(result, equalTo(maxSpeed));
-        verifyStatic(MysticLightAPI.class);
+        verifyStatic(MysticLightAPI.class, times(2)); // Once called in setUp
         MysticLightAPI.getLedMaxSpeed(eq(DEVICE_ID), eq(0));
     }
 
@@ -232,7 +247,7 @@ public class LEDTest {
         thrown.expectMessage("style");
 
         // Act + Assert - via rule
-        subject.setStyle(null);
+        subject.setStyle((String) null);
     }
 
     @Test
@@ -257,6 +272,45 @@ public class LEDTest {
         MysticLightAPI.setLedStyle(eq(DEVICE_ID), eq(0), eq(LED_STYLE2));
     }
 
+    @Test
+    public void testSetStyle_validStyleHandle_nativeMethodCalled() {
+        // Arrange
+
+        // Act
+        subject.setStyle(Style.of(LED_STYLE1));
+
+        // Assert
+        verifyStatic(MysticLightAPI.class);
+        MysticLightAPI.setLedStyle(eq(DEVICE_ID), eq(0), eq(LED_STYLE1));
+    }
+
+    @Test
+    public void testSetStyle_styleHandleNotSupported_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The given style is not available for the LED.");
+
+        // Act + Assert - via rule
+        subject.setStyle(Style.of("Meteor"));
+    }
+
+    @Test
+    public void testGetStyleHandle_stateCacheEnabled_internedHandleReturned() {
+        // Arrange
+        when(MysticLightAPI.getLedStyle(eq(DEVICE_ID), eq(0))).thenReturn(new String(LED_STYLE2));
+        device.enableStateCache(1, TimeUnit.HOURS);
+
+        // Act
+        final Style first = subject.getStyleHandle();
+        final Style second = subject.getStyleHandle();
+
+        // Assert
+        assertSame(Style.of(LED_STYLE2), first);
+        assertSame(first, second);
+        verifyStatic(MysticLightAPI.class, times(1));
+        MysticLightAPI.getLedStyle(eq(DEVICE_ID), eq(0));
+    }
+
     @Test
     public void testSetBrightnessLevel_levelNegative_illegalArgumentException() {
         // Arrange
@@ -276,6 +330,8 @@ public class LEDTest {
 
         when(MysticLightAPI.getLedMaxBright(eq(DEVICE_ID), eq(0))).thenReturn(maxLevel);
 
+        subject.reprobeCapabilities();
+
         // Act + Assert - via rule
         subject.setBrightnessLevel(maxLevel + 1);
     }
@@ -284,6 +340,7 @@ public class LEDTest {
     public void testSetBrightnessLevel_levelIsZero_nativeMethodCalled() {
         // Arrange
         when(MysticLightAPI.getLedMaxBright(eq(DEVICE_ID), eq(0))).thenReturn(5);
+        subject.reprobeCapabilities();
 
         // Act
         subject.setBrightnessLevel(0);
@@ -298,6 +355,7 @@ public class LEDTest {
         // Arrange
         final int maxLevel = 5;
         when(MysticLightAPI.getLedMaxBright(eq(DEVICE_ID), eq(0))).thenReturn(maxLevel);
+        subject.reprobeCapabilities();
 
         // Act
         subject.setBrightnessLevel(maxLevel);
@@ -326,6 +384,8 @@ public class LEDTest {
 
         when(MysticLightAPI.getLedMaxSpeed(eq(DEVICE_ID), eq(0))).thenReturn(maxLevel);
 
+        subject.reprobeCapabilities();
+
         // Act + Assert - via rule
         subject.setSpeedLevel(maxLevel + 1);
     }
@@ -334,6 +394,7 @@ public class LEDTest {
     public void testSetSpeedLevel_levelIsZero_nativeMethodCalled() {
         // Arrange
         when(MysticLightAPI.getLedMaxSpeed(eq(DEVICE_ID), eq(0))).thenReturn(5);
+        subject.reprobeCapabilities();
 
         // Act
         subject.setSpeedLevel(0);
@@ -348,6 +409,7 @@ public class LEDTest {
         // Arrange
         final int maxLevel = 5;
         when(MysticLightAPI.getLedMaxSpeed(eq(DEVICE_ID), eq(0))).thenReturn(maxLevel);
+        subject.reprobeCapabilities();
 
         // Act
         subject.setSpeedLevel(maxLevel);
@@ -357,6 +419,151 @@ public class LEDTest {
         MysticLightAPI.setLedSpeed(eq(DEVICE_ID), eq(0), eq(maxLevel));
     }
 
+    @Test
+    public void testGetColor_stateCacheEnabled_nativeMethodCalledOnce() {
+        // Arrange
+        final Color color = Color.of(255, 0, 0);
+        when(MysticLightAPI.getLedColor(eq(DEVICE_ID), eq(0))).thenReturn(color);
+        device.enableStateCache(1, TimeUnit.HOURS);
+
+        // Act
+        final Color first = subject.getColor();
+        final Color second = subject.getColor();
+
+        // Assert
+        assertThat(first, equalTo(color));
+        assertThat(second, equalTo(color));
+        verifyStatic(MysticLightAPI.class, times(1));
+        MysticLightAPI.getLedColor(eq(DEVICE_ID), eq(0));
+    }
+
+    @Test
+    public void testGetColorRgb_stateCacheMiss_missCountedOnce() {
+        // Arrange
+        when(MysticLightAPI.getLedColor(eq(DEVICE_ID), eq(0))).thenReturn(Color.of(0x10, 0x20, 0x30));
+        final LedStateCache cache = device.enableStateCache(1, TimeUnit.HOURS);
+
+        // Act
+        final int first = subject.getColorRgb();
+        final int second = subject.getColorRgb();
+
+        // Assert
+        assertThat(first, equalTo(0x102030));
+        assertThat(second, equalTo(0x102030));
+        assertThat(cache.getMissCount(), equalTo(1L));
+        assertThat(cache.getHitCount(), equalTo(1L));
+        verifyStatic(MysticLightAPI.class, times(1));
+        MysticLightAPI.getLedColor(eq(DEVICE_ID), eq(0));
+    }
+
+    @Test
+    public void testSetBrightnessLevel_stateCacheEnabled_valueWrittenThrough() {
+        // Arrange
+        when(MysticLightAPI.getLedMaxBright(eq(DEVICE_ID), eq(0))).thenReturn(5);
+        subject.reprobeCapabilities();
+        final LedStateCache cache = device.enableStateCache(1, TimeUnit.HOURS);
+
+        // Act
+        subject.setBrightnessLevel(3);
+        final int result = subject.getBrightnessLevel();
+
+        // Assert
+        assertThat(result, equalTo(3));
+        assertThat(cache.getHitCount(), equalTo(1L));
+        verifyStatic(MysticLightAPI.class, never());
+        MysticLightAPI.getLedBright(eq(DEVICE_ID), eq(0));
+    }
+
+    @Test
+    public void testRefreshState_stateCacheEnabled_cacheReloaded() {
+        // Arrange
+        when(MysticLightAPI.getLedColor(eq(DEVICE_ID), eq(0))).thenReturn(Color.of(1, 2, 3));
+        when(MysticLightAPI.getLedStyle(eq(DEVICE_ID), eq(0))).thenReturn(LED_STYLE1);
+        when(MysticLightAPI.getLedBright(eq(DEVICE_ID), eq(0))).thenReturn(2);
+        when(MysticLightAPI.getLedSpeed(eq(DEVICE_ID), eq(0))).thenReturn(1);
+        final LedStateCache cache = device.enableStateCache(1, TimeUnit.HOURS);
+
+        // Act
+        subject.refreshState();
+
+        // Assert
+        assertThat(subject.getStyle(), equalTo(LED_STYLE1));
+        assertThat(subject.getSpeedLevel(), equalTo(1));
+        assertThat(cache.getHitCount(), equalTo(2L));
+        assertThat(cache.getMissCount(), equalTo(0L));
+    }
+
+    @Test
+    public void testSetBrightnessAndSpeedLevel_capabilitiesProbed_noNativeMaximumCalls() {
+        // Arrange
+        when(MysticLightAPI.getLedMaxBright(eq(DEVICE_ID), eq(0))).thenReturn(5);
+        when(MysticLightAPI.getLedMaxSpeed(eq(DEVICE_ID), eq(0))).thenReturn(2);
+        final LED subject = new LED(device, 0);
+
+        // Act
+        subject.setBrightnessLevel(5);
+        subject.setBrightnessLevel(1);
+        subject.setSpeedLevel(2);
+
+        // Assert
+        assertThat(subject.getCapabilities(), equalTo(new LedCapabilities(5, 2, Arrays.asList(LED_STYLES))));
+        verifyStatic(MysticLightAPI.class, times(2)); // Once called in setUp
+        MysticLightAPI.getLedMaxBright(eq(DEVICE_ID), eq(0));
+        verifyStatic(MysticLightAPI.class, times(2));
+        MysticLightAPI.getLedMaxSpeed(eq(DEVICE_ID), eq(0));
+    }
+
+    @Test
+    public void testSetColorRgb_packedColor_setOnBackend() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, "Mainboard", 1)
+                .build();
+        backend.initialize();
+        final LED subject = new Device(backend, new DeviceInfo(DEVICE_ID, 1)).getLED(0);
+
+        // Act
+        subject.setColorRgb(0x102030);
+
+        // Assert
+        assertThat(backend.getLedColor(DEVICE_ID, 0), equalTo(Color.of(0x10, 0x20, 0x30)));
+        assertThat(subject.getColorRgb(), equalTo(0x102030));
+    }
+
+    @Test
+    public void testSetColorRgb_repeatedColors_noAllocationPerCall() {
+        // Arrange
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final SimulatedMysticLightBackend simulated = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 1)
+                .build();
+        final Device device = new MysticLight4j(new ForwardingMysticLightBackend(simulated) {
+            @Override
+            public void setLedColor(final String device, final int ledIndex, final Color color) {
+                // The simulated backend itself allocates, so only the Java side of the library is measured.
+            }
+        }).getAllAvailableDevices().get(0);
+        device.enableWriteSuppression();
+        final LED subject = device.getLED(0);
+        final int calls = 100_000;
+        for (int i = 0; i < calls; i++) {
+            subject.setColorRgb(i & 0x0F);
+            subject.setColor(0, i & 0x0F, 0);
+        }
+
+        // Act
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < calls; i++) {
+            subject.setColorRgb(i & 0x0F);
+            subject.setColor(0, i & 0x0F, 0);
+        }
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Assert
+        assertTrue("Allocated " + allocated + " bytes", allocated < calls);
+    }
+
     @Test
     public void testEqualsAndHashCode_withVerifier_verificationOk() {
         // Arrange + Act + Assert - via verifier
@@ -364,7 +571,8 @@ public class LEDTest {
         final Device blackDevice = new Device(new DeviceInfo("dev2", 1));
         EqualsVerifier.forClass(LED.class)
                 .withPrefabValues(Device.class, redDevice, blackDevice)
-                .withIgnoredFields("ledInfo")
+                .withPrefabValues(Style.class, Style.of(LED_STYLE1), Style.of(LED_STYLE2))
+                .withIgnoredFields("ledInfo", "capabilities")
                 .verify();
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package de.matthiasfisch.mysticlight4j;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LedCapabilitiesTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testCTOR_negativeMaximumBrightness_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The maximum brightness level must not be negative.");
+
+        // Act + Assert - via rule
+        new LedCapabilities(-1, 1, Arrays.asList("Steady"));
+    }
+
+    @Test
+    public void testSupportsStyle_knownAndUnknownStyle_correctResult() {
+        // Arrange
+        final LedCapabilities subject = new LedCapabilities(5, 2, Arrays.asList("Steady", "Rainbow"));
+
+        // Act + Assert
+        assertThat(subject.supportsStyle("Rainbow"), is(true));
+        assertThat(subject.supportsStyle("Flash"), is(false));
+    }
+
+    @Test
+    public void testSupportsStyle_styleHandles_correctResult() {
+        // Arrange
+        final LedCapabilities subject = new LedCapabilities(5, 2, Arrays.asList("Steady", "Rainbow"));
+
+        // Act + Assert
+        assertThat(subject.supportsStyle(Style.of("Steady")), is(true));
+        assertThat(subject.supportsStyle(Style.of("Lightning")), is(false));
+        assertThat(subject.getStyleHandles(), equalTo(Arrays.asList(Style.of("Steady"), Style.of("Rainbow"))));
+    }
+
+    @Test
+    public void testIsValidLevel_boundaries_correctResult() {
+        // Arrange
+        final LedCapabilities subject = new LedCapabilities(5, 2, Arrays.asList("Steady"));
+
+        // Act + Assert
+        assertThat(subject.isValidBrightnessLevel(-1), is(false));
+        assertThat(subject.isValidBrightnessLevel(0), is(true));
+        assertThat(subject.isValidBrightnessLevel(5), is(true));
+        assertThat(subject.isValidBrightnessLevel(6), is(false));
+        assertThat(subject.isValidSpeedLevel(2), is(true));
+        assertThat(subject.isValidSpeedLevel(3), is(false));
+    }
+
+    @Test
+    public void testEqualsAndHashCode_withVerifier_verificationOk() {
+        // Arrange + Act + Assert - via verifier
+        EqualsVerifier.forClass(LedCapabilities.class)
+                .withPrefabValues(Style.class, Style.of("Steady"), Style.of("Rainbow"))
+                .withIgnoredFields("styleHandles", "styleOrdinals")
+                .verify();
+    }
+}
@@ -0,0 +1,117 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class LedStateCacheTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testCTOR_negativeStaleness_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The maximum staleness must not be negative.");
+
+        // Act + Assert - via rule
+        new LedStateCache(1, -1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testGetColor_notLoaded_missCounted() {
+        // Arrange
+        final LedStateCache subject = new LedStateCache(2, 1, TimeUnit.HOURS);
+
+        // Act
+        final Color result = subject.getColor(1);
+
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(subject.getMissCount(), is(1L));
+        assertThat(subject.getHitCount(), is(0L));
+    }
+
+    @Test
+    public void testGetters_valuesPut_hitsCounted() {
+        // Arrange
+        final LedStateCache subject = new LedStateCache(2, 1, TimeUnit.HOURS);
+        subject.putColor(1, Color.of(1, 2, 3));
+        subject.putStyle(1, Style.of("Rainbow"));
+        subject.putBrightnessLevel(1, 4);
+        subject.putSpeedLevel(1, 0);
+
+        // Act + Assert
+        assertThat(subject.getColor(1), equalTo(Color.of(1, 2, 3)));
+        assertThat(subject.getStyle(1), is(Style.of("Rainbow")));
+        assertThat(subject.getBrightnessLevel(1), is(4));
+        assertThat(subject.getSpeedLevel(1), is(0));
+        assertThat(subject.getHitCount(), is(4L));
+        assertThat(subject.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void testGetBrightnessLevel_zeroStalenessAndTimeElapsed_miss() throws Exception {
+        // Arrange
+        final LedStateCache subject = new LedStateCache(1, 0, TimeUnit.NANOSECONDS);
+        subject.putBrightnessLevel(0, 3);
+        Thread.sleep(1);
+
+        // Act
+        final int result = subject.getBrightnessLevel(0);
+
+        // Assert
+        assertThat(result, is(LedStateCache.MISS));
+        assertThat(subject.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void testInvalidate_singleLed_onlyThisLedInvalidated() {
+        // Arrange
+        final LedStateCache subject = new LedStateCache(2, 1, TimeUnit.HOURS);
+        subject.putSpeedLevel(0, 1);
+        subject.putSpeedLevel(1, 2);
+
+        // Act
+        subject.invalidate(0);
+
+        // Assert
+        assertThat(subject.getSpeedLevel(0), is(LedStateCache.MISS));
+        assertThat(subject.getSpeedLevel(1), is(2));
+    }
+
+    @Test
+    public void testInvalidate_allLeds_allEntriesInvalidated() {
+        // Arrange
+        final LedStateCache subject = new LedStateCache(2, 1, TimeUnit.HOURS);
+        subject.putStyle(0, Style.of("Steady"));
+        subject.putColor(1, Color.of(255, 255, 255));
+
+        // Act
+        subject.invalidate();
+
+        // Assert
+        assertThat(subject.getStyle(0), is(nullValue()));
+        assertThat(subject.getColor(1), is(nullValue()));
+    }
+
+    @Test
+    public void testGetColor_indexOutOfRange_illegalArgumentException() {
+        // Arrange
+        final LedStateCache subject = new LedStateCache(2, 1, TimeUnit.HOURS);
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("LED index must be in range [0, 2]");
+
+        // Act + Assert - via rule
+        subject.getColor(2);
+    }
+}
@@ -1,7 +1,11 @@
 package de.matthiasfisch.mysticlight4j;
 
 import de.matthiasfisch.mysticlight4j.api.DeviceInfo;
+import de.matthiasfisch.mysticlight4j.api.LedInfo;
 import de.matthiasfisch.mysticlight4j.api.MysticLightAPI;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import de.matthiasfisch.mysticlight4j.api.MysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -13,14 +17,24 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import java.lang.reflect.Field;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.*;
 
 @RunWith(PowerMockRunner.class)
@@ -99,4 +113,160 @@ public class MysticLight4jTest {
         assertThat(result, is(not(nullValue())));
         assertThat(result.size(), is(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAllAvailableDevices_simulatedBackend_devicesOfBackendReturned() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 2)
+                .build();
+        final MysticLight4j subject = new MysticLight4j(backend);
+
+        // Act
+        final List<Device> result = subject.getAllAvailableDevices();
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getIdentifier(), equalTo("MSI_MB"));
+        assertThat(result.get(0).getName(), equalTo("Mainboard"));
+        assertThat(result.get(0).getLEDs().size(), is(2));
+        assertThat(result.get(0).getLED(1).getName(), equalTo("Mainboard LED 1"));
+        verifyStatic(MysticLightAPI.class, never());
+        MysticLightAPI.initialize();
+    }
+
+    @Test
+    public void testDiscoverDevices_lazy_onlyDevicesEnumerated() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 4)
+                .addDevice("MSI_VGA", "Graphics card", 2)
+                .build();
+        final MysticLight4j subject = new MysticLight4j(backend);
+        final long callsBefore = backend.getCallCount();
+
+        // Act
+        final DiscoveryResult result = subject.discoverDevices(DiscoveryOptions.builder().lazy(true).build());
+
+        // Assert
+        assertThat(result.getDevices().size(), is(2));
+        assertThat(backend.getCallCount() - callsBefore, is(1L));
+        assertFalse(result.getDevices().get(0).isLedMetadataLoaded());
+        assertThat(result.getDevices().get(0).getLED(3).getName(), equalTo("Mainboard LED 3"));
+        assertTrue(result.getDevices().get(0).getLED(3).isProbed());
+        assertFalse(result.getDevices().get(0).getLED(2).isProbed());
+        assertTrue(result.getDeviceDurationsNanos().isEmpty());
+        assertTrue(result.isComplete());
+    }
+
+    @Test
+    public void testDiscoverDevices_lazyLookupByName_allLedsProbed() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 3)
+                .build();
+        final MysticLight4j subject = new MysticLight4j(backend);
+        final Device device = subject.discoverDevices(DiscoveryOptions.builder().lazy(true).build()).getDevices().get(0);
+
+        // Act
+        final Optional<LED> result = device.getLED("Mainboard LED 2");
+
+        // Assert
+        assertThat(result.get().getIndex(), is(2));
+        assertTrue(device.isLedMetadataLoaded());
+    }
+
+    @Test
+    public void testDiscoverDevices_parallel_allLedsProbed() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 4)
+                .addDevice("MSI_VGA", "Graphics card", 2)
+                .addDevice("MSI_KB", "Keyboard", 3)
+                .latency(1, TimeUnit.MILLISECONDS)
+                .build();
+        final MysticLight4j subject = new MysticLight4j(backend);
+
+        // Act
+        final DiscoveryResult result = subject.discoverDevices(DiscoveryOptions.builder()
+                .parallelism(3)
+                .deviceTimeout(10, TimeUnit.SECONDS)
+                .build());
+
+        // Assert
+        assertThat(result.getDevices().size(), is(3));
+        for (final Device device : result.getDevices()) {
+            assertTrue(device.isLedMetadataLoaded());
+            assertTrue(result.getDeviceDurationsNanos().containsKey(device.getIdentifier()));
+        }
+        assertThat(result.getDevices().get(2).getLED(2).getName(), equalTo("Keyboard LED 2"));
+        assertTrue(result.isComplete());
+        assertTrue(result.getDurationNanos() > 0);
+    }
+
+    @Test
+    public void testDiscoverDevices_deviceExceedsTimeout_deviceReportedAsTimedOut() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 20)
+                .latency(20, TimeUnit.MILLISECONDS)
+                .build();
+        final MysticLight4j subject = new MysticLight4j(backend);
+
+        // Act
+        final DiscoveryResult result = subject.discoverDevices(DiscoveryOptions.builder()
+                .deviceTimeout(50, TimeUnit.MILLISECONDS)
+                .build());
+
+        // Assert
+        assertThat(result.getDevices().size(), is(1));
+        assertTrue(result.getTimedOutDevices().contains("MSI_MB"));
+        assertFalse(result.getDeviceDurationsNanos().containsKey("MSI_MB"));
+        assertFalse(result.isComplete());
+        assertThat(result.getDevices().get(0).getLED(19).getName(), equalTo("Mainboard LED 19"));
+    }
+
+    @Test
+    public void testDiscoverDevices_workerStuckOnTimedOutDevice_remainingDevicesTimedOutWithoutExtraWorker() throws Exception {
+        // Arrange
+        final CountDownLatch release = new CountDownLatch(1);
+        final MysticLightBackend backend = mock(MysticLightBackend.class);
+        when(backend.getDeviceInfo()).thenReturn(new DeviceInfo[] {new DeviceInfo("MSI_MB", 1), new DeviceInfo("MSI_VGA", 1)});
+        when(backend.getLedInfo("MSI_MB", 0)).thenAnswer(invocation -> {
+            release.await();
+            return new LedInfo("MSI_MB", 0, "Mainboard LED 0", new String[] {"Steady"});
+        });
+        final MysticLight4j subject = new MysticLight4j(backend);
+
+        // Act
+        final DiscoveryResult result;
+        try {
+            result = subject.discoverDevices(DiscoveryOptions.builder()
+                    .deviceTimeout(50, TimeUnit.MILLISECONDS)
+                    .build());
+        } finally {
+            release.countDown();
+        }
+
+        // Assert
+        assertThat(result.getTimedOutDevices(), equalTo(new LinkedHashSet<>(Arrays.asList("MSI_MB", "MSI_VGA"))));
+        verify(backend, never()).getLedInfo(eq("MSI_VGA"), anyInt());
+    }
+
+    @Test
+    public void testDiscoverDevices_probingFails_deviceReportedAsFailed() {
+        // Arrange
+        final MysticLightBackend backend = mock(MysticLightBackend.class);
+        when(backend.getDeviceInfo()).thenReturn(new DeviceInfo[] {new DeviceInfo("MSI_MB", 2)});
+        when(backend.getLedInfo("MSI_MB", 0)).thenThrow(new MysticLightAPIException("Request is timeout", MysticLightAPIException.MLAPI_TIMEOUT));
+        final MysticLight4j subject = new MysticLight4j(backend);
+
+        // Act
+        final DiscoveryResult result = subject.discoverDevices(DiscoveryOptions.defaults());
+
+        // Assert
+        assertThat(result.getDevices().size(), is(1));
+        assertThat(((MysticLightAPIException) result.getFailedDevices().get("MSI_MB")).getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        assertFalse(result.isComplete());
+    }
+}
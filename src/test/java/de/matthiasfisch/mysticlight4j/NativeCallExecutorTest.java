@@ -0,0 +1,225 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class NativeCallExecutorTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private NativeCallExecutor subject;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (subject != null) {
+            subject.close();
+        }
+    }
+
+    @Test
+    public void testSubmit_call_executedOnExecutorThread() throws Exception {
+        // Arrange
+        subject = NativeCallExecutor.builder().build();
+
+        // Act
+        final CompletableFuture<Boolean> result = subject.submit(subject::isExecutorThread);
+
+        // Assert
+        assertTrue(result.get(10, TimeUnit.SECONDS));
+        assertFalse(subject.isExecutorThread());
+    }
+
+    @Test
+    public void testSubmit_queueFullAndAbortPolicy_futureRejected() throws Exception {
+        // Arrange
+        subject = NativeCallExecutor.builder().queueCapacity(1).rejectionPolicy(RejectionPolicy.ABORT).build();
+        blockExecutor();
+        final CompletableFuture<String> queued = subject.submit(() -> "queued");
+
+        // Act
+        final CompletableFuture<String> result = subject.submit(() -> "rejected");
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        release.countDown();
+        assertThat(queued.get(10, TimeUnit.SECONDS), equalTo("queued"));
+        assertThat(subject.getStatistics().getRejectedCalls(), is(1L));
+        assertThat(subject.getStatistics().getMaxQueueDepth(), is(1));
+    }
+
+    @Test
+    public void testSubmit_queueFullAndDiscardOldestPolicy_oldestCallDiscarded() throws Exception {
+        // Arrange
+        subject = NativeCallExecutor.builder().queueCapacity(1).rejectionPolicy(RejectionPolicy.DISCARD_OLDEST).build();
+        blockExecutor();
+        final CompletableFuture<String> oldest = subject.submit(() -> "oldest");
+
+        // Act
+        final CompletableFuture<String> result = subject.submit(() -> "newest");
+
+        // Assert
+        release.countDown();
+        assertThat(result.get(10, TimeUnit.SECONDS), equalTo("newest"));
+        assertTrue(oldest.isCompletedExceptionally());
+        assertThat(subject.getStatistics().getDiscardedCalls(), is(1L));
+    }
+
+    @Test
+    public void testSubmit_queueFullAndCallerRunsPolicy_executedOnCaller() throws Exception {
+        // Arrange
+        subject = NativeCallExecutor.builder().queueCapacity(1).rejectionPolicy(RejectionPolicy.CALLER_RUNS).build();
+        blockExecutor();
+        subject.submit(() -> "queued");
+
+        // Act
+        final CompletableFuture<Boolean> result = subject.submit(subject::isExecutorThread);
+
+        // Assert
+        assertTrue(result.isDone());
+        assertFalse(result.get());
+        assertThat(subject.getStatistics().getCallerRunsCalls(), is(1L));
+    }
+
+    @Test
+    public void testGetStatistics_callsWaited_waitTimeRecorded() throws Exception {
+        // Arrange
+        subject = NativeCallExecutor.builder().build();
+        blockExecutor();
+        final CompletableFuture<String> queued = subject.submit(() -> "queued");
+        Thread.sleep(20);
+        release.countDown();
+        queued.get(10, TimeUnit.SECONDS);
+
+        // Act
+        final NativeCallStatistics result = subject.getStatistics();
+
+        // Assert
+        assertThat(result.getSubmittedCalls(), is(2L));
+        assertThat(result.getCompletedCalls(), is(2L));
+        assertThat(result.getQueueDepth(), is(0));
+        assertTrue(result.getMaxWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(result.getAverageWaitNanos() > 0);
+    }
+
+    @Test
+    public void testClose_callsQueued_queuedCallsExecutedAndNewCallsRejected() throws Exception {
+        // Arrange
+        subject = NativeCallExecutor.builder().build();
+        blockExecutor();
+        final CompletableFuture<String> queued = subject.submit(() -> "queued");
+        release.countDown();
+
+        // Act
+        subject.close();
+
+        // Assert
+        assertThat(queued.get(), equalTo("queued"));
+        thrown.expect(ExecutionException.class);
+        thrown.expectCause(instanceOf(RejectedExecutionException.class));
+        subject.submit(() -> "rejected").get();
+    }
+
+    @Test
+    public void testClose_callParked_callNotInterrupted() throws Exception {
+        // Arrange
+        final long parkNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        subject = NativeCallExecutor.builder().build();
+        final CompletableFuture<Long> parked = subject.submit(() -> {
+            started.countDown();
+            final long start = System.nanoTime();
+            LockSupport.parkNanos(parkNanos);
+            while (!Thread.currentThread().isInterrupted() && System.nanoTime() - start < parkNanos) {
+                // parkNanos may return spuriously
+                LockSupport.parkNanos(parkNanos - (System.nanoTime() - start));
+            }
+            return Thread.currentThread().isInterrupted() ? -1L : System.nanoTime() - start;
+        });
+        started.await();
+
+        // Act
+        subject.close();
+
+        // Assert
+        assertTrue(parked.get(10, TimeUnit.SECONDS) >= parkNanos);
+    }
+
+    @Test
+    public void testAsyncLED_setAndGetColor_futuresCompletedWithValues() throws Exception {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 1)
+                .build();
+        final LED led = new MysticLight4j(backend).getAllAvailableDevices().get(0).getLED(0);
+        subject = NativeCallExecutor.builder().build();
+        final AsyncLED asyncLed = led.async(subject);
+
+        // Act
+        asyncLed.setColor(Color.of(1, 2, 3));
+        asyncLed.setBrightnessLevel(1);
+        final CompletableFuture<Color> color = asyncLed.getColor();
+        final CompletableFuture<Integer> brightness = asyncLed.getBrightnessLevel();
+
+        // Assert
+        assertThat(color.get(10, TimeUnit.SECONDS), equalTo(Color.of(1, 2, 3)));
+        assertThat(brightness.get(10, TimeUnit.SECONDS), is(1));
+    }
+
+    @Test
+    public void testAsyncLED_invalidLevel_futureCompletedExceptionally() throws Exception {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 1)
+                .build();
+        final LED led = new MysticLight4j(backend).getAllAvailableDevices().get(0).getLED(0);
+        subject = NativeCallExecutor.builder().build();
+        thrown.expect(ExecutionException.class);
+        thrown.expectCause(instanceOf(IllegalArgumentException.class));
+
+        // Act + Assert - via rule
+        led.async(subject).setSpeedLevel(-1).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testQueueCapacity_zero_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The queue capacity must be positive.");
+
+        // Act + Assert - via rule
+        NativeCallExecutor.builder().queueCapacity(0);
+    }
+
+    private void blockExecutor() throws InterruptedException {
+        subject.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+    }
+}
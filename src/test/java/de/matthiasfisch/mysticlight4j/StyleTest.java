@@ -0,0 +1,55 @@
+package de.matthiasfisch.mysticlight4j;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class StyleTest {
+
+    @Test
+    public void testOf_sameNameTwice_sameInstance() {
+        // Arrange
+        final String name = "Breathing";
+
+        // Act
+        final Style first = Style.of(name);
+        final Style second = Style.of(new String(name));
+
+        // Assert
+        assertSame(first, second);
+        assertThat(first.getName(), equalTo(name));
+        assertSame(first, Style.byOrdinal(first.getOrdinal()));
+    }
+
+    @Test
+    public void testOf_differentNames_differentOrdinals() {
+        // Arrange
+
+        // Act
+        final Style first = Style.of("Flashing");
+        final Style second = Style.of("Double Flashing");
+
+        // Assert
+        assertThat(first.getOrdinal(), is(not(second.getOrdinal())));
+    }
+
+    @Test
+    public void testFind_unknownName_nullAndNotInterned() {
+        // Arrange
+        final String name = UUID.randomUUID().toString();
+
+        // Act
+        final Style result = Style.find(name);
+
+        // Assert
+        assertThat(result, is(nullValue()));
+        assertThat(Style.find(name), is(nullValue()));
+    }
+}
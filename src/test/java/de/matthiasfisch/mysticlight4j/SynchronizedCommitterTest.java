@@ -0,0 +1,309 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.BackendFunction;
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.ForwardingMysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.InstrumentedMysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import de.matthiasfisch.mysticlight4j.api.MysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class SynchronizedCommitterTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private InstrumentedMysticLightBackend instrumented;
+    private List<Device> devices;
+    private SynchronizedCommitter subject;
+
+    @Before
+    public void setUp() {
+        final InstrumentedSimulation simulation = new InstrumentedSimulation(SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 2)
+                .addDevice("MSI_VGA", "Graphics card", 1)
+                .addDevice("MSI_DRAM", "Memory", 2)
+                .build());
+        backend = simulation.backend;
+        instrumented = simulation.instrumented;
+        devices = simulation.devices;
+    }
+
+    @After
+    public void tearDown() {
+        if (subject != null) {
+            subject.close();
+        }
+    }
+
+    @Test
+    public void testCommit_threeDevices_allColorsWrittenWithSyncFlag() {
+        // Arrange
+        subject = SynchronizedCommitter.builder(devices).build();
+        devices.forEach(device -> device.getLEDs().forEach(led -> subject.setColor(led, Color.RED)));
+
+        // Act
+        final SynchronizedCommitResult result = subject.commit();
+
+        // Assert
+        assertThat(result.getDeviceCommits().size(), is(3));
+        assertThat(result.getWrittenLeds(), is(5));
+        assertTrue(result.isSuccessful());
+        assertTrue(result.isReleasedTogether());
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR_SYNC).getCallCount(), is(5L));
+        assertThat(result.getDeviceCommits().get(0).getSyncWrittenLeds(), is(2));
+        assertThat(backend.getLedColor("MSI_DRAM", 1), equalTo(Color.RED));
+        assertTrue(result.getApplySkewNanos() >= 0 && result.getApplySkewNanos() <= result.getDurationNanos());
+        assertTrue(result.getReleaseSkewNanos() >= 0 && result.getReleaseSkewNanos() <= result.getDurationNanos());
+        assertThat(subject.getPendingCount(), is(0));
+    }
+
+    @Test
+    public void testCommit_severalLedsOfDevice_onlyLastWriteSetsSyncFlag() {
+        // Arrange
+        final List<String> writes = Collections.synchronizedList(new ArrayList<>());
+        final List<Device> recorded = InstrumentedSimulation.discover(new SyncFlagRecordingBackend(backend, writes));
+        subject = SynchronizedCommitter.builder(recorded.subList(0, 1)).build();
+        recorded.get(0).getLEDs().forEach(led -> subject.setColor(led, Color.RED));
+
+        // Act
+        subject.commit();
+
+        // Assert
+        assertThat(writes, equalTo(Arrays.asList("MSI_MB:0:false", "MSI_MB:1:true")));
+    }
+
+    @Test
+    public void testCommit_lastWriteSuppressed_syncFlagSetOnPreviousWrite() {
+        // Arrange
+        final List<String> writes = Collections.synchronizedList(new ArrayList<>());
+        final List<Device> recorded = InstrumentedSimulation.discover(new SyncFlagRecordingBackend(backend, writes));
+        final Device device = recorded.get(0);
+        device.enableWriteSuppression();
+        device.getLED(1).setColor(Color.RED);
+        subject = SynchronizedCommitter.builder(recorded.subList(0, 1)).build();
+        device.getLEDs().forEach(led -> subject.setColor(led, Color.RED));
+
+        // Act
+        final SynchronizedCommitResult result = subject.commit();
+
+        // Assert
+        assertThat(writes, equalTo(Collections.singletonList("MSI_MB:0:true")));
+        assertTrue(result.isSuccessful());
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.RED));
+    }
+
+    @Test
+    public void testCommit_threeDevices_eachDeviceWrittenOnItsOwnWorker() {
+        // Arrange
+        final Map<String, Thread> writers = new ConcurrentHashMap<>();
+        final List<Device> tracked = InstrumentedSimulation.discover(new ThreadTrackingBackend(backend, writers));
+        subject = SynchronizedCommitter.builder(tracked).useSyncFlag(false).build();
+        tracked.forEach(device -> subject.setColor(device.getLED(0), Color.BLUE));
+
+        // Act
+        subject.commit();
+
+        // Assert
+        assertThat(writers.size(), is(3));
+        assertThat(writers.values().stream().distinct().count(), is(3L));
+        assertThat(writers.values().contains(Thread.currentThread()), is(false));
+    }
+
+    @Test
+    public void testCommit_syncFlagDisabled_plainColorWrites() {
+        // Arrange
+        subject = SynchronizedCommitter.builder(devices).useSyncFlag(false).build();
+        subject.setColor(devices.get(0).getLED(1), Color.GREEN);
+
+        // Act
+        final SynchronizedCommitResult result = subject.commit();
+
+        // Assert
+        assertThat(result.getDeviceCommits().size(), is(1));
+        assertThat(result.getDeviceCommits().get(0).getSyncWrittenLeds(), is(0));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR_SYNC).getCallCount(), is(0L));
+        assertThat(instrumented.getFunctionMetrics(BackendFunction.SET_LED_COLOR).getCallCount(), is(1L));
+        assertThat(backend.getLedColor("MSI_MB", 1), equalTo(Color.GREEN));
+    }
+
+    @Test
+    public void testCommit_syncNotImplemented_fallsBackToPlainWritesPermanently() {
+        // Arrange
+        final InstrumentedMysticLightBackend noSync = new InstrumentedMysticLightBackend(new NoSyncBackend(backend));
+        final List<Device> unsupported = InstrumentedSimulation.discover(noSync);
+        subject = SynchronizedCommitter.builder(unsupported).build();
+        unsupported.get(0).getLEDs().forEach(led -> subject.setColor(led, Color.RED));
+
+        // Act
+        final SynchronizedCommitResult first = subject.commit();
+        unsupported.get(0).getLEDs().forEach(led -> subject.setColor(led, Color.GREEN));
+        final SynchronizedCommitResult second = subject.commit();
+
+        // Assert
+        assertTrue(first.isSuccessful());
+        assertTrue(second.isSuccessful());
+        assertThat(noSync.getFunctionMetrics(BackendFunction.SET_LED_COLOR_SYNC).getCallCount(), is(1L));
+        assertThat(noSync.getFunctionMetrics(BackendFunction.SET_LED_COLOR).getCallCount(), is(4L));
+        assertThat(backend.getLedColor("MSI_MB", 1), equalTo(Color.GREEN));
+    }
+
+    @Test
+    public void testCommit_writeFails_failureReportedAndOtherWritesIssued() {
+        // Arrange
+        subject = SynchronizedCommitter.builder(devices).build();
+        devices.get(0).getLEDs().forEach(led -> subject.setColor(led, Color.RED));
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        final SynchronizedCommitResult result = subject.commit();
+
+        // Assert
+        assertThat(result.getFailedWrites(), is(1));
+        assertThat(result.getWrittenLeds(), is(1));
+        assertTrue(result.getDeviceCommits().get(0).getLastError().isPresent());
+    }
+
+    @Test
+    public void testCommit_syncFlagWriteFailsWithWriteSuppression_stagedColorsWrittenAgainOnNextCommit() {
+        // Arrange
+        final FailingSyncFlagBackend failing = new FailingSyncFlagBackend(backend);
+        final InstrumentedMysticLightBackend counted = new InstrumentedMysticLightBackend(failing);
+        final Device device = InstrumentedSimulation.discover(counted).get(0);
+        device.enableWriteSuppression();
+        subject = SynchronizedCommitter.builder(Collections.singletonList(device)).build();
+        device.getLEDs().forEach(led -> subject.setColor(led, Color.RED));
+        final SynchronizedCommitResult failed = subject.commit();
+        failing.failSyncFlag = false;
+        device.getLEDs().forEach(led -> subject.setColor(led, Color.RED));
+
+        // Act
+        final SynchronizedCommitResult result = subject.commit();
+
+        // Assert
+        assertThat(failed.getFailedWrites(), is(2));
+        assertThat(failed.getWrittenLeds(), is(0));
+        assertTrue(result.isSuccessful());
+        assertThat(result.getWrittenLeds(), is(2));
+        assertThat(counted.getFunctionMetrics(BackendFunction.SET_LED_COLOR_SYNC).getCallCount(), is(4L));
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.RED));
+    }
+
+    @Test
+    public void testCommit_nothingSet_emptyResult() {
+        // Arrange
+        subject = SynchronizedCommitter.builder(devices).build();
+
+        // Act
+        final SynchronizedCommitResult result = subject.commit();
+
+        // Assert
+        assertThat(result.getDeviceCommits().isEmpty(), is(true));
+        assertThat(result.getApplySkewNanos(), is(0L));
+    }
+
+    @Test
+    public void testCommit_closed_illegalStateExceptionThrown() {
+        // Arrange
+        subject = SynchronizedCommitter.builder(devices).build();
+        subject.close();
+        thrown.expect(IllegalStateException.class);
+
+        // Act + Assert - via rule
+        subject.commit();
+    }
+
+    @Test
+    public void testSetColor_ledOfOtherDevice_illegalArgumentExceptionThrown() {
+        // Arrange
+        subject = SynchronizedCommitter.builder(devices.subList(0, 1)).build();
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        subject.setColor(devices.get(1).getLED(0), Color.RED);
+    }
+
+    @Test
+    public void testBuilder_deviceTwice_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        SynchronizedCommitter.builder(Arrays.asList(devices.get(0), devices.get(0)));
+    }
+
+    private static final class NoSyncBackend extends ForwardingMysticLightBackend {
+        private NoSyncBackend(final MysticLightBackend delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void setLedColorSync(final String device, final int ledIndex, final String ledName, final Color color, final boolean sync) {
+            throw new MysticLightAPIException("MSI application not found or installed version not supported",
+                    MysticLightAPIException.MLAPI_NO_IMPLEMENTED);
+        }
+    }
+
+    private static final class SyncFlagRecordingBackend extends ForwardingMysticLightBackend {
+        private final List<String> writes;
+
+        private SyncFlagRecordingBackend(final MysticLightBackend delegate, final List<String> writes) {
+            super(delegate);
+            this.writes = writes;
+        }
+
+        @Override
+        public void setLedColorSync(final String device, final int ledIndex, final String ledName, final Color color, final boolean sync) {
+            writes.add(device + ":" + ledIndex + ":" + sync);
+            super.setLedColorSync(device, ledIndex, ledName, color, sync);
+        }
+    }
+
+    private static final class FailingSyncFlagBackend extends ForwardingMysticLightBackend {
+        private volatile boolean failSyncFlag = true;
+
+        private FailingSyncFlagBackend(final MysticLightBackend delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void setLedColorSync(final String device, final int ledIndex, final String ledName, final Color color, final boolean sync) {
+            if (sync && failSyncFlag) {
+                throw new MysticLightAPIException("Timeout", MysticLightAPIException.MLAPI_TIMEOUT);
+            }
+            super.setLedColorSync(device, ledIndex, ledName, color, sync);
+        }
+    }
+
+    private static final class ThreadTrackingBackend extends ForwardingMysticLightBackend {
+        private final Map<String, Thread> writers;
+
+        private ThreadTrackingBackend(final MysticLightBackend delegate, final Map<String, Thread> writers) {
+            super(delegate);
+            this.writers = writers;
+        }
+
+        @Override
+        public void setLedColor(final String device, final int ledIndex, final Color color) {
+            writers.put(device, Thread.currentThread());
+            super.setLedColor(device, ledIndex, color);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.DeviceInfo;
+import de.matthiasfisch.mysticlight4j.api.LedInfo;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import de.matthiasfisch.mysticlight4j.api.MysticLightBackend;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TopologyRegistryTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private TopologyRegistry subject;
+
+    @Before
+    public void setUp() {
+        backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 2)
+                .addDevice("MSI_VGA", "Graphics card", 1)
+                .build();
+        backend.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        if (subject != null) {
+            subject.close();
+        }
+    }
+
+    @Test
+    public void testBuild_devicesAvailable_initialSnapshotCreated() {
+        // Act
+        subject = TopologyRegistry.builder(backend).build();
+
+        // Assert
+        assertThat(subject.getSnapshot().getVersion(), is(0L));
+        assertThat(subject.getDevices().size(), is(2));
+        assertThat(subject.getDevice("MSI_VGA").get().getNumberOfLEDs(), is(1));
+        assertFalse(subject.isRefreshingPeriodically());
+    }
+
+    @Test
+    public void testGetDevices_repeatedCalls_noBackendCalls() {
+        // Arrange
+        subject = TopologyRegistry.builder(backend).build();
+        final long callsBefore = backend.getCallCount();
+
+        // Act
+        subject.getDevices();
+        subject.getDevice("MSI_MB");
+
+        // Assert
+        assertThat(backend.getCallCount(), is(callsBefore));
+    }
+
+    @Test
+    public void testRefresh_topologyUnchanged_snapshotAndDevicesRetained() {
+        // Arrange
+        subject = TopologyRegistry.builder(backend).build();
+        final TopologySnapshot snapshot = subject.getSnapshot();
+
+        // Act
+        final List<TopologyEvent> result = subject.refresh();
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertThat(subject.getSnapshot(), is(sameInstance(snapshot)));
+    }
+
+    @Test
+    public void testRefresh_deviceUnplugged_removedEventPublished() {
+        // Arrange
+        subject = TopologyRegistry.builder(backend).build();
+        final Device graphicsCard = subject.getDevice("MSI_VGA").get();
+        final Device mainboard = subject.getDevice("MSI_MB").get();
+        final BlockingQueue<TopologyEvent> events = new LinkedBlockingQueue<>();
+        subject.addListener(events::add);
+        backend.disconnect("MSI_VGA");
+
+        // Act
+        final List<TopologyEvent> result = subject.refresh();
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getType(), is(TopologyEvent.Type.REMOVED));
+        assertThat(result.get(0).getPreviousDevice().get(), is(sameInstance(graphicsCard)));
+        assertFalse(result.get(0).getCurrentDevice().isPresent());
+        assertThat(events.poll(), equalTo(result.get(0)));
+        assertThat(subject.getSnapshot().getVersion(), is(1L));
+        assertFalse(subject.getDevice("MSI_VGA").isPresent());
+        assertThat(subject.getDevice("MSI_MB").get(), is(sameInstance(mainboard)));
+    }
+
+    @Test
+    public void testRefresh_devicePluggedIn_addedEventPublished() {
+        // Arrange
+        backend.disconnect("MSI_VGA");
+        subject = TopologyRegistry.builder(backend).build();
+        backend.connect("MSI_VGA");
+
+        // Act
+        final List<TopologyEvent> result = subject.refresh();
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getType(), is(TopologyEvent.Type.ADDED));
+        assertThat(result.get(0).getDeviceIdentifier(), equalTo("MSI_VGA"));
+        assertThat(subject.getDevice("MSI_VGA").get(), is(sameInstance(result.get(0).getCurrentDevice().get())));
+    }
+
+    @Test
+    public void testRefresh_ledCountChanged_changedEventPublished() {
+        // Arrange
+        final MysticLightBackend mockedBackend = mock(MysticLightBackend.class);
+        when(mockedBackend.getDeviceInfo())
+                .thenReturn(new DeviceInfo[] {new DeviceInfo("MSI_MB", 1)})
+                .thenReturn(new DeviceInfo[] {new DeviceInfo("MSI_MB", 2)});
+        when(mockedBackend.getLedInfo(anyString(), anyInt()))
+                .thenAnswer(invocation -> new LedInfo("MSI_MB", invocation.getArgument(1), "LED", new String[] {"Steady"}));
+        subject = TopologyRegistry.builder(mockedBackend).build();
+
+        // Act
+        final List<TopologyEvent> result = subject.refresh();
+
+        // Assert
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getType(), is(TopologyEvent.Type.CHANGED));
+        assertThat(result.get(0).getPreviousDevice().get().getNumberOfLEDs(), is(1));
+        assertThat(result.get(0).getCurrentDevice().get().getNumberOfLEDs(), is(2));
+        assertThat(subject.getDevice("MSI_MB").get().getNumberOfLEDs(), is(2));
+    }
+
+    @Test
+    public void testRefresh_enumerationFails_refreshErrorReportedUntilNextSuccess() {
+        // Arrange
+        subject = TopologyRegistry.builder(backend).build();
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+        MysticLightAPIException failure = null;
+
+        // Act
+        try {
+            subject.refresh();
+        } catch (final MysticLightAPIException e) {
+            failure = e;
+        }
+        final Optional<RuntimeException> afterFailure = subject.getLastRefreshError();
+        subject.refresh();
+
+        // Assert
+        assertThat(afterFailure.get(), sameInstance(failure));
+        assertFalse(subject.getLastRefreshError().isPresent());
+    }
+
+    @Test
+    public void testRefresh_concurrentRefreshes_eventsDeliveredInVersionOrder() throws Exception {
+        // Arrange
+        subject = TopologyRegistry.builder(backend).build();
+        final List<Long> versions = new CopyOnWriteArrayList<>();
+        subject.addListener(event -> {
+            versions.add(event.getSnapshotVersion());
+            Thread.yield();
+        });
+        final ExecutorService refreshers = Executors.newFixedThreadPool(4);
+
+        // Act
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final boolean unplug = (i & 1) == 0;
+                results.add(refreshers.submit(() -> {
+                    if (unplug) {
+                        backend.disconnect("MSI_VGA");
+                    } else {
+                        backend.connect("MSI_VGA");
+                    }
+                    subject.refresh();
+                }));
+            }
+            for (final Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            refreshers.shutdown();
+        }
+
+        // Assert
+        for (int i = 1; i < versions.size(); i++) {
+            assertTrue(versions.get(i - 1) <= versions.get(i));
+        }
+    }
+
+    @Test
+    public void testRefreshInterval_deviceUnplugged_eventPublishedInBackground() throws Exception {
+        // Arrange
+        subject = TopologyRegistry.builder(backend)
+                .refreshInterval(10, TimeUnit.MILLISECONDS)
+                .build();
+        final BlockingQueue<TopologyEvent> events = new LinkedBlockingQueue<>();
+        subject.addListener(events::add);
+
+        // Act
+        backend.disconnect("MSI_MB");
+
+        // Assert
+        final TopologyEvent event = events.poll(10, TimeUnit.SECONDS);
+        assertThat(event.getType(), is(TopologyEvent.Type.REMOVED));
+        assertThat(event.getDeviceIdentifier(), equalTo("MSI_MB"));
+        assertTrue(subject.isRefreshingPeriodically());
+    }
+
+    @Test
+    public void testRefreshInterval_listenerFails_listenerErrorReportedSeparately() throws Exception {
+        // Arrange
+        subject = TopologyRegistry.builder(backend)
+                .refreshInterval(10, TimeUnit.MILLISECONDS)
+                .build();
+        final IllegalStateException failure = new IllegalStateException("The listener failed.");
+        final CountDownLatch notified = new CountDownLatch(1);
+        subject.addListener(event -> {
+            notified.countDown();
+            throw failure;
+        });
+
+        // Act
+        backend.disconnect("MSI_MB");
+
+        // Assert
+        assertTrue(notified.await(10, TimeUnit.SECONDS));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!subject.getLastListenerError().isPresent() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(subject.getLastListenerError().get(), sameInstance(failure));
+        assertFalse(subject.getLastRefreshError().isPresent());
+        assertThat(subject.getSnapshot().getDevice("MSI_MB").isPresent(), is(false));
+    }
+
+    @Test
+    public void testRefreshInterval_zero_illegalArgumentException() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The refresh interval must be positive.");
+
+        // Act + Assert - via rule
+        TopologyRegistry.builder(backend).refreshInterval(0, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,180 @@
+package de.matthiasfisch.mysticlight4j;
+
+import de.matthiasfisch.mysticlight4j.api.Color;
+import de.matthiasfisch.mysticlight4j.api.MysticLightAPIException;
+import de.matthiasfisch.mysticlight4j.api.SimulatedMysticLightBackend;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class WriteSuppressorTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private Device device;
+
+    @Before
+    public void setUp() {
+        backend = SimulatedMysticLightBackend.builder()
+                .addDevice("MSI_MB", "Mainboard", 2)
+                .build();
+        device = new MysticLight4j(backend).getAllAvailableDevices().get(0);
+    }
+
+    @Test
+    public void testSuppressColor_sameColorRemembered_suppressed() {
+        // Arrange
+        final WriteSuppressor subject = new WriteSuppressor(2);
+        subject.rememberColor(1, Color.of(1, 2, 3));
+
+        // Act
+        final boolean result = subject.suppressColor(1, Color.of(1, 2, 3));
+
+        // Assert
+        assertTrue(result);
+        assertThat(subject.getSuppressedCount(), is(1L));
+        assertThat(subject.getIssuedCount(), is(0L));
+    }
+
+    @Test
+    public void testSuppressBrightnessLevel_nothingRemembered_issued() {
+        // Arrange
+        final WriteSuppressor subject = new WriteSuppressor(2);
+
+        // Act
+        final boolean result = subject.suppressBrightnessLevel(0, 0);
+
+        // Assert
+        assertFalse(result);
+        assertThat(subject.getIssuedCount(), is(1L));
+    }
+
+    @Test
+    public void testInvalidate_singleLed_onlyThisLedForgotten() {
+        // Arrange
+        final WriteSuppressor subject = new WriteSuppressor(2);
+        subject.rememberStyle(0, Style.of("Steady"));
+        subject.rememberStyle(1, Style.of("Steady"));
+
+        // Act
+        subject.invalidate(0);
+
+        // Assert
+        assertThat(subject.getStyle(0), is(nullValue()));
+        assertThat(subject.getStyle(1), is(Style.of("Steady")));
+    }
+
+    @Test
+    public void testSuppressSpeedLevel_indexOutOfRange_illegalArgumentException() {
+        // Arrange
+        final WriteSuppressor subject = new WriteSuppressor(2);
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("LED index must be in range [0, 2]");
+
+        // Act + Assert - via rule
+        subject.suppressSpeedLevel(2, 0);
+    }
+
+    @Test
+    public void testSetColor_suppressionEnabledAndColorUnchanged_noBackendCall() {
+        // Arrange
+        final WriteSuppressor subject = device.enableWriteSuppression();
+        final LED led = device.getLED(0);
+        led.setColor(10, 20, 30);
+        final long callsBefore = backend.getCallCount();
+
+        // Act
+        led.setColor(10, 20, 30);
+        led.setColor(10, 20, 30);
+
+        // Assert
+        assertThat(backend.getCallCount(), is(callsBefore));
+        assertThat(subject.getSuppressedCount(), is(2L));
+        assertThat(subject.getIssuedCount(), is(1L));
+    }
+
+    @Test
+    public void testSetBrightnessLevel_suppressionEnabledAndLevelChanged_written() {
+        // Arrange
+        device.enableWriteSuppression();
+        final LED led = device.getLED(1);
+        led.setBrightnessLevel(1);
+
+        // Act
+        led.setBrightnessLevel(2);
+
+        // Assert
+        assertThat(backend.getLedBright("MSI_MB", 1), is(2));
+        assertThat(device.getWriteSuppressor().get().getIssuedCount(), is(2L));
+    }
+
+    @Test
+    public void testSetStyle_writeFailed_nextWriteIssued() {
+        // Arrange
+        final WriteSuppressor subject = device.enableWriteSuppression();
+        final LED led = device.getLED(0);
+        led.setStyle("Rainbow");
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+        try {
+            led.setStyle("Steady");
+        } catch (final MysticLightAPIException e) {
+            // expected
+        }
+
+        // Act
+        led.setStyle("Rainbow");
+
+        // Assert
+        assertThat(subject.getSuppressedCount(), is(0L));
+        assertThat(subject.getIssuedCount(), is(3L));
+    }
+
+    @Test
+    public void testSetColor_suppressionDisabled_alwaysWritten() {
+        // Arrange
+        device.enableWriteSuppression();
+        device.disableWriteSuppression();
+        final LED led = device.getLED(0);
+        led.setColor(1, 1, 1);
+        final long callsBefore = backend.getCallCount();
+
+        // Act
+        led.setColor(1, 1, 1);
+
+        // Assert
+        assertThat(backend.getCallCount(), is(callsBefore + 1));
+        assertFalse(device.getWriteSuppressor().isPresent());
+    }
+
+    @Test
+    public void testForceResync_externallyChanged_rememberedValuesWrittenAgain() {
+        // Arrange
+        final WriteSuppressor subject = device.enableWriteSuppression();
+        final LED led = device.getLED(0);
+        led.setStyle("Breathing");
+        led.setSpeedLevel(2);
+        led.setColor(255, 0, 0);
+        backend.setLedColor("MSI_MB", 0, Color.of(0, 0, 255));
+        backend.setLedStyle("MSI_MB", 0, "Off");
+
+        // Act
+        device.forceResync();
+
+        // Assert
+        assertThat(backend.getLedColor("MSI_MB", 0), equalTo(Color.of(255, 0, 0)));
+        assertThat(backend.getLedStyle("MSI_MB", 0), equalTo("Breathing"));
+        assertThat(backend.getLedSpeed("MSI_MB", 0), is(2));
+        assertThat(subject.getIssuedCount(), is(6L));
+        assertTrue(subject.suppressColor(0, Color.of(255, 0, 0)));
+    }
+}
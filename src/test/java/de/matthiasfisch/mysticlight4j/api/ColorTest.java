@@ -6,8 +6,6 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
-import java.rmi.server.ExportException;
-
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
@@ -108,6 +106,62 @@ public class ColorTest {
         assertThat(subject.getBlue(), is(blue));
     }
 
+    @Test
+    public void testPack_channels_packedAsRgb() {
+        // Arrange
+
+        // Act
+        final int result = Color.pack(0x12, 0x34, 0x56);
+
+        // Assert
+        assertThat(result, is(0x123456));
+        assertThat(Color.red(result), is(0x12));
+        assertThat(Color.green(result), is(0x34));
+        assertThat(Color.blue(result), is(0x56));
+    }
+
+    @Test
+    public void testPack_greenIsAboveMax_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Green value must be in range [0, 255].");
+
+        // Act + Assert - via rule
+        Color.pack(1, 256, 1);
+    }
+
+    @Test
+    public void testOfRgb_outOfRange_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        Color.ofRgb(0x1000000);
+    }
+
+    @Test
+    public void testIsValidRgb_values_onlyPackedColorsValid() {
+        // Arrange + Act + Assert
+        assertTrue(Color.isValidRgb(0));
+        assertTrue(Color.isValidRgb(0xFFFFFF));
+        assertFalse(Color.isValidRgb(-1));
+        assertFalse(Color.isValidRgb(0x1000000));
+    }
+
+    @Test
+    public void testOf_sameColorTwice_canonicalInstance() {
+        // Arrange
+        final Color first = Color.of(10, 20, 30);
+
+        // Act
+        final Color result = Color.ofRgb(0x0A141E);
+
+        // Assert
+        assertSame(first, result);
+        assertThat(result.getRgb(), is(0x0A141E));
+        assertSame(Color.WHITE, Color.of(255, 255, 255));
+    }
+
     @Test
     public void testEqualsAndHashCode_withVerifier_verificationOk() {
         // Arrange + Act + Assert - via verifier
@@ -0,0 +1,198 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class FairShareSchedulerTest {
+    private static final String DEVICE_ID = "MSI_MB";
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private FairShareScheduler subject;
+    private final List<String> executionOrder = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        backend = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, "Mainboard", 2)
+                .build();
+        backend.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        if (subject != null) {
+            subject.close();
+        }
+    }
+
+    @Test
+    public void testSubmit_interactiveAndBulkCallsQueued_interactiveCallsDispatchedFirst() throws Exception {
+        // Arrange
+        subject = FairShareScheduler.builder(backend).build();
+        final CountDownLatch release = blockDispatcher();
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+        futures.add(record(CallPriority.BULK, "A", "bulk-1"));
+        futures.add(record(CallPriority.BULK, "A", "bulk-2"));
+        futures.add(record(CallPriority.INTERACTIVE, "B", "interactive"));
+
+        // Act
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(executionOrder, equalTo(Arrays.asList("blocker", "interactive", "bulk-1", "bulk-2")));
+    }
+
+    @Test
+    public void testSubmit_oneDeviceFloodsLane_devicesInterleaved() throws Exception {
+        // Arrange
+        subject = FairShareScheduler.builder(backend).build();
+        final CountDownLatch release = blockDispatcher();
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            futures.add(record(CallPriority.BULK, "A", "A" + i));
+        }
+        futures.add(record(CallPriority.BULK, "B", "B1"));
+        futures.add(record(CallPriority.BULK, "B", "B2"));
+
+        // Act
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(executionOrder, equalTo(Arrays.asList("blocker", "A1", "B1", "A2", "B2", "A3", "A4")));
+    }
+
+    @Test
+    public void testSubmit_weightedDevice_largerShareDispatched() throws Exception {
+        // Arrange
+        subject = FairShareScheduler.builder(backend)
+                .weight("B", 2)
+                .build();
+        final CountDownLatch release = blockDispatcher();
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+        futures.add(record(CallPriority.BULK, "A", "A1"));
+        futures.add(record(CallPriority.BULK, "A", "A2"));
+        for (int i = 1; i <= 4; i++) {
+            futures.add(record(CallPriority.BULK, "B", "B" + i));
+        }
+
+        // Act
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(executionOrder, equalTo(Arrays.asList("blocker", "B1", "A1", "B2", "B3", "A2", "B4")));
+    }
+
+    @Test
+    public void testLane_budgetExceeded_callsPaced() {
+        // Arrange
+        subject = FairShareScheduler.builder(backend)
+                .callsPerSecond(50)
+                .build();
+        final MysticLightBackend lane = subject.lane(CallPriority.BULK);
+
+        // Act
+        final long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            lane.setLedBright(DEVICE_ID, 0, 1);
+        }
+        final long duration = System.nanoTime() - start;
+
+        // Assert
+        assertTrue(duration >= TimeUnit.MILLISECONDS.toNanos(80));
+    }
+
+    @Test
+    public void testLane_validCalls_forwardedAndStatisticsUpdated() {
+        // Arrange
+        subject = FairShareScheduler.builder(backend).build();
+        final MysticLightBackend lane = subject.lane(CallPriority.INTERACTIVE);
+
+        // Act
+        lane.setLedColor(DEVICE_ID, 1, Color.of(1, 2, 3));
+        final Color result = lane.getLedColor(DEVICE_ID, 1);
+
+        // Assert
+        assertThat(result, equalTo(Color.of(1, 2, 3)));
+        final LaneStatistics statistics = subject.getStatistics(CallPriority.INTERACTIVE);
+        assertThat(statistics.getCompletedCalls(), is(2L));
+        assertThat(statistics.getFailedCalls(), is(0L));
+        assertThat(statistics.getQueuedCalls(), is(0));
+        assertTrue(statistics.getMaxLatencyNanos() >= statistics.getMaxWaitNanos());
+        assertThat(subject.getStatistics(CallPriority.BULK).getSubmittedCalls(), is(0L));
+    }
+
+    @Test
+    public void testLane_failingCall_apiExceptionRethrown() {
+        // Arrange
+        subject = FairShareScheduler.builder(backend).build();
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+        thrown.expect(MysticLightAPIException.class);
+
+        // Act
+        try {
+            subject.lane(CallPriority.BULK).getLedBright(DEVICE_ID, 0);
+        } finally {
+            // Assert
+            assertThat(subject.getStatistics(CallPriority.BULK).getFailedCalls(), is(1L));
+        }
+    }
+
+    @Test
+    public void testSubmit_closed_callRejected() throws Exception {
+        // Arrange
+        subject = FairShareScheduler.builder(backend).build();
+        subject.close();
+
+        // Act
+        final CompletableFuture<Integer> result = subject.submit(CallPriority.BULK, DEVICE_ID, b -> b.getLedBright(DEVICE_ID, 0));
+
+        // Assert
+        try {
+            result.get();
+            fail("The call should be rejected.");
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+        }
+    }
+
+    private CountDownLatch blockDispatcher() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        subject.submit(CallPriority.BULK, "X", b -> {
+            started.countDown();
+            release.await();
+            executionOrder.add("blocker");
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private CompletableFuture<Object> record(final CallPriority priority, final String device, final String label) {
+        return subject.submit(priority, device, b -> executionOrder.add(label));
+    }
+}
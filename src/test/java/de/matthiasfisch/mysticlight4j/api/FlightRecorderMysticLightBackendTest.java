@@ -0,0 +1,118 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class FlightRecorderMysticLightBackendTest {
+    private static final String DEVICE_ID = "MSI_MB";
+
+    private SimulatedMysticLightBackend backend;
+    private FlightRecorderMysticLightBackend subject;
+    private Recording recording;
+    private Path dump;
+
+    @Before
+    public void setUp() throws IOException {
+        backend = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, "Mainboard", 2)
+                .build();
+        backend.initialize();
+        subject = new FlightRecorderMysticLightBackend(backend);
+        dump = Files.createTempFile("mysticlight4j", ".jfr");
+        recording = new Recording();
+        recording.enable(FlightRecorderMysticLightBackend.EVENT_NAME);
+        recording.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        recording.close();
+        Files.deleteIfExists(dump);
+    }
+
+    @Test
+    public void testSetLedColor_recordingEnabled_eventRecorded() throws IOException {
+        // Arrange
+
+        // Act
+        subject.setLedColor(DEVICE_ID, 1, Color.of(1, 2, 3));
+
+        // Assert
+        final List<RecordedEvent> events = stopAndRead();
+        assertThat(events.size(), is(1));
+        assertThat(events.get(0).getString("function"), equalTo("MLAPI_SetLedColor"));
+        assertThat(events.get(0).getString("device"), equalTo(DEVICE_ID));
+        assertThat(events.get(0).getInt("ledIndex"), is(1));
+        assertThat(events.get(0).getInt("status"), is(MysticLightAPIException.MLAPI_OK));
+    }
+
+    @Test
+    public void testGetLedBright_callFails_statusRecorded() throws IOException {
+        // Arrange
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        try {
+            subject.getLedBright(DEVICE_ID, 0);
+            fail("The call should fail.");
+        } catch (final MysticLightAPIException e) {
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        }
+
+        // Assert
+        final List<RecordedEvent> events = stopAndRead();
+        assertThat(events.get(0).getInt("status"), is(MysticLightAPIException.MLAPI_TIMEOUT));
+    }
+
+    @Test
+    public void testGetDeviceInfo_noDevice_noLedIndexRecorded() throws IOException {
+        // Arrange
+
+        // Act
+        subject.getDeviceInfo();
+
+        // Assert
+        final List<RecordedEvent> events = stopAndRead();
+        assertThat(events.get(0).getInt("ledIndex"), is(-1));
+        assertNull(events.get(0).getString("device"));
+        assertTrue(FlightRecorderMysticLightBackend.isAvailable());
+    }
+
+    @Test
+    public void testSetLedColor_eventDisabledDuringRecording_noEventRecorded() throws IOException {
+        // Arrange
+        subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+        recording.disable(FlightRecorderMysticLightBackend.EVENT_NAME);
+
+        // Act
+        subject.setLedColor(DEVICE_ID, 1, Color.of(4, 5, 6));
+
+        // Assert
+        final List<RecordedEvent> events = stopAndRead();
+        assertThat(events.size(), is(1));
+        assertThat(events.get(0).getInt("ledIndex"), is(0));
+        assertThat(backend.getLedColor(DEVICE_ID, 1), equalTo(Color.of(4, 5, 6)));
+    }
+
+    private List<RecordedEvent> stopAndRead() throws IOException {
+        recording.stop();
+        recording.dump(dump);
+        return RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals(FlightRecorderMysticLightBackend.EVENT_NAME))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,153 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class InstrumentedMysticLightBackendTest {
+    private static final String DEVICE_ID = "MSI_MB";
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private MBeanServer server;
+    private InstrumentedMysticLightBackend subject;
+
+    @Before
+    public void setUp() {
+        backend = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, "Mainboard", 2)
+                .build();
+        backend.initialize();
+        server = MBeanServerFactory.newMBeanServer();
+        subject = new InstrumentedMysticLightBackend(backend, "test");
+    }
+
+    @After
+    public void tearDown() {
+        subject.unregisterMBeans();
+    }
+
+    @Test
+    public void testSetLedColor_successfulCalls_countedPerFunctionAndDevice() {
+        // Arrange
+
+        // Act
+        subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+        subject.setLedColor(DEVICE_ID, 1, Color.of(1, 2, 3));
+        subject.getLedBright(DEVICE_ID, 0);
+
+        // Assert
+        final NativeCallMetrics setColor = subject.getFunctionMetrics(BackendFunction.SET_LED_COLOR);
+        assertThat(setColor.getCallCount(), is(2L));
+        assertThat(setColor.getErrorCount(), is(0L));
+        assertThat(setColor.getLatencies().getCount(), is(2L));
+        assertThat(subject.getDeviceMetrics(DEVICE_ID).get().getCallCount(), is(3L));
+    }
+
+    @Test
+    public void testGetLedBright_failingCalls_errorsCountedByCode() {
+        // Arrange
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 2);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            try {
+                subject.getLedBright(DEVICE_ID, 0);
+            } catch (final MysticLightAPIException e) {
+                // Expected for the first two calls.
+            }
+        }
+
+        // Assert
+        final NativeCallMetrics metrics = subject.getFunctionMetrics(BackendFunction.GET_LED_BRIGHT);
+        assertThat(metrics.getCallCount(), is(3L));
+        assertThat(metrics.getErrorCount(), is(2L));
+        assertThat(metrics.getErrorCountsByCode().get(MysticLightAPIException.MLAPI_TIMEOUT), is(2L));
+    }
+
+    @Test
+    public void testGetDeviceInfo_noDevice_onlyFunctionRecorded() {
+        // Arrange
+
+        // Act
+        subject.getDeviceInfo();
+
+        // Assert
+        assertThat(subject.getFunctionMetrics(BackendFunction.GET_DEVICE_INFO).getCallCount(), is(1L));
+        assertThat(subject.getDeviceMetrics().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testRecord_variousLatencies_percentilesBoundedByBuckets() {
+        // Arrange
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        // Assert
+        assertThat(histogram.getCount(), is(100L));
+        assertThat(histogram.getPercentile(0.5), is(1023L));
+        assertThat(histogram.getPercentile(0.99), is(1023L));
+        assertThat(histogram.getPercentile(1.0), is(TimeUnit.MILLISECONDS.toNanos(5)));
+        assertThat(histogram.getMax(), is(TimeUnit.MILLISECONDS.toNanos(5)));
+        assertThat(histogram.getBucketCounts()[LatencyHistogram.bucketOf(1000)], is(99L));
+    }
+
+    @Test
+    public void testRegisterMBeans_callsMade_attributesReadableOverJmx() throws Exception {
+        // Arrange
+        subject.registerMBeans(server);
+
+        // Act
+        subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+
+        // Assert
+        final ObjectName function = new ObjectName("de.matthiasfisch.mysticlight4j:type=NativeCalls,name=\"test\",function=\"MLAPI_SetLedColor\"");
+        final ObjectName device = new ObjectName("de.matthiasfisch.mysticlight4j:type=NativeCalls,name=\"test\",device=\"MSI_MB\"");
+        assertThat(server.getAttribute(function, "CallCount"), equalTo(1L));
+        assertThat(server.getAttribute(device, "CallCount"), equalTo(1L));
+        assertThat(((long[]) server.getAttribute(function, "LatencyHistogram")).length, is(LatencyHistogram.BUCKET_COUNT));
+    }
+
+    @Test
+    public void testUnregisterMBeans_registered_allMBeansRemoved() throws Exception {
+        // Arrange
+        subject.getLedBright(DEVICE_ID, 0);
+        subject.registerMBeans(server);
+
+        // Act
+        subject.unregisterMBeans();
+
+        // Assert
+        assertThat(server.queryNames(new ObjectName("de.matthiasfisch.mysticlight4j:*"), null).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testRegisterMBeans_alreadyRegistered_exceptionThrown() {
+        // Arrange
+        subject.registerMBeans(server);
+        thrown.expect(IllegalStateException.class);
+
+        // Act
+        subject.registerMBeans(server);
+
+        // Assert
+    }
+}
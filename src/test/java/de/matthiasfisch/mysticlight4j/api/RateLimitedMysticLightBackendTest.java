@@ -0,0 +1,230 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.*;
+
+public class RateLimitedMysticLightBackendTest {
+    private static final String DEVICE_ID = "MSI_MB";
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final List<RateLimitEvent> events = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        events.clear();
+    }
+
+    @Test
+    public void testSetLedColor_latencyAboveTarget_rateDecreased() {
+        // Arrange
+        final RateLimitedMysticLightBackend subject = createSubject(TimeUnit.MILLISECONDS.toNanos(2), RateLimitPolicy.builder()
+                .targetLatency(500, TimeUnit.MICROSECONDS)
+                .initialRate(1000)
+                .windowSize(4)
+                .build());
+
+        // Act
+        writeColors(subject, 4);
+
+        // Assert
+        final RateLimitStatistics statistics = subject.getStatistics().get(DEVICE_ID);
+        assertThat(statistics.getCurrentRate(), is(500.0));
+        assertThat(statistics.getDecreases(), is(1L));
+        assertThat(events.size(), is(1));
+        assertThat(events.get(0).getType(), is(RateLimitEvent.Type.DECREASED));
+        assertThat(events.get(0).getPreviousRate(), is(1000.0));
+    }
+
+    @Test
+    public void testSetLedColor_latencyBelowTarget_rateIncreased() {
+        // Arrange
+        final RateLimitedMysticLightBackend subject = createSubject(0, RateLimitPolicy.builder()
+                .initialRate(500)
+                .additiveIncrease(50)
+                .windowSize(2)
+                .build());
+
+        // Act
+        writeColors(subject, 4);
+
+        // Assert
+        assertThat(subject.getLimiter(DEVICE_ID).get().getRate(), is(600.0));
+        assertThat(subject.getStatistics().get(DEVICE_ID).getIncreases(), is(2L));
+        assertThat(events.get(1).getType(), is(RateLimitEvent.Type.INCREASED));
+    }
+
+    @Test
+    public void testSetLedColor_timeouts_rateDecreased() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = createBackend(0);
+        final RateLimitedMysticLightBackend subject = new RateLimitedMysticLightBackend(backend, RateLimitPolicy.builder()
+                .initialRate(400)
+                .windowSize(2)
+                .build());
+        subject.addListener(events::add);
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        try {
+            subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+            fail("The first write should time out.");
+        } catch (final MysticLightAPIException e) {
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        }
+        subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+
+        // Assert
+        assertThat(subject.getLimiter(DEVICE_ID).get().getRate(), is(200.0));
+        assertThat(events.get(0).getErrorRate(), is(0.5));
+    }
+
+    @Test
+    public void testSetLedColor_listenerThrows_callOutcomeUnchangedAndErrorRecorded() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = createBackend(0);
+        final RateLimitedMysticLightBackend subject = new RateLimitedMysticLightBackend(backend, RateLimitPolicy.builder()
+                .initialRate(400)
+                .windowSize(1)
+                .build());
+        final IllegalStateException failure = new IllegalStateException("The listener failed.");
+        subject.addListener(event -> {
+            throw failure;
+        });
+        subject.addListener(events::add);
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        try {
+            subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+            fail("The first write should time out.");
+        } catch (final MysticLightAPIException e) {
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        }
+        subject.setLedColor(DEVICE_ID, 1, Color.of(1, 2, 3));
+
+        // Assert
+        final AdaptiveRateLimiter limiter = subject.getLimiter(DEVICE_ID).get();
+        assertThat(limiter.getListenerFailures(), is(2L));
+        assertThat(limiter.getLastListenerError().get(), sameInstance(failure));
+        assertThat(events.size(), is(2));
+        assertThat(backend.getLedColor(DEVICE_ID, 1), equalTo(Color.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testSetLedColor_deviceNotFound_notCountedAsCongestion() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = createBackend(0);
+        final RateLimitedMysticLightBackend subject = new RateLimitedMysticLightBackend(backend, RateLimitPolicy.builder()
+                .windowSize(1)
+                .build());
+        backend.disconnect(DEVICE_ID);
+        thrown.expect(MysticLightAPIException.class);
+
+        // Act
+        try {
+            subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+        } finally {
+            // Assert
+            assertThat(subject.getStatistics().get(DEVICE_ID).getErrorRate(), is(0.0));
+        }
+    }
+
+    @Test
+    public void testSetLedColor_rateExceeded_writesPaced() {
+        // Arrange
+        final RateLimitedMysticLightBackend subject = createSubject(0, RateLimitPolicy.builder()
+                .initialRate(50)
+                .rateRange(50, 50)
+                .build());
+
+        // Act
+        final long start = System.nanoTime();
+        writeColors(subject, 5);
+        final long duration = System.nanoTime() - start;
+
+        // Assert
+        assertTrue(duration >= TimeUnit.MILLISECONDS.toNanos(80));
+        final RateLimitStatistics statistics = subject.getStatistics().get(DEVICE_ID);
+        assertThat(statistics.getThrottledWrites(), is(4L));
+        assertTrue(statistics.getTotalThrottleNanos() > 0);
+    }
+
+    @Test
+    public void testGetLedBright_rateExceeded_readsNotPaced() {
+        // Arrange
+        final RateLimitedMysticLightBackend subject = createSubject(0, RateLimitPolicy.builder()
+                .initialRate(1)
+                .rateRange(1, 1)
+                .build());
+
+        // Act
+        final long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            subject.getLedBright(DEVICE_ID, 0);
+        }
+        final long duration = System.nanoTime() - start;
+
+        // Assert
+        assertTrue(duration < TimeUnit.SECONDS.toNanos(1));
+        assertThat(subject.getStatistics().get(DEVICE_ID).getRecordedCalls(), is(5L));
+        assertThat(subject.getStatistics().get(DEVICE_ID).getThrottledWrites(), is(0L));
+    }
+
+    @Test
+    public void testGetDeviceInfo_noDevice_noLimiterCreated() {
+        // Arrange
+        final RateLimitedMysticLightBackend subject = createSubject(0, RateLimitPolicy.defaults());
+
+        // Act
+        final DeviceInfo[] result = subject.getDeviceInfo();
+
+        // Assert
+        assertThat(result[0].getDeviceType(), equalTo(DEVICE_ID));
+        assertThat(subject.getStatistics().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testBuild_initialRateOutsideRange_exceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act
+        RateLimitPolicy.builder().initialRate(2000).build();
+
+        // Assert
+    }
+
+    private RateLimitedMysticLightBackend createSubject(final long latencyNanos, final RateLimitPolicy policy) {
+        final RateLimitedMysticLightBackend subject = new RateLimitedMysticLightBackend(createBackend(latencyNanos), policy);
+        subject.addListener(events::add);
+        return subject;
+    }
+
+    private static SimulatedMysticLightBackend createBackend(final long latencyNanos) {
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, "Mainboard", 2)
+                .latency(latencyNanos, TimeUnit.NANOSECONDS)
+                .build();
+        backend.initialize();
+        return backend;
+    }
+
+    private static void writeColors(final MysticLightBackend backend, final int count) {
+        for (int i = 0; i < count; i++) {
+            backend.setLedColor(DEVICE_ID, 0, Color.of(i, i, i));
+        }
+    }
+}
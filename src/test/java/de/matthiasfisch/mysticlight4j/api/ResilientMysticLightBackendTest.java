@@ -0,0 +1,281 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.*;
+
+public class ResilientMysticLightBackendTest {
+    private static final String DEVICE_ID = "MSI_MB";
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+    private final List<CircuitBreakerEvent> events = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        backend = createBackend(0);
+        backend.initialize();
+        events.clear();
+    }
+
+    @Test
+    public void testGetLedBright_transientTimeout_retriedAndSucceeds() {
+        // Arrange
+        final ResilientMysticLightBackend subject = createSubject(policy().build());
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 2);
+
+        // Act
+        final int result = subject.getLedBright(DEVICE_ID, 0);
+
+        // Assert
+        assertThat(result, is(SimulatedMysticLightBackend.DEFAULT_MAX_BRIGHTNESS));
+        assertThat(subject.getRetryCount(), is(2L));
+        assertThat(subject.getCircuitBreaker(DEVICE_ID).get().getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void testGetLedBright_attemptsExhausted_lastExceptionThrown() {
+        // Arrange
+        final ResilientMysticLightBackend subject = createSubject(policy().maxAttempts(2).build());
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 3);
+        final long callsBefore = backend.getCallCount();
+
+        // Act
+        try {
+            subject.getLedBright(DEVICE_ID, 0);
+            fail("The call should fail.");
+        } catch (final MysticLightAPIException e) {
+            // Assert
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        }
+        assertThat(backend.getCallCount() - callsBefore, is(2L));
+    }
+
+    @Test
+    public void testSetLedBright_invalidArgument_notRetriedAndNotCounted() {
+        // Arrange
+        final ResilientMysticLightBackend subject = createSubject(policy().circuitBreaker(1, 1, TimeUnit.SECONDS).build());
+        final long callsBefore = backend.getCallCount();
+
+        // Act
+        try {
+            subject.setLedBright(DEVICE_ID, 5, 1);
+            fail("The call should fail.");
+        } catch (final MysticLightAPIException e) {
+            // Assert
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_INVALID_ARGUMENT));
+        }
+        assertThat(backend.getCallCount() - callsBefore, is(1L));
+        assertThat(subject.getCircuitBreaker(DEVICE_ID).get().getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void testGetLedBright_notInitialized_backendInitializedAndCallRetried() {
+        // Arrange
+        final SimulatedMysticLightBackend uninitialized = createBackend(0);
+        final ResilientMysticLightBackend subject = new ResilientMysticLightBackend(uninitialized, policy().build());
+
+        // Act
+        final int result = subject.getLedBright(DEVICE_ID, 0);
+
+        // Assert
+        assertThat(result, is(SimulatedMysticLightBackend.DEFAULT_MAX_BRIGHTNESS));
+        assertThat(subject.getReinitializationCount(), is(1L));
+    }
+
+    @Test
+    public void testGetLedBright_deadlineElapsed_timeoutThrown() {
+        // Arrange
+        final SimulatedMysticLightBackend slow = createBackend(TimeUnit.MILLISECONDS.toNanos(500));
+        slow.initialize();
+        final ResilientMysticLightBackend subject = new ResilientMysticLightBackend(slow, policy()
+                .deadline(50, TimeUnit.MILLISECONDS)
+                .build());
+
+        // Act
+        final long start = System.nanoTime();
+        try {
+            subject.getLedBright(DEVICE_ID, 0);
+            fail("The call should time out.");
+        } catch (final MysticLightAPIException e) {
+            // Assert
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(400));
+        assertThat(subject.getDeadlineExceededCount(), is(1L));
+    }
+
+    @Test
+    public void testGetLedBright_allDeadlineWorkersBusy_rejectedWithoutNewThread() {
+        // Arrange
+        final SimulatedMysticLightBackend slow = createBackend(TimeUnit.MILLISECONDS.toNanos(500));
+        slow.initialize();
+        final ResilientMysticLightBackend subject = new ResilientMysticLightBackend(slow, policy()
+                .maxAttempts(1)
+                .deadline(50, TimeUnit.MILLISECONDS)
+                .deadlineWorkers(1)
+                .build());
+        try {
+            subject.getLedBright(DEVICE_ID, 0);
+            fail("The call should time out.");
+        } catch (final MysticLightAPIException e) {
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        }
+        final long callsBefore = slow.getCallCount();
+
+        // Act
+        try {
+            subject.getLedBright(DEVICE_ID, 1);
+            fail("The call should be rejected.");
+        } catch (final MysticLightAPIException e) {
+            // Assert
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        } finally {
+            subject.close();
+        }
+        assertThat(subject.getSaturatedAttemptCount(), is(1L));
+        assertThat(slow.getCallCount(), is(callsBefore));
+    }
+
+    @Test
+    public void testGetLedBright_closedWithDeadline_illegalStateExceptionThrown() {
+        // Arrange
+        final ResilientMysticLightBackend subject = createSubject(policy().deadline(1, TimeUnit.SECONDS).build());
+        subject.close();
+        thrown.expect(IllegalStateException.class);
+
+        // Act + Assert - via rule
+        subject.getLedBright(DEVICE_ID, 0);
+    }
+
+    @Test
+    public void testSetLedColor_failureThresholdReached_circuitOpensAndRejectsCalls() {
+        // Arrange
+        final ResilientMysticLightBackend subject = createSubject(policy()
+                .maxAttempts(1)
+                .circuitBreaker(2, 1, TimeUnit.MINUTES)
+                .build());
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 2);
+        failQuietly(subject);
+        failQuietly(subject);
+        final long callsBefore = backend.getCallCount();
+        thrown.expect(CircuitBreakerOpenException.class);
+
+        // Act
+        try {
+            subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+        } finally {
+            // Assert
+            assertThat(backend.getCallCount(), is(callsBefore));
+            assertThat(events.size(), is(1));
+            assertThat(events.get(0).getCurrentState(), is(CircuitBreaker.State.OPEN));
+            assertThat(subject.getCircuitBreaker(DEVICE_ID).get().getRejectedCalls(), is(1L));
+        }
+    }
+
+    @Test
+    public void testSetLedColor_listenerThrows_callOutcomeUnchangedAndErrorRecorded() throws InterruptedException {
+        // Arrange
+        final ResilientMysticLightBackend subject = createSubject(policy()
+                .maxAttempts(1)
+                .circuitBreaker(1, 20, TimeUnit.MILLISECONDS)
+                .build());
+        final IllegalStateException failure = new IllegalStateException("The listener failed.");
+        subject.addListener(event -> {
+            throw failure;
+        });
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+        failQuietly(subject);
+        Thread.sleep(40);
+
+        // Act
+        subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+
+        // Assert
+        final CircuitBreaker breaker = subject.getCircuitBreaker(DEVICE_ID).get();
+        assertThat(breaker.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.getListenerFailures(), is(3L));
+        assertThat(breaker.getLastListenerError().get(), sameInstance(failure));
+        assertThat(events.size(), is(3));
+        assertThat(backend.getLedColor(DEVICE_ID, 0), equalTo(Color.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testSetLedColor_openDurationElapsedAndTrialSucceeds_circuitCloses() throws InterruptedException {
+        // Arrange
+        final ResilientMysticLightBackend subject = createSubject(policy()
+                .maxAttempts(1)
+                .circuitBreaker(1, 20, TimeUnit.MILLISECONDS)
+                .build());
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+        failQuietly(subject);
+        Thread.sleep(40);
+
+        // Act
+        subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+
+        // Assert
+        assertThat(events.size(), is(3));
+        assertThat(events.get(1).getCurrentState(), is(CircuitBreaker.State.HALF_OPEN));
+        assertThat(events.get(2).getCurrentState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(backend.getLedColor(DEVICE_ID, 0), equalTo(Color.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testSetLedColor_trialFails_circuitOpensAgain() throws InterruptedException {
+        // Arrange
+        final ResilientMysticLightBackend subject = createSubject(policy()
+                .maxAttempts(1)
+                .circuitBreaker(1, 20, TimeUnit.MILLISECONDS)
+                .build());
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 2);
+        failQuietly(subject);
+        Thread.sleep(40);
+
+        // Act
+        failQuietly(subject);
+
+        // Assert
+        assertThat(subject.getCircuitBreaker(DEVICE_ID).get().getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(events.get(2).getPreviousState(), is(CircuitBreaker.State.HALF_OPEN));
+    }
+
+    private ResilientMysticLightBackend createSubject(final ResiliencePolicy policy) {
+        final ResilientMysticLightBackend subject = new ResilientMysticLightBackend(backend, policy);
+        subject.addListener(events::add);
+        return subject;
+    }
+
+    private static ResiliencePolicy.Builder policy() {
+        return ResiliencePolicy.builder()
+                .backoff(0, 0, TimeUnit.MILLISECONDS, 1);
+    }
+
+    private static SimulatedMysticLightBackend createBackend(final long latencyNanos) {
+        return SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, "Mainboard", 2)
+                .latency(latencyNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    private static void failQuietly(final MysticLightBackend subject) {
+        try {
+            subject.setLedColor(DEVICE_ID, 0, Color.of(1, 2, 3));
+            fail("The call should fail.");
+        } catch (final MysticLightAPIException e) {
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        }
+    }
+}
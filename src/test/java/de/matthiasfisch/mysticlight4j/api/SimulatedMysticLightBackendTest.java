@@ -0,0 +1,278 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class SimulatedMysticLightBackendTest {
+    private static final String DEVICE_ID = "MSI_MB";
+    private static final String DEVICE_NAME = "Mainboard";
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend subject;
+
+    @Before
+    public void setUp() {
+        subject = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, DEVICE_NAME, 2)
+                .addDevice("MSI_VGA", "Graphics Card")
+                .addLed("MSI_VGA", "Logo", 10, 4, "Off", "Steady")
+                .build();
+        subject.initialize();
+    }
+
+    @Test
+    public void testGetDeviceInfo_configuredTopology_allDevicesReturned() {
+        // Arrange
+
+        // Act
+        final DeviceInfo[] result = subject.getDeviceInfo();
+
+        // Assert
+        assertThat(result.length, is(2));
+        assertThat(result[0].getDeviceType(), equalTo(DEVICE_ID));
+        assertThat(result[0].getLedCount(), is(2));
+        assertThat(result[1].getDeviceType(), equalTo("MSI_VGA"));
+        assertThat(result[1].getLedCount(), is(1));
+    }
+
+    @Test
+    public void testGetLedInfo_explicitLed_configuredValuesReturned() {
+        // Arrange
+
+        // Act
+        final LedInfo result = subject.getLedInfo("MSI_VGA", 0);
+
+        // Assert
+        assertThat(result.getName(), equalTo("Logo"));
+        assertThat(result.getStyles(), equalTo(new String[] {"Off", "Steady"}));
+        assertThat(subject.getLedMaxBright("MSI_VGA", 0), is(10));
+        assertThat(subject.getLedMaxSpeed("MSI_VGA", 0), is(4));
+        assertThat(subject.getLedStyle("MSI_VGA", 0), equalTo("Off"));
+    }
+
+    @Test
+    public void testGetDeviceNameEx_existingDevice_nameReturned() {
+        // Arrange
+
+        // Act
+        final String result = subject.getDeviceNameEx(DEVICE_ID, 0);
+
+        // Assert
+        assertThat(result, equalTo(DEVICE_NAME));
+    }
+
+    @Test
+    public void testSetters_validValues_stateUpdated() {
+        // Arrange
+        final Color color = Color.of(1, 2, 3);
+
+        // Act
+        subject.setLedColor(DEVICE_ID, 1, color);
+        subject.setLedStyle(DEVICE_ID, 1, "Rainbow");
+        subject.setLedBright(DEVICE_ID, 1, 2);
+        subject.setLedSpeed(DEVICE_ID, 1, 1);
+
+        // Assert
+        assertThat(subject.getLedColor(DEVICE_ID, 1), equalTo(color));
+        assertThat(subject.getLedStyle(DEVICE_ID, 1), equalTo("Rainbow"));
+        assertThat(subject.getLedBright(DEVICE_ID, 1), is(2));
+        assertThat(subject.getLedSpeed(DEVICE_ID, 1), is(1));
+    }
+
+    @Test
+    public void testSetLedStyle_unknownStyle_invalidArgument() {
+        // Arrange
+        thrown.expect(MysticLightAPIException.class);
+        thrown.expect(errorCode(MysticLightAPIException.MLAPI_INVALID_ARGUMENT));
+
+        // Act + Assert - via rule
+        subject.setLedStyle(DEVICE_ID, 0, "unknownStyle");
+    }
+
+    @Test
+    public void testSetLedColors_knownNames_allNamedLedsUpdated() {
+        // Arrange
+        final String[] names = subject.getLedName(DEVICE_ID);
+
+        // Act
+        subject.setLedColors(DEVICE_ID, 0, names, Color.RED);
+
+        // Assert
+        assertThat(subject.getLedColor(DEVICE_ID, 0), equalTo(Color.RED));
+        assertThat(subject.getLedColor(DEVICE_ID, 1), equalTo(Color.RED));
+    }
+
+    @Test
+    public void testSetLedColors_unknownName_invalidArgumentAndNothingWritten() {
+        // Arrange
+        final String[] names = {subject.getLedName(DEVICE_ID)[0], "unknownLed"};
+
+        // Act
+        try {
+            subject.setLedColors(DEVICE_ID, 0, names, Color.RED);
+            fail("Expected an exception.");
+        } catch (final MysticLightAPIException e) {
+            // Assert
+            assertThat(e.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_INVALID_ARGUMENT));
+        }
+        assertThat(subject.getLedColor(DEVICE_ID, 0), equalTo(Color.BLACK));
+    }
+
+    @Test
+    public void testSetLedColorEx_knownName_namedLedUpdated() {
+        // Arrange
+
+        // Act
+        subject.setLedColorEx("MSI_VGA", 0, "Logo", Color.GREEN, true);
+        subject.setLedColorSync(DEVICE_ID, 0, subject.getLedName(DEVICE_ID)[1], Color.BLUE, false);
+
+        // Assert
+        assertThat(subject.getLedColor("MSI_VGA", 0), equalTo(Color.GREEN));
+        assertThat(subject.getLedColor(DEVICE_ID, 1), equalTo(Color.BLUE));
+        assertThat(subject.getLedColor(DEVICE_ID, 0), equalTo(Color.BLACK));
+    }
+
+    @Test
+    public void testGetLedColor_unknownDevice_deviceNotFound() {
+        // Arrange
+        thrown.expect(MysticLightAPIException.class);
+        thrown.expect(errorCode(MysticLightAPIException.MLAPI_DEVICE_NOT_FOUND));
+
+        // Act + Assert - via rule
+        subject.getLedColor("unknownDevice", 0);
+    }
+
+    @Test
+    public void testGetDeviceInfo_notInitialized_notInitialized() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder().build();
+        thrown.expect(MysticLightAPIException.class);
+        thrown.expect(errorCode(MysticLightAPIException.MLAPI_NOT_INITIALIZED));
+
+        // Act + Assert - via rule
+        backend.getDeviceInfo();
+    }
+
+    @Test
+    public void testFailNextCalls_oneCall_onlyNextCallFails() {
+        // Arrange
+        subject.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        MysticLightAPIException failure = null;
+        try {
+            subject.getLedBright(DEVICE_ID, 0);
+        } catch (final MysticLightAPIException e) {
+            failure = e;
+        }
+        final int result = subject.getLedBright(DEVICE_ID, 0);
+
+        // Assert
+        assertNotNull(failure);
+        assertThat(failure.getMlApiErrorCode(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        assertThat(result, is(SimulatedMysticLightBackend.DEFAULT_MAX_BRIGHTNESS));
+    }
+
+    @Test
+    public void testErrorProbability_probabilityOne_everyCallFails() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, DEVICE_NAME, 1)
+                .errorProbability(MysticLightAPIException.MLAPI_DEVICE_NOT_FOUND, 1.0)
+                .build();
+        backend.initialize();
+        thrown.expect(MysticLightAPIException.class);
+        thrown.expect(errorCode(MysticLightAPIException.MLAPI_DEVICE_NOT_FOUND));
+
+        // Act + Assert - via rule
+        backend.getDeviceInfo();
+    }
+
+    @Test
+    public void testLatency_configured_callTakesAtLeastLatency() {
+        // Arrange
+        final SimulatedMysticLightBackend backend = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, DEVICE_NAME, 1)
+                .latency(5, TimeUnit.MILLISECONDS)
+                .build();
+        backend.initialize();
+
+        // Act
+        final long start = System.nanoTime();
+        backend.getLedBright(DEVICE_ID, 0);
+        final long duration = System.nanoTime() - start;
+
+        // Assert
+        assertTrue(duration >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(backend.getCallCount(), is(2L));
+    }
+
+    @Test
+    public void testDisconnect_connectedDevice_deviceNotListedAndNotFound() {
+        // Arrange
+        subject.disconnect(DEVICE_ID);
+        thrown.expect(MysticLightAPIException.class);
+        thrown.expect(errorCode(MysticLightAPIException.MLAPI_DEVICE_NOT_FOUND));
+
+        // Act
+        final DeviceInfo[] result = subject.getDeviceInfo();
+
+        // Assert
+        assertThat(result.length, is(1));
+        assertThat(result[0].getDeviceType(), equalTo("MSI_VGA"));
+        subject.getLedColor(DEVICE_ID, 0);
+    }
+
+    @Test
+    public void testConnect_disconnectedDevice_deviceListedAgainWithRetainedState() {
+        // Arrange
+        subject.setLedBright(DEVICE_ID, 1, 2);
+        subject.disconnect(DEVICE_ID);
+
+        // Act
+        subject.connect(DEVICE_ID);
+
+        // Assert
+        assertThat(subject.getDeviceInfo().length, is(2));
+        assertThat(subject.getLedBright(DEVICE_ID, 1), is(2));
+    }
+
+    @Test
+    public void testAddLed_noStyles_illegalArgumentException() {
+        // Arrange
+        final SimulatedMysticLightBackend.Builder builder = SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, DEVICE_NAME);
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A LED must support at least one style.");
+
+        // Act + Assert - via rule
+        builder.addLed(DEVICE_ID, "Logo", 10, 4);
+    }
+
+    private static Matcher<MysticLightAPIException> errorCode(final int errorCode) {
+        return new TypeSafeMatcher<MysticLightAPIException>() {
+            @Override
+            protected boolean matchesSafely(final MysticLightAPIException item) {
+                return item.getMlApiErrorCode() == errorCode;
+            }
+
+            @Override
+            public void describeTo(final Description description) {
+                description.appendText("exception with error code " + errorCode);
+            }
+        };
+    }
+}
@@ -0,0 +1,225 @@
+package de.matthiasfisch.mysticlight4j.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class TraceRecorderTest {
+    private static final String DEVICE_ID = "MSI_MB";
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SimulatedMysticLightBackend backend;
+
+    @Before
+    public void setUp() {
+        backend = newBackend();
+        backend.initialize();
+    }
+
+    @Test
+    public void testRead_writtenRecords_sameRecords() throws IOException {
+        // Arrange
+        final List<TraceRecord> records = Arrays.asList(
+                new TraceRecord(10, 5, BackendFunction.SET_LED_COLOR, DEVICE_ID, 1, 0x102030, null, 0),
+                new TraceRecord(25, 7, BackendFunction.SET_LED_STYLE, DEVICE_ID, 0, TraceRecord.NONE, "Breathing", 0),
+                new TraceRecord(40, 3, BackendFunction.GET_LED_BRIGHT, DEVICE_ID, 0, 4, null, 0),
+                new TraceRecord(41, 1, BackendFunction.INITIALIZE, null, TraceRecord.NONE, TraceRecord.NONE, null,
+                        MysticLightAPIException.MLAPI_TIMEOUT));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        try (TraceWriter writer = new TraceWriter(out, 16)) {
+            records.forEach(writer::append);
+        }
+        final List<TraceRecord> read = readAll(out.toByteArray());
+
+        // Assert
+        assertThat(read, is(equalTo(records)));
+    }
+
+    @Test
+    public void testRecordingBackend_calls_recordedWithArgumentsResultsAndStatus() throws IOException {
+        // Arrange
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final TraceWriter writer = new TraceWriter(out, 16);
+        final RecordingMysticLightBackend subject = new RecordingMysticLightBackend(backend, writer);
+        backend.failNextCalls(MysticLightAPIException.MLAPI_TIMEOUT, 1);
+
+        // Act
+        try {
+            subject.setLedBright(DEVICE_ID, 0, 2);
+        } catch (final MysticLightAPIException e) {
+            // Expected.
+        }
+        subject.setLedColor(DEVICE_ID, 1, Color.of(1, 2, 3));
+        subject.getLedColor(DEVICE_ID, 1);
+        subject.getDeviceNameEx(DEVICE_ID, 0);
+        writer.close();
+        final List<TraceRecord> read = readAll(out.toByteArray());
+
+        // Assert
+        assertThat(read.size(), is(4));
+        assertThat(read.get(0).getFunction(), is(BackendFunction.SET_LED_BRIGHT));
+        assertThat(read.get(0).getValue(), is(2));
+        assertThat(read.get(0).getStatus(), is(MysticLightAPIException.MLAPI_TIMEOUT));
+        assertThat(read.get(1).getIndex(), is(1));
+        assertThat(read.get(1).getValue(), is(0x010203));
+        assertThat(read.get(1).isSuccessful(), is(true));
+        assertThat(read.get(2).getFunction(), is(BackendFunction.GET_LED_COLOR));
+        assertThat(read.get(2).getValue(), is(0x010203));
+        assertThat(read.get(3).getIndex(), is(0));
+        assertThat(read.get(3).getText(), is(equalTo("Mainboard")));
+        assertTrue(read.get(1).getStartNanos() >= read.get(0).getStartNanos());
+    }
+
+    @Test
+    public void testReplay_recordedTrace_reproducesStateWithoutMismatches() throws IOException {
+        // Arrange
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TraceWriter writer = new TraceWriter(out, 1024)) {
+            final RecordingMysticLightBackend subject = new RecordingMysticLightBackend(backend, writer);
+            subject.setLedStyle(DEVICE_ID, 0, "Breathing");
+            subject.setLedColor(DEVICE_ID, 0, Color.of(10, 20, 30));
+            subject.setLedSpeed(DEVICE_ID, 1, 1);
+            subject.getLedStyle(DEVICE_ID, 0);
+        }
+        final SimulatedMysticLightBackend target = newBackend();
+        target.initialize();
+
+        // Act
+        final ReplayResult result = TraceReplayer.builder(target)
+                .speed(TraceReplayer.MAX_SPEED)
+                .build()
+                .replay(new TraceReader(new ByteArrayInputStream(out.toByteArray())));
+
+        // Assert
+        assertThat(result.getReplayedCalls(), is(4L));
+        assertThat(result.getFailedCalls(), is(0L));
+        assertThat(result.getStatusMismatches(), is(0L));
+        assertThat(target.getLedStyle(DEVICE_ID, 0), is(equalTo("Breathing")));
+        assertThat(target.getLedColor(DEVICE_ID, 0), is(equalTo(Color.of(10, 20, 30))));
+        assertThat(target.getLedSpeed(DEVICE_ID, 1), is(1));
+    }
+
+    @Test
+    public void testReplay_namedColorWrites_namesAndSyncFlagReproduced() throws IOException {
+        // Arrange
+        final String[] names = backend.getLedName(DEVICE_ID);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TraceWriter writer = new TraceWriter(out, 1024)) {
+            final RecordingMysticLightBackend subject = new RecordingMysticLightBackend(backend, writer);
+            subject.setLedColors(DEVICE_ID, 0, names, Color.RED);
+            subject.setLedColorEx(DEVICE_ID, 1, names[1], Color.GREEN, true);
+        }
+        final List<TraceRecord> records = readAll(out.toByteArray());
+        final SimulatedMysticLightBackend target = newBackend();
+        target.initialize();
+
+        // Act
+        final ReplayResult result = TraceReplayer.builder(target)
+                .speed(TraceReplayer.MAX_SPEED)
+                .build()
+                .replay(records);
+
+        // Assert
+        assertThat(records.get(0).getText(), is(equalTo(String.join(TraceRecord.NAME_SEPARATOR, names))));
+        assertThat(records.get(1).getValue(), is(Color.GREEN.getRgb() | TraceRecord.SYNC_FLAG));
+        assertThat(result.getStatusMismatches(), is(0L));
+        assertThat(target.getLedColor(DEVICE_ID, 0), is(equalTo(Color.RED)));
+        assertThat(target.getLedColor(DEVICE_ID, 1), is(equalTo(Color.GREEN)));
+    }
+
+    @Test
+    public void testReplay_realTime_respectsRecordedTiming() {
+        // Arrange
+        final long gap = TimeUnit.MILLISECONDS.toNanos(50);
+        final List<TraceRecord> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            records.add(new TraceRecord(i * gap, 0, BackendFunction.SET_LED_BRIGHT, DEVICE_ID, 0, i, null, 0));
+        }
+
+        // Act
+        final ReplayResult realTime = TraceReplayer.builder(backend).build().replay(records);
+        final ReplayResult maxSpeed = TraceReplayer.builder(backend).speed(TraceReplayer.MAX_SPEED).build().replay(records);
+
+        // Assert
+        assertTrue(realTime.getDurationNanos() >= 2 * gap);
+        assertTrue(maxSpeed.getDurationNanos() < gap);
+        assertThat(realTime.getRecordedDurationNanos(), is(2 * gap));
+    }
+
+    @Test
+    public void testReplay_recordsInCompletionOrder_replayedInStartOrder() {
+        // Arrange
+        final List<TraceRecord> records = Arrays.asList(
+                new TraceRecord(20, 1, BackendFunction.SET_LED_BRIGHT, DEVICE_ID, 0, 2, null, 0),
+                new TraceRecord(10, 30, BackendFunction.SET_LED_BRIGHT, DEVICE_ID, 0, 1, null, 0));
+
+        // Act
+        final ReplayResult result = TraceReplayer.builder(backend).speed(TraceReplayer.MAX_SPEED).build().replay(records);
+
+        // Assert
+        assertThat(result.getReplayedCalls(), is(2L));
+        assertThat(backend.getLedBright(DEVICE_ID, 0), is(2));
+    }
+
+    @Test
+    public void testReplay_disconnectedDevice_mismatchesCounted() {
+        // Arrange
+        final List<TraceRecord> records = Arrays.asList(
+                new TraceRecord(0, 0, BackendFunction.SET_LED_BRIGHT, DEVICE_ID, 0, 1, null, 0),
+                new TraceRecord(1, 0, BackendFunction.SET_LED_BRIGHT, "UNKNOWN", 0, 1, null,
+                        MysticLightAPIException.MLAPI_DEVICE_NOT_FOUND));
+        backend.disconnect(DEVICE_ID);
+
+        // Act
+        final ReplayResult result = TraceReplayer.builder(backend).speed(TraceReplayer.MAX_SPEED).build().replay(records);
+
+        // Assert
+        assertThat(result.getFailedCalls(), is(2L));
+        assertThat(result.getStatusMismatches(), is(1L));
+    }
+
+    @Test
+    public void testTraceReader_invalidMagic_throwsIOException() throws IOException {
+        // Arrange
+        thrown.expect(IOException.class);
+
+        // Act
+        new TraceReader(new ByteArrayInputStream(new byte[16]));
+
+        // Assert
+    }
+
+    private static SimulatedMysticLightBackend newBackend() {
+        return SimulatedMysticLightBackend.builder()
+                .addDevice(DEVICE_ID, "Mainboard", 2)
+                .build();
+    }
+
+    private static List<TraceRecord> readAll(final byte[] trace) throws IOException {
+        final List<TraceRecord> records = new ArrayList<>();
+        try (TraceReader reader = new TraceReader(new ByteArrayInputStream(trace))) {
+            TraceRecord record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
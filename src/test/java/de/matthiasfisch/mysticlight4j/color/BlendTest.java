@@ -0,0 +1,62 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class BlendTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testLerp_midpoint_roundedAverage() {
+        // Arrange + Act + Assert
+        assertThat(Blend.lerp(0x000000, 0xFFFFFF, 0.5f), is(0x808080));
+        assertThat(Blend.lerp(0xFF0000, 0x0000FF, 0), is(0xFF0000));
+        assertThat(Blend.lerp(0xFF0000, 0x0000FF, 1), is(0x0000FF));
+    }
+
+    @Test
+    public void testLerp8_allAmounts_closeToFloatLerp() {
+        // Arrange + Act + Assert
+        for (int amount = 0; amount < 256; amount++) {
+            HsvTest.assertClose(Blend.lerp8(0x10A0F0, 0xF04010, amount), Blend.lerp(0x10A0F0, 0xF04010, amount / 255f), 1);
+        }
+    }
+
+    @Test
+    public void testScale8_factors_scaledChannels() {
+        // Arrange + Act + Assert
+        assertThat(Blend.scale8(0xFF8040, 255), is(0xFF8040));
+        assertThat(Blend.scale8(0xFF8040, 0), is(0x000000));
+        assertThat(Blend.scale8(0xFF8040, 128), is(0x804020));
+    }
+
+    @Test
+    public void testAdd_overflow_saturated() {
+        // Arrange + Act + Assert
+        assertThat(Blend.add(0xF01000, 0x201020), is(0xFF2020));
+    }
+
+    @Test
+    public void testMultiplyAndScreen_withWhiteAndBlack_identities() {
+        // Arrange + Act + Assert
+        assertThat(Blend.multiply(0x123456, 0xFFFFFF), is(0x123456));
+        assertThat(Blend.multiply(0x123456, 0x000000), is(0x000000));
+        assertThat(Blend.screen(0x123456, 0x000000), is(0x123456));
+        assertThat(Blend.screen(0x123456, 0xFFFFFF), is(0xFFFFFF));
+    }
+
+    @Test
+    public void testLerp_invalidColor_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        Blend.lerp(0x1000000, 0, 0.5f);
+    }
+}
@@ -0,0 +1,40 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class ColorTemperatureTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testToRgb_referenceTemperatures_expectedColors() {
+        // Arrange + Act + Assert - reference values of the curve fit
+        assertThat(ColorTemperature.toRgb(1000), is(0xFF4400));
+        assertThat(ColorTemperature.toRgb(6600), is(0xFFFFFF));
+        assertThat(ColorTemperature.toRgb(2700) >> 16, is(0xFF));
+        assertTrue((ColorTemperature.toRgb(40000) & 0xFF) == 0xFF);
+    }
+
+    @Test
+    public void testToRgbFast_wholeRange_closeToExactConversion() {
+        // Arrange + Act + Assert
+        for (int kelvin = ColorTemperature.MIN_KELVIN; kelvin <= ColorTemperature.MAX_KELVIN; kelvin += 7) {
+            HsvTest.assertClose(ColorTemperature.toRgbFast(kelvin), ColorTemperature.toRgb(kelvin), 2);
+        }
+    }
+
+    @Test
+    public void testToRgb_belowMinimum_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        ColorTemperature.toRgb(999);
+    }
+}
@@ -0,0 +1,66 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class GammaTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testCorrect_allChannels_matchPowerLaw() {
+        // Arrange
+        final Gamma subject = Gamma.of(2.2);
+
+        for (int channel = 0; channel < 256; channel++) {
+            // Act
+            final int result = subject.correct((channel << 16) | (channel << 8) | channel);
+
+            // Assert
+            final int expected = (int) Math.round(Math.pow(channel / 255.0, 2.2) * 255);
+            assertThat(result, is((expected << 16) | (expected << 8) | expected));
+        }
+    }
+
+    @Test
+    public void testOf_gammaNotPositive_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+
+        // Act + Assert - via rule
+        Gamma.of(0);
+    }
+
+    @Test
+    public void testDecodeSrgb_allChannels_encodeRoundTrips() {
+        // Arrange + Act + Assert
+        for (int channel = 0; channel < 256; channel++) {
+            final float linear = Gamma.decodeSrgb(channel);
+            assertThat(Gamma.encodeSrgb(linear), is(channel));
+            assertTrue(Math.abs(Gamma.encodeSrgbFast(linear) - channel) <= 1);
+        }
+    }
+
+    @Test
+    public void testEncodeSrgbFast_wholeRange_atMostOneStepOff() {
+        // Arrange + Act + Assert
+        for (int i = 0; i <= 100_000; i++) {
+            final float linear = i / 100_000f;
+            assertTrue(Math.abs(Gamma.encodeSrgbFast(linear) - Gamma.encodeSrgb(linear)) <= 1);
+        }
+        assertThat(Gamma.encodeSrgbFast(-1), is(0));
+        assertThat(Gamma.encodeSrgbFast(2), is(255));
+    }
+
+    @Test
+    public void testEqualsAndHashCode_withVerifier_verificationOk() {
+        // Arrange + Act + Assert - via verifier
+        EqualsVerifier.forClass(Gamma.class).withIgnoredFields("table").verify();
+    }
+}
@@ -0,0 +1,64 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class HslTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testToRgb_referenceColors_expectedRgb() {
+        // Arrange + Act + Assert - reference values of the CSS hsl() function
+        assertThat(Hsl.toRgb(0, 1, 0.5f), is(0xFF0000));
+        assertThat(Hsl.toRgb(120, 1, 0.25f), is(0x008000));
+        assertThat(Hsl.toRgb(240, 1, 0.75f), is(0x8080FF));
+        assertThat(Hsl.toRgb(60, 0.5f, 0.5f), is(0xBFBF40));
+        assertThat(Hsl.toRgb(0, 0, 1), is(0xFFFFFF));
+        assertThat(Hsl.toRgb(0, 0, 0), is(0x000000));
+    }
+
+    @Test
+    public void testFromRgb_referenceColor_expectedHsl() {
+        // Arrange
+        final float[] hsl = new float[3];
+
+        // Act
+        Hsl.fromRgb(0x8080FF, hsl);
+
+        // Assert
+        assertEquals(240, hsl[0], 1e-4);
+        assertEquals(1, hsl[1], 1e-4);
+        assertEquals(0.751, hsl[2], 1e-3);
+    }
+
+    @Test
+    public void testFromRgb_roundTrip_sameColor() {
+        // Arrange
+        final float[] hsl = new float[3];
+
+        for (int rgb = 0; rgb <= 0xFFFFFF; rgb += 0x010307) {
+            // Act
+            Hsl.fromRgb(rgb, hsl);
+            final int result = Hsl.toRgb(hsl[0], hsl[1], hsl[2]);
+
+            // Assert
+            HsvTest.assertClose(result, rgb, 1);
+        }
+    }
+
+    @Test
+    public void testToRgb_lightnessNegative_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The lightness must be in range [0, 1].");
+
+        // Act + Assert - via rule
+        Hsl.toRgb(0, 1, -0.1f);
+    }
+}
@@ -0,0 +1,109 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class HsvTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testToRgb_allHues_matchesAwtReference() {
+        // Arrange
+        final float[][] saturationsAndValues = { { 1, 1 }, { 0.5f, 1 }, { 1, 0.5f }, { 0.3f, 0.7f }, { 0, 0.4f } };
+
+        for (final float[] sv : saturationsAndValues) {
+            for (int hue = 0; hue < 360; hue++) {
+                // Act
+                final int result = Hsv.toRgb(hue, sv[0], sv[1]);
+
+                // Assert
+                final int expected = java.awt.Color.HSBtoRGB(hue / 360f, sv[0], sv[1]) & 0xFFFFFF;
+                assertClose(result, expected, 1);
+            }
+        }
+    }
+
+    @Test
+    public void testToRgb_hueOutOfRange_wrapsAround() {
+        // Arrange + Act + Assert
+        assertThat(Hsv.toRgb(360, 1, 1), is(0xFF0000));
+        assertThat(Hsv.toRgb(-120, 1, 1), is(0x0000FF));
+        assertThat(Hsv.toRgb(480, 1, 1), is(0x00FF00));
+    }
+
+    @Test
+    public void testToRgb_saturationAboveOne_illegalArgumentExceptionThrown() {
+        // Arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("The saturation must be in range [0, 1].");
+
+        // Act + Assert - via rule
+        Hsv.toRgb(0, 1.5f, 1);
+    }
+
+    @Test
+    public void testToRgb8_allHues_closeToFloatConversion() {
+        // Arrange
+        final int[] levels = { 0, 64, 128, 200, 255 };
+
+        for (final int saturation : levels) {
+            for (final int value : levels) {
+                for (int hue = 0; hue < 256; hue++) {
+                    // Act
+                    final int result = Hsv.toRgb8(hue, saturation, value);
+
+                    // Assert
+                    assertClose(result, Hsv.toRgb(hue * 360f / 256, saturation / 255f, value / 255f), 2);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFromRgb_allHues_matchesAwtReference() {
+        // Arrange
+        final float[] hsv = new float[3];
+        final float[] reference = new float[3];
+
+        for (int hue = 0; hue < 360; hue += 7) {
+            final int rgb = java.awt.Color.HSBtoRGB(hue / 360f, 0.8f, 0.9f) & 0xFFFFFF;
+
+            // Act
+            Hsv.fromRgb(rgb, hsv);
+
+            // Assert
+            java.awt.Color.RGBtoHSB(rgb >> 16, (rgb >> 8) & 0xFF, rgb & 0xFF, reference);
+            assertEquals(reference[0] * 360, hsv[0], 0.01);
+            assertEquals(reference[1], hsv[1], 1e-5);
+            assertEquals(reference[2], hsv[2], 1e-5);
+        }
+    }
+
+    @Test
+    public void testFromRgb_roundTrip_sameColor() {
+        // Arrange
+        final float[] hsv = new float[3];
+
+        for (int rgb = 0; rgb <= 0xFFFFFF; rgb += 0x010307) {
+            // Act
+            Hsv.fromRgb(rgb, hsv);
+            final int result = Hsv.toRgb(hsv[0], hsv[1], hsv[2]);
+
+            // Assert
+            assertClose(result, rgb, 1);
+        }
+    }
+
+    static void assertClose(final int actual, final int expected, final int tolerance) {
+        for (int shift = 0; shift <= 16; shift += 8) {
+            final int difference = Math.abs(((actual >> shift) & 0xFF) - ((expected >> shift) & 0xFF));
+            assertTrue(String.format("Expected %06X but was %06X", expected, actual), difference <= tolerance);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package de.matthiasfisch.mysticlight4j.color;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+public class OkLabTest {
+
+    @Test
+    public void testFromRgb_primaries_matchPublishedReferenceValues() {
+        // Arrange
+        final float[] lab = new float[3];
+        final int[] colors = { 0xFFFFFF, 0xFF0000, 0x00FF00, 0x0000FF };
+        final double[][] expected = {
+                { 1.0, 0.0, 0.0 },
+                { 0.627955, 0.224863, 0.125846 },
+                { 0.866440, -0.233888, 0.179498 },
+                { 0.452014, -0.032457, -0.311528 }
+        };
+
+        for (int i = 0; i < colors.length; i++) {
+            // Act
+            OkLab.fromRgb(colors[i], lab);
+
+            // Assert
+            assertEquals(expected[i][0], lab[0], 1e-3);
+            assertEquals(expected[i][1], lab[1], 1e-3);
+            assertEquals(expected[i][2], lab[2], 1e-3);
+        }
+    }
+
+    @Test
+    public void testToRgb_roundTrip_sameColor() {
+        // Arrange
+        final float[] lab = new float[3];
+
+        for (int rgb = 0; rgb <= 0xFFFFFF; rgb += 0x010307) {
+            OkLab.fromRgb(rgb, lab);
+
+            // Act
+            final int exact = OkLab.toRgb(lab[0], lab[1], lab[2]);
+            final int fast = OkLab.toRgbFast(lab[0], lab[1], lab[2]);
+
+            // Assert
+            HsvTest.assertClose(exact, rgb, 1);
+            HsvTest.assertClose(fast, rgb, 1);
+        }
+    }
+
+    @Test
+    public void testMix_endpoints_sameColors() {
+        // Arrange + Act + Assert
+        HsvTest.assertClose(OkLab.mix(0xFF0000, 0x0000FF, 0), 0xFF0000, 1);
+        HsvTest.assertClose(OkLab.mix(0xFF0000, 0x0000FF, 1), 0x0000FF, 1);
+    }
+
+    @Test
+    public void testMix_blackAndWhite_perceptualMidGray() {
+        // Arrange
+
+        // Act
+        final int result = OkLab.mix(0x000000, 0xFFFFFF, 0.5f);
+
+        // Assert - L = 0.5 is the sRGB gray 99, much darker than the arithmetic mean 128 would suggest perceptually
+        final float[] lab = OkLab.fromRgb(result, new float[3]);
+        assertEquals(0.5, lab[0], 0.01);
+        assertThat(result >> 16, is(result & 0xFF));
+    }
+}